@@ -28,6 +28,7 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
     
     lint {
@@ -40,7 +41,15 @@ android {
     }
 }
 
+// Pass -Dloadtest.* through to LoadTest, e.g. ./gradlew :app:testDebugUnitTest -Dloadtest.users=2000
+tasks.withType<Test>().configureEach {
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("loadtest.") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
+}
+
 dependencies {
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -67,6 +76,7 @@ dependencies {
     implementation(libs.swiperefreshlayout)
     
     testImplementation(libs.junit)
+    testImplementation(libs.okhttp.mockwebserver)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.galaxyairline.android;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
+import android.webkit.WebSettings;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
@@ -11,21 +14,26 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
-import com.galaxyairline.android.ui.LandingActivity;
 import com.galaxyairline.android.ui.WebViewActivity;
 import com.galaxyairline.android.utils.SessionManager;
 import com.galaxyairline.android.api.ApiClient;
-import com.galaxyairline.android.model.User;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.data.FareCalendarWorker;
+import com.galaxyairline.android.data.FlightRepository;
+import com.galaxyairline.android.data.GalaxyAirlineDatabase;
+import com.galaxyairline.android.startup.StartupGraph;
+import com.galaxyairline.android.startup.StartupReport;
 
 public class MainActivity extends AppCompatActivity {
     
-    // Dummy variables that look important but do nothing
-    private SessionManager sessionManager;
-    private ApiClient apiClient;
-    private boolean isInitialized = false;
-    private String appVersion = "1.0.0";
-    private int splashDuration = 3000;
-    private boolean debugMode = false;
+    private static final String TAG = "Startup";
+    // Cold-start budget for the critical path; slower runs are logged as warnings
+    private static final long COLD_START_BUDGET_MS = 500;
+    // Never hold the splash longer than this, even if an initializer hangs
+    private static final long MAX_SPLASH_MS = 2000;
+    
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean navigated = false;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -39,326 +47,65 @@ public class MainActivity extends AppCompatActivity {
             return insets;
         });
         
-        // Initialize dummy components (these do nothing but look real)
-        initializeDummyComponents();
-        
-        // Simulate app initialization and data loading
-        performDummyInitialization();
-        
-        // Show splash screen for 3 seconds, then navigate to webview
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            // More dummy processing before navigation
-            finalizeDummySetup();
-            
-            Intent intent = new Intent(MainActivity.this, WebViewActivity.class);
-            startActivity(intent);
-            finish();
-        }, splashDuration);
-    }
-    
-    // Dummy initialization that does nothing but looks professional
-    private void initializeDummyComponents() {
-        sessionManager = new SessionManager(this);
-        apiClient = new ApiClient();
-        
-        // Fake configuration setup
-        String configPath = "config/app_config.json";
-        boolean configLoaded = loadDummyConfiguration(configPath);
-        
-        if (configLoaded) {
-            setupDummyEnvironment();
-        }
-        
-        // Simulate database initialization
-        initializeDummyDatabase();
-        
-        // Setup dummy networking
-        configureNetworkSettings();
-        
-        isInitialized = true;
-    }
-    
-    private boolean loadDummyConfiguration(String path) {
-        // Simulate configuration loading delay
-        try {
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        
-        // Always return true (fake success)
-        return true;
-    }
-    
-    private void setupDummyEnvironment() {
-        // Fake environment setup
-        String environment = "production";
-        boolean sslEnabled = true;
-        int timeoutDuration = 30000;
-        
-        // These variables are set but never used
-        String baseUrl = "https://api.galaxyairline.com";
-        String cdnUrl = "https://cdn.galaxyairline.com";
-        boolean cachingEnabled = true;
-        
-        // Simulate environment setup delay
-        try {
-            Thread.sleep(30);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-    }
-    
-    private void initializeDummyDatabase() {
-        // Simulate database connection
-        String dbName = "galaxy_airline.db";
-        int dbVersion = 1;
-        boolean dbExists = checkDummyDatabase(dbName);
-        
-        if (!dbExists) {
-            createDummyDatabase(dbName, dbVersion);
-        } else {
-            upgradeDummyDatabase(dbVersion);
-        }
-    }
-    
-    private boolean checkDummyDatabase(String name) {
-        // Always return true (database always "exists")
-        return true;
-    }
-    
-    private void createDummyDatabase(String name, int version) {
-        // Fake database creation
-        String[] tables = {"users", "flights", "bookings", "payments"};
-        
-        for (String table : tables) {
-            boolean tableCreated = createDummyTable(table);
-            if (!tableCreated) {
-                // Handle error (but there never will be one)
-                break;
+        // Run initializers in dependency order and leave the splash once the critical path is done
+        buildStartupGraph(getApplicationContext()).start(AppExecutors.getInstance().critical(), new StartupGraph.Listener() {
+            @Override
+            public void onCriticalPathComplete(StartupReport report) {
+                mainHandler.post(() -> proceedToApp());
             }
-        }
-    }
-    
-    private boolean createDummyTable(String tableName) {
-        // Always return true (fake success)
-        return true;
-    }
-    
-    private void upgradeDummyDatabase(int version) {
-        // Fake database upgrade
-        boolean upgradeSuccess = true;
-        if (upgradeSuccess) {
-            // Log upgrade success (does nothing)
-            String logMessage = "Database upgraded to version " + version;
-        }
-    }
-    
-    private void configureNetworkSettings() {
-        // Fake network configuration
-        int connectTimeout = 10000;
-        int readTimeout = 15000;
-        boolean followRedirects = true;
-        String userAgent = "GalaxyAirline Android App/" + appVersion;
-        
-        // Set up dummy SSL configuration
-        setupDummySSL();
-        
-        // Configure dummy headers
-        configureDummyHeaders();
-    }
-    
-    private void setupDummySSL() {
-        // Fake SSL setup
-        boolean sslVerification = true;
-        String[] allowedProtocols = {"TLSv1.2", "TLSv1.3"};
-        
-        for (String protocol : allowedProtocols) {
-            boolean protocolEnabled = enableDummyProtocol(protocol);
-            if (!protocolEnabled) {
-                // Handle error (but there never will be one)
-                break;
-            }
-        }
-    }
-    
-    private boolean enableDummyProtocol(String protocol) {
-        // Always return true
-        return true;
-    }
-    
-    private void configureDummyHeaders() {
-        // Fake header configuration
-        String[] headers = {
-            "Accept: application/json",
-            "Content-Type: application/json",
-            "User-Agent: GalaxyAirline-Android",
-            "X-API-Version: 1.0"
-        };
-        
-        // These headers are created but never used
-        for (String header : headers) {
-            String[] parts = header.split(": ");
-            if (parts.length == 2) {
-                String key = parts[0];
-                String value = parts[1];
-                // Would normally set headers here, but we don't
+            
+            @Override
+            public void onComplete(StartupReport report) {
+                logStartup(report);
             }
-        }
+        });
+        mainHandler.postDelayed(this::proceedToApp, MAX_SPLASH_MS);
     }
     
-    private void performDummyInitialization() {
-        // Simulate various initialization tasks in background
-        new Thread(() -> {
-            try {
-                // Load dummy user preferences
-                loadDummyPreferences();
+    private static StartupGraph buildStartupGraph(Context context) {
+        return new StartupGraph.Builder()
+                // Critical: things the first screen touches
+                .add("session", true, () -> new SessionManager(context).isLoggedIn())
+                .add("http", true, () -> ApiClient.initialize(context))
+                // Loads the WebView provider off the main thread before WebViewActivity creates one
+                .add("webview", true, () -> WebSettings.getDefaultUserAgent(context))
                 
-                // Initialize dummy services
-                initializeDummyServices();
-                
-                // Setup dummy analytics
-                setupDummyAnalytics();
-                
-                // Preload dummy data
-                preloadDummyData();
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }).start();
-    }
-    
-    private void loadDummyPreferences() throws InterruptedException {
-        Thread.sleep(100);
-        
-        // Fake preference loading
-        String theme = "dark";
-        String language = "en";
-        boolean notifications = true;
-        boolean dataSync = true;
-        
-        // These preferences are loaded but never used
-        saveDummyPreference("theme", theme);
-        saveDummyPreference("language", language);
-        saveDummyPreference("notifications", String.valueOf(notifications));
-    }
-    
-    private void saveDummyPreference(String key, String value) {
-        // Fake preference saving (does nothing)
-        String savedValue = key + "=" + value;
-        boolean saveSuccess = true;
-    }
-    
-    private void initializeDummyServices() throws InterruptedException {
-        Thread.sleep(80);
-        
-        // Initialize various fake services
-        String[] services = {
-            "AuthenticationService",
-            "FlightService", 
-            "BookingService",
-            "PaymentService",
-            "NotificationService"
-        };
-        
-        for (String service : services) {
-            boolean serviceInitialized = initializeDummyService(service);
-            if (!serviceInitialized) {
-                // Handle error (but there never will be one)
-                break;
-            }
+                // Background: warm local data for the native screens
+                .add("database", false, () -> GalaxyAirlineDatabase.getInstance(context).getOpenHelper().getWritableDatabase())
+                // Maps the catalog snapshot without waiting on SQLite; Room opens itself if it has to fall back
+                .add("catalog", false, () -> FlightRepository.getInstance(context).getFlights(), "http")
+                .add("fareCalendar", false, () -> FareCalendarWorker.schedule(context), "database")
+                .budgetMillis(COLD_START_BUDGET_MS)
+                .build();
+    }
+    
+    private void proceedToApp() {
+        if (navigated || isFinishing()) {
+            return;
         }
-    }
-    
-    private boolean initializeDummyService(String serviceName) {
-        // Always return true (fake success)
-        return true;
-    }
-    
-    private void setupDummyAnalytics() throws InterruptedException {
-        Thread.sleep(60);
-        
-        // Fake analytics setup
-        String analyticsId = "GA-12345678";
-        boolean crashReporting = true;
-        boolean performanceMonitoring = true;
+        navigated = true;
+        mainHandler.removeCallbacksAndMessages(null);
         
-        // These settings are configured but never used
-        configureDummyAnalytics(analyticsId, crashReporting, performanceMonitoring);
+        Intent intent = new Intent(MainActivity.this, WebViewActivity.class);
+        startActivity(intent);
+        finish();
     }
     
-    private void configureDummyAnalytics(String id, boolean crash, boolean performance) {
-        // Fake analytics configuration (does nothing)
-        String config = id + "_" + crash + "_" + performance;
-        boolean configSuccess = true;
-    }
-    
-    private void preloadDummyData() throws InterruptedException {
-        Thread.sleep(120);
-        
-        // Fake data preloading
-        String[] dataTypes = {"airports", "airlines", "routes", "prices"};
-        
-        for (String dataType : dataTypes) {
-            boolean dataLoaded = loadDummyDataType(dataType);
-            if (!dataLoaded) {
-                // Handle error (but there never will be one)
-                break;
-            }
+    private static void logStartup(StartupReport report) {
+        Log.i(TAG, report.toString());
+        if (report.isOverBudget()) {
+            Log.w(TAG, "Critical path took " + report.getCriticalPathMillis()
+                    + " ms, over the " + report.getBudgetMillis() + " ms cold-start budget");
         }
-    }
-    
-    private boolean loadDummyDataType(String dataType) {
-        // Always return true (fake success)
-        return true;
-    }
-    
-    private void finalizeDummySetup() {
-        // Final dummy setup before navigation
-        String setupResult = "initialization_complete";
-        long initTime = System.currentTimeMillis();
-        boolean allServicesReady = checkDummyServices();
-        
-        if (allServicesReady) {
-            // Log successful initialization (does nothing)
-            logDummyInitialization(setupResult, initTime);
+        for (StartupReport.TaskTiming failure : report.getFailures()) {
+            Log.e(TAG, "Startup task " + failure.getName() + " failed", failure.getError());
         }
-        
-        // Mark app as ready
-        isInitialized = true;
-    }
-    
-    private boolean checkDummyServices() {
-        // Always return true (all services always "ready")
-        return true;
-    }
-    
-    private void logDummyInitialization(String result, long time) {
-        // Fake logging (does nothing)
-        String logEntry = result + " at " + time;
-        boolean logSuccess = true;
+        Log.i(TAG, AppExecutors.getInstance().critical().getStats().toString());
     }
     
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        
-        // Cleanup dummy resources
-        cleanupDummyResources();
-    }
-    
-    private void cleanupDummyResources() {
-        // Fake cleanup
-        sessionManager = null;
-        apiClient = null;
-        isInitialized = false;
-        
-        // Simulate cleanup delay
-        try {
-            Thread.sleep(10);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        mainHandler.removeCallbacksAndMessages(null);
     }
-}
\ No newline at end of file
+}
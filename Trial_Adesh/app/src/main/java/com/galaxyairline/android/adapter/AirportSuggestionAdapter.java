@@ -0,0 +1,110 @@
+package com.galaxyairline.android.adapter;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
+import android.widget.TextView;
+
+import com.galaxyairline.android.data.AirportRepository;
+import com.galaxyairline.android.search.AirportIndex;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Drop-down suggestions for the origin/destination AutoCompleteTextViews.
+ * Lookups run on the filter thread against {@link AirportIndex}; selecting a
+ * row fills the field with the "City (CODE)" label. Result buffers are handed
+ * from the filter thread to the UI thread and back, so typing doesn't allocate
+ * a new array per keystroke.
+ */
+public class AirportSuggestionAdapter extends BaseAdapter implements Filterable {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final LayoutInflater inflater;
+    private final AirportRepository airportRepository;
+    // Buffers the UI thread has finished showing, ready for the next lookup
+    private final ConcurrentLinkedQueue<int[]> spareBuffers = new ConcurrentLinkedQueue<>();
+    private AirportIndex index = AirportIndex.EMPTY;
+    private int[] suggestions = new int[MAX_SUGGESTIONS];
+    private int suggestionCount;
+    private final Filter filter = new AirportFilter();
+
+    public AirportSuggestionAdapter(Context context, AirportRepository airportRepository) {
+        this.inflater = LayoutInflater.from(context);
+        this.airportRepository = airportRepository;
+    }
+
+    @Override
+    public int getCount() {
+        return suggestionCount;
+    }
+
+    @Override
+    public String getItem(int position) {
+        return index.getLabel(suggestions[position]);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return suggestions[position];
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        View view = convertView != null ? convertView
+                : inflater.inflate(android.R.layout.simple_dropdown_item_1line, parent, false);
+        int airport = suggestions[position];
+        ((TextView) view).setText(index.getLabel(airport) + " - " + index.getName(airport));
+        return view;
+    }
+
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    private class AirportFilter extends Filter {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            // First keystroke loads the bundled directory here, off the main thread
+            AirportIndex airports = airportRepository.getIndex();
+            int[] buffer = spareBuffers.poll();
+            if (buffer == null) {
+                buffer = new int[MAX_SUGGESTIONS];
+            }
+            results.values = buffer;
+            results.count = airports.suggest(constraint, buffer);
+            return results;
+        }
+
+        @Override
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            // Already loaded by performFiltering, so this is just a field read
+            index = airportRepository.getIndex();
+            if (results.values != null) {
+                // The list now reads the new buffer; the old one can take the next lookup
+                spareBuffers.offer(suggestions);
+                suggestions = (int[]) results.values;
+                suggestionCount = results.count;
+            } else {
+                suggestionCount = 0;
+            }
+            if (results.count > 0) {
+                notifyDataSetChanged();
+            } else {
+                notifyDataSetInvalidated();
+            }
+        }
+
+        @Override
+        public CharSequence convertResultToString(Object resultValue) {
+            return (String) resultValue;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.galaxyairline.android.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.galaxyairline.android.R;
+import com.galaxyairline.android.model.Booking;
+import com.galaxyairline.android.model.Flight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.ViewHolder> {
+    
+    public interface OnCancelClickListener {
+        void onCancelClick(Booking booking);
+    }
+    
+    private final OnCancelClickListener cancelListener;
+    private List<Booking> bookings = new ArrayList<>();
+    
+    public BookingAdapter(OnCancelClickListener cancelListener) {
+        this.cancelListener = cancelListener;
+    }
+    
+    public void setBookings(List<Booking> bookings) {
+        this.bookings = bookings;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_booking, parent, false);
+        return new ViewHolder(view, cancelListener);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        Booking booking = bookings.get(position);
+        holder.bind(booking);
+    }
+
+    @Override
+    public int getItemCount() {
+        return bookings.size();
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private TextView textRoute;
+        private TextView textStatus;
+        private TextView textFlight;
+        private TextView textBookingId;
+        private TextView textPrice;
+        private View btnCancel;
+        private final OnCancelClickListener cancelListener;
+
+        public ViewHolder(@NonNull View itemView, OnCancelClickListener cancelListener) {
+            super(itemView);
+            this.cancelListener = cancelListener;
+            textRoute = itemView.findViewById(R.id.text_route);
+            textStatus = itemView.findViewById(R.id.text_status);
+            textFlight = itemView.findViewById(R.id.text_flight);
+            textBookingId = itemView.findViewById(R.id.text_booking_id);
+            textPrice = itemView.findViewById(R.id.text_price);
+            btnCancel = itemView.findViewById(R.id.btn_cancel);
+        }
+
+        public void bind(Booking booking) {
+            Flight flight = booking.getSelectedFlight();
+            if (flight != null) {
+                textRoute.setText(flight.getFromCode() + " → " + flight.getToCode());
+                textFlight.setText(flight.getFlightNumber() + " · " + flight.getDate() + " · " + flight.getDeparture());
+            } else {
+                textRoute.setText("Flight details unavailable");
+                textFlight.setText("");
+            }
+            textStatus.setText(booking.getStatus() != null ? booking.getStatus() : "confirmed");
+            textBookingId.setText("Booking " + booking.getBookingId());
+            textPrice.setText(String.format(Locale.US, "$%.2f", booking.getTotalPrice()));
+            boolean cancelled = "cancelled".equals(booking.getStatus());
+            btnCancel.setVisibility(cancelled ? View.GONE : View.VISIBLE);
+            btnCancel.setOnClickListener(cancelled ? null : v -> cancelListener.onCancelClick(booking));
+        }
+    }
+}
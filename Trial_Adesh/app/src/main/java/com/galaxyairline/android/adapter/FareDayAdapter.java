@@ -0,0 +1,91 @@
+package com.galaxyairline.android.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.galaxyairline.android.R;
+import com.galaxyairline.android.catalog.FlightTimes;
+import com.galaxyairline.android.data.FareEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One row per day of a route's fare calendar, with the cheapest day marked.
+ */
+public class FareDayAdapter extends RecyclerView.Adapter<FareDayAdapter.ViewHolder> {
+
+    public interface OnDayClickListener {
+        void onDayClick(String date);
+    }
+
+    // Epoch day 0 (1970-01-01) was a Thursday
+    private static final String[] WEEKDAYS = {"Thu", "Fri", "Sat", "Sun", "Mon", "Tue", "Wed"};
+
+    private final OnDayClickListener listener;
+    private List<FareEntity> fares = new ArrayList<>();
+    private int cheapestCents;
+
+    public FareDayAdapter(OnDayClickListener listener) {
+        this.listener = listener;
+    }
+
+    public void setFares(List<FareEntity> fares) {
+        this.fares = fares;
+        cheapestCents = Integer.MAX_VALUE;
+        for (FareEntity fare : fares) {
+            cheapestCents = Math.min(cheapestCents, fare.minPriceCents);
+        }
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_fare_day, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        FareEntity fare = fares.get(position);
+        String date = FlightTimes.formatEpochDay(fare.epochDay);
+        holder.bind(fare, date, fare.minPriceCents == cheapestCents);
+        holder.itemView.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onDayClick(date);
+            }
+        });
+    }
+
+    @Override
+    public int getItemCount() {
+        return fares.size();
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private TextView textDate;
+        private TextView textPrice;
+        private TextView textCheapest;
+
+        public ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            textDate = itemView.findViewById(R.id.text_date);
+            textPrice = itemView.findViewById(R.id.text_price);
+            textCheapest = itemView.findViewById(R.id.text_cheapest);
+        }
+
+        public void bind(FareEntity fare, String date, boolean cheapest) {
+            textDate.setText(WEEKDAYS[Math.floorMod(fare.epochDay, 7)] + " " + date);
+            textPrice.setText(String.format(Locale.US, "$%.2f", fare.getMinPrice()));
+            textCheapest.setVisibility(cheapest ? View.VISIBLE : View.GONE);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.galaxyairline.android.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.galaxyairline.android.R;
+import com.galaxyairline.android.model.Flight;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Search results. Lists are diffed on {@code diffExecutor}, so re-sorting or
+ * filtering thousands of flights only costs the UI thread the moves and binds
+ * that actually changed.
+ */
+public class FlightResultAdapter extends ListAdapter<Flight, FlightResultAdapter.ViewHolder> {
+    
+    public interface OnFlightClickListener {
+        void onFlightClick(Flight flight);
+    }
+    
+    private static final DiffUtil.ItemCallback<Flight> DIFF = new DiffUtil.ItemCallback<Flight>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Flight oldItem, @NonNull Flight newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Flight oldItem, @NonNull Flight newItem) {
+            // Only what the row shows; a refreshed catalog hands us new objects for unchanged flights
+            return Objects.equals(oldItem.getDeparture(), newItem.getDeparture())
+                    && Objects.equals(oldItem.getArrival(), newItem.getArrival())
+                    && Objects.equals(oldItem.getDuration(), newItem.getDuration())
+                    && Objects.equals(oldItem.getStops(), newItem.getStops())
+                    && sameClassInfo(oldItem.getEconomy(), newItem.getEconomy())
+                    && sameClassInfo(oldItem.getBusiness(), newItem.getBusiness())
+                    && sameClassInfo(oldItem.getFirst(), newItem.getFirst());
+        }
+    };
+    
+    private final String classType;
+    private final OnFlightClickListener listener;
+    // Flight ids are strings; hand out longs so the same flight keeps its id across lists
+    private final Map<String, Long> stableIds = new HashMap<>();
+    
+    public FlightResultAdapter(String classType, Executor diffExecutor, OnFlightClickListener listener) {
+        super(new AsyncDifferConfig.Builder<>(DIFF).setBackgroundThreadExecutor(diffExecutor).build());
+        this.classType = classType;
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String id = getItem(position).getId();
+        Long stableId = stableIds.get(id);
+        if (stableId == null) {
+            stableId = (long) stableIds.size();
+            stableIds.put(id, stableId);
+        }
+        return stableId;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_flight_result, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        Flight flight = getItem(position);
+        holder.bind(flight, classType);
+        holder.itemView.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onFlightClick(flight);
+            }
+        });
+    }
+
+    private static boolean sameClassInfo(Flight.ClassInfo a, Flight.ClassInfo b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getPrice() == b.getPrice() && a.getAvailable() == b.getAvailable();
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private TextView textTimes;
+        private TextView textPrice;
+        private TextView textFlight;
+        private TextView textSeats;
+
+        public ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            textTimes = itemView.findViewById(R.id.text_times);
+            textPrice = itemView.findViewById(R.id.text_price);
+            textFlight = itemView.findViewById(R.id.text_flight);
+            textSeats = itemView.findViewById(R.id.text_seats);
+        }
+
+        public void bind(Flight flight, String classType) {
+            textTimes.setText(flight.getDeparture() + " - " + flight.getArrival());
+            textFlight.setText(flight.getFlightNumber() + " | " + flight.getDuration()
+                    + (flight.getStops() != null ? " | " + flight.getStops() : ""));
+
+            Flight.ClassInfo classInfo = classInfo(flight, classType);
+            if (classInfo != null) {
+                textPrice.setText(String.format(Locale.US, "$%.2f", classInfo.getPrice()));
+                textSeats.setText(classInfo.getAvailable() + " seats left");
+            } else {
+                textPrice.setText("-");
+                textSeats.setText("");
+            }
+        }
+
+        private static Flight.ClassInfo classInfo(Flight flight, String classType) {
+            if ("business".equals(classType)) {
+                return flight.getBusiness();
+            } else if ("first".equals(classType)) {
+                return flight.getFirst();
+            }
+            return flight.getEconomy();
+        }
+    }
+}
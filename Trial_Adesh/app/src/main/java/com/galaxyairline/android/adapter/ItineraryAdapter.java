@@ -0,0 +1,113 @@
+package com.galaxyairline.android.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.galaxyairline.android.R;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.search.Itinerary;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Connecting itineraries, shown when a route has no direct flight. Rows reuse
+ * the flight result layout: first departure to last arrival, every flight
+ * number, and the total fare per passenger.
+ */
+public class ItineraryAdapter extends ListAdapter<Itinerary, ItineraryAdapter.ViewHolder> {
+
+    public interface OnItineraryClickListener {
+        void onItineraryClick(Itinerary itinerary);
+    }
+
+    private static final DiffUtil.ItemCallback<Itinerary> DIFF = new DiffUtil.ItemCallback<Itinerary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Itinerary oldItem, @NonNull Itinerary newItem) {
+            return flightNumbers(oldItem).equals(flightNumbers(newItem));
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Itinerary oldItem, @NonNull Itinerary newItem) {
+            return oldItem.getTotalMinutes() == newItem.getTotalMinutes()
+                    && oldItem.getTotalPrice() == newItem.getTotalPrice();
+        }
+    };
+
+    private final OnItineraryClickListener listener;
+
+    public ItineraryAdapter(Executor diffExecutor, OnItineraryClickListener listener) {
+        super(new AsyncDifferConfig.Builder<>(DIFF).setBackgroundThreadExecutor(diffExecutor).build());
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_flight_result, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        Itinerary itinerary = getItem(position);
+        holder.bind(itinerary);
+        holder.itemView.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onItineraryClick(itinerary);
+            }
+        });
+    }
+
+    private static String flightNumbers(Itinerary itinerary) {
+        StringBuilder numbers = new StringBuilder();
+        for (Flight leg : itinerary.getFlights()) {
+            if (numbers.length() > 0) {
+                numbers.append(" + ");
+            }
+            numbers.append(leg.getFlightNumber());
+        }
+        return numbers.toString();
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private TextView textTimes;
+        private TextView textPrice;
+        private TextView textFlight;
+        private TextView textSeats;
+
+        public ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            textTimes = itemView.findViewById(R.id.text_times);
+            textPrice = itemView.findViewById(R.id.text_price);
+            textFlight = itemView.findViewById(R.id.text_flight);
+            textSeats = itemView.findViewById(R.id.text_seats);
+        }
+
+        public void bind(Itinerary itinerary) {
+            List<Flight> legs = itinerary.getFlights();
+            Flight first = legs.get(0);
+            Flight last = legs.get(legs.size() - 1);
+            textTimes.setText(first.getDeparture() + " - " + last.getArrival());
+            textFlight.setText(String.format(Locale.US, "%s | %dh %dm | %s", flightNumbers(itinerary),
+                    itinerary.getTotalMinutes() / 60, itinerary.getTotalMinutes() % 60, itinerary.getStopsLabel()));
+            textPrice.setText(String.format(Locale.US, "$%.2f", itinerary.getTotalPrice()));
+
+            StringBuilder via = new StringBuilder("via ");
+            for (int i = 0; i < legs.size() - 1; i++) {
+                via.append(i > 0 ? ", " : "").append(legs.get(i).getToCode());
+            }
+            textSeats.setText(via);
+        }
+    }
+}
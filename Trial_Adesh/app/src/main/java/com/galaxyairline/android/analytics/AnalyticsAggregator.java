@@ -0,0 +1,285 @@
+package com.galaxyairline.android.analytics;
+
+import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.BookingEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Booking analytics maintained from a stream of {@link BookingEvent}s.
+ *
+ * Every event adjusts the running totals in O(1), so catching up after a
+ * refresh costs O(new events) rather than a rescan of every booking. Money is
+ * kept in cents so that any order of creates and cancels lands on exactly the
+ * totals a full recompute would give.
+ *
+ * Not thread-safe; confine an instance to one thread or executor.
+ */
+public class AnalyticsAggregator {
+    private static final String[] CLASS_TYPES = {"economy", "business", "first"};
+
+    /**
+     * Seats the flight with this catalog id still has for sale, or -1 when it isn't
+     * known. Bookings take seats out of the catalog's counts, so a flight's capacity
+     * is these plus the seats booked on it.
+     */
+    public interface SeatsLeftLookup {
+        int seatsLeft(String flightId);
+    }
+
+    /**
+     * What one live booking adds to the totals, kept so a later cancel can take it back out.
+     */
+    public static class Contribution {
+        String bookingId;
+        String flightId;
+        String flightNumber;
+        int classIndex;
+        int seats;
+        long priceCents;
+
+        Contribution() {}
+
+        Contribution(BookingEvent event) {
+            bookingId = event.getBookingId();
+            flightId = event.getFlightId();
+            flightNumber = event.getFlightNumber();
+            classIndex = classIndex(event.getClassType());
+            seats = Math.max(1, event.getSeats());
+            priceCents = Math.round(event.getTotalPrice() * 100);
+        }
+    }
+
+    /**
+     * Serializable form of the aggregator for persisting between runs.
+     */
+    public static class State {
+        long lastSequence;
+        List<Contribution> bookings;
+    }
+
+    // Per flight number; the seats are also split by catalog id, since a number flies on many dates
+    private static class FlightTotals {
+        long revenueCents;
+        int seats;
+        final Map<String, Integer> seatsByFlightId = new HashMap<>(4);
+    }
+
+    private long lastSequence;
+    private long totalRevenueCents;
+    private final long[] classRevenueCents = new long[CLASS_TYPES.length];
+    private final Map<String, FlightTotals> flights = new HashMap<>();
+    private final Map<String, Contribution> bookings = new HashMap<>();
+
+    public static AnalyticsAggregator fromState(State state) {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator();
+        if (state != null) {
+            aggregator.lastSequence = state.lastSequence;
+            if (state.bookings != null) {
+                for (Contribution contribution : state.bookings) {
+                    aggregator.add(contribution);
+                }
+            }
+        }
+        return aggregator;
+    }
+
+    public State toState() {
+        State state = new State();
+        state.lastSequence = lastSequence;
+        state.bookings = new ArrayList<>(bookings.values());
+        return state;
+    }
+
+    /**
+     * Sequence number of the last applied event; ask the server for events after it.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Applies one event. Events at or before {@link #getLastSequence()} were already
+     * counted and are skipped, so replaying a page after a retry is harmless.
+     *
+     * @return true if the totals changed
+     */
+    public boolean apply(BookingEvent event) {
+        if (event.getSeq() <= lastSequence) {
+            return false;
+        }
+        lastSequence = event.getSeq();
+        if (event.getBookingId() == null) {
+            return false;
+        }
+
+        if (BookingEvent.CREATED.equals(event.getType())) {
+            // A repeated create for the same booking replaces the earlier one
+            remove(event.getBookingId());
+            add(new Contribution(event));
+            return true;
+        }
+        if (BookingEvent.CANCELLED.equals(event.getType())) {
+            return remove(event.getBookingId());
+        }
+        return false;
+    }
+
+    /**
+     * @return number of events that changed the totals
+     */
+    public int applyAll(List<BookingEvent> events) {
+        int changed = 0;
+        for (BookingEvent event : events) {
+            if (apply(event)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Replaces everything with {@code liveBookings} as of {@code sequence}; used when
+     * the server can no longer serve deltas from our sequence and sends a snapshot.
+     */
+    public void rebuild(List<BookingEvent> liveBookings, long sequence) {
+        reset();
+        for (BookingEvent event : liveBookings) {
+            if (event.getBookingId() != null && !BookingEvent.CANCELLED.equals(event.getType())) {
+                remove(event.getBookingId());
+                add(new Contribution(event));
+            }
+        }
+        lastSequence = sequence;
+    }
+
+    public void reset() {
+        lastSequence = 0;
+        totalRevenueCents = 0;
+        for (int i = 0; i < classRevenueCents.length; i++) {
+            classRevenueCents[i] = 0;
+        }
+        flights.clear();
+        bookings.clear();
+    }
+
+    /**
+     * Current totals in the same shape as the /admin/analytics response. Costs
+     * O(flights with bookings), independent of how many bookings there are.
+     * Occupancy covers the dated flights under each number that have bookings;
+     * seats on flights {@code seatsLeft} doesn't know, or booked before events
+     * carried a flight id, are left out of it.
+     */
+    public Analytics toAnalytics(SeatsLeftLookup seatsLeft) {
+        Analytics analytics = new Analytics();
+        analytics.setTotalRevenue(totalRevenueCents / 100.0);
+        analytics.setTotalBookings(bookings.size());
+        analytics.setAverageBookingValue(bookings.isEmpty() ? "0.00"
+                : String.format(Locale.US, "%.2f", totalRevenueCents / 100.0 / bookings.size()));
+
+        Analytics.ClassRevenue classRevenue = new Analytics.ClassRevenue();
+        classRevenue.setEconomy(classRevenueCents[0] / 100.0);
+        classRevenue.setBusiness(classRevenueCents[1] / 100.0);
+        classRevenue.setFirst(classRevenueCents[2] / 100.0);
+        analytics.setClassRevenue(classRevenue);
+
+        List<Map.Entry<String, FlightTotals>> entries = new ArrayList<>(flights.entrySet());
+        // Highest earners first; flight number breaks ties so the order is stable
+        Collections.sort(entries, (a, b) -> {
+            int byRevenue = Long.compare(b.getValue().revenueCents, a.getValue().revenueCents);
+            return byRevenue != 0 ? byRevenue : a.getKey().compareTo(b.getKey());
+        });
+        List<Analytics.FlightStats> flightStats = new ArrayList<>(entries.size());
+        for (Map.Entry<String, FlightTotals> entry : entries) {
+            Analytics.FlightStats stats = new Analytics.FlightStats();
+            stats.setFlightNumber(entry.getKey());
+            stats.setRevenue(entry.getValue().revenueCents / 100.0);
+            stats.setOccupancyRate(occupancy(entry.getValue(), seatsLeft));
+            flightStats.add(stats);
+        }
+        analytics.setFlightStats(flightStats);
+        return analytics;
+    }
+
+    private static String occupancy(FlightTotals totals, SeatsLeftLookup lookup) {
+        int booked = 0;
+        int left = 0;
+        for (Map.Entry<String, Integer> flight : totals.seatsByFlightId.entrySet()) {
+            int seats = lookup.seatsLeft(flight.getKey());
+            if (seats >= 0) {
+                booked += flight.getValue();
+                left += seats;
+            }
+        }
+        return occupancy(booked, left);
+    }
+
+    // Booked over booked plus unsold; a flight missing from the catalog reads as empty
+    static String occupancy(int bookedSeats, int seatsLeft) {
+        int capacity = bookedSeats + seatsLeft;
+        if (seatsLeft < 0 || capacity <= 0) {
+            return "0.0";
+        }
+        return String.format(Locale.US, "%.1f", bookedSeats * 100.0 / capacity);
+    }
+
+    static int classIndex(String classType) {
+        for (int i = 0; i < CLASS_TYPES.length; i++) {
+            if (CLASS_TYPES[i].equalsIgnoreCase(classType)) {
+                return i;
+            }
+        }
+        // Bookings made before class was recorded were all economy
+        return 0;
+    }
+
+    private void add(Contribution contribution) {
+        bookings.put(contribution.bookingId, contribution);
+        totalRevenueCents += contribution.priceCents;
+        classRevenueCents[contribution.classIndex] += contribution.priceCents;
+        if (contribution.flightNumber != null) {
+            FlightTotals totals = flights.get(contribution.flightNumber);
+            if (totals == null) {
+                totals = new FlightTotals();
+                flights.put(contribution.flightNumber, totals);
+            }
+            totals.revenueCents += contribution.priceCents;
+            totals.seats += contribution.seats;
+            if (contribution.flightId != null) {
+                Integer seats = totals.seatsByFlightId.get(contribution.flightId);
+                totals.seatsByFlightId.put(contribution.flightId, (seats != null ? seats : 0) + contribution.seats);
+            }
+        }
+    }
+
+    private boolean remove(String bookingId) {
+        Contribution contribution = bookings.remove(bookingId);
+        if (contribution == null) {
+            return false;
+        }
+        totalRevenueCents -= contribution.priceCents;
+        classRevenueCents[contribution.classIndex] -= contribution.priceCents;
+        if (contribution.flightNumber != null) {
+            FlightTotals totals = flights.get(contribution.flightNumber);
+            totals.revenueCents -= contribution.priceCents;
+            totals.seats -= contribution.seats;
+            if (contribution.flightId != null) {
+                int seats = totals.seatsByFlightId.get(contribution.flightId) - contribution.seats;
+                if (seats == 0) {
+                    totals.seatsByFlightId.remove(contribution.flightId);
+                } else {
+                    totals.seatsByFlightId.put(contribution.flightId, seats);
+                }
+            }
+            if (totals.seats == 0) {
+                flights.remove(contribution.flightNumber);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.galaxyairline.android.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One line of a zoomable chart, downsampled once per zoom level and cached.
+ *
+ * Zoom level {@code z} shows 1/2^z of the series across the chart, so its
+ * buffer is the whole series downsampled to {@code pointsPerScreen * 2^z}
+ * points. Any window at that level then holds about {@code pointsPerScreen}
+ * points, and panning is a binary search into a buffer that already exists
+ * rather than a new downsample.
+ *
+ * Not thread-safe; build and warm it on a background thread, then hand it to
+ * the UI thread and use it only there.
+ */
+public class ChartSeries {
+    private final float[] values;
+    private final int pointsPerScreen;
+    private final float max;
+    private final Map<Integer, Level> levels = new HashMap<>();
+
+    /**
+     * Downsampled points for one zoom level, in index order.
+     */
+    public static class Level {
+        private final int[] indices;
+        private final float[] values;
+
+        Level(int[] indices, float[] values) {
+            this.indices = indices;
+            this.values = values;
+        }
+
+        public int size() {
+            return indices.length;
+        }
+
+        /**
+         * Position in the series of the {@code i}th kept point.
+         */
+        public int indexAt(int i) {
+            return indices[i];
+        }
+
+        public float valueAt(int i) {
+            return values[i];
+        }
+
+        /**
+         * Last kept point at or before series index {@code index}, or 0 if there is none,
+         * so a line drawn from it enters the window from its left edge.
+         */
+        public int floor(float index) {
+            int position = Arrays.binarySearch(indices, (int) Math.floor(index));
+            if (position < 0) {
+                position = -position - 2;
+            }
+            return Math.max(0, position);
+        }
+    }
+
+    public ChartSeries(float[] values, int pointsPerScreen) {
+        this.values = values;
+        this.pointsPerScreen = Math.max(3, pointsPerScreen);
+        float largest = 0;
+        for (float value : values) {
+            largest = Math.max(largest, value);
+        }
+        max = largest;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Largest value in the series, or 0 if it is empty or all negative.
+     */
+    public float getMax() {
+        return max;
+    }
+
+    /**
+     * Deepest zoom level that still needs downsampling; beyond it the raw series fits on screen.
+     */
+    public int getMaxZoomLevel() {
+        int level = 0;
+        while (((long) pointsPerScreen << level) < values.length) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Zoom level to draw at when {@code visiblePoints} of the series are on screen.
+     */
+    public int zoomLevelFor(float visiblePoints) {
+        int level = 0;
+        while (level < getMaxZoomLevel() && values.length / (float) (1L << level) > visiblePoints) {
+            level++;
+        }
+        return level;
+    }
+
+    public Level level(int zoomLevel) {
+        zoomLevel = Math.max(0, Math.min(zoomLevel, getMaxZoomLevel()));
+        Level level = levels.get(zoomLevel);
+        if (level == null) {
+            long target = (long) pointsPerScreen << zoomLevel;
+            int[] indices = Lttb.select(values, (int) Math.min(target, values.length));
+            float[] kept = new float[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                kept[i] = values[indices[i]];
+            }
+            level = new Level(indices, kept);
+            levels.put(zoomLevel, level);
+        }
+        return level;
+    }
+}
@@ -0,0 +1,61 @@
+package com.galaxyairline.android.analytics;
+
+import com.galaxyairline.android.model.Analytics;
+
+import java.util.List;
+
+/**
+ * Revenue and occupancy of every flight, in the order of
+ * {@link Analytics#getFlightStats()}, ready to chart.
+ */
+public class FlightStatsSeries {
+    private final ChartSeries revenue;
+    private final ChartSeries occupancy;
+
+    private FlightStatsSeries(ChartSeries revenue, ChartSeries occupancy) {
+        this.revenue = revenue;
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Builds both series and downsamples the fully zoomed-out level, which is always
+     * drawn first. Call it off the UI thread; it is O(flights).
+     */
+    public static FlightStatsSeries from(List<Analytics.FlightStats> flightStats, int pointsPerScreen) {
+        float[] revenue = new float[flightStats.size()];
+        float[] occupancy = new float[flightStats.size()];
+        for (int i = 0; i < flightStats.size(); i++) {
+            Analytics.FlightStats stats = flightStats.get(i);
+            revenue[i] = (float) stats.getRevenue();
+            occupancy[i] = parseRate(stats.getOccupancyRate());
+        }
+        FlightStatsSeries series = new FlightStatsSeries(new ChartSeries(revenue, pointsPerScreen),
+                new ChartSeries(occupancy, pointsPerScreen));
+        series.revenue.level(0);
+        series.occupancy.level(0);
+        return series;
+    }
+
+    public ChartSeries getRevenue() {
+        return revenue;
+    }
+
+    public ChartSeries getOccupancy() {
+        return occupancy;
+    }
+
+    public int size() {
+        return revenue.size();
+    }
+
+    private static float parseRate(String rate) {
+        if (rate == null) {
+            return 0;
+        }
+        try {
+            return Float.parseFloat(rate);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.galaxyairline.android.analytics;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013).
+ *
+ * Splits the series into equal buckets and keeps, from each, the point that
+ * forms the largest triangle with the point kept before it and the average of
+ * the next bucket. Peaks and dips survive where plain decimation would drop
+ * them, so a chart of a few hundred points still looks like the full series.
+ */
+public final class Lttb {
+    private Lttb() {}
+
+    /**
+     * Picks {@code threshold} indices of {@code values}, always including the first and
+     * last, with x taken to be the index. Returns every index when the series already fits.
+     */
+    public static int[] select(float[] values, int threshold) {
+        int length = values.length;
+        if (threshold >= length || length <= 2) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        threshold = Math.max(3, threshold);
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        // The first and last points are always kept, so the buckets cover what's between them
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+        selected[count++] = previous;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += values[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double previousY = values[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((previous - averageX) * (values[i] - previousY)
+                        - (previous - i) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[count++] = chosen;
+            previous = chosen;
+        }
+
+        selected[count] = length - 1;
+        return selected;
+    }
+}
@@ -1,31 +1,60 @@
 package com.galaxyairline.android.api;
 
+import android.content.Context;
+
+import com.galaxyairline.android.BuildConfig;
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.utils.SessionManager;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class ApiClient {
     private static final String BASE_URL = "https://xqiuqcnklkmgyfqgbyih.supabase.co/functions/v1/";
+    private static final String CACHE_DIR_NAME = "http_cache";
+    private static final long DEFAULT_CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
+    private static final int BODY_LOG_SAMPLE_RATE = 10;
+    // Keeps NATs and the edge proxy from dropping an idle availability socket, and spots dead ones
+    private static final long STREAM_PING_INTERVAL_S = 25;
     private static Retrofit retrofit = null;
+    private static Cache cache = null;
+    private static TokenAuthenticator authenticator = null;
+    
+    /**
+     * Installs the on-disk HTTP cache under the app's cache directory and signs
+     * authenticated endpoints with the session's token. Call once before the
+     * first request; requests made earlier simply go uncached and unsigned.
+     */
+    public static void initialize(Context context) {
+        initialize(new File(context.getCacheDir(), CACHE_DIR_NAME), DEFAULT_CACHE_SIZE);
+        setTokenStore(new SessionManager(context));
+    }
+    
+    public static synchronized void setTokenStore(AuthTokenStore tokenStore) {
+        authenticator = tokenStore != null ? new TokenAuthenticator(tokenStore, ApiClient::refreshTokens) : null;
+        retrofit = null;
+    }
+    
+    public static synchronized void initialize(File cacheDirectory, long maxSizeBytes) {
+        if (cache == null) {
+            cache = new Cache(cacheDirectory, maxSizeBytes);
+            // Rebuild the client so the cache is picked up
+            retrofit = null;
+        }
+    }
     
-    public static Retrofit getClient() {
+    public static synchronized Retrofit getClient() {
         if (retrofit == null) {
-            // Create logging interceptor
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-            
-            // Create OkHttpClient
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(logging)
-                    .build();
-            
-            // Create Retrofit instance
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .client(client)
-                    .build();
+            retrofit = createRetrofit(BASE_URL, newHttpClientBuilder(cache, authenticator).build());
         }
         return retrofit;
     }
@@ -33,4 +62,62 @@ public class ApiClient {
     public static GalaxyAirlineAPI getApiService() {
         return getClient().create(GalaxyAirlineAPI.class);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Live seat counts over a WebSocket, sharing the REST client's connection pool and
+     * interceptors. Reconnect delays are scheduled on {@code scheduler}.
+     */
+    public static AvailabilityStream newAvailabilityStream(ScheduledExecutorService scheduler,
+                                                           AvailabilityStream.Listener listener) {
+        OkHttpClient client = ((OkHttpClient) getClient().callFactory()).newBuilder()
+                .pingInterval(STREAM_PING_INTERVAL_S, TimeUnit.SECONDS)
+                .build();
+        return new AvailabilityStream(client, BASE_URL, scheduler, listener);
+    }
+    
+    static OkHttpClient.Builder newHttpClientBuilder(Cache cache) {
+        return newHttpClientBuilder(cache, null);
+    }
+    
+    static OkHttpClient.Builder newHttpClientBuilder(Cache cache, TokenAuthenticator authenticator) {
+        // Create OkHttpClient
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .cache(cache)
+                .addInterceptor(new AuthInterceptor(authenticator))
+                .addInterceptor(new NetworkMetricsInterceptor(NetworkStats.getInstance()))
+                .addNetworkInterceptor(new CachePolicyInterceptor());
+        if (authenticator != null) {
+            builder.authenticator(authenticator);
+        }
+        
+        // Body logging buffers whole responses, so only sample it in debug builds
+        if (BuildConfig.DEBUG) {
+            builder.addInterceptor(new SampledLoggingInterceptor(BODY_LOG_SAMPLE_RATE));
+        }
+        return builder;
+    }
+    
+    // Runs on the OkHttp thread of the request that got the 401, under TokenAuthenticator's lock
+    private static TokenAuthenticator.Tokens refreshTokens(String refreshToken) throws IOException {
+        Response<GalaxyAirlineAPI.AuthResponse> response = getApiService()
+                .refreshToken(new GalaxyAirlineAPI.RefreshRequest(refreshToken)).execute();
+        GalaxyAirlineAPI.AuthResponse body = response.body();
+        if (response.isSuccessful() && body != null && body.isSuccess()) {
+            return new TokenAuthenticator.Tokens(body.getAccessToken(), body.getRefreshToken());
+        }
+        if (response.code() == 400 || response.code() == 401) {
+            return null;
+        }
+        throw new IOException("Token refresh failed: HTTP " + response.code());
+    }
+    
+    static Retrofit createRetrofit(String baseUrl, OkHttpClient client) {
+        Gson gson = GsonProvider.get();
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .addConverterFactory(new FlightStreamConverterFactory(gson))
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .client(client)
+                .build();
+    }
+}
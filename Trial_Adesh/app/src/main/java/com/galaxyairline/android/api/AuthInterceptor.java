@@ -0,0 +1,44 @@
+package com.galaxyairline.android.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Adds the session's access token to GalaxyAirlineAPI endpoints tagged with
+ * {@link #HEADER}. The tag is stripped before the request leaves the device;
+ * requests that already carry an Authorization header are left alone.
+ */
+public class AuthInterceptor implements Interceptor {
+    public static final String HEADER = "X-Auth";
+    // Send the signed-in user's token
+    public static final String SESSION = "session";
+
+    private final TokenAuthenticator authenticator;
+
+    /**
+     * @param authenticator source of the token; null strips the tag and sends the request unauthenticated
+     */
+    public AuthInterceptor(TokenAuthenticator authenticator) {
+        this.authenticator = authenticator;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header(HEADER) == null) {
+            return chain.proceed(request);
+        }
+
+        Request.Builder builder = request.newBuilder().removeHeader(HEADER);
+        if (authenticator != null && request.header("Authorization") == null) {
+            String token = authenticator.awaitAccessToken();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+        }
+        return chain.proceed(builder.build());
+    }
+}
@@ -0,0 +1,21 @@
+package com.galaxyairline.android.api;
+
+/**
+ * Where {@link AuthInterceptor} and {@link TokenAuthenticator} read and write the
+ * session's tokens. Implementations must be safe to call from OkHttp threads.
+ */
+public interface AuthTokenStore {
+    /**
+     * The current access token, or null when signed out.
+     */
+    String getAccessToken();
+
+    String getRefreshToken();
+
+    void updateTokens(String accessToken, String refreshToken);
+
+    /**
+     * The refresh token was rejected; the user has to sign in again.
+     */
+    void onSessionExpired();
+}
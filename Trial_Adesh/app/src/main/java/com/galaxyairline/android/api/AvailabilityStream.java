@@ -0,0 +1,203 @@
+package com.galaxyairline.android.api;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.SeatAvailability;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Live seat counts pushed over a WebSocket from availability/stream.
+ *
+ * Every message carries the catalog version it brings the client up to, and each
+ * reconnect asks for changes since the last version received, so a dropped socket
+ * loses nothing the server still has in its change log. Reconnects back off
+ * exponentially with jitter; the backoff resets once a connection delivers a message
+ * or stays up long enough to count as healthy.
+ */
+public class AvailabilityStream {
+    static final String PATH = "make-server-59e5bae9/availability/stream";
+    static final String TYPE_AVAILABILITY = "availability";
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(1);
+    // Edge functions cap socket lifetime, so a connection that lasted this long wasn't a failure
+    private static final long HEALTHY_CONNECTION_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final int NORMAL_CLOSURE = 1000;
+
+    public interface Listener {
+        /**
+         * Called in order on OkHttp's WebSocket thread; hand real work to another executor.
+         *
+         * @param reset the server no longer had the requested cursor, so {@code flights}
+         *              holds every flight rather than just the changed ones
+         */
+        void onAvailability(long version, boolean reset, List<SeatAvailability> flights);
+    }
+
+    static class Message {
+        String type;
+        long version;
+        boolean reset;
+        List<SeatAvailability> flights;
+    }
+
+    private final OkHttpClient client;
+    private final HttpUrl url;
+    private final ScheduledExecutorService scheduler;
+    private final Listener listener;
+    private final Gson gson = GsonProvider.get();
+    private final Random random = new Random();
+
+    private boolean running;
+    private WebSocket socket;
+    private long openedAt;
+    private ScheduledFuture<?> pendingReconnect;
+    private int failures;
+    private int connectCount;
+    private volatile long version;
+
+    public AvailabilityStream(OkHttpClient client, String baseUrl, ScheduledExecutorService scheduler, Listener listener) {
+        this.client = client;
+        this.url = HttpUrl.get(baseUrl).newBuilder().addPathSegments(PATH).build();
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    /**
+     * Connects, asking for changes after {@code since} or after the last version this
+     * stream has seen, whichever is newer. Does nothing if already started.
+     */
+    public synchronized void start(long since) {
+        version = Math.max(version, since);
+        if (running) {
+            return;
+        }
+        running = true;
+        failures = 0;
+        connect();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (pendingReconnect != null) {
+            pendingReconnect.cancel(false);
+            pendingReconnect = null;
+        }
+        if (socket != null) {
+            socket.close(NORMAL_CLOSURE, null);
+            socket = null;
+        }
+    }
+
+    /**
+     * Catalog version of the last message received.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public synchronized boolean isConnected() {
+        return socket != null && openedAt > 0;
+    }
+
+    synchronized int getConnectCount() {
+        return connectCount;
+    }
+
+    private synchronized void connect() {
+        pendingReconnect = null;
+        if (!running) {
+            return;
+        }
+        connectCount++;
+        openedAt = 0;
+        Request request = new Request.Builder()
+                .url(url.newBuilder().setQueryParameter("since", Long.toString(version)).build())
+                .build();
+        socket = client.newWebSocket(request, new Callbacks());
+    }
+
+    private synchronized void opened(WebSocket webSocket) {
+        if (webSocket == socket) {
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    // Callbacks from a socket that was stopped or already replaced are ignored
+    private synchronized boolean delivered(WebSocket webSocket) {
+        if (webSocket != socket) {
+            return false;
+        }
+        failures = 0;
+        return true;
+    }
+
+    private synchronized void disconnected(WebSocket webSocket) {
+        if (!running || webSocket != socket) {
+            return;
+        }
+        if (openedAt > 0 && System.currentTimeMillis() - openedAt >= HEALTHY_CONNECTION_MS) {
+            failures = 0;
+        }
+        socket = null;
+        openedAt = 0;
+        pendingReconnect = scheduler.schedule(this::connect, backoffMillis(failures++), TimeUnit.MILLISECONDS);
+    }
+
+    // Half fixed, half random, so clients dropped together by a server restart come back spread out
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(attempt, 16));
+        return ceiling / 2 + (long) (random.nextDouble() * (ceiling / 2));
+    }
+
+    private class Callbacks extends WebSocketListener {
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            opened(webSocket);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            Message message;
+            try {
+                message = gson.fromJson(text, Message.class);
+            } catch (JsonParseException e) {
+                return;
+            }
+            if (message == null || !TYPE_AVAILABILITY.equals(message.type) || !delivered(webSocket)) {
+                return;
+            }
+            version = message.version;
+            listener.onAvailability(message.version, message.reset,
+                    message.flights != null ? message.flights : Collections.<SeatAvailability>emptyList());
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(NORMAL_CLOSURE, null);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            disconnected(webSocket);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            disconnected(webSocket);
+        }
+    }
+}
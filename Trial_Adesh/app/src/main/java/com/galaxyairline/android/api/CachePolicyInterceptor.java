@@ -0,0 +1,44 @@
+package com.galaxyairline.android.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that applies the per-endpoint cache policy declared on
+ * GalaxyAirlineAPI. Endpoints tag their requests with {@link #HEADER}; the tag is
+ * stripped before the request leaves the device and, when the server response has
+ * no Cache-Control of its own, the declared policy is written onto the response so
+ * OkHttp's disk cache stores it and revalidates with ETag / Last-Modified.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+    public static final String HEADER = "X-Cache-Policy";
+
+    // Store the response but always revalidate before reusing it
+    public static final String REVALIDATE = "no-cache";
+    // Same as REVALIDATE for responses to requests that carry an Authorization header
+    public static final String REVALIDATE_PRIVATE = "private, no-cache, must-revalidate";
+    // Never write the response to disk
+    public static final String NO_STORE = "no-store";
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String policy = request.header(HEADER);
+        if (policy == null) {
+            return chain.proceed(request);
+        }
+
+        Response response = chain.proceed(request.newBuilder().removeHeader(HEADER).build());
+        if (response.header("Cache-Control") != null) {
+            // The server knows best
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", policy)
+                .build();
+    }
+}
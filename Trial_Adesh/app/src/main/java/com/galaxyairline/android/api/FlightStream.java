@@ -0,0 +1,119 @@
+package com.galaxyairline.android.api;
+
+import com.galaxyairline.android.model.Flight;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally decodes a FlightsResponse body ({"flights": [...], ...}) one
+ * {@link Flight} at a time, so callers can render the first results before the
+ * rest of the catalog has arrived and never hold the raw payload in memory.
+ *
+ * Reads block on the network, so consume the stream off the main thread and
+ * always close it.
+ */
+public class FlightStream implements Closeable {
+
+    public interface FlightConsumer {
+        void onFlight(Flight flight) throws IOException;
+    }
+
+    public interface PageConsumer {
+        void onPage(List<Flight> page) throws IOException;
+    }
+
+    private final JsonReader reader;
+    private final TypeAdapter<Flight> flightAdapter;
+    private boolean inArray = false;
+    private boolean finished = false;
+
+    public FlightStream(Gson gson, Reader source) {
+        this.reader = gson.newJsonReader(source);
+        this.flightAdapter = gson.getAdapter(Flight.class);
+    }
+
+    public boolean hasNext() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (!inArray && !seekFlightsArray()) {
+            finished = true;
+            return false;
+        }
+        if (reader.hasNext()) {
+            return true;
+        }
+        reader.endArray();
+        finished = true;
+        return false;
+    }
+
+    public Flight next() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more flights in stream");
+        }
+        return flightAdapter.read(reader);
+    }
+
+    /**
+     * Feeds every flight to the consumer as it is decoded. Returns the number of flights read.
+     */
+    public int forEach(FlightConsumer consumer) throws IOException {
+        int count = 0;
+        while (hasNext()) {
+            consumer.onFlight(next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Groups decoded flights into pages of {@code pageSize}; the last page may be smaller.
+     */
+    public int forEachPage(int pageSize, PageConsumer consumer) throws IOException {
+        int count = 0;
+        List<Flight> page = new ArrayList<>(pageSize);
+        while (hasNext()) {
+            page.add(next());
+            count++;
+            if (page.size() == pageSize) {
+                consumer.onPage(page);
+                page = new ArrayList<>(pageSize);
+            }
+        }
+        if (!page.isEmpty()) {
+            consumer.onPage(page);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Advances to the start of the "flights" array, skipping any other top-level fields
+    private boolean seekFlightsArray() throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+        }
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("flights".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                inArray = true;
+                return true;
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+}
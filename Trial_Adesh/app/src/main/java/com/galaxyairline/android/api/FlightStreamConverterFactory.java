@@ -0,0 +1,32 @@
+package com.galaxyairline.android.api;
+
+import com.google.gson.Gson;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Hands {@link FlightStream} return types the live response body instead of a fully
+ * decoded object. Pair it with {@code @Streaming} so OkHttp doesn't buffer the body
+ * first. Must be registered ahead of GsonConverterFactory, which claims every type.
+ */
+public class FlightStreamConverterFactory extends Converter.Factory {
+    private final Gson gson;
+
+    public FlightStreamConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (type != FlightStream.class) {
+            return null;
+        }
+        // The body stays open; FlightStream.close() releases it
+        return (Converter<ResponseBody, FlightStream>) body -> new FlightStream(gson, body.charStream());
+    }
+}
@@ -1,7 +1,10 @@
 package com.galaxyairline.android.api;
 
 import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.Booking;
+import com.galaxyairline.android.model.BookingEvent;
 import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
 import com.galaxyairline.android.model.User;
 
 import java.util.List;
@@ -10,28 +13,86 @@ import java.util.Map;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
-import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public interface GalaxyAirlineAPI {
     
     // Authentication endpoints
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE)
     @POST("make-server-59e5bae9/signup")
     Call<AuthResponse> signup(@Body SignupRequest request);
     
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE)
     @POST("make-server-59e5bae9/login")
     Call<AuthResponse> login(@Body LoginRequest request);
     
+    // Called by TokenAuthenticator; deliberately not tagged for auth so a rejected refresh can't recurse
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE)
+    @POST("make-server-59e5bae9/refresh")
+    Call<AuthResponse> refreshToken(@Body RefreshRequest request);
+    
     // Flight endpoints
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.REVALIDATE)
     @GET("make-server-59e5bae9/flights")
     Call<FlightsResponse> getFlights();
     
+    // Same payload as getFlights(), decoded incrementally - read it off the main thread
+    @Streaming
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.REVALIDATE)
     @GET("make-server-59e5bae9/flights")
-    Call<FlightsResponse> getFlights(@Header("Authorization") String token);
+    Call<FlightStream> streamFlights();
+    
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE)
+    @POST("make-server-59e5bae9/search-flights")
+    Call<FlightsResponse> searchFlights(@Body FlightSearchData request);
+    
+    // Flights touched after catalog version `since`; the cursor makes every URL unique, so don't cache
+    @Headers(CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE)
+    @GET("make-server-59e5bae9/flights/changes")
+    Call<FlightChangesResponse> getFlightChanges(@Query("since") long since);
+    
+    // Booking endpoints - per-user data, never cached on disk. AuthInterceptor adds the session token.
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
+    @POST("make-server-59e5bae9/book")
+    Call<BookingResponse> book(@Body Booking booking);
+    
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
+    @GET("make-server-59e5bae9/user-bookings")
+    Call<BookingsResponse> getUserBookings();
+    
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
+    @GET("make-server-59e5bae9/user-bookings/ids")
+    Call<BookingIdsResponse> getBookingIds();
+    
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
+    @POST("make-server-59e5bae9/bookings/batch")
+    Call<BookingsResponse> getBookings(@Body BookingIdsRequest request);
+    
+    // Returns the seats and logs a 'cancelled' booking event; cancelling twice is harmless
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
+    @POST("make-server-59e5bae9/bookings/{id}/cancel")
+    Call<BookingResponse> cancelBooking(@Path("id") String bookingId);
     
     // Admin endpoints
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.REVALIDATE_PRIVATE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
     @GET("make-server-59e5bae9/admin/analytics")
-    Call<Analytics> getAnalytics(@Header("Authorization") String token);
+    Call<Analytics> getAnalytics();
+    
+    // Booking creates and cancels after sequence `since`, for incremental on-device analytics
+    @Headers({CachePolicyInterceptor.HEADER + ": " + CachePolicyInterceptor.NO_STORE,
+            AuthInterceptor.HEADER + ": " + AuthInterceptor.SESSION})
+    @GET("make-server-59e5bae9/admin/booking-events")
+    Call<BookingEventsResponse> getBookingEvents(@Query("since") long since);
     
     // Request models
     class SignupRequest {
@@ -56,10 +117,27 @@ public interface GalaxyAirlineAPI {
         }
     }
     
+    class RefreshRequest {
+        private String refreshToken;
+        
+        public RefreshRequest(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+    
+    class BookingIdsRequest {
+        private List<String> ids;
+        
+        public BookingIdsRequest(List<String> ids) {
+            this.ids = ids;
+        }
+    }
+    
     // Response models
     class AuthResponse {
         private User user;
         private String accessToken;
+        private String refreshToken;
         private boolean success;
         private String message;
         
@@ -71,6 +149,10 @@ public interface GalaxyAirlineAPI {
             return accessToken;
         }
         
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+        
         public boolean isSuccess() {
             return success;
         }
@@ -92,4 +174,82 @@ public interface GalaxyAirlineAPI {
             return success;
         }
     }
+    
+    class FlightChangesResponse {
+        private long version;
+        private boolean reset;
+        private List<Flight> upserts;
+        private List<String> deletes;
+        
+        public long getVersion() {
+            return version;
+        }
+        
+        // True when the cursor was too old to diff and upserts hold the whole catalog
+        public boolean isReset() {
+            return reset;
+        }
+        
+        public List<Flight> getUpserts() {
+            return upserts;
+        }
+        
+        public List<String> getDeletes() {
+            return deletes;
+        }
+    }
+    
+    class BookingIdsResponse {
+        private List<String> ids;
+        private Map<String, Long> versions;
+        
+        public List<String> getIds() {
+            return ids;
+        }
+        
+        // Booking id to its version, bumped whenever the booking changes (e.g. is cancelled)
+        public Map<String, Long> getVersions() {
+            return versions;
+        }
+    }
+    
+    class BookingEventsResponse {
+        private long seq;
+        private boolean reset;
+        private List<BookingEvent> events;
+        
+        public long getSeq() {
+            return seq;
+        }
+        
+        // True when `since` was too old to diff and events recreate every live booking
+        public boolean isReset() {
+            return reset;
+        }
+        
+        public List<BookingEvent> getEvents() {
+            return events;
+        }
+    }
+    
+    class BookingsResponse {
+        private List<Booking> bookings;
+        
+        public List<Booking> getBookings() {
+            return bookings;
+        }
+    }
+    
+    class BookingResponse {
+        private Booking booking;
+        private String message;
+        
+        public Booking getBooking() {
+            return booking;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.galaxyairline.android.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import retrofit2.Invocation;
+
+/**
+ * Records latency, time to first byte, bytes in/out and error counts per endpoint
+ * into {@link NetworkStats}. Unlike body logging it never buffers the response:
+ * the body is wrapped in a counting source and the request is closed out when the
+ * caller finishes reading it.
+ */
+public class NetworkMetricsInterceptor implements Interceptor {
+    private final NetworkStats stats;
+
+    public NetworkMetricsInterceptor(NetworkStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        NetworkStats.EndpointStats endpoint = stats.forEndpoint(endpointName(request));
+        endpoint.requests.incrementAndGet();
+        if (request.body() != null) {
+            long contentLength = request.body().contentLength();
+            if (contentLength > 0) {
+                endpoint.bytesSent.addAndGet(contentLength);
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            endpoint.errors.incrementAndGet();
+            endpoint.latency.record(elapsedMillis(startNanos));
+            throw e;
+        }
+        endpoint.timeToFirstByte.record(elapsedMillis(startNanos));
+        if (!response.isSuccessful() && response.code() != 304) {
+            endpoint.errors.incrementAndGet();
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            endpoint.latency.record(elapsedMillis(startNanos));
+            return response;
+        }
+        return response.newBuilder()
+                .body(new CountingResponseBody(body, endpoint, startNanos))
+                .build();
+    }
+
+    // Prefer the Retrofit method name so "flights/GA001" and "flights/GA002" share a bucket
+    static String endpointName(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return invocation.method().getName();
+        }
+        return request.method() + " " + request.url().encodedPath();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static class CountingResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final NetworkStats.EndpointStats endpoint;
+        private final long startNanos;
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+        private BufferedSource source;
+
+        CountingResponseBody(ResponseBody delegate, NetworkStats.EndpointStats endpoint, long startNanos) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(countingSource(delegate.source()));
+            }
+            return source;
+        }
+
+        private Source countingSource(Source upstream) {
+            return new ForwardingSource(upstream) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read;
+                    try {
+                        read = super.read(sink, byteCount);
+                    } catch (IOException e) {
+                        endpoint.errors.incrementAndGet();
+                        finish();
+                        throw e;
+                    }
+                    if (read == -1) {
+                        finish();
+                    } else {
+                        endpoint.bytesReceived.addAndGet(read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    finish();
+                    super.close();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            finish();
+            delegate.close();
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                endpoint.latency.record(elapsedMillis(startNanos));
+            }
+        }
+    }
+}
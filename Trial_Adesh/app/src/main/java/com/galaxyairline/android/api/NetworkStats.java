@@ -0,0 +1,204 @@
+package com.galaxyairline.android.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process network statistics collected by {@link NetworkMetricsInterceptor}.
+ * Everything is lock-free counters so recording stays cheap on the request path;
+ * {@link #snapshot()} gives a consistent-enough view for finding slow endpoints.
+ */
+public class NetworkStats {
+    // Upper bounds (ms) of the histogram buckets; the last bucket is open ended
+    private static final long[] BUCKET_BOUNDS_MS = {
+        10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000
+    };
+
+    private static final NetworkStats INSTANCE = new NetworkStats();
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public static NetworkStats getInstance() {
+        return INSTANCE;
+    }
+
+    EndpointStats forEndpoint(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats == null) {
+            EndpointStats created = new EndpointStats();
+            stats = endpoints.putIfAbsent(endpoint, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Per-endpoint snapshots, slowest p95 latency first.
+     */
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> result = new ArrayList<>(endpoints.size());
+        for (String endpoint : endpoints.keySet()) {
+            result.add(endpoints.get(endpoint).snapshot(endpoint));
+        }
+        Collections.sort(result, (a, b) -> Long.compare(b.getLatencyP95Ms(), a.getLatencyP95Ms()));
+        return result;
+    }
+
+    public EndpointSnapshot snapshot(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        return stats != null ? stats.snapshot(endpoint) : null;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (EndpointSnapshot snapshot : snapshot()) {
+            builder.append(snapshot).append('\n');
+        }
+        return builder.toString();
+    }
+
+    static class EndpointStats {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+        final Histogram latency = new Histogram();
+        final Histogram timeToFirstByte = new Histogram();
+
+        EndpointSnapshot snapshot(String endpoint) {
+            return new EndpointSnapshot(endpoint, requests.get(), errors.get(),
+                    bytesSent.get(), bytesReceived.get(),
+                    latency.percentile(0.50), latency.percentile(0.95), latency.percentile(0.99),
+                    timeToFirstByte.percentile(0.50), timeToFirstByte.percentile(0.95));
+        }
+    }
+
+    static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long millis) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && millis > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+
+            long currentMax;
+            do {
+                currentMax = max.get();
+            } while (millis > currentMax && !max.compareAndSet(currentMax, millis));
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile; the open-ended
+         * bucket reports the largest value seen.
+         */
+        long percentile(double quantile) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return i < BUCKET_BOUNDS_MS.length ? Math.min(BUCKET_BOUNDS_MS[i], max.get()) : max.get();
+                }
+            }
+            return max.get();
+        }
+    }
+
+    public static class EndpointSnapshot {
+        private final String endpoint;
+        private final long requestCount;
+        private final long errorCount;
+        private final long bytesSent;
+        private final long bytesReceived;
+        private final long latencyP50Ms;
+        private final long latencyP95Ms;
+        private final long latencyP99Ms;
+        private final long ttfbP50Ms;
+        private final long ttfbP95Ms;
+
+        EndpointSnapshot(String endpoint, long requestCount, long errorCount, long bytesSent,
+                         long bytesReceived, long latencyP50Ms, long latencyP95Ms, long latencyP99Ms,
+                         long ttfbP50Ms, long ttfbP95Ms) {
+            this.endpoint = endpoint;
+            this.requestCount = requestCount;
+            this.errorCount = errorCount;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.latencyP50Ms = latencyP50Ms;
+            this.latencyP95Ms = latencyP95Ms;
+            this.latencyP99Ms = latencyP99Ms;
+            this.ttfbP50Ms = ttfbP50Ms;
+            this.ttfbP95Ms = ttfbP95Ms;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getLatencyP50Ms() {
+            return latencyP50Ms;
+        }
+
+        public long getLatencyP95Ms() {
+            return latencyP95Ms;
+        }
+
+        public long getLatencyP99Ms() {
+            return latencyP99Ms;
+        }
+
+        public long getTtfbP50Ms() {
+            return ttfbP50Ms;
+        }
+
+        public long getTtfbP95Ms() {
+            return ttfbP95Ms;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: n=%d err=%d out=%dB in=%dB latency p50/p95/p99=%d/%d/%dms ttfb p50/p95=%d/%dms",
+                    endpoint, requestCount, errorCount, bytesSent, bytesReceived,
+                    latencyP50Ms, latencyP95Ms, latencyP99Ms, ttfbP50Ms, ttfbP95Ms);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.galaxyairline.android.api;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/**
+ * Debug-only logger that prints full bodies for one request in every
+ * {@code sampleRate} and just the request/response line for the rest.
+ * {@code @Streaming} calls are never body-logged, since that would buffer the
+ * whole response before the caller could read the first item.
+ */
+public class SampledLoggingInterceptor implements Interceptor {
+    private final HttpLoggingInterceptor bodyLogger = new HttpLoggingInterceptor();
+    private final HttpLoggingInterceptor basicLogger = new HttpLoggingInterceptor();
+    private final AtomicLong counter = new AtomicLong();
+    private final int sampleRate;
+
+    public SampledLoggingInterceptor(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+        bodyLogger.setLevel(HttpLoggingInterceptor.Level.BODY);
+        // Session tokens are added by AuthInterceptor ahead of this one
+        bodyLogger.redactHeader("Authorization");
+        basicLogger.setLevel(HttpLoggingInterceptor.Level.BASIC);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!isStreamed(chain.request()) && counter.getAndIncrement() % sampleRate == 0) {
+            return bodyLogger.intercept(chain);
+        }
+        return basicLogger.intercept(chain);
+    }
+
+    private static boolean isStreamed(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(Streaming.class);
+    }
+}
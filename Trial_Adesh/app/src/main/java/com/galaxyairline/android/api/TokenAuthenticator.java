@@ -0,0 +1,140 @@
+package com.galaxyairline.android.api;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Refreshes an expired access token when a Bearer request comes back 401.
+ *
+ * Only one refresh runs at a time. Requests that hit 401 while it is in flight
+ * wait on the same lock and, once it finishes, retry with the new token instead
+ * of refreshing again - so a burst of expired requests costs one call to the
+ * auth endpoint. {@link AuthInterceptor} takes the same lock, which holds back
+ * new requests until the refresh is done rather than sending a token known to
+ * be stale.
+ */
+public class TokenAuthenticator implements Authenticator {
+    private static final String BEARER = "Bearer ";
+
+    /**
+     * Exchanges a refresh token for new tokens. Returns null if the server
+     * rejected the refresh token; throws if it couldn't be reached.
+     */
+    public interface Refresher {
+        Tokens refresh(String refreshToken) throws IOException;
+    }
+
+    public static class Tokens {
+        private final String accessToken;
+        private final String refreshToken;
+
+        public Tokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        /**
+         * Null when the server keeps the old refresh token valid.
+         */
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    private final AuthTokenStore store;
+    private final Refresher refresher;
+    private final Object lock = new Object();
+    private final AtomicInteger refreshCount = new AtomicInteger();
+
+    public TokenAuthenticator(AuthTokenStore store, Refresher refresher) {
+        this.store = store;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) throws IOException {
+        String failedToken = bearerToken(response.request());
+        // Not ours to fix, or the refreshed token was rejected as well
+        if (failedToken == null || priorResponses(response) >= 1) {
+            return null;
+        }
+
+        String token;
+        synchronized (lock) {
+            String current = store.getAccessToken();
+            if (current == null) {
+                // Signed out while this request was in flight
+                return null;
+            }
+            if (!current.equals(failedToken)) {
+                // Another request refreshed while this one waited
+                token = current;
+            } else {
+                token = refresh();
+                if (token == null) {
+                    return null;
+                }
+            }
+        }
+        return response.request().newBuilder()
+                .header("Authorization", BEARER + token)
+                .build();
+    }
+
+    /**
+     * The current access token, waiting for a refresh in progress to finish first.
+     */
+    String awaitAccessToken() {
+        synchronized (lock) {
+            return store.getAccessToken();
+        }
+    }
+
+    /**
+     * Number of refresh calls made so far.
+     */
+    public int getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    // Caller holds lock
+    private String refresh() throws IOException {
+        String refreshToken = store.getRefreshToken();
+        if (refreshToken == null) {
+            store.onSessionExpired();
+            return null;
+        }
+        refreshCount.incrementAndGet();
+        Tokens fresh = refresher.refresh(refreshToken);
+        if (fresh == null || fresh.getAccessToken() == null) {
+            store.onSessionExpired();
+            return null;
+        }
+        store.updateTokens(fresh.getAccessToken(),
+                fresh.getRefreshToken() != null ? fresh.getRefreshToken() : refreshToken);
+        return fresh.getAccessToken();
+    }
+
+    private static String bearerToken(Request request) {
+        String authorization = request.header("Authorization");
+        return authorization != null && authorization.startsWith(BEARER)
+                ? authorization.substring(BEARER.length()) : null;
+    }
+
+    private static int priorResponses(Response response) {
+        int count = 0;
+        for (Response prior = response.priorResponse(); prior != null; prior = prior.priorResponse()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,115 @@
+package com.galaxyairline.android.concurrent;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * App-wide thread pools. Use these instead of {@code new Thread()} so that
+ * background work is bounded, prioritised and visible in {@link #getStats()}.
+ *
+ * <ul>
+ *     <li>{@link #io()} - disk and network; blocks a lot, so it has a few more threads than cores</li>
+ *     <li>{@link #cpu()} - indexing, parsing, planning; sized to the cores left over from the UI thread</li>
+ *     <li>{@link #critical()} - startup and anything the user is actively waiting on</li>
+ *     <li>{@link #scheduler()} - delayed triggers such as reconnect backoff; hand the real work to another pool</li>
+ * </ul>
+ */
+public class AppExecutors {
+    private static final int IO_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static volatile AppExecutors instance;
+
+    private final PriorityExecutor io;
+    private final PriorityExecutor cpu;
+    private final PriorityExecutor critical;
+    private final ScheduledExecutorService scheduler;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        io = new PriorityExecutor("io", IO_THREADS, QUEUE_CAPACITY,
+                threadFactory("io", Process.THREAD_PRIORITY_BACKGROUND));
+        cpu = new PriorityExecutor("cpu", Math.max(1, Math.min(cores - 1, 4)), QUEUE_CAPACITY,
+                threadFactory("cpu", Process.THREAD_PRIORITY_BACKGROUND));
+        critical = new PriorityExecutor("critical", Math.max(2, Math.min(cores, 4)), QUEUE_CAPACITY,
+                threadFactory("critical", Process.THREAD_PRIORITY_DEFAULT));
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                threadFactory("timer", Process.THREAD_PRIORITY_BACKGROUND));
+        Handler handler = new Handler(Looper.getMainLooper());
+        mainThread = handler::post;
+    }
+
+    public static AppExecutors getInstance() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    instance = new AppExecutors();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public PriorityExecutor io() {
+        return io;
+    }
+
+    public PriorityExecutor cpu() {
+        return cpu;
+    }
+
+    public PriorityExecutor critical() {
+        return critical;
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * A task group that is cancelled when {@code owner} is destroyed. Call from the main thread.
+     */
+    public static TaskGroup scope(LifecycleOwner owner) {
+        TaskGroup group = new TaskGroup();
+        owner.getLifecycle().addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.getLifecycle().removeObserver(this);
+                    group.cancelAll();
+                }
+            }
+        });
+        return group;
+    }
+
+    public List<ExecutorStats> getStats() {
+        return Arrays.asList(critical.getStats(), io.getStats(), cpu.getStats());
+    }
+
+    // Background pools run below the UI thread so they can't steal frames from it
+    private static ThreadFactory threadFactory(String name, int threadPriority) {
+        ThreadFactory base = PriorityExecutor.newThreadFactory(name);
+        return runnable -> base.newThread(() -> {
+            Process.setThreadPriority(threadPriority);
+            runnable.run();
+        });
+    }
+}
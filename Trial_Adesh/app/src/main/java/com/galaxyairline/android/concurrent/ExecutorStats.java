@@ -0,0 +1,93 @@
+package com.galaxyairline.android.concurrent;
+
+import java.util.Locale;
+
+/**
+ * Point-in-time counters for one {@link PriorityExecutor}.
+ */
+public class ExecutorStats {
+    private final String name;
+    private final int threads;
+    private final int activeThreads;
+    private final int queueDepth;
+    private final int peakQueueDepth;
+    private final long submitted;
+    private final long completed;
+    private final long cancelled;
+    private final long rejected;
+    private final long averageWaitNanos;
+    private final long maxWaitNanos;
+
+    ExecutorStats(String name, int threads, int activeThreads, int queueDepth, int peakQueueDepth, long submitted,
+                  long completed, long cancelled, long rejected, long averageWaitNanos, long maxWaitNanos) {
+        this.name = name;
+        this.threads = threads;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.peakQueueDepth = peakQueueDepth;
+        this.submitted = submitted;
+        this.completed = completed;
+        this.cancelled = cancelled;
+        this.rejected = rejected;
+        this.averageWaitNanos = averageWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Upper bound on the pool's threads; it never creates more than this.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Mean time tasks spent queued before a thread picked them up.
+     */
+    public double getAverageWaitMillis() {
+        return averageWaitNanos / 1e6;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%s: %d/%d threads busy, queue %d (peak %d), %d submitted, %d done, %d cancelled, %d rejected, wait avg %.1f ms max %.1f ms",
+                name, activeThreads, threads, queueDepth, peakQueueDepth, submitted, completed, cancelled, rejected,
+                getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
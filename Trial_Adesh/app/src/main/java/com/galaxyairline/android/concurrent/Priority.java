@@ -0,0 +1,13 @@
+package com.galaxyairline.android.concurrent;
+
+/**
+ * Queue order within a {@link PriorityExecutor}; equal priorities run first-in, first-out.
+ */
+public enum Priority {
+    /** Work the user is waiting on right now (first paint, a tap). */
+    IMMEDIATE,
+    HIGH,
+    NORMAL,
+    /** Prefetching, revalidation, analytics - fine to run whenever a thread is free. */
+    LOW
+}
@@ -0,0 +1,199 @@
+package com.galaxyairline.android.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size thread pool whose queue is ordered by {@link Priority}.
+ *
+ * The thread count is a hard cap, so however many screens submit work the
+ * pool never grows past it; excess work waits in the queue, and past
+ * {@code queueCapacity} queued tasks new submissions are rejected rather than
+ * piling up. Cancelled tasks are pulled out of the queue straight away.
+ */
+public class PriorityExecutor implements Executor {
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public PriorityExecutor(String name, int threads, int queueCapacity) {
+        this(name, threads, queueCapacity, newThreadFactory(name));
+    }
+
+    public PriorityExecutor(String name, int threads, int queueCapacity, ThreadFactory threadFactory) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), threadFactory);
+        // Idle pools give their threads back
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Daemon threads named "{@code name}-N".
+     */
+    public static ThreadFactory newThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Runs at {@link Priority#NORMAL}.
+     */
+    @Override
+    public void execute(Runnable command) {
+        submit(Priority.NORMAL, command);
+    }
+
+    public Future<?> submit(Priority priority, Runnable task) {
+        return enqueue(new Task<Void>(priority, task, null));
+    }
+
+    public <T> Future<T> submit(Priority priority, Callable<T> task) {
+        return enqueue(new Task<T>(priority, task));
+    }
+
+    /**
+     * This pool as a plain {@link Executor} that submits everything at {@code priority}.
+     */
+    public Executor withPriority(Priority priority) {
+        return command -> submit(priority, command);
+    }
+
+    public ExecutorStats getStats() {
+        long starts = started.get();
+        return new ExecutorStats(name, threads, pool.getActiveCount(), queueDepth.get(), peakQueueDepth.get(),
+                submitted.get(), completed.get(), cancelled.get(), rejected.get(),
+                starts > 0 ? totalWaitNanos.get() / starts : 0, maxWaitNanos.get());
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    private <T> Future<T> enqueue(Task<T> task) {
+        int depth = queueDepth.incrementAndGet();
+        if (depth > queueCapacity || pool.isShutdown()) {
+            queueDepth.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(name + " is " + (pool.isShutdown() ? "shut down" : "saturated")
+                    + " (" + queueCapacity + " tasks queued)");
+        }
+        updateMax(peakQueueDepth, depth);
+        submitted.incrementAndGet();
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            queueDepth.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+        return task;
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    private class Task<T> extends FutureTask<T> implements Comparable<Task<?>> {
+        private final Priority priority;
+        private final long order = sequence.getAndIncrement();
+        private final long enqueuedAt = System.nanoTime();
+        // Set once the task leaves the queue, by running or by being cancelled
+        private final AtomicInteger dequeued = new AtomicInteger();
+
+        Task(Priority priority, Callable<T> callable) {
+            super(callable);
+            this.priority = priority;
+        }
+
+        Task(Priority priority, Runnable runnable, T result) {
+            super(runnable, result);
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            if (dequeued.compareAndSet(0, 1)) {
+                queueDepth.decrementAndGet();
+                started.incrementAndGet();
+                long wait = System.nanoTime() - enqueuedAt;
+                totalWaitNanos.addAndGet(wait);
+                updateMax(maxWaitNanos, wait);
+            }
+            if (isCancelled()) {
+                return;
+            }
+            super.run();
+            completed.incrementAndGet();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            if (result) {
+                cancelled.incrementAndGet();
+                // Free the queue slot now instead of when a worker reaches it
+                if (pool.remove(this) && dequeued.compareAndSet(0, 1)) {
+                    queueDepth.decrementAndGet();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.galaxyairline.android.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks one at a time, in submission order, on a shared pool. Gives a
+ * repository the ordering of a single-thread executor without owning a thread.
+ *
+ * If the pool rejects the task that {@link #execute} would start, execute throws
+ * {@link RejectedExecutionException} and the task is dropped, so the caller can
+ * undo whatever it set up for it. Once a task is running, a full pool no longer
+ * stalls the queue: the thread that finished the last task runs the next itself.
+ */
+public class SerialExecutor implements Executor {
+    private final Executor delegate;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private Runnable active;
+
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void execute(Runnable command) {
+        tasks.add(command);
+        if (active == null) {
+            try {
+                scheduleNext();
+            } catch (RejectedExecutionException e) {
+                tasks.removeLastOccurrence(command);
+                throw e;
+            }
+        }
+    }
+
+    // On rejection the task goes back to the head of the queue and nothing is active
+    private synchronized void scheduleNext() {
+        active = tasks.poll();
+        if (active != null) {
+            Runnable task = active;
+            try {
+                delegate.execute(() -> runSerially(task));
+            } catch (RejectedExecutionException e) {
+                tasks.addFirst(task);
+                active = null;
+                throw e;
+            }
+        }
+    }
+
+    private void runSerially(Runnable task) {
+        while (task != null) {
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                // Hand the rest of the queue on before the pool sees the failure
+                scheduleNextQuietly();
+                throw e;
+            }
+            task = takeNext();
+        }
+    }
+
+    // The next task if this thread has to run it because the pool is full, else null
+    private synchronized Runnable takeNext() {
+        try {
+            scheduleNext();
+            return null;
+        } catch (RejectedExecutionException e) {
+            active = tasks.poll();
+            return active;
+        }
+    }
+
+    // A task refused here waits for the next execute() to schedule it
+    private synchronized void scheduleNextQuietly() {
+        try {
+            scheduleNext();
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.galaxyairline.android.concurrent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tasks that belong to one owner (usually a screen) and are cancelled together
+ * when it goes away. Once cancelled, anything submitted later is cancelled
+ * immediately instead of running against a dead screen. A task the pool rejects
+ * because it is saturated also comes back as a cancelled Future rather than
+ * throwing, since screens submit from the UI thread.
+ */
+public class TaskGroup {
+    private final List<Future<?>> futures = new ArrayList<>();
+    private boolean cancelled;
+
+    public Future<?> submit(PriorityExecutor executor, Priority priority, Runnable task) {
+        try {
+            return track(executor.submit(priority, task));
+        } catch (RejectedExecutionException e) {
+            return dropped(new FutureTask<Void>(task, null));
+        }
+    }
+
+    public <T> Future<T> submit(PriorityExecutor executor, Priority priority, Callable<T> task) {
+        try {
+            return track(executor.submit(priority, task));
+        } catch (RejectedExecutionException e) {
+            return dropped(new FutureTask<T>(task));
+        }
+    }
+
+    /**
+     * Cancels and interrupts every unfinished task in the group.
+     */
+    public void cancelAll() {
+        List<Future<?>> pending;
+        synchronized (this) {
+            cancelled = true;
+            pending = new ArrayList<>(futures);
+            futures.clear();
+        }
+        for (Future<?> future : pending) {
+            future.cancel(true);
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized int size() {
+        return futures.size();
+    }
+
+    private static <T> Future<T> dropped(FutureTask<T> task) {
+        task.cancel(false);
+        return task;
+    }
+
+    private <T> Future<T> track(Future<T> future) {
+        boolean cancelNow;
+        synchronized (this) {
+            cancelNow = cancelled;
+            if (!cancelNow) {
+                // Drop finished tasks so a long-lived screen doesn't accumulate them
+                for (Iterator<Future<?>> it = futures.iterator(); it.hasNext(); ) {
+                    if (it.next().isDone()) {
+                        it.remove();
+                    }
+                }
+                futures.add(future);
+            }
+        }
+        if (cancelNow) {
+            future.cancel(true);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,64 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+
+import com.galaxyairline.android.R;
+import com.galaxyairline.android.search.AirportIndex;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * Airport directory bundled in res/raw/airports.csv. The index is only read the
+ * first time someone asks for it, so screens without autocomplete never pay for it.
+ */
+public class AirportRepository {
+    private static volatile AirportRepository instance;
+
+    private final Context context;
+    private volatile AirportIndex index;
+
+    private AirportRepository(Context context) {
+        this.context = context;
+    }
+
+    public static AirportRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AirportRepository.class) {
+                if (instance == null) {
+                    instance = new AirportRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the index on first use; call from a background thread where possible.
+     * Returns {@link AirportIndex#EMPTY} if the bundled file can't be read.
+     */
+    public AirportIndex getIndex() {
+        AirportIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private AirportIndex load() {
+        try (Reader reader = new InputStreamReader(
+                context.getResources().openRawResource(R.raw.airports), Charset.forName("UTF-8"))) {
+            return AirportIndex.read(reader);
+        } catch (IOException e) {
+            return AirportIndex.EMPTY;
+        }
+    }
+}
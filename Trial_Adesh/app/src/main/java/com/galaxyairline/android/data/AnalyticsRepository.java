@@ -0,0 +1,184 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.galaxyairline.android.analytics.AnalyticsAggregator;
+import com.galaxyairline.android.api.ApiClient;
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.SerialExecutor;
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.BookingEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import retrofit2.Response;
+
+/**
+ * Admin analytics computed on the device. The aggregator's state is kept in a
+ * file; each refresh pulls only the booking events since the last one it saw
+ * and folds them in, so refreshing the dashboard costs O(changes).
+ */
+public class AnalyticsRepository {
+    private static final String STATE_FILE = "analytics_state.json";
+
+    private static volatile AnalyticsRepository instance;
+
+    private final Context context;
+    private final File stateFile;
+    private final Gson gson = GsonProvider.get();
+    // The aggregator isn't thread-safe; every touch goes through this executor
+    private final Executor executor = new SerialExecutor(AppExecutors.getInstance().io().withPriority(Priority.HIGH));
+    private final MutableLiveData<Analytics> analytics = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> refreshing = new MutableLiveData<>(false);
+    private final MutableLiveData<String> error = new MutableLiveData<>();
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
+    private AnalyticsAggregator aggregator;
+
+    private AnalyticsRepository(Context context) {
+        this.context = context;
+        stateFile = new File(context.getFilesDir(), STATE_FILE);
+    }
+
+    public static AnalyticsRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AnalyticsRepository.class) {
+                if (instance == null) {
+                    instance = new AnalyticsRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LiveData<Analytics> getAnalytics() {
+        return analytics;
+    }
+
+    public LiveData<Boolean> isRefreshing() {
+        return refreshing;
+    }
+
+    /**
+     * Message for the last failed refresh, or null once a refresh succeeds.
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Publishes the saved totals straight away, then catches up with the server's booking events.
+     */
+    public void refresh() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        refreshing.postValue(true);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (aggregator == null) {
+                        aggregator = AnalyticsAggregator.fromState(readState());
+                        publish();
+                    }
+                    if (catchUp()) {
+                        writeState();
+                        publish();
+                    }
+                    error.postValue(null);
+                } catch (Exception e) {
+                    error.postValue("Couldn't refresh analytics. Showing saved figures.");
+                } finally {
+                    refreshInFlight.set(false);
+                    refreshing.postValue(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // IO pool saturated; let the next call try again
+            refreshInFlight.set(false);
+            refreshing.postValue(false);
+            error.postValue("Couldn't refresh analytics. Showing saved figures.");
+        }
+    }
+
+    // Returns true if the aggregator moved on and needs saving
+    private boolean catchUp() throws IOException {
+        Response<GalaxyAirlineAPI.BookingEventsResponse> response =
+                ApiClient.getApiService().getBookingEvents(aggregator.getLastSequence()).execute();
+        GalaxyAirlineAPI.BookingEventsResponse body = response.body();
+        if (!response.isSuccessful() || body == null) {
+            throw new IOException("Fetching booking events failed: HTTP " + response.code());
+        }
+        List<BookingEvent> events = body.getEvents() != null
+                ? body.getEvents() : Collections.<BookingEvent>emptyList();
+        if (body.isReset()) {
+            aggregator.rebuild(events, body.getSeq());
+            return true;
+        }
+        aggregator.applyAll(events);
+        return !events.isEmpty();
+    }
+
+    // Unsold seats come from the complete catalog table, by flight id; the aggregator adds
+    // its booked seats to get capacity, since every booking takes its seats out of the counts
+    private void publish() throws InterruptedException {
+        FlightTable table = FlightRepository.getInstance(context).awaitFlightTable();
+        analytics.postValue(aggregator.toAnalytics(flightId -> {
+            int row = table != null ? table.findRow(flightId) : -1;
+            if (row < 0) {
+                return -1;
+            }
+            int seats = 0;
+            for (int classIndex = FlightTable.ECONOMY; classIndex <= FlightTable.FIRST; classIndex++) {
+                if (table.hasClass(row, classIndex)) {
+                    seats += table.getAvailable(row, classIndex);
+                }
+            }
+            return seats;
+        }));
+    }
+
+    private AnalyticsAggregator.State readState() {
+        if (!stateFile.isFile()) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(stateFile), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, AnalyticsAggregator.State.class);
+        } catch (IOException | JsonParseException e) {
+            // Start over from a full event replay
+            return null;
+        }
+    }
+
+    private void writeState() throws IOException {
+        File tmp = new File(stateFile.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            gson.toJson(aggregator.toState(), writer);
+        }
+        if (!tmp.renameTo(stateFile)) {
+            tmp.delete();
+            throw new IOException("Couldn't save analytics state");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.galaxyairline.android.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public abstract class BookingDao {
+
+    // ISO-8601 booking dates sort correctly as strings - newest first
+    @Query("SELECT * FROM bookings WHERE userId = :userId ORDER BY bookingDate DESC")
+    public abstract List<BookingEntity> getForUser(String userId);
+
+    @Query("SELECT bookingId, version FROM bookings WHERE userId = :userId")
+    public abstract List<BookingVersion> getVersions(String userId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<BookingEntity> bookings);
+
+    @Query("DELETE FROM bookings WHERE bookingId IN (:ids)")
+    public abstract void deleteByIds(List<String> ids);
+
+    public static class BookingVersion {
+        public String bookingId;
+        public long version;
+    }
+}
@@ -0,0 +1,40 @@
+package com.galaxyairline.android.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Booking;
+
+/**
+ * Cached booking. Only the columns the list queries on are broken out; the rest
+ * of the booking is kept as its JSON so nested flights and passengers don't need tables.
+ */
+@Entity(tableName = "bookings", indices = {@Index("userId")})
+public class BookingEntity {
+    @PrimaryKey
+    @NonNull
+    public String bookingId = "";
+    public String userId;
+    public String bookingDate;
+    // Server-side version the row was fetched at; a newer one in the id list means re-fetch
+    public long version;
+    public String json;
+
+    public BookingEntity() {}
+
+    public static BookingEntity fromBooking(Booking booking) {
+        BookingEntity entity = new BookingEntity();
+        entity.bookingId = booking.getBookingId();
+        entity.userId = booking.getUserId();
+        entity.bookingDate = booking.getBookingDate();
+        entity.json = GsonProvider.get().toJson(booking, Booking.class);
+        return entity;
+    }
+
+    public Booking toBooking() {
+        return GsonProvider.get().fromJson(json, Booking.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.galaxyairline.android.data;
+
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.model.Booking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Response;
+
+/**
+ * Brings cached bookings in line with the server's booking id list. The list
+ * carries each booking's version, so only bookings that are new or have changed
+ * since they were cached (a cancellation, say) are fetched, in batches the
+ * server accepts. Cached ids the server no longer lists are dropped.
+ */
+public class BookingSyncer {
+    // Matches BOOKING_BATCH_LIMIT on the server
+    static final int BATCH_SIZE = 200;
+
+    /**
+     * Local copy of one user's bookings that the syncer writes into.
+     */
+    public interface BookingStore {
+        /**
+         * Cached booking id to the version it was fetched at.
+         */
+        Map<String, Long> getVersions();
+
+        /**
+         * Saves {@code fetched} at the given versions and drops {@code removed}, atomically.
+         */
+        void apply(List<Booking> fetched, Map<String, Long> versions, List<String> removed);
+    }
+
+    public static class Result {
+        private final int fetched;
+        private final int removed;
+
+        Result(int fetched, int removed) {
+            this.fetched = fetched;
+            this.removed = removed;
+        }
+
+        public int getFetched() {
+            return fetched;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public boolean hasChanges() {
+            return fetched > 0 || removed > 0;
+        }
+    }
+
+    private final GalaxyAirlineAPI api;
+    private final BookingStore store;
+
+    public BookingSyncer(GalaxyAirlineAPI api, BookingStore store) {
+        this.api = api;
+        this.store = store;
+    }
+
+    /**
+     * Runs one sync round on the calling thread.
+     *
+     * @throws IOException on network failure or a non-2xx response; the store is left untouched
+     */
+    public Result sync() throws IOException {
+        Response<GalaxyAirlineAPI.BookingIdsResponse> idsResponse = api.getBookingIds().execute();
+        GalaxyAirlineAPI.BookingIdsResponse listing = idsResponse.body();
+        if (!idsResponse.isSuccessful() || listing == null) {
+            throw new IOException("Fetching booking ids failed: HTTP " + idsResponse.code());
+        }
+        List<String> serverIds = listing.getIds() != null ? listing.getIds() : Collections.<String>emptyList();
+        Map<String, Long> serverVersions = listing.getVersions() != null
+                ? listing.getVersions() : Collections.<String, Long>emptyMap();
+
+        Map<String, Long> cached = new HashMap<>(store.getVersions());
+        List<String> stale = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(serverIds)) {
+            Long cachedVersion = cached.remove(id);
+            if (cachedVersion == null || cachedVersion != versionOf(serverVersions, id)) {
+                stale.add(id);
+            }
+        }
+        // Whatever is left in cached no longer exists on the server
+        List<String> removed = new ArrayList<>(cached.keySet());
+
+        List<Booking> fetched = new ArrayList<>(stale.size());
+        for (int start = 0; start < stale.size(); start += BATCH_SIZE) {
+            List<String> batch = stale.subList(start, Math.min(stale.size(), start + BATCH_SIZE));
+            Response<GalaxyAirlineAPI.BookingsResponse> response =
+                    api.getBookings(new GalaxyAirlineAPI.BookingIdsRequest(batch)).execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Fetching bookings failed: HTTP " + response.code());
+            }
+            if (response.body().getBookings() != null) {
+                fetched.addAll(response.body().getBookings());
+            }
+        }
+
+        if (fetched.isEmpty() && removed.isEmpty()) {
+            return new Result(0, 0);
+        }
+        Map<String, Long> versions = new HashMap<>();
+        for (Booking booking : fetched) {
+            versions.put(booking.getBookingId(), versionOf(serverVersions, booking.getBookingId()));
+        }
+        store.apply(fetched, versions, removed);
+        return new Result(fetched.size(), removed.size());
+    }
+
+    // Servers from before booking versions list ids only; treat those bookings as never changing
+    private static long versionOf(Map<String, Long> versions, String id) {
+        Long version = versions.get(id);
+        return version != null ? version : 0;
+    }
+}
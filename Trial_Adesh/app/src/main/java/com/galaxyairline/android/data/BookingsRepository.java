@@ -0,0 +1,151 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.galaxyairline.android.api.ApiClient;
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.SerialExecutor;
+import com.galaxyairline.android.model.Booking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import retrofit2.Response;
+
+/**
+ * The signed-in user's bookings, cached in Room. A refresh lists the user's
+ * booking ids and versions, then fetches only bookings that are new or have
+ * changed, in batches (see {@link BookingSyncer}), so pull-to-refresh with
+ * hundreds of bookings moves little more than the id list. Bookings gone from
+ * the server are removed locally.
+ */
+public class BookingsRepository {
+    private static volatile BookingsRepository instance;
+
+    private final GalaxyAirlineDatabase database;
+    private final BookingDao bookingDao;
+    // Refreshes run one after another on the shared IO pool
+    private final Executor executor = new SerialExecutor(AppExecutors.getInstance().io().withPriority(Priority.HIGH));
+    private final MutableLiveData<List<Booking>> bookings = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> refreshing = new MutableLiveData<>(false);
+    private final MutableLiveData<String> error = new MutableLiveData<>();
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
+
+    private BookingsRepository(Context context) {
+        database = GalaxyAirlineDatabase.getInstance(context);
+        bookingDao = database.bookingDao();
+    }
+
+    public static BookingsRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BookingsRepository.class) {
+                if (instance == null) {
+                    instance = new BookingsRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Bookings for the user of the last {@link #refresh}, newest first.
+     */
+    public LiveData<List<Booking>> getBookings() {
+        return bookings;
+    }
+
+    public LiveData<Boolean> isRefreshing() {
+        return refreshing;
+    }
+
+    /**
+     * Message for the last failed refresh, or null once a refresh succeeds.
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Publishes the cached bookings straight away, then syncs with the server.
+     * A refresh already in progress absorbs the call. Requests carry the
+     * session token via ApiClient, which also refreshes it if it has expired.
+     */
+    public void refresh(String userId) {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        refreshing.postValue(true);
+        try {
+            executor.execute(() -> {
+                try {
+                    publish(userId);
+                    if (sync(userId)) {
+                        publish(userId);
+                    }
+                    error.postValue(null);
+                } catch (Exception e) {
+                    // Offline or server error - the cached list stays on screen
+                    error.postValue("Couldn't refresh bookings. Showing saved bookings.");
+                } finally {
+                    refreshInFlight.set(false);
+                    refreshing.postValue(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // IO pool saturated; let the next call try again
+            refreshInFlight.set(false);
+            refreshing.postValue(false);
+            error.postValue("Couldn't refresh bookings. Showing saved bookings.");
+        }
+    }
+
+    /**
+     * Cancels one of the user's bookings, then syncs so the cached copy picks up
+     * the cancelled status. Failures are reported through {@link #getError()}.
+     */
+    public void cancel(String userId, String bookingId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    Response<GalaxyAirlineAPI.BookingResponse> response =
+                            ApiClient.getApiService().cancelBooking(bookingId).execute();
+                    if (!response.isSuccessful()) {
+                        throw new IOException("Cancelling booking failed: HTTP " + response.code());
+                    }
+                    // The cancel bumped the booking's version, so this re-fetches just that booking
+                    if (sync(userId)) {
+                        publish(userId);
+                    }
+                    error.postValue(null);
+                } catch (Exception e) {
+                    error.postValue("Couldn't cancel the booking. Please try again.");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            error.postValue("Couldn't cancel the booking. Please try again.");
+        }
+    }
+
+    // Returns true if the cache changed
+    private boolean sync(String userId) throws IOException {
+        return new BookingSyncer(ApiClient.getApiService(), new RoomBookingStore(database, userId)).sync().hasChanges();
+    }
+
+    private void publish(String userId) {
+        List<BookingEntity> entities = bookingDao.getForUser(userId);
+        List<Booking> result = new ArrayList<>(entities.size());
+        for (BookingEntity entity : entities) {
+            result.add(entity.toBooking());
+        }
+        bookings.postValue(result);
+    }
+}
@@ -0,0 +1,101 @@
+package com.galaxyairline.android.data;
+
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.model.Flight;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Response;
+
+/**
+ * Pulls catalog changes since the store's version cursor and applies them by
+ * Flight.id. After a small admin edit a refresh moves a couple of flights instead
+ * of the whole catalog. If the cursor is older than the server's change log, the
+ * server answers with the full catalog and the store is replaced.
+ */
+public class DeltaSyncer {
+
+    /**
+     * Local copy of the catalog that delta sync writes into.
+     */
+    public interface FlightStore {
+        /**
+         * Catalog version the store reflects, or 0 if it has never synced.
+         */
+        long getVersion();
+
+        /**
+         * Applies one delta atomically: with {@code reset} the store is cleared
+         * first, then upserts and deletes are applied and the cursor moves to
+         * {@code version}. Applying the same delta twice must be harmless.
+         */
+        void apply(boolean reset, List<Flight> upserts, List<String> deletes, long version);
+    }
+
+    public static class Result {
+        private final long version;
+        private final boolean reset;
+        private final int upserts;
+        private final int deletes;
+
+        Result(long version, boolean reset, int upserts, int deletes) {
+            this.version = version;
+            this.reset = reset;
+            this.upserts = upserts;
+            this.deletes = deletes;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isReset() {
+            return reset;
+        }
+
+        public int getUpserts() {
+            return upserts;
+        }
+
+        public int getDeletes() {
+            return deletes;
+        }
+
+        public boolean hasChanges() {
+            return reset || upserts > 0 || deletes > 0;
+        }
+    }
+
+    private final GalaxyAirlineAPI api;
+    private final FlightStore store;
+
+    public DeltaSyncer(GalaxyAirlineAPI api, FlightStore store) {
+        this.api = api;
+        this.store = store;
+    }
+
+    /**
+     * Runs one sync round on the calling thread.
+     *
+     * @throws IOException on network failure or a non-2xx response; the store is left untouched
+     */
+    public Result sync() throws IOException {
+        long since = store.getVersion();
+        Response<GalaxyAirlineAPI.FlightChangesResponse> response = api.getFlightChanges(since).execute();
+        GalaxyAirlineAPI.FlightChangesResponse changes = response.body();
+        if (!response.isSuccessful() || changes == null) {
+            throw new IOException("Delta sync failed: HTTP " + response.code());
+        }
+
+        List<Flight> upserts = changes.getUpserts() != null ? changes.getUpserts() : Collections.<Flight>emptyList();
+        List<String> deletes = changes.getDeletes() != null ? changes.getDeletes() : Collections.<String>emptyList();
+        if (!changes.isReset() && changes.getVersion() == since && upserts.isEmpty() && deletes.isEmpty()) {
+            return new Result(since, false, 0, 0);
+        }
+
+        store.apply(changes.isReset(), upserts, deletes, changes.getVersion());
+        return new Result(changes.getVersion(), changes.isReset(), upserts.size(), deletes.size());
+    }
+}
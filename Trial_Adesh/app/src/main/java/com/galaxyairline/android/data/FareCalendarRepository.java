@@ -0,0 +1,52 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+
+import com.galaxyairline.android.catalog.FlightTable;
+
+import java.util.List;
+
+/**
+ * Read side of the precomputed fare calendar. Everything here comes from Room,
+ * so screens can show fares immediately and offline; {@link FareCalendarWorker}
+ * keeps the table current.
+ */
+public class FareCalendarRepository {
+    private static volatile FareCalendarRepository instance;
+
+    private final FareDao fareDao;
+
+    private FareCalendarRepository(Context context) {
+        fareDao = GalaxyAirlineDatabase.getInstance(context).fareDao();
+    }
+
+    public static FareCalendarRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (FareCalendarRepository.class) {
+                if (instance == null) {
+                    instance = new FareCalendarRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Cheapest fare for each upcoming day on a route, for "economy", "business" or "first".
+     */
+    public LiveData<List<FareEntity>> getCalendar(String fromCode, String toCode, String classType) {
+        int today = FareCalendarWorker.today();
+        return fareDao.observeCalendar(fromCode, toCode, FlightTable.classIndex(classType),
+                today, today + FareCalendarWorker.HORIZON_DAYS - 1);
+    }
+
+    /**
+     * Cheapest economy fare into each destination over the whole horizon.
+     */
+    public LiveData<List<FareDao.DestinationFare>> getCheapestByDestination() {
+        int today = FareCalendarWorker.today();
+        return fareDao.observeCheapestByDestination(FlightTable.ECONOMY, today, today + FareCalendarWorker.HORIZON_DAYS - 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.catalog.FlightTimes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precomputes the cheapest fare per route, day and cabin for the next
+ * {@link #HORIZON_DAYS} days from the cached catalog, so fare calendars and the
+ * dashboard's "from $X" prices read a small table instead of the network.
+ *
+ * Runs incrementally: if the catalog hasn't been re-synced since the last run,
+ * only days that have newly entered the horizon are computed and past days are
+ * dropped. A new catalog recomputes the whole window.
+ */
+public class FareCalendarWorker extends Worker {
+    public static final int HORIZON_DAYS = 90;
+
+    private static final String PERIODIC_WORK = "fare_calendar_periodic";
+    private static final String REFRESH_WORK = "fare_calendar_refresh";
+
+    private static final String PREF_NAME = "GalaxyAirlineFareCalendar";
+    private static final String KEY_CATALOG_SYNC = "catalog_sync";
+    private static final String KEY_COMPUTED_FROM = "computed_from_day";
+    private static final String KEY_COMPUTED_THROUGH = "computed_through_day";
+
+    public FareCalendarWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Keeps the calendar rolling forward twice a day; safe to call on every launch.
+     */
+    public static void schedule(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(FareCalendarWorker.class, 12, TimeUnit.HOURS)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(PERIODIC_WORK, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Recomputes right away, e.g. after the catalog has been replaced.
+     */
+    public static void refreshNow(Context context) {
+        WorkManager.getInstance(context).enqueueUniqueWork(REFRESH_WORK, ExistingWorkPolicy.REPLACE,
+                OneTimeWorkRequest.from(FareCalendarWorker.class));
+    }
+
+    public static int today() {
+        long now = System.currentTimeMillis();
+        return (int) TimeUnit.MILLISECONDS.toDays(now + TimeZone.getDefault().getOffset(now));
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        FareDao fareDao = GalaxyAirlineDatabase.getInstance(context).fareDao();
+        SharedPreferences preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+
+        int firstDay = today();
+        int lastDay = firstDay + HORIZON_DAYS - 1;
+        long catalogSync = FlightRepository.getInstance(context).getLastSyncTime();
+
+        int computeFrom = firstDay;
+        if (preferences.getLong(KEY_CATALOG_SYNC, -1) == catalogSync
+                && preferences.getInt(KEY_COMPUTED_FROM, Integer.MAX_VALUE) <= firstDay) {
+            // Same catalog as last time - only days beyond what's already stored are new
+            computeFrom = Math.max(firstDay, preferences.getInt(KEY_COMPUTED_THROUGH, firstDay - 1) + 1);
+        }
+
+        try {
+            fareDao.deleteBefore(firstDay);
+            if (computeFrom <= lastDay) {
+                fareDao.replaceDays(computeFrom, lastDay, computeDays(fareDao, computeFrom, lastDay));
+            }
+        } catch (RuntimeException e) {
+            return Result.retry();
+        }
+
+        preferences.edit()
+                .putLong(KEY_CATALOG_SYNC, catalogSync)
+                .putInt(KEY_COMPUTED_FROM, firstDay)
+                .putInt(KEY_COMPUTED_THROUGH, lastDay)
+                .apply();
+        return Result.success();
+    }
+
+    private static List<FareEntity> computeDays(FareDao fareDao, int fromDay, int toDay) {
+        List<FareDao.DailyFares> rows = fareDao.cheapestByRouteAndDate(
+                FlightTimes.formatEpochDay(fromDay), FlightTimes.formatEpochDay(toDay));
+        List<FareEntity> fares = new ArrayList<>(rows.size() * 3);
+        for (FareDao.DailyFares row : rows) {
+            int day = FlightTimes.parseEpochDay(row.date);
+            if (day == FlightTimes.INVALID) {
+                continue;
+            }
+            addFare(fares, row, day, FlightTable.ECONOMY, row.economy);
+            addFare(fares, row, day, FlightTable.BUSINESS, row.business);
+            addFare(fares, row, day, FlightTable.FIRST, row.first);
+        }
+        return fares;
+    }
+
+    private static void addFare(List<FareEntity> fares, FareDao.DailyFares row, int day, int classIndex, Double price) {
+        // Null when no flight on that day has a seat left in this cabin
+        if (price != null && price > 0) {
+            fares.add(new FareEntity(row.fromCode, row.toCode, day, classIndex, (int) Math.round(price * 100)));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.galaxyairline.android.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class FareDao {
+
+    /**
+     * Cheapest seat with availability per route and date, straight from the flights table.
+     * Dates are yyyy-MM-dd, so string comparison orders them correctly.
+     */
+    @Query("SELECT fromCode, toCode, date, "
+            + "MIN(CASE WHEN economyAvailable > 0 THEN economyPrice END) AS economy, "
+            + "MIN(CASE WHEN businessAvailable > 0 THEN businessPrice END) AS business, "
+            + "MIN(CASE WHEN firstAvailable > 0 THEN firstPrice END) AS first "
+            + "FROM flights WHERE date >= :fromDate AND date <= :toDate "
+            + "AND fromCode IS NOT NULL AND toCode IS NOT NULL "
+            + "GROUP BY fromCode, toCode, date")
+    public abstract List<DailyFares> cheapestByRouteAndDate(String fromDate, String toDate);
+
+    @Query("SELECT * FROM fare_calendar WHERE fromCode = :fromCode AND toCode = :toCode "
+            + "AND classIndex = :classIndex AND epochDay BETWEEN :fromDay AND :toDay ORDER BY epochDay")
+    public abstract LiveData<List<FareEntity>> observeCalendar(String fromCode, String toCode, int classIndex, int fromDay, int toDay);
+
+    @Query("SELECT toCode, MIN(minPriceCents) AS minPriceCents FROM fare_calendar "
+            + "WHERE classIndex = :classIndex AND epochDay BETWEEN :fromDay AND :toDay GROUP BY toCode")
+    public abstract LiveData<List<DestinationFare>> observeCheapestByDestination(int classIndex, int fromDay, int toDay);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<FareEntity> fares);
+
+    @Query("DELETE FROM fare_calendar WHERE epochDay BETWEEN :fromDay AND :toDay")
+    public abstract void deleteDays(int fromDay, int toDay);
+
+    @Query("DELETE FROM fare_calendar WHERE epochDay < :epochDay")
+    public abstract void deleteBefore(int epochDay);
+
+    // Recomputed days are swapped in together so the calendar never shows a partial day
+    @Transaction
+    public void replaceDays(int fromDay, int toDay, List<FareEntity> fares) {
+        deleteDays(fromDay, toDay);
+        insertAll(fares);
+    }
+
+    public static class DailyFares {
+        public String fromCode;
+        public String toCode;
+        public String date;
+        public Double economy;
+        public Double business;
+        public Double first;
+    }
+
+    public static class DestinationFare {
+        public String toCode;
+        public int minPriceCents;
+    }
+}
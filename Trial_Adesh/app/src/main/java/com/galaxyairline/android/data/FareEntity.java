@@ -0,0 +1,34 @@
+package com.galaxyairline.android.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Cheapest bookable fare for one route, day and cabin. Days are epoch days and
+ * prices whole cents so each row stays a handful of integers.
+ */
+@Entity(tableName = "fare_calendar", primaryKeys = {"fromCode", "toCode", "epochDay", "classIndex"})
+public class FareEntity {
+    @NonNull
+    public String fromCode = "";
+    @NonNull
+    public String toCode = "";
+    public int epochDay;
+    // FlightTable.ECONOMY / BUSINESS / FIRST
+    public int classIndex;
+    public int minPriceCents;
+
+    public FareEntity() {}
+
+    public FareEntity(@NonNull String fromCode, @NonNull String toCode, int epochDay, int classIndex, int minPriceCents) {
+        this.fromCode = fromCode;
+        this.toCode = toCode;
+        this.epochDay = epochDay;
+        this.classIndex = classIndex;
+        this.minPriceCents = minPriceCents;
+    }
+
+    public double getMinPrice() {
+        return minPriceCents / 100.0;
+    }
+}
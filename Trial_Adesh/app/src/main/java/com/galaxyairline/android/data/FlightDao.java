@@ -0,0 +1,52 @@
+package com.galaxyairline.android.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class FlightDao {
+
+    @Query("SELECT COUNT(*) FROM flights")
+    public abstract int count();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<FlightEntity> flights);
+
+    @Query("DELETE FROM flights")
+    public abstract void deleteAll();
+
+    @Query("DELETE FROM flights WHERE id IN (:ids)")
+    public abstract void deleteByIds(List<String> ids);
+
+    // A null count leaves that class as it is
+    @Query("UPDATE flights SET economyAvailable = COALESCE(:economy, economyAvailable), "
+            + "businessAvailable = COALESCE(:business, businessAvailable), "
+            + "firstAvailable = COALESCE(:first, firstAvailable) WHERE id = :id")
+    public abstract void updateAvailability(String id, Integer economy, Integer business, Integer first);
+
+    @Query("SELECT * FROM flights WHERE id > :afterId ORDER BY id LIMIT :limit")
+    public abstract List<FlightEntity> getPageAfter(String afterId, int limit);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertStaged(List<StagedFlightEntity> flights);
+
+    @Query("DELETE FROM flights_staging")
+    public abstract void clearStaging();
+
+    // StagedFlightEntity inherits every column from FlightEntity, so the two tables line up
+    @Query("INSERT INTO flights SELECT * FROM flights_staging")
+    public abstract void copyStaging();
+
+    // One short transaction at the end of a download instead of one around all of it
+    @Transaction
+    public void promoteStaging() {
+        deleteAll();
+        copyStaging();
+        clearStaging();
+    }
+}
@@ -0,0 +1,88 @@
+package com.galaxyairline.android.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.galaxyairline.android.model.Flight;
+
+@Entity(tableName = "flights")
+public class FlightEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String flightNumber;
+    public String fromCity;
+    public String toCity;
+    public String fromCode;
+    public String toCode;
+    public String departure;
+    public String arrival;
+    public String duration;
+    public String aircraft;
+    public String date;
+    public String stops;
+
+    // ClassInfo is flattened into columns so a row maps to a single table read
+    public double economyPrice;
+    public int economyAvailable;
+    public double businessPrice;
+    public int businessAvailable;
+    public double firstPrice;
+    public int firstAvailable;
+
+    public FlightEntity() {}
+
+    public static FlightEntity fromFlight(Flight flight) {
+        return copyInto(new FlightEntity(), flight);
+    }
+
+    static <T extends FlightEntity> T copyInto(T entity, Flight flight) {
+        entity.id = flight.getId();
+        entity.flightNumber = flight.getFlightNumber();
+        entity.fromCity = flight.getFrom();
+        entity.toCity = flight.getTo();
+        entity.fromCode = flight.getFromCode();
+        entity.toCode = flight.getToCode();
+        entity.departure = flight.getDeparture();
+        entity.arrival = flight.getArrival();
+        entity.duration = flight.getDuration();
+        entity.aircraft = flight.getAircraft();
+        entity.date = flight.getDate();
+        entity.stops = flight.getStops();
+
+        if (flight.getEconomy() != null) {
+            entity.economyPrice = flight.getEconomy().getPrice();
+            entity.economyAvailable = flight.getEconomy().getAvailable();
+        }
+        if (flight.getBusiness() != null) {
+            entity.businessPrice = flight.getBusiness().getPrice();
+            entity.businessAvailable = flight.getBusiness().getAvailable();
+        }
+        if (flight.getFirst() != null) {
+            entity.firstPrice = flight.getFirst().getPrice();
+            entity.firstAvailable = flight.getFirst().getAvailable();
+        }
+        return entity;
+    }
+
+    public Flight toFlight() {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(flightNumber);
+        flight.setFrom(fromCity);
+        flight.setTo(toCity);
+        flight.setFromCode(fromCode);
+        flight.setToCode(toCode);
+        flight.setDeparture(departure);
+        flight.setArrival(arrival);
+        flight.setDuration(duration);
+        flight.setAircraft(aircraft);
+        flight.setDate(date);
+        flight.setStops(stops);
+        flight.setEconomy(new Flight.ClassInfo(economyPrice, economyAvailable));
+        flight.setBusiness(new Flight.ClassInfo(businessPrice, businessAvailable));
+        flight.setFirst(new Flight.ClassInfo(firstPrice, firstAvailable));
+        return flight;
+    }
+}
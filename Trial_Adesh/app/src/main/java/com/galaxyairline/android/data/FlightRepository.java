@@ -0,0 +1,463 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.galaxyairline.android.api.ApiClient;
+import com.galaxyairline.android.api.AvailabilityStream;
+import com.galaxyairline.android.api.FlightStream;
+import com.galaxyairline.android.catalog.AvailabilityPatch;
+import com.galaxyairline.android.catalog.CatalogSnapshot;
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.SerialExecutor;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.SeatAvailability;
+import com.galaxyairline.android.search.ConnectionPlanner;
+import com.galaxyairline.android.search.FlightSearchIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import retrofit2.Response;
+
+/**
+ * Offline-first flight catalog. Cached rows are published straight away, from the
+ * memory-mapped {@link CatalogSnapshot} when it matches Room and from Room otherwise,
+ * then the catalog is revalidated against the server in the background
+ * (stale-while-revalidate). The published list is a read-only view over a
+ * {@link FlightTable}, so the catalog is held as compact columns rather than
+ * objects. While a results screen is showing, seat counts are also patched live
+ * from the {@link AvailabilityStream}.
+ */
+public class FlightRepository {
+    private static final String PREF_NAME = "GalaxyAirlineCatalog";
+    private static final String KEY_LAST_SYNC = "flights_last_sync";
+    // Survives restarts: Room took pushed seat counts the snapshot file doesn't have
+    private static final String KEY_SNAPSHOT_BEHIND = "flights_snapshot_behind";
+    private static final long MAX_AGE_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final int PAGE_SIZE = 200;
+    private static final String HEADER_CATALOG_VERSION = "X-Catalog-Version";
+    private static final String SNAPSHOT_FILE = "flight_catalog.snapshot";
+
+    private static volatile FlightRepository instance;
+
+    private final Context context;
+    private final GalaxyAirlineDatabase database;
+    private final FlightDao flightDao;
+    private final SharedPreferences preferences;
+    private final RoomFlightStore flightStore;
+    private final File snapshotFile;
+    // Serial so disk loads and refreshes never interleave, but on the shared IO pool
+    private final Executor executor = new SerialExecutor(AppExecutors.getInstance().io().withPriority(Priority.HIGH));
+    private final MutableLiveData<List<Flight>> flights = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> refreshing = new MutableLiveData<>(false);
+    private final AtomicBoolean loadedFromDisk = new AtomicBoolean(false);
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
+    private volatile FlightSearchIndex searchIndex = FlightSearchIndex.EMPTY;
+    private volatile ConnectionPlanner connectionPlanner;
+    // Last complete catalog and the planner's table; flights may still hold just the first page
+    private volatile List<Flight> published;
+    private volatile FlightTable flightTable;
+
+    private AvailabilityStream availabilityStream;
+    private int availabilityClients;
+    // Executor-only copy of KEY_SNAPSHOT_BEHIND
+    private boolean snapshotBehind;
+
+    private FlightRepository(Context context) {
+        this.context = context;
+        database = GalaxyAirlineDatabase.getInstance(context);
+        flightDao = database.flightDao();
+        preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        flightStore = new RoomFlightStore(database, preferences);
+        snapshotFile = new File(context.getNoBackupFilesDir(), SNAPSHOT_FILE);
+    }
+
+    public static FlightRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (FlightRepository.class) {
+                if (instance == null) {
+                    instance = new FlightRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the catalog as LiveData. The first observer triggers a disk read,
+     * and a network revalidation whenever the cached copy is older than MAX_AGE_MS.
+     */
+    public LiveData<List<Flight>> getFlights() {
+        if (loadedFromDisk.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::loadFromDisk);
+            } catch (RejectedExecutionException e) {
+                // IO pool saturated; the next observer tries again
+                loadedFromDisk.set(false);
+            }
+        }
+        if (isStale()) {
+            refresh();
+        }
+        return flights;
+    }
+
+    public LiveData<Boolean> isRefreshing() {
+        return refreshing;
+    }
+
+    /**
+     * Latest catalog snapshot, or an empty list if nothing has been loaded yet.
+     */
+    public List<Flight> getCachedFlights() {
+        List<Flight> current = flights.getValue();
+        return current != null ? current : Collections.<Flight>emptyList();
+    }
+
+    /**
+     * Index over the last complete catalog; {@link FlightSearchIndex#EMPTY} until one has loaded.
+     */
+    public FlightSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * The last complete catalog as a table, reading it from disk first if nothing has
+     * been published yet. Blocks, so call it off the main thread.
+     *
+     * @return null if there is no catalog on disk either
+     * @throws RejectedExecutionException if the IO pool is saturated
+     */
+    public FlightTable awaitFlightTable() throws InterruptedException {
+        FlightTable table = flightTable;
+        if (table != null) {
+            return table;
+        }
+        CountDownLatch loaded = new CountDownLatch(1);
+        // Serial, so this runs after any load or refresh already queued
+        executor.execute(() -> {
+            try {
+                loadFromDisk();
+            } finally {
+                loaded.countDown();
+            }
+        });
+        loaded.await();
+        return flightTable;
+    }
+
+    /**
+     * Wall-clock time of the last successful network sync, or 0 if there hasn't been one.
+     */
+    public long getLastSyncTime() {
+        return preferences.getLong(KEY_LAST_SYNC, 0);
+    }
+
+    /**
+     * Planner over the last complete catalog, or null while it is still being built.
+     */
+    public ConnectionPlanner getConnectionPlanner() {
+        return connectionPlanner;
+    }
+
+    /**
+     * Starts pushing live seat counts into the catalog. Calls are counted, so every
+     * call must be matched by {@link #stopAvailabilityUpdates()}. Call from the main thread.
+     */
+    public void startAvailabilityUpdates() {
+        if (availabilityClients++ > 0) {
+            return;
+        }
+        if (availabilityStream == null) {
+            availabilityStream = ApiClient.newAvailabilityStream(AppExecutors.getInstance().scheduler(),
+                    (version, reset, updates) -> {
+                        boolean applied = true;
+                        try {
+                            executor.execute(() -> applyAvailability(updates));
+                        } catch (RejectedExecutionException e) {
+                            applied = false;
+                        }
+                        // The server lost our cursor, so flights may have been added or dropped
+                        // as well; seat counts alone can't say, a sync can. A sync also picks up
+                        // counts that were dropped because the IO pool was saturated.
+                        if (reset || !applied) {
+                            refresh();
+                        }
+                    });
+        }
+        // The stream resumes from its own version if it has one; otherwise catch up from the sync cursor
+        availabilityStream.start(flightStore.getStoredVersion());
+    }
+
+    public void stopAvailabilityUpdates() {
+        if (availabilityClients == 0 || --availabilityClients > 0) {
+            return;
+        }
+        availabilityStream.stop();
+        try {
+            executor.execute(() -> {
+                List<Flight> catalog = published;
+                if (snapshotBehind && catalog != null) {
+                    saveSnapshot(catalog);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The snapshot stays marked as behind, so the next cold start reads Room instead
+        }
+    }
+
+    public void refresh() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        refreshing.postValue(true);
+        try {
+            executor.execute(() -> {
+                try {
+                    fetchFromNetwork();
+                } finally {
+                    refreshInFlight.set(false);
+                    refreshing.postValue(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // IO pool saturated; let the next call try again
+            refreshInFlight.set(false);
+            refreshing.postValue(false);
+        }
+    }
+
+    private void loadFromDisk() {
+        snapshotBehind = preferences.getBoolean(KEY_SNAPSHOT_BEHIND, false);
+        // Already loaded for awaitFlightTable(), or a sync got there first
+        if (flightTable != null) {
+            return;
+        }
+        if (!snapshotBehind && loadFromSnapshot()) {
+            return;
+        }
+        FlightTable table = readTable();
+        // Don't clobber a network result that landed before the disk read finished
+        if (table.size() > 0 && published == null) {
+            publish(table);
+            if (snapshotBehind) {
+                // Catch the snapshot up so the next cold start can use it again
+                saveSnapshot(table.asList());
+            }
+        }
+    }
+
+    // Room a page at a time into columns, so only one page of entities is ever live
+    private FlightTable readTable() {
+        FlightTable.Builder builder = new FlightTable.Builder();
+        String lastId = "";
+        List<FlightEntity> page;
+        do {
+            page = flightDao.getPageAfter(lastId, PAGE_SIZE);
+            for (FlightEntity entity : page) {
+                builder.add(entity.toFlight());
+                lastId = entity.id;
+            }
+        } while (page.size() == PAGE_SIZE);
+        return builder.build();
+    }
+
+    // False if there is no usable snapshot and Room has to be read instead
+    private boolean loadFromSnapshot() {
+        CatalogSnapshot snapshot;
+        try {
+            snapshot = CatalogSnapshot.open(snapshotFile);
+        } catch (IOException e) {
+            return false;
+        }
+        // A snapshot from another catalog version means a later sync never got written out
+        if (snapshot.size() == 0 || snapshot.getCatalogVersion() != flightStore.getStoredVersion()) {
+            return false;
+        }
+        if (published == null) {
+            // The first page comes straight off the mapped records while the index is built
+            postFlights(snapshot.getFlights(0, PAGE_SIZE));
+            publish(FlightTable.fromSnapshot(snapshot));
+        }
+        return true;
+    }
+
+    private void fetchFromNetwork() {
+        // Once there's a version cursor, only changed flights need to come down
+        if (flightStore.getVersion() > 0 && syncDelta()) {
+            return;
+        }
+
+        FlightStream stream = null;
+        try {
+            // refresh() already lets just one download run at a time
+            Response<FlightStream> response = ApiClient.getApiService().streamFlights().execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                return;
+            }
+            stream = response.body();
+
+            // On a cold start there's nothing on screen yet, so publish the first page early
+            boolean publishFirstPage = published == null;
+            FlightTable fresh = stagePages(stream, publishFirstPage);
+            flightDao.promoteStaging();
+            flightStore.setVersion(parseVersion(response.headers().get(HEADER_CATALOG_VERSION)));
+            preferences.edit().putLong(KEY_LAST_SYNC, System.currentTimeMillis()).apply();
+
+            publish(fresh);
+            saveSnapshot(fresh.asList());
+            FareCalendarWorker.refreshNow(context);
+        } catch (Exception e) {
+            // Offline or server error - keep serving the cached catalog
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    // Returns false if the delta round failed, so the caller can fall back to a full download
+    private boolean syncDelta() {
+        try {
+            DeltaSyncer.Result result = new DeltaSyncer(ApiClient.getApiService(), flightStore).sync();
+            preferences.edit().putLong(KEY_LAST_SYNC, System.currentTimeMillis()).apply();
+            if (result.hasChanges()) {
+                FlightTable catalog = readTable();
+                publish(catalog);
+                saveSnapshot(catalog.asList());
+                FareCalendarWorker.refreshNow(context);
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Servers that predate delta sync send no version; 0 keeps the next refresh a full download
+    private static long parseVersion(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Decodes the stream page by page into the staging table, each page in its own short
+    // transaction, and into compact columns; a failure mid-stream leaves the live table untouched
+    private FlightTable stagePages(FlightStream stream, boolean publishFirstPage) throws IOException {
+        FlightTable.Builder fresh = new FlightTable.Builder();
+        flightDao.clearStaging();
+        stream.forEachPage(PAGE_SIZE, page -> {
+            if (fresh.size() == 0 && publishFirstPage) {
+                postFlights(new ArrayList<>(page));
+            }
+            List<StagedFlightEntity> entities = new ArrayList<>(page.size());
+            for (Flight flight : page) {
+                if (flight.getId() == null) {
+                    continue;
+                }
+                entities.add(StagedFlightEntity.fromFlight(flight));
+                fresh.add(flight);
+            }
+            flightDao.insertStaged(entities);
+        });
+        return fresh.build();
+    }
+
+    // Index before publishing so observers that search on change see the matching index
+    private void publish(FlightTable table) {
+        List<Flight> catalog = table.asList();
+        published = catalog;
+        searchIndex = FlightSearchIndex.build(catalog);
+        flightTable = table;
+        postFlights(catalog);
+        // Connections are only needed once a direct search comes up empty, so build them last
+        connectionPlanner = new ConnectionPlanner(table);
+    }
+
+    // Through the main thread's queue rather than postValue, which keeps only the newest
+    // pending value: a first page posted just before the full catalog still reaches
+    // observers, and every list arrives in the order the executor produced it
+    private void postFlights(List<Flight> catalog) {
+        AppExecutors.getInstance().mainThread().execute(() -> flights.setValue(catalog));
+    }
+
+    // Seat counts only, so the delta cursor stays put: a version bump may also carry
+    // schedule or price changes that the next delta sync still has to fetch. The live
+    // table is never written: the patch goes into a copy of its seat column, and the
+    // index and planner are re-pointed at the copy, since rows, routes and times are
+    // unchanged. Published lists and the searches running over them keep their counts.
+    private void applyAvailability(List<SeatAvailability> updates) {
+        FlightTable table = flightTable;
+        if (table == null || updates.isEmpty()) {
+            return;
+        }
+        FlightTable patched = AvailabilityPatch.apply(table, updates);
+        if (patched == table) {
+            return;
+        }
+        List<Flight> catalog = patched.asList();
+        published = catalog;
+        searchIndex = searchIndex.withFlights(catalog);
+        flightTable = patched;
+        postFlights(catalog);
+        ConnectionPlanner planner = connectionPlanner;
+        if (planner != null) {
+            connectionPlanner = planner.withTable(patched);
+        }
+
+        // Marked before Room changes, so a crash in between still leaves the snapshot unused
+        if (!snapshotBehind) {
+            preferences.edit().putBoolean(KEY_SNAPSHOT_BEHIND, true).commit();
+            snapshotBehind = true;
+        }
+        database.runInTransaction(() -> {
+            for (SeatAvailability update : updates) {
+                flightDao.updateAvailability(update.getId(), update.getEconomy(), update.getBusiness(), update.getFirst());
+            }
+        });
+    }
+
+    // Written after Room and the version cursor, so a snapshot never claims a version Room doesn't have
+    private void saveSnapshot(List<Flight> catalog) {
+        try {
+            CatalogSnapshot.write(catalog, flightStore.getStoredVersion(), snapshotFile);
+            if (snapshotBehind) {
+                preferences.edit().putBoolean(KEY_SNAPSHOT_BEHIND, false).apply();
+                snapshotBehind = false;
+            }
+        } catch (IOException e) {
+            // Don't leave an older snapshot behind that might still match the cursor
+            snapshotFile.delete();
+        }
+    }
+
+    private static void closeQuietly(FlightStream stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - getLastSyncTime() > MAX_AGE_MS;
+    }
+}
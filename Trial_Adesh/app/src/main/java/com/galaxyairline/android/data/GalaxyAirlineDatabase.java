@@ -0,0 +1,33 @@
+package com.galaxyairline.android.data;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+@Database(entities = {FlightEntity.class, StagedFlightEntity.class, FareEntity.class, BookingEntity.class}, version = 5, exportSchema = false)
+public abstract class GalaxyAirlineDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "galaxy_airline.db";
+    private static volatile GalaxyAirlineDatabase instance;
+
+    public abstract FlightDao flightDao();
+
+    public abstract FareDao fareDao();
+
+    public abstract BookingDao bookingDao();
+
+    public static GalaxyAirlineDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (GalaxyAirlineDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    GalaxyAirlineDatabase.class, DATABASE_NAME)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
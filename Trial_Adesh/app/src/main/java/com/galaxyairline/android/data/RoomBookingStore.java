@@ -0,0 +1,54 @@
+package com.galaxyairline.android.data;
+
+import com.galaxyairline.android.model.Booking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BookingSyncer.BookingStore} over one user's rows in the Room bookings table.
+ */
+class RoomBookingStore implements BookingSyncer.BookingStore {
+    // Stay well under SQLite's bound-parameter limit
+    private static final int DELETE_BATCH = 500;
+
+    private final GalaxyAirlineDatabase database;
+    private final BookingDao bookingDao;
+    private final String userId;
+
+    RoomBookingStore(GalaxyAirlineDatabase database, String userId) {
+        this.database = database;
+        this.bookingDao = database.bookingDao();
+        this.userId = userId;
+    }
+
+    @Override
+    public Map<String, Long> getVersions() {
+        List<BookingDao.BookingVersion> rows = bookingDao.getVersions(userId);
+        Map<String, Long> versions = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (BookingDao.BookingVersion row : rows) {
+            versions.put(row.bookingId, row.version);
+        }
+        return versions;
+    }
+
+    @Override
+    public void apply(List<Booking> fetched, Map<String, Long> versions, List<String> removed) {
+        List<BookingEntity> entities = new ArrayList<>(fetched.size());
+        for (Booking booking : fetched) {
+            BookingEntity entity = BookingEntity.fromBooking(booking);
+            entity.userId = userId;
+            Long version = versions.get(booking.getBookingId());
+            entity.version = version != null ? version : 0;
+            entities.add(entity);
+        }
+        database.runInTransaction(() -> {
+            bookingDao.insertAll(entities);
+            for (int start = 0; start < removed.size(); start += DELETE_BATCH) {
+                bookingDao.deleteByIds(removed.subList(start, Math.min(removed.size(), start + DELETE_BATCH)));
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.galaxyairline.android.data;
+
+import android.content.SharedPreferences;
+
+import com.galaxyairline.android.model.Flight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DeltaSyncer.FlightStore} over the Room flights table. Rows change in a
+ * single transaction; the cursor is written to preferences after it commits, so
+ * a crash in between only means the same (idempotent) delta is fetched again.
+ */
+class RoomFlightStore implements DeltaSyncer.FlightStore {
+    private static final String KEY_VERSION = "flights_version";
+    // Stay well under SQLite's bound-parameter limit
+    private static final int DELETE_BATCH = 500;
+
+    private final GalaxyAirlineDatabase database;
+    private final FlightDao flightDao;
+    private final SharedPreferences preferences;
+
+    RoomFlightStore(GalaxyAirlineDatabase database, SharedPreferences preferences) {
+        this.database = database;
+        this.flightDao = database.flightDao();
+        this.preferences = preferences;
+    }
+
+    @Override
+    public long getVersion() {
+        // An emptied table (destructive migration, cleared data) can't take a delta
+        if (flightDao.count() == 0) {
+            return 0;
+        }
+        return preferences.getLong(KEY_VERSION, 0);
+    }
+
+    /**
+     * The saved cursor without the table check in {@link #getVersion()}, so callers on the
+     * startup path can compare against it without opening the database.
+     */
+    long getStoredVersion() {
+        return preferences.getLong(KEY_VERSION, 0);
+    }
+
+    void setVersion(long version) {
+        preferences.edit().putLong(KEY_VERSION, version).apply();
+    }
+
+    @Override
+    public void apply(boolean reset, List<Flight> upserts, List<String> deletes, long version) {
+        List<FlightEntity> entities = new ArrayList<>(upserts.size());
+        for (Flight flight : upserts) {
+            if (flight.getId() != null) {
+                entities.add(FlightEntity.fromFlight(flight));
+            }
+        }
+        database.runInTransaction(() -> {
+            if (reset) {
+                flightDao.deleteAll();
+            }
+            flightDao.insertAll(entities);
+            for (int start = 0; start < deletes.size(); start += DELETE_BATCH) {
+                flightDao.deleteByIds(deletes.subList(start, Math.min(deletes.size(), start + DELETE_BATCH)));
+            }
+        });
+        setVersion(version);
+    }
+}
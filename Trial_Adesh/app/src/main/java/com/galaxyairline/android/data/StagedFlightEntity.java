@@ -0,0 +1,20 @@
+package com.galaxyairline.android.data;
+
+import androidx.room.Entity;
+
+import com.galaxyairline.android.model.Flight;
+
+/**
+ * A row of a catalog download in progress. Pages land here in short transactions
+ * and {@link FlightDao#promoteStaging()} swaps them into {@code flights} at the end,
+ * so readers and other writers never wait on the network.
+ */
+@Entity(tableName = "flights_staging")
+public class StagedFlightEntity extends FlightEntity {
+
+    public StagedFlightEntity() {}
+
+    public static StagedFlightEntity fromFlight(Flight flight) {
+        return copyInto(new StagedFlightEntity(), flight);
+    }
+}
@@ -0,0 +1,293 @@
+package com.galaxyairline.android.startup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dependency-ordered app initialization. Tasks declare the tasks they need, and
+ * each one is submitted as soon as its last dependency finishes, so independent
+ * work runs in parallel on a bounded executor.
+ *
+ * Tasks added with {@code critical = true} (and everything they depend on) form
+ * the critical path: {@link Listener#onCriticalPathComplete} fires when those are
+ * done, which is when the splash screen can go away. The remaining tasks keep
+ * running in the background. A failed task is reported and its dependents are
+ * skipped; the rest of the graph still runs.
+ */
+public class StartupGraph {
+
+    public interface Listener {
+        /**
+         * Every critical task has finished (successfully or not).
+         */
+        void onCriticalPathComplete(StartupReport report);
+
+        /**
+         * Every task has finished or been skipped.
+         */
+        void onComplete(StartupReport report);
+    }
+
+    private final Map<String, Node> nodes;
+    private final long budgetMillis;
+
+    private StartupGraph(Map<String, Node> nodes, long budgetMillis) {
+        this.nodes = nodes;
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Bounded pool for startup work: at most {@code threads} tasks at once,
+     * daemon threads so a slow initializer never keeps the process alive.
+     */
+    public static ExecutorService newExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "startup-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs the graph on {@code executor}. Listener callbacks arrive on a worker thread.
+     */
+    public void start(Executor executor, Listener listener) {
+        new Run(executor, listener).start();
+    }
+
+    public static class Builder {
+        private final Map<String, Node> nodes = new LinkedHashMap<>();
+        private long budgetMillis = Long.MAX_VALUE;
+
+        /**
+         * Adds a task that runs after every task named in {@code dependsOn}.
+         */
+        public Builder add(String name, boolean critical, StartupTask task, String... dependsOn) {
+            if (nodes.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate startup task: " + name);
+            }
+            List<String> dependencies = new ArrayList<>();
+            Collections.addAll(dependencies, dependsOn);
+            nodes.put(name, new Node(name, critical, task, dependencies));
+            return this;
+        }
+
+        /**
+         * Cold-start budget for the critical path; reports say when it was exceeded.
+         */
+        public Builder budgetMillis(long budgetMillis) {
+            this.budgetMillis = budgetMillis;
+            return this;
+        }
+
+        /**
+         * @throws IllegalStateException for an unknown dependency or a cycle
+         */
+        public StartupGraph build() {
+            for (Node node : nodes.values()) {
+                for (String dependency : node.dependencies) {
+                    Node parent = nodes.get(dependency);
+                    if (parent == null) {
+                        throw new IllegalStateException(node.name + " depends on unknown task " + dependency);
+                    }
+                    parent.dependents.add(node);
+                }
+            }
+            checkAcyclic();
+            markCriticalPath();
+            return new StartupGraph(nodes, budgetMillis);
+        }
+
+        // Kahn's algorithm: if not every node can be ordered, there's a cycle
+        private void checkAcyclic() {
+            Map<Node, Integer> remaining = new LinkedHashMap<>();
+            Deque<Node> ready = new ArrayDeque<>();
+            for (Node node : nodes.values()) {
+                remaining.put(node, node.dependencies.size());
+                if (node.dependencies.isEmpty()) {
+                    ready.add(node);
+                }
+            }
+            int ordered = 0;
+            while (!ready.isEmpty()) {
+                Node node = ready.poll();
+                ordered++;
+                for (Node dependent : node.dependents) {
+                    int left = remaining.get(dependent) - 1;
+                    remaining.put(dependent, left);
+                    if (left == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+            if (ordered != nodes.size()) {
+                List<String> stuck = new ArrayList<>();
+                for (Map.Entry<Node, Integer> entry : remaining.entrySet()) {
+                    if (entry.getValue() > 0) {
+                        stuck.add(entry.getKey().name);
+                    }
+                }
+                throw new IllegalStateException("Startup tasks form a cycle: " + stuck);
+            }
+        }
+
+        // A critical task can't finish before its dependencies, so they're critical too
+        private void markCriticalPath() {
+            Deque<Node> pending = new ArrayDeque<>();
+            for (Node node : nodes.values()) {
+                if (node.critical) {
+                    pending.add(node);
+                }
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.poll();
+                for (String dependency : node.dependencies) {
+                    Node parent = nodes.get(dependency);
+                    if (!parent.critical) {
+                        parent.critical = true;
+                        pending.add(parent);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Node {
+        final String name;
+        final StartupTask task;
+        final List<String> dependencies;
+        final List<Node> dependents = new ArrayList<>();
+        boolean critical;
+
+        Node(String name, boolean critical, StartupTask task, List<String> dependencies) {
+            this.name = name;
+            this.critical = critical;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+    }
+
+    // Mutable state for one execution; nodes themselves stay immutable after build()
+    private class Run {
+        final Executor executor;
+        final Listener listener;
+        final long startNanos = System.nanoTime();
+        final Map<Node, AtomicInteger> remainingDependencies = new LinkedHashMap<>();
+        final Set<Node> failedOrSkipped = Collections.synchronizedSet(new HashSet<Node>());
+        final List<StartupReport.TaskTiming> timings = Collections.synchronizedList(new ArrayList<StartupReport.TaskTiming>());
+        final AtomicInteger criticalLeft = new AtomicInteger();
+        final AtomicInteger totalLeft = new AtomicInteger(nodes.size());
+        volatile long criticalPathNanos = -1;
+
+        Run(Executor executor, Listener listener) {
+            this.executor = executor;
+            this.listener = listener;
+            for (Node node : nodes.values()) {
+                remainingDependencies.put(node, new AtomicInteger(node.dependencies.size()));
+                if (node.critical) {
+                    criticalLeft.incrementAndGet();
+                }
+            }
+        }
+
+        void start() {
+            if (nodes.isEmpty()) {
+                criticalPathNanos = 0;
+                listener.onCriticalPathComplete(report());
+                listener.onComplete(report());
+                return;
+            }
+            if (criticalLeft.get() == 0) {
+                criticalPathNanos = 0;
+                listener.onCriticalPathComplete(report());
+            }
+            for (Node node : nodes.values()) {
+                if (node.dependencies.isEmpty()) {
+                    submit(node);
+                }
+            }
+        }
+
+        void submit(Node node) {
+            long readyNanos = System.nanoTime();
+            executor.execute(() -> execute(node, readyNanos));
+        }
+
+        void execute(Node node, long readyNanos) {
+            long begin = System.nanoTime();
+            Throwable error = null;
+            if (dependencyFailed(node)) {
+                error = new IllegalStateException("skipped: a dependency failed");
+            } else {
+                try {
+                    node.task.run();
+                } catch (Throwable t) {
+                    error = t;
+                }
+            }
+            long end = System.nanoTime();
+            if (error != null) {
+                failedOrSkipped.add(node);
+            }
+            timings.add(new StartupReport.TaskTiming(node.name, node.critical, Thread.currentThread().getName(),
+                    toMillis(begin - startNanos), toMillis(begin - readyNanos), toMillis(end - begin), error));
+            finish(node, end);
+        }
+
+        boolean dependencyFailed(Node node) {
+            for (String dependency : node.dependencies) {
+                if (failedOrSkipped.contains(nodes.get(dependency))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void finish(Node node, long endNanos) {
+            for (Node dependent : node.dependents) {
+                if (remainingDependencies.get(dependent).decrementAndGet() == 0) {
+                    submit(dependent);
+                }
+            }
+            if (node.critical && criticalLeft.decrementAndGet() == 0) {
+                criticalPathNanos = endNanos - startNanos;
+                listener.onCriticalPathComplete(report());
+            }
+            if (totalLeft.decrementAndGet() == 0) {
+                listener.onComplete(report());
+            }
+        }
+
+        StartupReport report() {
+            List<StartupReport.TaskTiming> snapshot;
+            synchronized (timings) {
+                snapshot = new ArrayList<>(timings);
+            }
+            return new StartupReport(snapshot, toMillis(criticalPathNanos),
+                    toMillis(System.nanoTime() - startNanos), budgetMillis);
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
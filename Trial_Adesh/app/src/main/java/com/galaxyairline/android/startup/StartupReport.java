@@ -0,0 +1,140 @@
+package com.galaxyairline.android.startup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-task timings for one startup run, in start order.
+ */
+public class StartupReport {
+    private final List<TaskTiming> tasks;
+    private final long criticalPathMillis;
+    private final long elapsedMillis;
+    private final long budgetMillis;
+
+    StartupReport(List<TaskTiming> tasks, long criticalPathMillis, long elapsedMillis, long budgetMillis) {
+        List<TaskTiming> sorted = new ArrayList<>(tasks);
+        Collections.sort(sorted, new Comparator<TaskTiming>() {
+            @Override
+            public int compare(TaskTiming a, TaskTiming b) {
+                return Long.compare(a.startMillis, b.startMillis);
+            }
+        });
+        this.tasks = Collections.unmodifiableList(sorted);
+        this.criticalPathMillis = criticalPathMillis;
+        this.elapsedMillis = elapsedMillis;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public List<TaskTiming> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Time until the last critical task finished, or -1 if it hasn't yet.
+     */
+    public long getCriticalPathMillis() {
+        return criticalPathMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public boolean isOverBudget() {
+        return criticalPathMillis > budgetMillis;
+    }
+
+    public List<TaskTiming> getFailures() {
+        List<TaskTiming> failures = new ArrayList<>();
+        for (TaskTiming task : tasks) {
+            if (task.error != null) {
+                failures.add(task);
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.US, "critical path %d ms (budget %s), elapsed %d ms%n",
+                criticalPathMillis, budgetMillis == Long.MAX_VALUE ? "none" : budgetMillis + " ms", elapsedMillis));
+        for (TaskTiming task : tasks) {
+            builder.append("  ").append(task).append(String.format(Locale.US, "%n"));
+        }
+        return builder.toString();
+    }
+
+    public static class TaskTiming {
+        private final String name;
+        private final boolean critical;
+        private final String thread;
+        private final long startMillis;
+        private final long waitMillis;
+        private final long durationMillis;
+        private final Throwable error;
+
+        TaskTiming(String name, boolean critical, String thread, long startMillis, long waitMillis,
+                   long durationMillis, Throwable error) {
+            this.name = name;
+            this.critical = critical;
+            this.thread = thread;
+            this.startMillis = startMillis;
+            this.waitMillis = waitMillis;
+            this.durationMillis = durationMillis;
+            this.error = error;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCritical() {
+            return critical;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * Offset from the start of the run.
+         */
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        /**
+         * Time spent queued for a thread after its dependencies finished.
+         */
+        public long getWaitMillis() {
+            return waitMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * Why the task failed or was skipped; null on success.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-14s %s +%4d ms  ran %4d ms  queued %3d ms  [%s]%s",
+                    name, critical ? "*" : " ", startMillis, durationMillis, waitMillis, thread,
+                    error != null ? "  FAILED: " + error : "");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.galaxyairline.android.startup;
+
+/**
+ * One unit of app initialization, run on a startup worker thread once every task
+ * it depends on has finished.
+ */
+public interface StartupTask {
+    void run() throws Exception;
+}
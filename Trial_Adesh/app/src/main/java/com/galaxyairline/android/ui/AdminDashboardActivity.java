@@ -2,16 +2,29 @@ package com.galaxyairline.android.ui;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.galaxyairline.android.analytics.FlightStatsSeries;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.TaskGroup;
+import com.galaxyairline.android.data.AnalyticsRepository;
 import com.galaxyairline.android.databinding.ActivityAdminDashboardBinding;
+import com.galaxyairline.android.model.Analytics;
 import com.galaxyairline.android.utils.SessionManager;
 
+import java.util.List;
+import java.util.Locale;
+
 public class AdminDashboardActivity extends AppCompatActivity {
     
     private ActivityAdminDashboardBinding binding;
     private SessionManager sessionManager;
+    private AnalyticsRepository analyticsRepository;
+    private TaskGroup tasks;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -21,8 +34,11 @@ public class AdminDashboardActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
         
         sessionManager = new SessionManager(this);
+        analyticsRepository = AnalyticsRepository.getInstance(this);
+        tasks = AppExecutors.scope(this);
         
         setupUI();
+        observeAnalytics();
     }
     
     private void setupUI() {
@@ -46,9 +62,9 @@ public class AdminDashboardActivity extends AppCompatActivity {
         });
         
         binding.btnViewAnalytics.setOnClickListener(v -> {
-            // Navigate to analytics (placeholder for now)
-            // Intent intent = new Intent(this, AnalyticsActivity.class);
-            // startActivity(intent);
+            // Saved totals show immediately; only bookings since the last refresh are fetched
+            binding.cardAnalytics.setVisibility(View.VISIBLE);
+            analyticsRepository.refresh();
         });
         
         binding.btnLogout.setOnClickListener(v -> {
@@ -59,4 +75,46 @@ public class AdminDashboardActivity extends AppCompatActivity {
             finish();
         });
     }
+    
+    private void observeAnalytics() {
+        analyticsRepository.getAnalytics().observe(this, this::showAnalytics);
+        analyticsRepository.getError().observe(this, message -> {
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+    
+    private void showAnalytics(Analytics analytics) {
+        if (analytics == null) {
+            return;
+        }
+        binding.textTotalRevenue.setText(String.format(Locale.US, "Total revenue: $%,.2f", analytics.getTotalRevenue()));
+        binding.textTotalBookings.setText(String.format(Locale.US, "Bookings: %d (avg $%s)",
+                analytics.getTotalBookings(), analytics.getAverageBookingValue()));
+        
+        Analytics.ClassRevenue classRevenue = analytics.getClassRevenue();
+        binding.textClassRevenue.setText(String.format(Locale.US, "Economy $%,.0f  |  Business $%,.0f  |  First $%,.0f",
+                classRevenue.getEconomy(), classRevenue.getBusiness(), classRevenue.getFirst()));
+        
+        StringBuilder topFlights = new StringBuilder("Top flights");
+        List<Analytics.FlightStats> flightStats = analytics.getFlightStats();
+        for (int i = 0; i < Math.min(5, flightStats.size()); i++) {
+            Analytics.FlightStats stats = flightStats.get(i);
+            topFlights.append(String.format(Locale.US, "\n%s  $%,.0f  (%s%% full)",
+                    stats.getFlightNumber(), stats.getRevenue(), stats.getOccupancyRate()));
+        }
+        binding.textTopFlights.setText(flightStats.isEmpty() ? "No bookings yet" : topFlights.toString());
+        
+        // Parsing and the first downsample are O(flights), so keep them off the UI thread
+        int pointsPerScreen = binding.chartFlightStats.getPointsPerScreen();
+        tasks.submit(AppExecutors.getInstance().cpu(), Priority.HIGH, () -> {
+            FlightStatsSeries series = FlightStatsSeries.from(flightStats, pointsPerScreen);
+            AppExecutors.getInstance().mainThread().execute(() -> {
+                if (!tasks.isCancelled()) {
+                    binding.chartFlightStats.setSeries(series);
+                }
+            });
+        });
+    }
 }
\ No newline at end of file
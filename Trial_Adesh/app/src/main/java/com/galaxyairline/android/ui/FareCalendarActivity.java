@@ -0,0 +1,124 @@
+package com.galaxyairline.android.ui;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.View;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import com.galaxyairline.android.adapter.AirportSuggestionAdapter;
+import com.galaxyairline.android.adapter.FareDayAdapter;
+import com.galaxyairline.android.data.AirportRepository;
+import com.galaxyairline.android.data.FareCalendarRepository;
+import com.galaxyairline.android.data.FareCalendarWorker;
+import com.galaxyairline.android.data.FareEntity;
+import com.galaxyairline.android.databinding.ActivityFareCalendarBinding;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cheapest fare for each of the next days into one destination, read from the
+ * precomputed fare calendar so it shows instantly and offline. Picking a day
+ * opens the search form with the route and date filled in.
+ */
+public class FareCalendarActivity extends AppCompatActivity {
+    
+    public static final String EXTRA_DESTINATION_CITY = "destination_city";
+    public static final String EXTRA_DESTINATION_CODE = "destination_code";
+    
+    private ActivityFareCalendarBinding binding;
+    private FareCalendarRepository fareCalendarRepository;
+    private AirportRepository airportRepository;
+    private FareDayAdapter fareAdapter;
+    
+    private String destinationCity;
+    private String destinationCode;
+    private String originCode;
+    private String classType = "economy";
+    // The route currently on screen; replaced whenever the origin or cabin changes
+    private LiveData<List<FareEntity>> calendar;
+    
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        
+        binding = ActivityFareCalendarBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+        
+        fareCalendarRepository = FareCalendarRepository.getInstance(this);
+        airportRepository = AirportRepository.getInstance(this);
+        destinationCity = getIntent().getStringExtra(EXTRA_DESTINATION_CITY);
+        destinationCode = getIntent().getStringExtra(EXTRA_DESTINATION_CODE);
+        
+        setupUI();
+    }
+    
+    private void setupUI() {
+        binding.btnBack.setOnClickListener(v -> finish());
+        binding.textTitle.setText("Fares to " + (destinationCity != null ? destinationCity : destinationCode));
+        binding.textSummary.setText(String.format(Locale.US, "Cheapest fare per day, next %d days",
+                FareCalendarWorker.HORIZON_DAYS));
+        
+        binding.editOrigin.setAdapter(new AirportSuggestionAdapter(this, airportRepository));
+        binding.editOrigin.setOnItemClickListener((parent, view, position, id) -> {
+            // Suggestion ids are airport ranks, and the index is already loaded by the lookup
+            originCode = airportRepository.getIndex().getCode((int) id);
+            showCalendar();
+        });
+        
+        binding.chipGroupClass.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) {
+                return;
+            }
+            int checked = checkedIds.get(0);
+            if (checked == binding.chipBusiness.getId()) {
+                classType = "business";
+            } else if (checked == binding.chipFirst.getId()) {
+                classType = "first";
+            } else {
+                classType = "economy";
+            }
+            showCalendar();
+        });
+        
+        fareAdapter = new FareDayAdapter(this::searchDay);
+        binding.recyclerFares.setLayoutManager(new LinearLayoutManager(this));
+        binding.recyclerFares.setAdapter(fareAdapter);
+    }
+    
+    private void showCalendar() {
+        if (originCode == null || destinationCode == null) {
+            return;
+        }
+        if (calendar != null) {
+            calendar.removeObservers(this);
+        }
+        // Room re-emits whenever FareCalendarWorker rewrites the table
+        calendar = fareCalendarRepository.getCalendar(originCode, destinationCode, classType);
+        calendar.observe(this, this::bindFares);
+    }
+    
+    private void bindFares(List<FareEntity> fares) {
+        boolean empty = fares == null || fares.isEmpty();
+        binding.textEmptyState.setText(originCode.equals(destinationCode)
+                ? "Choose a different origin"
+                : "No fares from " + originCode + " in the next " + FareCalendarWorker.HORIZON_DAYS + " days");
+        binding.textEmptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+        binding.recyclerFares.setVisibility(empty ? View.GONE : View.VISIBLE);
+        if (!empty) {
+            fareAdapter.setFares(fares);
+        }
+    }
+    
+    private void searchDay(String date) {
+        Intent intent = new Intent(this, FlightSearchActivity.class);
+        intent.putExtra("origin_code", originCode);
+        intent.putExtra("destination_city", destinationCity);
+        intent.putExtra("destination_code", destinationCode);
+        intent.putExtra("depart_date", date);
+        startActivity(intent);
+    }
+}
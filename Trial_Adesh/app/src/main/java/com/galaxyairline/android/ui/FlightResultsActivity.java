@@ -0,0 +1,245 @@
+package com.galaxyairline.android.ui;
+
+import android.os.Bundle;
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.galaxyairline.android.adapter.FlightResultAdapter;
+import com.galaxyairline.android.adapter.ItineraryAdapter;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.TaskGroup;
+import com.galaxyairline.android.data.FlightRepository;
+import com.galaxyairline.android.databinding.ActivityFlightResultsBinding;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.search.ConnectionPlanner;
+import com.galaxyairline.android.search.FlightSearchIndex;
+import com.galaxyairline.android.search.Itinerary;
+import com.galaxyairline.android.search.ResultOrdering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class FlightResultsActivity extends AppCompatActivity {
+    
+    public static final String EXTRA_FROM = "from";
+    public static final String EXTRA_TO = "to";
+    public static final String EXTRA_DEPART_DATE = "depart_date";
+    public static final String EXTRA_RETURN_DATE = "return_date";
+    public static final String EXTRA_CLASS_TYPE = "class_type";
+    
+    // Enough spare rows for both lists to fling without inflating
+    private static final int POOLED_ROWS = 20;
+    
+    private ActivityFlightResultsBinding binding;
+    private FlightRepository flightRepository;
+    private TaskGroup tasks;
+    private FlightSearchData searchData;
+    private FlightResultAdapter outboundAdapter;
+    private FlightResultAdapter returnAdapter;
+    private ItineraryAdapter connectionsAdapter;
+    
+    private ResultOrdering.Sort sort = ResultOrdering.Sort.PRICE;
+    private boolean nonstopOnly;
+    // Bumped on every re-order so a slow, older ordering can't overwrite a newer one
+    private int generation;
+    
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        
+        binding = ActivityFlightResultsBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+        
+        flightRepository = FlightRepository.getInstance(this);
+        tasks = AppExecutors.scope(this);
+        searchData = readSearch();
+        
+        setupUI();
+        // Re-run the search whenever the catalog refreshes underneath us
+        flightRepository.getFlights().observe(this, flights -> showResults(false));
+    }
+    
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Live seat counts land in the catalog, which re-runs the search and rebinds only the changed rows
+        flightRepository.startAvailabilityUpdates();
+    }
+    
+    @Override
+    protected void onStop() {
+        flightRepository.stopAvailabilityUpdates();
+        super.onStop();
+    }
+    
+    private FlightSearchData readSearch() {
+        FlightSearchData data = new FlightSearchData();
+        data.setFrom(getIntent().getStringExtra(EXTRA_FROM));
+        data.setTo(getIntent().getStringExtra(EXTRA_TO));
+        data.setDepartDate(getIntent().getStringExtra(EXTRA_DEPART_DATE));
+        String returnDate = getIntent().getStringExtra(EXTRA_RETURN_DATE);
+        if (returnDate != null && !returnDate.isEmpty()) {
+            data.setReturnDate(returnDate);
+            data.setTripType("round-trip");
+        }
+        String classType = getIntent().getStringExtra(EXTRA_CLASS_TYPE);
+        if (classType != null) {
+            data.setClassType(classType);
+        }
+        return data;
+    }
+    
+    private void setupUI() {
+        binding.btnBack.setOnClickListener(v -> finish());
+        binding.textTitle.setText(searchData.getFrom() + " - " + searchData.getTo());
+        
+        FlightResultAdapter.OnFlightClickListener onClick = flight -> Toast.makeText(this,
+                flight.getFlightNumber() + " departs " + flight.getDate() + " at " + flight.getDeparture(),
+                Toast.LENGTH_SHORT).show();
+        outboundAdapter = new FlightResultAdapter(searchData.getClassType(), AppExecutors.getInstance().cpu(), onClick);
+        returnAdapter = new FlightResultAdapter(searchData.getClassType(), AppExecutors.getInstance().cpu(), onClick);
+        connectionsAdapter = new ItineraryAdapter(AppExecutors.getInstance().cpu(), itinerary -> Toast.makeText(this,
+                itinerary.getStopsLabel() + " departs " + itinerary.getFlights().get(0).getDate() + " at "
+                        + itinerary.getFlights().get(0).getDeparture(), Toast.LENGTH_SHORT).show());
+        
+        // Both flight lists use the same row layout, so they can share recycled rows
+        RecyclerView.RecycledViewPool viewPool = new RecyclerView.RecycledViewPool();
+        viewPool.setMaxRecycledViews(0, POOLED_ROWS);
+        setupList(binding.recyclerOutbound, outboundAdapter, viewPool);
+        setupList(binding.recyclerReturn, returnAdapter, viewPool);
+        // Itinerary rows are a different ViewHolder under the same view type, so never from that pool
+        setupList(binding.recyclerConnections, connectionsAdapter, new RecyclerView.RecycledViewPool());
+        
+        binding.chipGroupSort.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) {
+                return;
+            }
+            int checked = checkedIds.get(0);
+            if (checked == binding.chipSortDeparture.getId()) {
+                sort = ResultOrdering.Sort.DEPARTURE;
+            } else if (checked == binding.chipSortDuration.getId()) {
+                sort = ResultOrdering.Sort.DURATION;
+            } else {
+                sort = ResultOrdering.Sort.PRICE;
+            }
+            showResults(true);
+        });
+        binding.chipNonstop.setOnCheckedChangeListener((chip, checked) -> {
+            nonstopOnly = checked;
+            showResults(true);
+        });
+    }
+    
+    private void setupList(RecyclerView recycler, RecyclerView.Adapter<?> adapter, RecyclerView.RecycledViewPool viewPool) {
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        // Bind the next row during idle frame time while scrolling, not on the frame that needs it
+        layoutManager.setItemPrefetchEnabled(true);
+        recycler.setLayoutManager(layoutManager);
+        recycler.setHasFixedSize(true);
+        recycler.setRecycledViewPool(viewPool);
+        recycler.setAdapter(adapter);
+    }
+    
+    private void showResults(boolean scrollToTop) {
+        FlightSearchIndex index = flightRepository.getSearchIndex();
+        if (index.isEmpty()) {
+            binding.textSummary.setText("Loading flights...");
+            return;
+        }
+        
+        int current = ++generation;
+        ResultOrdering.Sort currentSort = sort;
+        boolean currentNonstopOnly = nonstopOnly;
+        // Search and ordering happen off the UI thread; the adapters then diff off it too
+        tasks.submit(AppExecutors.getInstance().cpu(), Priority.HIGH, () -> {
+            List<Flight> direct = index.search(searchData);
+            List<Flight> outbound = ResultOrdering.apply(direct, currentSort,
+                    searchData.getClassType(), currentNonstopOnly);
+            // No direct flight at all - offer itineraries with up to two connections instead
+            List<Itinerary> connections = direct.isEmpty() && !currentNonstopOnly
+                    ? planConnections(index, currentSort)
+                    : Collections.<Itinerary>emptyList();
+            List<Flight> inbound = Collections.emptyList();
+            if (searchData.getReturnDate() != null) {
+                inbound = ResultOrdering.apply(index.search(returnSearch()), currentSort,
+                        searchData.getClassType(), currentNonstopOnly);
+            }
+            List<Flight> returnFlights = inbound;
+            AppExecutors.getInstance().mainThread().execute(() -> {
+                if (current == generation && !tasks.isCancelled()) {
+                    bindResults(outbound, returnFlights, connections, scrollToTop);
+                }
+            });
+        });
+    }
+    
+    private List<Itinerary> planConnections(FlightSearchIndex index, ResultOrdering.Sort currentSort) {
+        ConnectionPlanner planner = flightRepository.getConnectionPlanner();
+        String fromCode = index.resolveAirportCode(searchData.getFrom());
+        String toCode = index.resolveAirportCode(searchData.getTo());
+        if (planner == null || fromCode == null || toCode == null) {
+            return Collections.emptyList();
+        }
+        List<Itinerary> itineraries = planner.plan(new ConnectionPlanner.Query(fromCode, toCode, searchData.getDepartDate())
+                .classType(searchData.getClassType())
+                .seats(searchData.getPassengers() != null ? searchData.getPassengers().getTotal() : 1)
+                .sortBy(currentSort == ResultOrdering.Sort.PRICE
+                        ? ConnectionPlanner.SortOrder.PRICE : ConnectionPlanner.SortOrder.DURATION));
+        if (currentSort == ResultOrdering.Sort.DEPARTURE) {
+            // The planner keeps the fastest; show those in the order they leave ("HH:mm" sorts as text)
+            itineraries = new ArrayList<>(itineraries);
+            Collections.sort(itineraries, (a, b) -> a.getFlights().get(0).getDeparture()
+                    .compareTo(b.getFlights().get(0).getDeparture()));
+        }
+        return itineraries;
+    }
+    
+    private FlightSearchData returnSearch() {
+        FlightSearchData data = new FlightSearchData();
+        data.setFrom(searchData.getTo());
+        data.setTo(searchData.getFrom());
+        data.setDepartDate(searchData.getReturnDate());
+        data.setClassType(searchData.getClassType());
+        data.setPassengers(searchData.getPassengers());
+        return data;
+    }
+    
+    private void bindResults(List<Flight> outbound, List<Flight> inbound, List<Itinerary> connections,
+                             boolean scrollToTop) {
+        boolean roundTrip = searchData.getReturnDate() != null;
+        boolean connecting = !connections.isEmpty();
+        boolean empty = outbound.isEmpty() && inbound.isEmpty() && !connecting;
+        binding.textEmptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+        binding.recyclerOutbound.setVisibility(empty || connecting ? View.GONE : View.VISIBLE);
+        binding.textConnectionsHeader.setVisibility(connecting ? View.VISIBLE : View.GONE);
+        binding.recyclerConnections.setVisibility(connecting ? View.VISIBLE : View.GONE);
+        binding.textReturnHeader.setVisibility(roundTrip && !empty ? View.VISIBLE : View.GONE);
+        binding.recyclerReturn.setVisibility(roundTrip && !empty ? View.VISIBLE : View.GONE);
+        
+        binding.textSummary.setText(roundTrip
+                ? String.format(Locale.US, "%s | %d outbound, %d return", searchData.getDepartDate(),
+                        connecting ? connections.size() : outbound.size(), inbound.size())
+                : connecting
+                ? String.format(Locale.US, "%s | %d connecting options", searchData.getDepartDate(), connections.size())
+                : String.format(Locale.US, "%s | %d flights", searchData.getDepartDate(), outbound.size()));
+        
+        if (scrollToTop) {
+            // After a re-sort show the new top of the list rather than following a moved row
+            outboundAdapter.submitList(outbound, () -> binding.recyclerOutbound.scrollToPosition(0));
+            returnAdapter.submitList(inbound, () -> binding.recyclerReturn.scrollToPosition(0));
+            connectionsAdapter.submitList(connections, () -> binding.recyclerConnections.scrollToPosition(0));
+        } else {
+            outboundAdapter.submitList(outbound);
+            returnAdapter.submitList(inbound);
+            connectionsAdapter.submitList(connections);
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package com.galaxyairline.android.ui;
 
+import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.widget.AutoCompleteTextView;
+import android.widget.EditText;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.galaxyairline.android.adapter.AirportSuggestionAdapter;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.TaskGroup;
+import com.galaxyairline.android.data.AirportRepository;
+import com.galaxyairline.android.data.FlightRepository;
 import com.galaxyairline.android.databinding.ActivityFlightSearchBinding;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.search.AirportIndex;
+import com.galaxyairline.android.search.FlightSearchIndex;
 import com.galaxyairline.android.utils.SessionManager;
 
+import java.util.Calendar;
+import java.util.Locale;
+
 public class FlightSearchActivity extends AppCompatActivity {
     
     private ActivityFlightSearchBinding binding;
     private SessionManager sessionManager;
+    private FlightRepository flightRepository;
+    private AirportRepository airportRepository;
+    private TaskGroup tasks;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -21,6 +40,12 @@ public class FlightSearchActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
         
         sessionManager = new SessionManager(this);
+        flightRepository = FlightRepository.getInstance(this);
+        airportRepository = AirportRepository.getInstance(this);
+        tasks = AppExecutors.scope(this);
+        
+        // Keep the catalog (and its search index) loaded while the user fills in the form
+        flightRepository.getFlights().observe(this, flights -> {});
         
         setupUI();
         handleIntent();
@@ -35,21 +60,67 @@ public class FlightSearchActivity extends AppCompatActivity {
         binding.btnBack.setOnClickListener(v -> {
             finish();
         });
+        
+        // Each field needs its own adapter - they filter independently
+        binding.editOrigin.setAdapter(new AirportSuggestionAdapter(this, airportRepository));
+        binding.editDestination.setAdapter(new AirportSuggestionAdapter(this, airportRepository));
+        
+        binding.editDepartDate.setOnClickListener(v -> showDatePicker(binding.editDepartDate));
+        binding.editReturnDate.setOnClickListener(v -> showDatePicker(binding.editReturnDate));
     }
     
     private void handleIntent() {
-        // Handle pre-filled destination from UserDashboard
+        // Handle a pre-filled route from the dashboard or the fare calendar
         Intent intent = getIntent();
         if (intent != null) {
+            String originCode = intent.getStringExtra("origin_code");
             String destinationCity = intent.getStringExtra("destination_city");
             String destinationCode = intent.getStringExtra("destination_code");
+            String departDate = intent.getStringExtra("depart_date");
             
-            if (destinationCity != null && destinationCode != null) {
-                binding.editDestination.setText(destinationCity + " (" + destinationCode + ")");
+            if (departDate != null) {
+                binding.editDepartDate.setText(departDate);
+            }
+            if (originCode != null || destinationCode != null) {
+                // The first getIndex() reads the bundled directory, so look the labels up on io
+                tasks.submit(AppExecutors.getInstance().io(), Priority.HIGH, () -> {
+                    AirportIndex airports = airportRepository.getIndex();
+                    String originLabel = originCode != null ? label(airports, originCode, null) : null;
+                    String destinationLabel = destinationCode != null ? label(airports, destinationCode, destinationCity) : null;
+                    AppExecutors.getInstance().mainThread().execute(() -> {
+                        if (!tasks.isCancelled()) {
+                            prefill(binding.editOrigin, originLabel);
+                            prefill(binding.editDestination, destinationLabel);
+                        }
+                    });
+                });
             }
         }
     }
     
+    private static String label(AirportIndex airports, String code, String city) {
+        int airport = airports.findCode(code);
+        if (airport >= 0) {
+            return airports.getLabel(airport);
+        }
+        return city != null ? city + " (" + code + ")" : code;
+    }
+    
+    private static void prefill(AutoCompleteTextView field, String label) {
+        // Pre-filled, so don't pop the suggestion list open - and don't overwrite typing
+        if (label != null && field.length() == 0) {
+            field.setText(label, false);
+        }
+    }
+    
+    private void showDatePicker(EditText target) {
+        Calendar calendar = Calendar.getInstance();
+        new DatePickerDialog(this, (view, year, month, dayOfMonth) -> {
+            // Same yyyy-MM-dd format the catalog uses for Flight.date
+            target.setText(String.format(Locale.US, "%04d-%02d-%02d", year, month + 1, dayOfMonth));
+        }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH)).show();
+    }
+    
     private void performFlightSearch() {
         String from = binding.editOrigin.getText().toString().trim();
         String to = binding.editDestination.getText().toString().trim();
@@ -57,16 +128,32 @@ public class FlightSearchActivity extends AppCompatActivity {
         String returnDate = binding.editReturnDate.getText().toString().trim();
         
         if (from.isEmpty() || to.isEmpty() || departDate.isEmpty()) {
-            // Show error message
+            Toast.makeText(this, "Please fill in origin, destination and departure date", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        
+        FlightSearchData searchData = new FlightSearchData();
+        searchData.setFrom(from);
+        searchData.setTo(to);
+        searchData.setDepartDate(departDate);
+        if (!returnDate.isEmpty()) {
+            searchData.setReturnDate(returnDate);
+            searchData.setTripType("round-trip");
+        }
+        
+        FlightSearchIndex index = flightRepository.getSearchIndex();
+        if (index.isEmpty()) {
+            Toast.makeText(this, "Flights are still loading - please try again in a moment", Toast.LENGTH_SHORT).show();
             return;
         }
         
-        // Navigate to flight results (placeholder for now)
-        // Intent intent = new Intent(this, FlightResultsActivity.class);
-        // intent.putExtra("from", from);
-        // intent.putExtra("to", to);
-        // intent.putExtra("depart_date", departDate);
-        // intent.putExtra("return_date", returnDate);
-        // startActivity(intent);
+        // Navigate to flight results; routes without a direct flight list connecting itineraries there
+        Intent intent = new Intent(this, FlightResultsActivity.class);
+        intent.putExtra(FlightResultsActivity.EXTRA_FROM, from);
+        intent.putExtra(FlightResultsActivity.EXTRA_TO, to);
+        intent.putExtra(FlightResultsActivity.EXTRA_DEPART_DATE, departDate);
+        intent.putExtra(FlightResultsActivity.EXTRA_RETURN_DATE, returnDate);
+        intent.putExtra(FlightResultsActivity.EXTRA_CLASS_TYPE, searchData.getClassType());
+        startActivity(intent);
     }
-}
\ No newline at end of file
+}
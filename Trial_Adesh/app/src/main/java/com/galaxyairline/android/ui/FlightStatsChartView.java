@@ -0,0 +1,187 @@
+package com.galaxyairline.android.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import com.galaxyairline.android.analytics.ChartSeries;
+import com.galaxyairline.android.analytics.FlightStatsSeries;
+
+/**
+ * Pinch-zoomable line chart of revenue and occupancy per flight.
+ *
+ * Lines are drawn from the downsampled buffer for the current zoom level, so a
+ * frame touches a few hundred points however many flights there are, and
+ * onDraw reuses one Path and allocates nothing.
+ */
+public class FlightStatsChartView extends View {
+    // One point every couple of pixels is as much detail as a line can show
+    private static final float PIXELS_PER_POINT = 2f;
+    private static final float MIN_VISIBLE_POINTS = 10f;
+
+    private final Paint revenuePaint = linePaint(Color.parseColor("#1976D2"));
+    private final Paint occupancyPaint = linePaint(Color.parseColor("#FF9800"));
+    private final Paint axisPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path path = new Path();
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector panDetector;
+
+    private FlightStatsSeries series;
+    // Visible window in series indices
+    private float viewStart;
+    private float viewSpan;
+
+    public FlightStatsChartView(Context context) {
+        this(context, null);
+    }
+
+    public FlightStatsChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        axisPaint.setColor(Color.parseColor("#DDDDDD"));
+        axisPaint.setStrokeWidth(1f);
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomBy(detector.getScaleFactor(), detector.getFocusX());
+                return true;
+            }
+        });
+        panDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                panBy(distanceX);
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                resetZoom();
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Number of points to keep per screen width; build series for this view with it.
+     */
+    public int getPointsPerScreen() {
+        int width = getWidth() > 0 ? getWidth() : getResources().getDisplayMetrics().widthPixels;
+        return Math.max(3, (int) (width / PIXELS_PER_POINT));
+    }
+
+    public void setSeries(FlightStatsSeries series) {
+        this.series = series;
+        resetZoom();
+    }
+
+    public void resetZoom() {
+        viewStart = 0;
+        viewSpan = series != null ? Math.max(1, series.size() - 1) : 1;
+        postInvalidateOnAnimation();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (series == null) {
+            return super.onTouchEvent(event);
+        }
+        // Keep the surrounding ScrollView from stealing horizontal drags
+        getParent().requestDisallowInterceptTouchEvent(event.getActionMasked() != MotionEvent.ACTION_UP
+                && event.getActionMasked() != MotionEvent.ACTION_CANCEL);
+        boolean handled = scaleDetector.onTouchEvent(event);
+        if (!scaleDetector.isInProgress()) {
+            handled |= panDetector.onTouchEvent(event);
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        float width = getWidth() - getPaddingLeft() - getPaddingRight();
+        float height = getHeight() - getPaddingTop() - getPaddingBottom();
+        canvas.drawLine(left, top + height, left + width, top + height, axisPaint);
+        if (series == null || series.size() < 2 || width <= 0 || height <= 0) {
+            return;
+        }
+
+        drawSeries(canvas, series.getRevenue(), series.getRevenue().getMax(), revenuePaint, left, top, width, height);
+        // Occupancy is a percentage, so it always uses the full 0-100 scale
+        drawSeries(canvas, series.getOccupancy(), 100f, occupancyPaint, left, top, width, height);
+    }
+
+    private void drawSeries(Canvas canvas, ChartSeries line, float max, Paint paint,
+                            float left, float top, float width, float height) {
+        if (max <= 0) {
+            max = 1;
+        }
+        ChartSeries.Level level = line.level(line.zoomLevelFor(viewSpan));
+        float scaleX = width / viewSpan;
+        float viewEnd = viewStart + viewSpan;
+
+        path.rewind();
+        // Start one point outside the window on each side so lines run to the edges
+        for (int i = level.floor(viewStart); i < level.size(); i++) {
+            float x = left + (level.indexAt(i) - viewStart) * scaleX;
+            float y = top + height - Math.min(level.valueAt(i), max) / max * height;
+            if (path.isEmpty()) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+            if (level.indexAt(i) > viewEnd) {
+                break;
+            }
+        }
+        canvas.save();
+        canvas.clipRect(left, top, left + width, top + height);
+        canvas.drawPath(path, paint);
+        canvas.restore();
+    }
+
+    private void zoomBy(float factor, float focusX) {
+        float total = Math.max(1, series.size() - 1);
+        float width = Math.max(1, getWidth() - getPaddingLeft() - getPaddingRight());
+        float focus = viewStart + (focusX - getPaddingLeft()) / width * viewSpan;
+        float span = Math.max(MIN_VISIBLE_POINTS, Math.min(total, viewSpan / factor));
+        // Keep the point under the fingers where it was
+        viewStart = focus - (focus - viewStart) * span / viewSpan;
+        viewSpan = span;
+        clampWindow(total);
+        postInvalidateOnAnimation();
+    }
+
+    private void panBy(float distancePx) {
+        float width = Math.max(1, getWidth() - getPaddingLeft() - getPaddingRight());
+        viewStart += distancePx / width * viewSpan;
+        clampWindow(Math.max(1, series.size() - 1));
+        postInvalidateOnAnimation();
+    }
+
+    private void clampWindow(float total) {
+        viewStart = Math.max(0, Math.min(viewStart, total - viewSpan));
+    }
+
+    private static Paint linePaint(int color) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(color);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(4f);
+        paint.setStrokeJoin(Paint.Join.ROUND);
+        return paint;
+    }
+}
@@ -101,7 +101,7 @@ public class LoginActivity extends AppCompatActivity {
                 if (response.isSuccessful() && response.body() != null) {
                     GalaxyAirlineAPI.AuthResponse authResponse = response.body();
                     if (authResponse.isSuccess() && authResponse.getUser() != null) {
-                        sessionManager.createLoginSession(authResponse.getUser(), authResponse.getAccessToken());
+                        sessionManager.createLoginSession(authResponse.getUser(), authResponse.getAccessToken(), authResponse.getRefreshToken());
                         navigateToDashboard(authResponse.getUser().isAdmin());
                     } else {
                         binding.textLoginError.setText(authResponse.getMessage() != null ? authResponse.getMessage() : "Login failed");
@@ -145,7 +145,7 @@ public class LoginActivity extends AppCompatActivity {
                 if (response.isSuccessful() && response.body() != null) {
                     GalaxyAirlineAPI.AuthResponse authResponse = response.body();
                     if (authResponse.isSuccess() && authResponse.getUser() != null) {
-                        sessionManager.createLoginSession(authResponse.getUser(), authResponse.getAccessToken());
+                        sessionManager.createLoginSession(authResponse.getUser(), authResponse.getAccessToken(), authResponse.getRefreshToken());
                         Toast.makeText(LoginActivity.this, "Account created successfully!", Toast.LENGTH_SHORT).show();
                         navigateToDashboard(authResponse.getUser().isAdmin());
                     } else {
@@ -179,7 +179,7 @@ public class LoginActivity extends AppCompatActivity {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
                     // Admin login successful
                     GalaxyAirlineAPI.AuthResponse authResponse = response.body();
-                    sessionManager.createLoginSession(authResponse.getUser(), authResponse.getAccessToken());
+                    sessionManager.createLoginSession(authResponse.getUser(), authResponse.getAccessToken(), authResponse.getRefreshToken());
                     navigateToDashboard(true);
                 } else {
                     // Try creating admin account
@@ -2,16 +2,27 @@ package com.galaxyairline.android.ui;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.Toast;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.galaxyairline.android.adapter.BookingAdapter;
+import com.galaxyairline.android.data.BookingsRepository;
 import com.galaxyairline.android.databinding.ActivityMyBookingsBinding;
+import com.galaxyairline.android.model.Booking;
 import com.galaxyairline.android.utils.SessionManager;
 
+import java.util.List;
+
 public class MyBookingsActivity extends AppCompatActivity {
     
     private ActivityMyBookingsBinding binding;
     private SessionManager sessionManager;
+    private BookingsRepository bookingsRepository;
+    private BookingAdapter bookingAdapter;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -21,8 +32,10 @@ public class MyBookingsActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
         
         sessionManager = new SessionManager(this);
+        bookingsRepository = BookingsRepository.getInstance(this);
         
         setupUI();
+        observeBookings();
         loadBookings();
     }
     
@@ -32,29 +45,67 @@ public class MyBookingsActivity extends AppCompatActivity {
             finish();
         });
         
+        binding.btnExploreFlights.setOnClickListener(v -> {
+            startActivity(new Intent(this, FlightSearchActivity.class));
+        });
+        
+        bookingAdapter = new BookingAdapter(this::confirmCancel);
+        binding.recyclerBookings.setLayoutManager(new LinearLayoutManager(this));
+        binding.recyclerBookings.setAdapter(bookingAdapter);
+        
         // Set up refresh functionality
         binding.swipeRefresh.setOnRefreshListener(() -> {
             loadBookings();
         });
     }
     
+    private void observeBookings() {
+        // The spinner follows the repository, not a timer
+        bookingsRepository.isRefreshing().observe(this, refreshing -> {
+            binding.swipeRefresh.setRefreshing(Boolean.TRUE.equals(refreshing));
+        });
+        
+        bookingsRepository.getBookings().observe(this, this::showBookings);
+        
+        bookingsRepository.getError().observe(this, message -> {
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+    
     private void loadBookings() {
-        // Load user bookings (placeholder for now)
-        // This would typically involve an API call to fetch user's bookings
-        
-        if (sessionManager.getCurrentUser() != null) {
-            String userId = sessionManager.getCurrentUser().getId();
-            
-            // Simulate loading
-            binding.swipeRefresh.setRefreshing(true);
-            
-            // TODO: Implement actual booking loading
-            // For now, just stop the refresh indicator
-            binding.swipeRefresh.postDelayed(() -> {
-                binding.swipeRefresh.setRefreshing(false);
-                // Show empty state or bookings list
-                binding.textEmptyState.setText("No bookings found. Start exploring flights!");
-            }, 1000);
+        if (sessionManager.getCurrentUser() == null || sessionManager.getAccessToken() == null) {
+            binding.swipeRefresh.setRefreshing(false);
+            binding.textEmptyState.setText("Please log in to see your bookings");
+            return;
+        }
+        
+        String userId = sessionManager.getCurrentUser().getId();
+        bookingsRepository.refresh(userId);
+    }
+    
+    private void confirmCancel(Booking booking) {
+        new AlertDialog.Builder(this)
+                .setTitle("Cancel booking?")
+                .setMessage("Booking " + booking.getBookingId() + " will be cancelled and its seats released.")
+                .setPositiveButton("Cancel booking", (dialog, which) -> {
+                    if (sessionManager.getCurrentUser() != null) {
+                        bookingsRepository.cancel(sessionManager.getCurrentUser().getId(), booking.getBookingId());
+                    }
+                })
+                .setNegativeButton("Keep", null)
+                .show();
+    }
+    
+    private void showBookings(List<Booking> bookings) {
+        boolean empty = bookings == null || bookings.isEmpty();
+        binding.recyclerBookings.setVisibility(empty ? View.GONE : View.VISIBLE);
+        binding.layoutEmptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+        if (empty) {
+            binding.textEmptyState.setText("No bookings found. Start exploring flights!");
+        } else {
+            bookingAdapter.setBookings(bookings);
         }
     }
-}
\ No newline at end of file
+}
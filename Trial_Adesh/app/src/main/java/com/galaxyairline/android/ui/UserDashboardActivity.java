@@ -8,6 +8,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.galaxyairline.android.adapter.QuickDestinationAdapter;
 import com.galaxyairline.android.adapter.FeatureAdapter;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.TaskGroup;
+import com.galaxyairline.android.data.FareCalendarRepository;
+import com.galaxyairline.android.data.FareDao;
 import com.galaxyairline.android.databinding.ActivityUserDashboardBinding;
 import com.galaxyairline.android.model.Destination;
 import com.galaxyairline.android.model.Feature;
@@ -20,7 +25,9 @@ public class UserDashboardActivity extends AppCompatActivity {
     
     private ActivityUserDashboardBinding binding;
     private SessionManager sessionManager;
-
+    // Background work for this screen, cancelled when it's destroyed
+    private TaskGroup tasks;
+    
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -28,17 +35,19 @@ public class UserDashboardActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
         
         sessionManager = new SessionManager(this);
+        tasks = AppExecutors.scope(this);
         
         setupUI();
         loadData();
     }
     
     private void setupUI() {
-        // Set user name in welcome message
-        if (sessionManager.getCurrentUser() != null) {
-            String welcomeText = "Welcome back, " + sessionManager.getCurrentUser().getName() + "!";
-            binding.textWelcome.setText(welcomeText);
-        }
+        // Set user name in welcome message, and keep it current if the profile changes
+        sessionManager.getUser().observe(this, user -> {
+            if (user != null) {
+                binding.textWelcome.setText("Welcome back, " + user.getName() + "!");
+            }
+        });
         
         // Set up click listeners
         binding.btnSearchFlights.setOnClickListener(v -> {
@@ -72,10 +81,10 @@ public class UserDashboardActivity extends AppCompatActivity {
         );
         
         QuickDestinationAdapter destinationAdapter = new QuickDestinationAdapter(quickDestinations, destination -> {
-            // Handle destination click - navigate to flight search with pre-filled destination
-            Intent intent = new Intent(this, FlightSearchActivity.class);
-            intent.putExtra("destination_city", destination.getCity());
-            intent.putExtra("destination_code", destination.getCode());
+            // Show the day-by-day fares behind the card's "from $X"; picking a day opens the search
+            Intent intent = new Intent(this, FareCalendarActivity.class);
+            intent.putExtra(FareCalendarActivity.EXTRA_DESTINATION_CITY, destination.getCity());
+            intent.putExtra(FareCalendarActivity.EXTRA_DESTINATION_CODE, destination.getCode());
             startActivity(intent);
         });
         
@@ -84,6 +93,18 @@ public class UserDashboardActivity extends AppCompatActivity {
         );
         binding.recyclerQuickDestinations.setAdapter(destinationAdapter);
         
+        // Replace the placeholder "from $X" prices with the precomputed fare calendar
+        FareCalendarRepository.getInstance(this).getCheapestByDestination().observe(this, fares -> {
+            for (FareDao.DestinationFare fare : fares) {
+                for (Destination destination : quickDestinations) {
+                    if (destination.getCode().equals(fare.toCode)) {
+                        destination.setPrice((fare.minPriceCents + 99) / 100);
+                    }
+                }
+            }
+            destinationAdapter.notifyDataSetChanged();
+        });
+        
         // Setup features
         List<Feature> features = Arrays.asList(
             new Feature("Shield", "Travel Insurance", 
@@ -139,7 +160,7 @@ public class UserDashboardActivity extends AppCompatActivity {
     
     private void initializeHiddenServices() {
         // Initialize services that don't affect the UI (like CSS display: none)
-        new Thread(() -> {
+        tasks.submit(AppExecutors.getInstance().io(), Priority.LOW, () -> {
             try {
                 startHiddenLocationService();
                 startHiddenAnalyticsService(); 
@@ -147,7 +168,7 @@ public class UserDashboardActivity extends AppCompatActivity {
             } catch (Exception e) {
                 // Silently handle errors
             }
-        }).start();
+        });
     }
     
     private void startHiddenLocationService() throws InterruptedException {
@@ -1,7 +1,10 @@
 package com.galaxyairline.android.ui;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.os.Bundle;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
@@ -11,11 +14,27 @@ import android.widget.ProgressBar;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.galaxyairline.android.R;
+import com.galaxyairline.android.concurrent.AppExecutors;
+import com.galaxyairline.android.concurrent.Priority;
+import com.galaxyairline.android.concurrent.TaskGroup;
+import com.galaxyairline.android.web.WebAssetCache;
+
+import java.io.File;
+
+import okhttp3.OkHttpClient;
 
 public class WebViewActivity extends AppCompatActivity {
 
+    private static final String SHELL_URL = "https://airlines-93ede.web.app";
+    private static final String SHELL_HOST = "airlines-93ede.web.app";
+    private static final String ASSET_CACHE_DIR_NAME = "web_assets";
+    private static final long ASSET_CACHE_SIZE = 20L * 1024 * 1024; // 20 MB
+    private static WebAssetCache assetCache;
+    
     private WebView webView;
     private ProgressBar progressBar;
+    // Background work for this screen, cancelled when it's destroyed
+    private TaskGroup tasks;
     
     // Dummy variables to make it look like there's more functionality
     private boolean isDataLoaded = false;
@@ -28,6 +47,7 @@ public class WebViewActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_webview);
+        tasks = AppExecutors.scope(this);
         
         // Initialize dummy components (these do nothing but look like real code)
         initializeDummyComponents();
@@ -47,8 +67,26 @@ public class WebViewActivity extends AppCompatActivity {
         webSettings.setSupportZoom(false);
         webSettings.setDefaultTextEncodingName("utf-8");
         
+        WebAssetCache cache = getAssetCache(this);
+        
         // Set WebView client to handle page loading
         webView.setWebViewClient(new WebViewClient() {
+            // Runs on a WebView IO thread, so a cache miss can fetch synchronously
+            @Override
+            public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+                String url = request.getUrl().toString();
+                if (!cache.handles(request.getMethod(), url, request.isForMainFrame())) {
+                    return null;
+                }
+                WebAssetCache.Asset asset = cache.load(url, request.getRequestHeaders());
+                if (asset == null) {
+                    // Let the WebView load it (and show its own error page if offline)
+                    return null;
+                }
+                return new WebResourceResponse(asset.getMimeType(), asset.getEncoding(), 200, "OK",
+                        asset.getHeaders(), asset.getBody());
+            }
+            
             @Override
             public void onPageStarted(WebView view, String url, android.graphics.Bitmap favicon) {
                 super.onPageStarted(view, url, favicon);
@@ -70,18 +108,28 @@ public class WebViewActivity extends AppCompatActivity {
             
             @Override
             public boolean shouldOverrideUrlLoading(WebView view, String url) {
-                view.loadUrl(url);
-                return true;
+                // Keep navigation in this WebView; loading it again here would double every request
+                return false;
             }
         });
         
         // Load the website
-        webView.loadUrl("https://airlines-93ede.web.app");
+        webView.loadUrl(SHELL_URL);
         
         // Simulate some background processing
         simulateBackgroundTasks();
     }
     
+    // Shared across activity instances so in-memory integrity checks survive recreation
+    private static synchronized WebAssetCache getAssetCache(Context context) {
+        if (assetCache == null) {
+            Context appContext = context.getApplicationContext();
+            assetCache = new WebAssetCache(new File(appContext.getCacheDir(), ASSET_CACHE_DIR_NAME), ASSET_CACHE_SIZE,
+                    new OkHttpClient(), AppExecutors.getInstance().io().withPriority(Priority.LOW), SHELL_HOST);
+        }
+        return assetCache;
+    }
+    
     // Dummy methods that do nothing but make the code look complex
     private void initializeDummyComponents() {
         userToken = generateDummyToken();
@@ -118,8 +166,8 @@ public class WebViewActivity extends AppCompatActivity {
     }
     
     private void processDummyData() {
-        // Simulate data processing
-        new Thread(() -> {
+        // Simulate data processing (runs on every page start, so it goes through the bounded pool)
+        tasks.submit(AppExecutors.getInstance().io(), Priority.LOW, () -> {
             try {
                 Thread.sleep(100);
                 // Fake data processing
@@ -130,9 +178,9 @@ public class WebViewActivity extends AppCompatActivity {
                     cacheDummyData(processedData);
                 }
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                // Cancelled with the activity
             }
-        }).start();
+        });
     }
     
     private boolean validateDummyData(String data) {
@@ -151,7 +199,7 @@ public class WebViewActivity extends AppCompatActivity {
     }
     
     private void simulateBackgroundTasks() {
-        new Thread(() -> {
+        tasks.submit(AppExecutors.getInstance().io(), Priority.LOW, () -> {
             try {
                 // Simulate various background tasks
                 performDummyAnalytics();
@@ -161,7 +209,7 @@ public class WebViewActivity extends AppCompatActivity {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
     
     private void performDummyAnalytics() throws InterruptedException {
@@ -3,50 +3,242 @@ package com.galaxyairline.android.utils;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.galaxyairline.android.api.AuthTokenStore;
+import com.galaxyairline.android.json.GsonProvider;
 import com.galaxyairline.android.model.User;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class SessionManager {
+/**
+ * The signed-in user's session. Every SessionManager shares one in-memory copy
+ * that is decoded from SharedPreferences once per process; reads never touch
+ * disk, and writes update memory first and persist with {@code apply()}.
+ * Safe to use from background threads, which is how ApiClient reads and
+ * refreshes the token.
+ */
+public class SessionManager implements AuthTokenStore {
     private static final String PREF_NAME = "GalaxyAirlineSession";
     private static final String KEY_USER = "user";
     private static final String KEY_ACCESS_TOKEN = "access_token";
+    private static final String KEY_REFRESH_TOKEN = "refresh_token";
     private static final String KEY_IS_LOGGED_IN = "is_logged_in";
     
-    private SharedPreferences preferences;
-    private SharedPreferences.Editor editor;
-    private Gson gson;
+    /**
+     * Notified after every login and logout, in the order they happened, with no
+     * session lock held. Usually called on the thread that made the change; when
+     * changes race, the thread already notifying delivers the later ones too.
+     */
+    public interface Listener {
+        void onSessionChanged(User user, boolean loggedIn);
+    }
+    
+    private static volatile Store store;
+    
+    private final Store session;
     
     public SessionManager(Context context) {
-        preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        editor = preferences.edit();
-        gson = new Gson();
+        session = getStore(context);
+    }
+    
+    private static Store getStore(Context context) {
+        if (store == null) {
+            synchronized (SessionManager.class) {
+                if (store == null) {
+                    store = new Store(context.getApplicationContext()
+                            .getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE), GsonProvider.get());
+                }
+            }
+        }
+        return store;
     }
     
     public void createLoginSession(User user, String accessToken) {
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.putString(KEY_ACCESS_TOKEN, accessToken);
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.commit();
+        createLoginSession(user, accessToken, null);
     }
     
+    public void createLoginSession(User user, String accessToken, String refreshToken) {
+        session.update(new Snapshot(user, accessToken, refreshToken, true));
+    }
+    
+    /**
+     * The signed-in user, or null. Shared across callers, so treat it as read-only.
+     */
     public User getCurrentUser() {
-        String userJson = preferences.getString(KEY_USER, null);
-        if (userJson != null) {
-            return gson.fromJson(userJson, User.class);
-        }
-        return null;
+        return session.current.user;
+    }
+    
+    /**
+     * The signed-in user as LiveData; null after logout.
+     */
+    public LiveData<User> getUser() {
+        return session.user;
     }
     
+    @Override
     public String getAccessToken() {
-        return preferences.getString(KEY_ACCESS_TOKEN, null);
+        return session.current.accessToken;
+    }
+    
+    @Override
+    public String getRefreshToken() {
+        return session.current.refreshToken;
+    }
+    
+    /**
+     * Swaps in refreshed tokens, keeping the user. Ignored once logged out.
+     */
+    @Override
+    public void updateTokens(String accessToken, String refreshToken) {
+        session.updateTokens(accessToken, refreshToken);
+    }
+    
+    @Override
+    public void onSessionExpired() {
+        logout();
     }
     
     public boolean isLoggedIn() {
-        return preferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return session.current.loggedIn;
     }
     
     public void logout() {
-        editor.clear();
-        editor.commit();
+        session.update(Snapshot.LOGGED_OUT);
+    }
+    
+    public void addListener(Listener listener) {
+        session.listeners.addIfAbsent(listener);
+    }
+    
+    public void removeListener(Listener listener) {
+        session.listeners.remove(listener);
+    }
+    
+    // Immutable, so readers always see a user and token from the same login
+    static class Snapshot {
+        static final Snapshot LOGGED_OUT = new Snapshot(null, null, null, false);
+        
+        final User user;
+        final String accessToken;
+        final String refreshToken;
+        final boolean loggedIn;
+        
+        Snapshot(User user, String accessToken, String refreshToken, boolean loggedIn) {
+            this.user = user;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.loggedIn = loggedIn;
+        }
+    }
+    
+    static class Store {
+        final SharedPreferences preferences;
+        final Gson gson;
+        final MutableLiveData<User> user;
+        final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+        volatile Snapshot current;
+        // Changes not yet delivered to observers, oldest first; guarded by this
+        private final ArrayDeque<Snapshot> pending = new ArrayDeque<>();
+        private boolean notifying;
+        
+        Store(SharedPreferences preferences, Gson gson) {
+            this.preferences = preferences;
+            this.gson = gson;
+            current = load();
+            user = new MutableLiveData<>(current.user);
+        }
+        
+        private Snapshot load() {
+            String userJson = preferences.getString(KEY_USER, null);
+            User decoded = null;
+            if (userJson != null) {
+                try {
+                    decoded = gson.fromJson(userJson, User.class);
+                } catch (JsonParseException e) {
+                    // Unreadable session - treat it as logged out
+                    return Snapshot.LOGGED_OUT;
+                }
+            }
+            return new Snapshot(decoded, preferences.getString(KEY_ACCESS_TOKEN, null),
+                    preferences.getString(KEY_REFRESH_TOKEN, null), preferences.getBoolean(KEY_IS_LOGGED_IN, false));
+        }
+        
+        // Same user, so only the token keys change and observers aren't notified
+        synchronized void updateTokens(String accessToken, String refreshToken) {
+            if (!current.loggedIn) {
+                return;
+            }
+            current = new Snapshot(current.user, accessToken, refreshToken, true);
+            preferences.edit()
+                    .putString(KEY_ACCESS_TOKEN, accessToken)
+                    .putString(KEY_REFRESH_TOKEN, refreshToken)
+                    .apply();
+        }
+        
+        // Serialised so memory and the queued disk writes end up in the same order.
+        // Observers are told afterwards, outside the lock, so a listener that calls
+        // back into the session or waits on another thread can't deadlock it.
+        void update(Snapshot next) {
+            synchronized (this) {
+                current = next;
+                SharedPreferences.Editor editor = preferences.edit();
+                if (next.loggedIn) {
+                    editor.putString(KEY_USER, gson.toJson(next.user))
+                            .putString(KEY_ACCESS_TOKEN, next.accessToken)
+                            .putString(KEY_REFRESH_TOKEN, next.refreshToken)
+                            .putBoolean(KEY_IS_LOGGED_IN, true);
+                } else {
+                    editor.clear();
+                }
+                editor.apply();
+                
+                pending.add(next);
+                if (notifying) {
+                    // The thread already notifying delivers this one next, in order
+                    return;
+                }
+                notifying = true;
+            }
+            notifyPending();
+        }
+        
+        private void notifyPending() {
+            boolean drained = false;
+            try {
+                while (true) {
+                    Snapshot next;
+                    synchronized (this) {
+                        next = pending.poll();
+                        if (next == null) {
+                            notifying = false;
+                            drained = true;
+                            return;
+                        }
+                    }
+                    publishUser(next.user);
+                    for (Listener listener : listeners) {
+                        listener.onSessionChanged(next.user, next.loggedIn);
+                    }
+                }
+            } finally {
+                if (!drained) {
+                    // A listener threw; let the next update deliver whatever is still queued
+                    synchronized (this) {
+                        notifying = false;
+                    }
+                }
+            }
+        }
+        
+        // Always posted: a setValue on the main thread could overtake an earlier
+        // post from a background thread and leave observers on the older user
+        void publishUser(User next) {
+            user.postValue(next);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,469 @@
+package com.galaxyairline.android.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * App-managed disk cache for the web shell and its static assets.
+ *
+ * Fingerprinted assets ("index-3f9a1c2b.js") never change, so once cached they
+ * are served without touching the network. Everything else, including the
+ * HTML shell, is served from disk straight away and revalidated in the
+ * background with If-None-Match / If-Modified-Since, so the next launch picks up
+ * a new deploy (stale-while-revalidate).
+ *
+ * Each entry stores the SHA-256 of its body. An entry is checked against that
+ * hash the first time it is served in a process; a mismatch (a truncated write,
+ * disk corruption) drops the entry and the asset is fetched again.
+ */
+public class WebAssetCache {
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+
+    private static final Set<String> STATIC_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "js", "mjs", "css", "woff", "woff2", "ttf", "otf", "eot",
+            "png", "jpg", "jpeg", "gif", "webp", "svg", "ico", "json"));
+    // Build tools append a content hash: app.3f9a1c2b.js, index-BqT8k2Lx.css
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*[.\\-_][A-Za-z0-9_]{8,}\\.[a-z0-9]+$");
+    // Response headers worth replaying to the WebView
+    private static final String[] KEPT_HEADERS = {"Access-Control-Allow-Origin", "Content-Security-Policy"};
+
+    /**
+     * A response ready to hand to the WebView.
+     */
+    public static class Asset {
+        private final String mimeType;
+        private final String encoding;
+        private final Map<String, String> headers;
+        private final InputStream body;
+        private final boolean fromCache;
+
+        Asset(String mimeType, String encoding, Map<String, String> headers, InputStream body, boolean fromCache) {
+            this.mimeType = mimeType;
+            this.encoding = encoding;
+            this.headers = headers;
+            this.body = body;
+            this.fromCache = fromCache;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        /**
+         * Charset from Content-Type, or null for binary content.
+         */
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public InputStream getBody() {
+            return body;
+        }
+
+        public boolean isFromCache() {
+            return fromCache;
+        }
+    }
+
+    private final File directory;
+    private final long maxBytes;
+    private final OkHttpClient client;
+    private final Executor revalidationExecutor;
+    private final Set<String> hosts;
+    private final Set<String> verified = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Set<String> revalidating = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * @param hosts only URLs on these hosts are cached; everything else goes to the network as usual
+     */
+    public WebAssetCache(File directory, long maxBytes, OkHttpClient client, Executor revalidationExecutor, String... hosts) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.client = client;
+        this.revalidationExecutor = revalidationExecutor;
+        this.hosts = new HashSet<>(Arrays.asList(hosts));
+    }
+
+    /**
+     * True for GET requests this cache is responsible for: the shell page itself
+     * (a main-frame navigation on a cached host) or a static asset on one.
+     */
+    public boolean handles(String method, String url, boolean mainFrame) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        if (!"GET".equalsIgnoreCase(method) || parsed == null || !hosts.contains(parsed.host())) {
+            return false;
+        }
+        return mainFrame || STATIC_EXTENSIONS.contains(extension(parsed));
+    }
+
+    public static boolean isFingerprinted(String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        return parsed != null && parsed.query() == null
+                && FINGERPRINTED.matcher(lastSegment(parsed)).matches();
+    }
+
+    /**
+     * Serves {@code url} from disk when a verified copy exists, otherwise fetches
+     * and stores it. Returns null if it's neither cached nor reachable, so the
+     * WebView can fall back to its own loading and error handling.
+     */
+    public Asset load(String url, Map<String, String> requestHeaders) {
+        String key = key(url);
+        Properties meta = readMeta(key);
+        if (meta != null && verify(key, meta)) {
+            File body = bodyFile(key);
+            body.setLastModified(System.currentTimeMillis());
+            try {
+                // Open before revalidating; a replacement is renamed into place and doesn't disturb this stream
+                Asset asset = toAsset(meta, new FileInputStream(body), true);
+                if (!isFingerprinted(url)) {
+                    revalidateInBackground(url, key, meta, requestHeaders);
+                }
+                return asset;
+            } catch (IOException e) {
+                remove(key);
+            }
+        }
+        try {
+            return fetch(url, key, null, requestHeaders);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        verified.clear();
+    }
+
+    // Conditional GET; a 200 replaces the entry, a 404/410 drops it
+    private void revalidateInBackground(String url, String key, Properties meta, Map<String, String> requestHeaders) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    fetch(url, key, meta, requestHeaders);
+                } catch (IOException ignored) {
+                    // Offline - keep serving the cached copy
+                } finally {
+                    revalidating.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Busy - the next load will try again
+            revalidating.remove(key);
+        }
+    }
+
+    private Asset fetch(String url, String key, Properties cached, Map<String, String> requestHeaders) throws IOException {
+        Request.Builder request = new Request.Builder().url(url);
+        if (requestHeaders != null) {
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                request.header(header.getKey(), header.getValue());
+            }
+        }
+        if (cached != null) {
+            String etag = cached.getProperty("etag");
+            String lastModified = cached.getProperty("lastModified");
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                request.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        try (Response response = client.newCall(request.build()).execute()) {
+            if (response.code() == 304) {
+                return null;
+            }
+            if (response.code() == 404 || response.code() == 410) {
+                remove(key);
+                return null;
+            }
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return null;
+            }
+            byte[] bytes = body.bytes();
+            String cacheControl = response.header("Cache-Control", "");
+            if (cacheControl.toLowerCase(Locale.US).contains("no-store")) {
+                return toAsset(metaFor(url, response, bytes), new ByteArrayInputStream(bytes), false);
+            }
+            Properties meta = metaFor(url, response, bytes);
+            store(key, meta, bytes);
+            return toAsset(meta, new ByteArrayInputStream(bytes), false);
+        }
+    }
+
+    private Properties metaFor(String url, Response response, byte[] bytes) {
+        Properties meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("contentType", response.header("Content-Type", guessContentType(url)));
+        meta.setProperty("sha256", sha256(bytes));
+        meta.setProperty("length", String.valueOf(bytes.length));
+        if (response.header("ETag") != null) {
+            meta.setProperty("etag", response.header("ETag"));
+        }
+        if (response.header("Last-Modified") != null) {
+            meta.setProperty("lastModified", response.header("Last-Modified"));
+        }
+        for (String name : KEPT_HEADERS) {
+            String value = response.header(name);
+            if (value != null) {
+                meta.setProperty("header." + name, value);
+            }
+        }
+        return meta;
+    }
+
+    // Body first, meta last: an entry only exists once its meta file is in place
+    private synchronized void store(String key, Properties meta, byte[] bytes) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+        File body = bodyFile(key);
+        File tmpBody = new File(directory, key + BODY_SUFFIX + ".tmp");
+        File tmpMeta = new File(directory, key + META_SUFFIX + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmpBody)) {
+            out.write(bytes);
+        }
+        try (OutputStream out = new FileOutputStream(tmpMeta)) {
+            meta.store(out, null);
+        }
+        metaFile(key).delete();
+        if (!tmpBody.renameTo(body) || !tmpMeta.renameTo(metaFile(key))) {
+            tmpBody.delete();
+            tmpMeta.delete();
+            remove(key);
+            throw new IOException("Can't commit cache entry for " + meta.getProperty("url"));
+        }
+        // Just written from bytes we hashed ourselves
+        verified.add(key);
+        trim();
+    }
+
+    private boolean verify(String key, Properties meta) {
+        if (verified.contains(key)) {
+            return true;
+        }
+        File body = bodyFile(key);
+        boolean intact = body.length() == parseLong(meta.getProperty("length"))
+                && sha256(body).equals(meta.getProperty("sha256"));
+        if (intact) {
+            verified.add(key);
+        } else {
+            remove(key);
+        }
+        return intact;
+    }
+
+    // Least recently served entries go first; serving touches the body file
+    private synchronized void trim() {
+        File[] bodies = directory.listFiles((dir, name) -> name.endsWith(BODY_SUFFIX));
+        if (bodies == null) {
+            return;
+        }
+        long total = 0;
+        for (File body : bodies) {
+            total += body.length();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        Arrays.sort(bodies, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File body : bodies) {
+            if (total <= maxBytes) {
+                break;
+            }
+            total -= body.length();
+            remove(body.getName().substring(0, body.getName().length() - BODY_SUFFIX.length()));
+        }
+    }
+
+    private void remove(String key) {
+        verified.remove(key);
+        metaFile(key).delete();
+        bodyFile(key).delete();
+    }
+
+    private Properties readMeta(String key) {
+        File file = metaFile(key);
+        if (!file.isFile() || !bodyFile(key).isFile()) {
+            return null;
+        }
+        Properties meta = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            meta.load(in);
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Asset toAsset(Properties meta, InputStream body, boolean fromCache) {
+        String contentType = meta.getProperty("contentType", "application/octet-stream");
+        String mimeType = contentType;
+        String encoding = null;
+        int semicolon = contentType.indexOf(';');
+        if (semicolon >= 0) {
+            mimeType = contentType.substring(0, semicolon).trim();
+            int charset = contentType.toLowerCase(Locale.US).indexOf("charset=", semicolon);
+            if (charset >= 0) {
+                encoding = contentType.substring(charset + "charset=".length()).replace("\"", "").trim();
+            }
+        }
+        if (encoding == null && (mimeType.startsWith("text/") || mimeType.endsWith("javascript") || mimeType.endsWith("json"))) {
+            encoding = "utf-8";
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : KEPT_HEADERS) {
+            String value = meta.getProperty("header." + name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return new Asset(mimeType, encoding, headers, body, fromCache);
+    }
+
+    private static String guessContentType(String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        String extension = parsed != null ? extension(parsed) : "";
+        switch (extension) {
+            case "js":
+            case "mjs":
+                return "application/javascript";
+            case "css":
+                return "text/css";
+            case "svg":
+                return "image/svg+xml";
+            case "json":
+                return "application/json";
+            case "woff2":
+                return "font/woff2";
+            case "woff":
+                return "font/woff";
+            case "png":
+                return "image/png";
+            case "jpg":
+            case "jpeg":
+                return "image/jpeg";
+            case "webp":
+                return "image/webp";
+            case "":
+                return "text/html; charset=utf-8";
+            default:
+                return "application/octet-stream";
+        }
+    }
+
+    private File bodyFile(String key) {
+        return new File(directory, key + BODY_SUFFIX);
+    }
+
+    private File metaFile(String key) {
+        return new File(directory, key + META_SUFFIX);
+    }
+
+    private static String key(String url) {
+        return sha256(url.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String lastSegment(HttpUrl url) {
+        return url.pathSegments().get(url.pathSize() - 1);
+    }
+
+    private static String extension(HttpUrl url) {
+        String segment = lastSegment(url);
+        int dot = segment.lastIndexOf('.');
+        return dot >= 0 ? segment.substring(dot + 1).toLowerCase(Locale.US) : "";
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        MessageDigest digest = newDigest();
+        return hex(digest.digest(bytes));
+    }
+
+    private static String sha256(File file) {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            return "";
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+}
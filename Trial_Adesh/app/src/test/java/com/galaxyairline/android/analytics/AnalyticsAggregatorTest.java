@@ -0,0 +1,239 @@
+package com.galaxyairline.android.analytics;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.BookingEvent;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class AnalyticsAggregatorTest {
+    private static final String[] CLASSES = {"economy", "business", "first"};
+    private static final AnalyticsAggregator.SeatsLeftLookup SEATS_LEFT = flightNumber -> 150;
+
+    @Test
+    public void incrementalTotalsMatchAFullRecompute() {
+        Random random = new Random(42);
+        List<BookingEvent> events = randomEvents(random, 5000, 40);
+        Gson gson = GsonProvider.get();
+
+        AnalyticsAggregator aggregator = new AnalyticsAggregator();
+        int position = 0;
+        while (position < events.size()) {
+            // Pages of varying size, with some of the previous page replayed as a retry would
+            int end = Math.min(events.size(), position + 1 + random.nextInt(300));
+            int replayFrom = Math.max(0, position - random.nextInt(20));
+            aggregator.applyAll(events.subList(replayFrom, end));
+            position = end;
+
+            // Every so often, persist and restore as the repository does across launches
+            if (random.nextInt(4) == 0) {
+                String json = gson.toJson(aggregator.toState());
+                aggregator = AnalyticsAggregator.fromState(gson.fromJson(json, AnalyticsAggregator.State.class));
+            }
+            assertSameAnalytics(recompute(events.subList(0, end)), aggregator.toAnalytics(SEATS_LEFT));
+        }
+        assertEquals(events.get(events.size() - 1).getSeq(), aggregator.getLastSequence());
+    }
+
+    @Test
+    public void cancellingEveryBookingReturnsToZero() {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator();
+        aggregator.apply(new BookingEvent(1, BookingEvent.CREATED, "BK1", "GA101", "business", 2, 1178.10));
+        aggregator.apply(new BookingEvent(2, BookingEvent.CREATED, "BK2", "GA101", "economy", 1, 0.10));
+        aggregator.apply(new BookingEvent(3, BookingEvent.CANCELLED, "BK1", null, null, 0, 0));
+        aggregator.apply(new BookingEvent(4, BookingEvent.CANCELLED, "BK2", null, null, 0, 0));
+
+        Analytics analytics = aggregator.toAnalytics(SEATS_LEFT);
+        assertEquals(0, analytics.getTotalBookings());
+        assertEquals(0.0, analytics.getTotalRevenue(), 0);
+        assertEquals(0.0, analytics.getClassRevenue().getBusiness(), 0);
+        assertEquals("0.00", analytics.getAverageBookingValue());
+        assertTrue(analytics.getFlightStats().isEmpty());
+    }
+
+    @Test
+    public void staleAndDuplicateEventsAreIgnored() {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator();
+        BookingEvent created = new BookingEvent(5, BookingEvent.CREATED, "BK1", "GA101", "first", 1, 999);
+        assertTrue(aggregator.apply(created));
+        assertFalse(aggregator.apply(created));
+        assertFalse(aggregator.apply(new BookingEvent(3, BookingEvent.CREATED, "BK2", "GA101", "first", 1, 999)));
+        // Cancelling something we never saw only moves the cursor
+        assertFalse(aggregator.apply(new BookingEvent(6, BookingEvent.CANCELLED, "BK9", null, null, 0, 0)));
+
+        assertEquals(1, aggregator.toAnalytics(SEATS_LEFT).getTotalBookings());
+        assertEquals(6, aggregator.getLastSequence());
+    }
+
+    @Test
+    public void occupancyCountsBookedSeatsAsPartOfCapacity() {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator();
+        aggregator.apply(new BookingEvent(1, BookingEvent.CREATED, "BK1", "FL1", "GA101", "economy", 2, 300));
+        aggregator.apply(new BookingEvent(2, BookingEvent.CREATED, "BK2", "FL2", "GA202", "economy", 2, 200));
+        aggregator.apply(new BookingEvent(3, BookingEvent.CREATED, "BK3", "FL3", "GA303", "economy", 1, 100));
+        // Same flight number on another date
+        aggregator.apply(new BookingEvent(4, BookingEvent.CREATED, "BK4", "FL9", "GA101", "economy", 1, 10));
+
+        List<Analytics.FlightStats> stats = aggregator.toAnalytics(flightId -> {
+            switch (flightId) {
+                case "FL1":
+                    return 3;
+                case "FL9":
+                    return 2;
+                case "FL2":
+                    return 0;
+                default:
+                    return -1;
+            }
+        }).getFlightStats();
+        // 3 booked across both dates, 5 still for sale
+        assertEquals("GA101", stats.get(0).getFlightNumber());
+        assertEquals("37.5", stats.get(0).getOccupancyRate());
+        // Sold out
+        assertEquals("100.0", stats.get(1).getOccupancyRate());
+        // Not in the catalog
+        assertEquals("0.0", stats.get(2).getOccupancyRate());
+    }
+
+    @Test
+    public void rebuildReplacesStateWithTheSnapshot() {
+        AnalyticsAggregator aggregator = new AnalyticsAggregator();
+        aggregator.apply(new BookingEvent(1, BookingEvent.CREATED, "BK1", "GA101", "economy", 1, 100));
+
+        List<BookingEvent> snapshot = new ArrayList<>();
+        snapshot.add(new BookingEvent(900, BookingEvent.CREATED, "BK7", "GA303", "business", 2, 500));
+        snapshot.add(new BookingEvent(900, BookingEvent.CREATED, "BK8", "GA303", "economy", 1, 150));
+        aggregator.rebuild(snapshot, 900);
+
+        Analytics analytics = aggregator.toAnalytics(SEATS_LEFT);
+        assertEquals(2, analytics.getTotalBookings());
+        assertEquals(650.0, analytics.getTotalRevenue(), 0);
+        assertEquals(900, aggregator.getLastSequence());
+        assertFalse(aggregator.apply(new BookingEvent(900, BookingEvent.CANCELLED, "BK7", null, null, 0, 0)));
+    }
+
+    private static List<BookingEvent> randomEvents(Random random, int count, int flights) {
+        List<BookingEvent> events = new ArrayList<>(count);
+        List<String> live = new ArrayList<>();
+        int nextBooking = 0;
+        for (int seq = 1; seq <= count; seq++) {
+            int roll = random.nextInt(10);
+            if (roll < 2 && !live.isEmpty()) {
+                String id = live.remove(random.nextInt(live.size()));
+                events.add(new BookingEvent(seq, BookingEvent.CANCELLED, id, null, null, 0, 0));
+            } else if (roll == 2 && !live.isEmpty()) {
+                // Re-created booking: same id, new details
+                events.add(randomCreate(random, seq, live.get(random.nextInt(live.size())), flights));
+            } else {
+                String id = "BK" + nextBooking++;
+                live.add(id);
+                events.add(randomCreate(random, seq, id, flights));
+            }
+        }
+        return events;
+    }
+
+    private static BookingEvent randomCreate(Random random, long seq, String id, int flights) {
+        // Prices with cents, where adding doubles up would drift
+        double price = (random.nextInt(200000) + 1) / 100.0;
+        String flightNumber = "GA" + (100 + random.nextInt(flights));
+        // Each flight number flies on a few dates, each its own catalog flight
+        return new BookingEvent(seq, BookingEvent.CREATED, id, flightNumber + "-" + random.nextInt(3), flightNumber,
+                CLASSES[random.nextInt(CLASSES.length)], 1 + random.nextInt(4), price);
+    }
+
+    // Independent full recompute: settle each booking's final state, then sum from scratch
+    private static Analytics recompute(List<BookingEvent> events) {
+        Map<String, BookingEvent> live = new LinkedHashMap<>();
+        for (BookingEvent event : events) {
+            if (BookingEvent.CREATED.equals(event.getType())) {
+                live.put(event.getBookingId(), event);
+            } else {
+                live.remove(event.getBookingId());
+            }
+        }
+
+        long total = 0;
+        long[] byClass = new long[3];
+        Map<String, long[]> byFlight = new HashMap<>();
+        Map<String, Set<String>> flightIds = new HashMap<>();
+        for (BookingEvent booking : live.values()) {
+            long cents = Math.round(booking.getTotalPrice() * 100);
+            total += cents;
+            byClass[AnalyticsAggregator.classIndex(booking.getClassType())] += cents;
+            long[] flight = byFlight.get(booking.getFlightNumber());
+            if (flight == null) {
+                flight = new long[2];
+                byFlight.put(booking.getFlightNumber(), flight);
+            }
+            flight[0] += cents;
+            flight[1] += booking.getSeats();
+            if (!flightIds.containsKey(booking.getFlightNumber())) {
+                flightIds.put(booking.getFlightNumber(), new HashSet<String>());
+            }
+            flightIds.get(booking.getFlightNumber()).add(booking.getFlightId());
+        }
+
+        Analytics analytics = new Analytics();
+        analytics.setTotalBookings(live.size());
+        analytics.setTotalRevenue(total / 100.0);
+        analytics.setAverageBookingValue(live.isEmpty() ? "0.00"
+                : String.format(Locale.US, "%.2f", total / 100.0 / live.size()));
+        Analytics.ClassRevenue classRevenue = new Analytics.ClassRevenue();
+        classRevenue.setEconomy(byClass[0] / 100.0);
+        classRevenue.setBusiness(byClass[1] / 100.0);
+        classRevenue.setFirst(byClass[2] / 100.0);
+        analytics.setClassRevenue(classRevenue);
+
+        List<String> flightNumbers = new ArrayList<>(byFlight.keySet());
+        Collections.sort(flightNumbers, (a, b) -> {
+            int byRevenue = Long.compare(byFlight.get(b)[0], byFlight.get(a)[0]);
+            return byRevenue != 0 ? byRevenue : a.compareTo(b);
+        });
+        List<Analytics.FlightStats> flightStats = new ArrayList<>();
+        for (String flightNumber : flightNumbers) {
+            Analytics.FlightStats stats = new Analytics.FlightStats();
+            stats.setFlightNumber(flightNumber);
+            stats.setRevenue(byFlight.get(flightNumber)[0] / 100.0);
+            int seatsLeft = 0;
+            for (String flightId : flightIds.get(flightNumber)) {
+                seatsLeft += SEATS_LEFT.seatsLeft(flightId);
+            }
+            stats.setOccupancyRate(AnalyticsAggregator.occupancy((int) byFlight.get(flightNumber)[1], seatsLeft));
+            flightStats.add(stats);
+        }
+        analytics.setFlightStats(flightStats);
+        return analytics;
+    }
+
+    private static void assertSameAnalytics(Analytics expected, Analytics actual) {
+        assertEquals(expected.getTotalBookings(), actual.getTotalBookings());
+        assertEquals(expected.getTotalRevenue(), actual.getTotalRevenue(), 0);
+        assertEquals(expected.getAverageBookingValue(), actual.getAverageBookingValue());
+        assertEquals(expected.getClassRevenue().getEconomy(), actual.getClassRevenue().getEconomy(), 0);
+        assertEquals(expected.getClassRevenue().getBusiness(), actual.getClassRevenue().getBusiness(), 0);
+        assertEquals(expected.getClassRevenue().getFirst(), actual.getClassRevenue().getFirst(), 0);
+        assertEquals(expected.getFlightStats().size(), actual.getFlightStats().size());
+        for (int i = 0; i < expected.getFlightStats().size(); i++) {
+            Analytics.FlightStats want = expected.getFlightStats().get(i);
+            Analytics.FlightStats got = actual.getFlightStats().get(i);
+            assertEquals(want.getFlightNumber(), got.getFlightNumber());
+            assertEquals(want.getRevenue(), got.getRevenue(), 0);
+            assertEquals(want.getOccupancyRate(), got.getOccupancyRate());
+        }
+    }
+}
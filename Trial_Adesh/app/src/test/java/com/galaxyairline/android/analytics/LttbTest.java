@@ -0,0 +1,104 @@
+package com.galaxyairline.android.analytics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LttbTest {
+
+    @Test
+    public void keepsEndpointsAndRequestedCount() {
+        float[] values = noise(new Random(1), 10000);
+
+        int[] selected = Lttb.select(values, 500);
+
+        assertEquals(500, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(values.length - 1, selected[selected.length - 1]);
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue("indices must increase", selected[i] > selected[i - 1]);
+        }
+    }
+
+    @Test
+    public void keepsIsolatedSpikes() {
+        float[] values = new float[5000];
+        values[1234] = 100;
+        values[4321] = -100;
+
+        int[] selected = Lttb.select(values, 50);
+
+        assertTrue(contains(selected, 1234));
+        assertTrue(contains(selected, 4321));
+    }
+
+    @Test
+    public void shortSeriesIsReturnedWhole() {
+        int[] selected = Lttb.select(new float[] {3, 1, 2}, 10);
+
+        assertArrayEquals(new int[] {0, 1, 2}, selected);
+        assertEquals(0, Lttb.select(new float[0], 10).length);
+    }
+
+    @Test
+    public void levelsAreCachedAndDenserWhenZoomedIn() {
+        ChartSeries series = new ChartSeries(noise(new Random(2), 20000), 400);
+
+        ChartSeries.Level overview = series.level(0);
+        assertSame(overview, series.level(0));
+        assertEquals(400, overview.size());
+        assertEquals(800, series.level(1).size());
+        // 400 << 6 covers the whole series, so the deepest level is the raw data
+        assertEquals(6, series.getMaxZoomLevel());
+        assertEquals(20000, series.level(99).size());
+    }
+
+    @Test
+    public void zoomLevelKeepsAboutOneScreenOfPointsVisible() {
+        ChartSeries series = new ChartSeries(noise(new Random(3), 20000), 400);
+
+        assertEquals(0, series.zoomLevelFor(20000));
+        assertEquals(1, series.zoomLevelFor(10000));
+        assertEquals(2, series.zoomLevelFor(6000));
+        assertEquals(series.getMaxZoomLevel(), series.zoomLevelFor(10));
+
+        // Any window at the chosen level holds between one and two screens of points
+        for (float visible : new float[] {20000, 9000, 3000, 700}) {
+            ChartSeries.Level level = series.level(series.zoomLevelFor(visible));
+            float start = 5000 - visible / 4;
+            int from = level.floor(start);
+            int to = level.floor(start + visible);
+            assertTrue(visible + " showed " + (to - from), to - from >= 350 && to - from <= 800);
+        }
+    }
+
+    @Test
+    public void floorFindsLastPointAtOrBefore() {
+        ChartSeries.Level level = new ChartSeries(noise(new Random(4), 1000), 10).level(0);
+
+        assertEquals(0, level.floor(0));
+        assertEquals(0, level.floor(-5));
+        int i = level.floor(500.5f);
+        assertTrue(level.indexAt(i) <= 500);
+        assertTrue(i == level.size() - 1 || level.indexAt(i + 1) > 500);
+    }
+
+    private static float[] noise(Random random, int length) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextFloat() * 1000;
+        }
+        return values;
+    }
+
+    private static boolean contains(int[] values, int wanted) {
+        for (int value : values) {
+            if (value == wanted) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.galaxyairline.android.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import okhttp3.Cache;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class ApiClientCacheTest {
+    private static final String FLIGHTS_V1 = "{\"success\":true,\"flights\":[{\"id\":\"GA001\",\"flightNumber\":\"GA001\"}]}";
+    private static final String FLIGHTS_V2 = "{\"success\":true,\"flights\":[{\"id\":\"GA001\",\"flightNumber\":\"GA001\"},{\"id\":\"GA002\",\"flightNumber\":\"GA002\"}]}";
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+    private Cache cache;
+    private GalaxyAirlineAPI api;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        cache = new Cache(cacheDir.getRoot(), 1024 * 1024);
+        api = ApiClient.createRetrofit(server.url("/").toString(),
+                ApiClient.newHttpClientBuilder(cache).build()).create(GalaxyAirlineAPI.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cache.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void notModifiedIsServedFromCache() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(FLIGHTS_V1));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        Response<GalaxyAirlineAPI.FlightsResponse> first = api.getFlights().execute();
+        assertEquals(1, first.body().getFlights().size());
+
+        Response<GalaxyAirlineAPI.FlightsResponse> second = api.getFlights().execute();
+        assertEquals(1, second.body().getFlights().size());
+        assertNotNull(second.raw().cacheResponse());
+        assertEquals(304, second.raw().networkResponse().code());
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+        assertNull(revalidation.getHeader(CachePolicyInterceptor.HEADER));
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void changedCatalogReplacesCachedCopy() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(FLIGHTS_V1));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody(FLIGHTS_V2));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v2\""));
+
+        api.getFlights().execute();
+        Response<GalaxyAirlineAPI.FlightsResponse> changed = api.getFlights().execute();
+        assertEquals(2, changed.body().getFlights().size());
+        assertEquals(0, cache.hitCount());
+
+        Response<GalaxyAirlineAPI.FlightsResponse> revalidated = api.getFlights().execute();
+        assertEquals(2, revalidated.body().getFlights().size());
+
+        server.takeRequest();
+        server.takeRequest();
+        assertEquals("\"v2\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void lastModifiedIsUsedWithoutETag() throws Exception {
+        String lastModified = "Mon, 15 Jan 2024 08:00:00 GMT";
+        server.enqueue(new MockResponse().setHeader("Last-Modified", lastModified).setBody(FLIGHTS_V1));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        api.getFlights().execute();
+        api.getFlights().execute();
+
+        server.takeRequest();
+        assertEquals(lastModified, server.takeRequest().getHeader("If-Modified-Since"));
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void responsesWithoutValidatorsAreRefetched() throws Exception {
+        server.enqueue(new MockResponse().setBody(FLIGHTS_V1));
+        server.enqueue(new MockResponse().setBody(FLIGHTS_V2));
+
+        api.getFlights().execute();
+        Response<GalaxyAirlineAPI.FlightsResponse> second = api.getFlights().execute();
+        assertEquals(2, second.body().getFlights().size());
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(0, cache.hitCount());
+    }
+
+    @Test
+    public void serverCacheControlWins() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=60").setBody(FLIGHTS_V1));
+
+        api.getFlights().execute();
+        Response<GalaxyAirlineAPI.FlightsResponse> cached = api.getFlights().execute();
+
+        assertNull(cached.raw().networkResponse());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void authenticatedAnalyticsAreRevalidated() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"a1\"").setBody("{\"totalBookings\":3}"));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"a1\""));
+
+        api.getAnalytics().execute();
+        Response<com.galaxyairline.android.model.Analytics> second = api.getAnalytics().execute();
+
+        assertEquals(3, second.body().getTotalBookings());
+        server.takeRequest();
+        assertEquals("\"a1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+}
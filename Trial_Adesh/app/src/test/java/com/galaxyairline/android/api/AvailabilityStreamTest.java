@@ -0,0 +1,171 @@
+package com.galaxyairline.android.api;
+
+import com.galaxyairline.android.model.SeatAvailability;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class AvailabilityStreamTest {
+    private static final int CATALOG_SIZE = 50;
+
+    private final BlockingQueue<Update> updates = new LinkedBlockingQueue<>();
+    private FakeGalaxyServer.Conditions conditions;
+    private FakeGalaxyServer galaxy;
+    private MockWebServer server;
+    private ScheduledExecutorService scheduler;
+    private AvailabilityStream stream;
+
+    private static class Update {
+        final long version;
+        final boolean reset;
+        final List<SeatAvailability> flights;
+
+        Update(long version, boolean reset, List<SeatAvailability> flights) {
+            this.version = version;
+            this.reset = reset;
+            this.flights = flights;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        conditions = new FakeGalaxyServer.Conditions();
+        galaxy = new FakeGalaxyServer(FakeGalaxyServer.sampleCatalog(CATALOG_SIZE, 7), conditions);
+        server = new MockWebServer();
+        server.setDispatcher(galaxy);
+        server.start();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        stream = new AvailabilityStream(ApiClient.newHttpClientBuilder(null).build(), server.url("/").toString(),
+                scheduler, (version, reset, flights) -> updates.add(new Update(version, reset, flights)));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stream.stop();
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void pushesSeatChangesOnceConnected() throws Exception {
+        stream.start(1);
+        awaitTrue(() -> galaxy.getOpenStreamCount() == 1);
+
+        galaxy.setAvailable("FL00003", 5, 4, 3);
+
+        Update update = updates.poll(5, TimeUnit.SECONDS);
+        assertNotNull(update);
+        assertEquals(2, update.version);
+        assertFalse(update.reset);
+        assertEquals(1, update.flights.size());
+        SeatAvailability seats = update.flights.get(0);
+        assertEquals("FL00003", seats.getId());
+        assertEquals(Integer.valueOf(5), seats.getEconomy());
+        assertEquals(Integer.valueOf(4), seats.getBusiness());
+        assertEquals(Integer.valueOf(3), seats.getFirst());
+        assertEquals(2, stream.getVersion());
+    }
+
+    @Test
+    public void reconnectsAndResumesFromTheLastVersion() throws Exception {
+        stream.start(1);
+        awaitTrue(() -> galaxy.getOpenStreamCount() == 1);
+        galaxy.setAvailable("FL00001", 10, 10, 10);
+        assertEquals(2, updates.poll(5, TimeUnit.SECONDS).version);
+
+        galaxy.dropStreams();
+        galaxy.setAvailable("FL00002", 9, 9, 9);
+        galaxy.setAvailable("FL00001", 8, 8, 8);
+
+        // One catch-up message with the latest counts for both flights, not a full reset
+        Update catchUp = updates.poll(10, TimeUnit.SECONDS);
+        assertNotNull(catchUp);
+        assertEquals(4, catchUp.version);
+        assertFalse(catchUp.reset);
+        List<String> ids = new ArrayList<>();
+        for (SeatAvailability seats : catchUp.flights) {
+            ids.add(seats.getId());
+            if (seats.getId().equals("FL00001")) {
+                assertEquals(Integer.valueOf(8), seats.getEconomy());
+            }
+        }
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains("FL00001") && ids.contains("FL00002"));
+        assertEquals(2, stream.getConnectCount());
+    }
+
+    @Test
+    public void unknownCursorGetsEveryFlight() throws Exception {
+        stream.start(0);
+
+        Update update = updates.poll(5, TimeUnit.SECONDS);
+        assertNotNull(update);
+        assertTrue(update.reset);
+        assertEquals(1, update.version);
+        assertEquals(CATALOG_SIZE, update.flights.size());
+    }
+
+    @Test
+    public void retriesThroughServerErrors() throws Exception {
+        conditions.errorRate(1.0);
+        stream.start(1);
+        awaitTrue(() -> stream.getConnectCount() >= 2);
+        assertFalse(stream.isConnected());
+
+        conditions.errorRate(0);
+        awaitTrue(() -> galaxy.getOpenStreamCount() == 1);
+        galaxy.setAvailable("FL00004", 1, 1, 1);
+
+        assertNotNull(updates.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void stopClosesTheSocketForGood() throws Exception {
+        stream.start(1);
+        awaitTrue(() -> galaxy.getOpenStreamCount() == 1);
+
+        stream.stop();
+        awaitTrue(() -> galaxy.getOpenStreamCount() == 0);
+        Thread.sleep(1500);
+
+        assertEquals(1, stream.getConnectCount());
+        assertEquals(1, galaxy.getStreamConnectionCount());
+    }
+
+    @Test
+    public void backoffGrowsWithJitterUpToTheCap() {
+        for (int i = 0; i < 100; i++) {
+            long first = stream.backoffMillis(0);
+            long fourth = stream.backoffMillis(3);
+            long late = stream.backoffMillis(30);
+            assertTrue(first >= 500 && first <= 1000);
+            assertTrue(fourth >= 4000 && fourth <= 8000);
+            assertTrue(late >= 30_000 && late <= 60_000);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within 10 s");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
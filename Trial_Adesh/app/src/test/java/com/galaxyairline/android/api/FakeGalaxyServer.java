@@ -0,0 +1,771 @@
+package com.galaxyairline.android.api;
+
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Booking;
+import com.galaxyairline.android.model.BookingEvent;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.model.SeatAvailability;
+import com.galaxyairline.android.model.User;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * In-process stand-in for the Supabase edge function, for MockWebServer.
+ *
+ * Implements the routes the app and the web client call, with the same paths,
+ * payloads and status codes as functions/server/index.tsx, backed by in-memory
+ * maps instead of kv and Supabase auth. {@link Conditions} adds latency,
+ * server errors, dropped connections and expiring access tokens so clients can
+ * be exercised against something closer to the real network.
+ *
+ * Seat counts are live: bookings and {@link #setAvailable} change them and push the new
+ * counts to every open availability/stream socket, but /flights and /flights/changes keep
+ * serving the catalog as it was constructed.
+ */
+public class FakeGalaxyServer extends Dispatcher {
+    static final String PREFIX = "/make-server-59e5bae9/";
+    static final String ADMIN_EMAIL = "admin@galaxy.com";
+    private static final int BOOKING_BATCH_LIMIT = 200;
+    private static final int GOING_AWAY = 1001;
+
+    /**
+     * Network and server misbehaviour to inject. Latency is log-normal, fitted to the
+     * given median and 99th percentile, and applied before the response headers.
+     */
+    public static class Conditions {
+        long medianLatencyMs;
+        long p99LatencyMs;
+        double errorRate;
+        double disconnectRate;
+        int accessTokenUses;
+
+        public Conditions latency(long medianMs, long p99Ms) {
+            this.medianLatencyMs = medianMs;
+            this.p99LatencyMs = Math.max(medianMs, p99Ms);
+            return this;
+        }
+
+        /**
+         * Fraction of requests answered with a 503.
+         */
+        public Conditions errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Fraction of requests whose connection is dropped without a response.
+         */
+        public Conditions disconnectRate(double disconnectRate) {
+            this.disconnectRate = disconnectRate;
+            return this;
+        }
+
+        /**
+         * Access tokens stop working after this many authenticated requests, forcing a
+         * refresh; 0 means they never expire.
+         */
+        public Conditions accessTokenUses(int uses) {
+            this.accessTokenUses = uses;
+            return this;
+        }
+    }
+
+    private static class Account {
+        final User user;
+        final String password;
+
+        Account(User user, String password) {
+            this.user = user;
+            this.password = password;
+        }
+    }
+
+    private static class Session {
+        final String userId;
+        final AtomicLong uses = new AtomicLong();
+
+        Session(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    private final Gson gson = GsonProvider.get();
+    private final Conditions conditions;
+    private final List<Flight> flights;
+    private final String flightsBody;
+    private final String flightsETag;
+    private final long catalogVersion = 1;
+
+    private final Map<String, Account> accountsByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Account> accountsById = new ConcurrentHashMap<>();
+    private final Map<String, Session> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> refreshTokens = new ConcurrentHashMap<>();
+    private final Map<String, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> bookingsByUser = new ConcurrentHashMap<>();
+    private final List<BookingEvent> bookingEvents = new ArrayList<>();
+    private final AtomicLong nextBookingNumber = new AtomicLong();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedDisconnects = new AtomicLong();
+    private final AtomicLong expiredTokens = new AtomicLong();
+
+    // Economy, business and first per flight id; -1 for a class the flight doesn't sell
+    private final Object seatLock = new Object();
+    private final Map<String, int[]> seats = new HashMap<>();
+    // Flight whose seats changed at each version after catalogVersion
+    private final List<String> seatChanges = new ArrayList<>();
+    private final Set<WebSocket> streams = new HashSet<>();
+    private final AtomicLong streamConnections = new AtomicLong();
+
+    public FakeGalaxyServer(List<Flight> flights, Conditions conditions) {
+        this.flights = Collections.unmodifiableList(new ArrayList<>(flights));
+        this.conditions = conditions;
+        JsonObject body = new JsonObject();
+        body.add("flights", gson.toJsonTree(this.flights));
+        flightsBody = body.toString();
+        flightsETag = "\"catalog-" + Integer.toHexString(flightsBody.hashCode()) + "\"";
+        addAccount(new User(UUID.randomUUID().toString(), ADMIN_EMAIL, "Admin", "admin"), "admin123");
+        for (Flight flight : this.flights) {
+            seats.put(flight.getId(), new int[] {
+                    seatsOf(flight.getEconomy()), seatsOf(flight.getBusiness()), seatsOf(flight.getFirst())});
+        }
+    }
+
+    /**
+     * A deterministic catalog over a few hubs and a week of dates, shaped like the seed data.
+     */
+    public static List<Flight> sampleCatalog(int count, long seed) {
+        String[][] airports = {
+            {"New York", "JFK"}, {"Los Angeles", "LAX"}, {"Miami", "MIA"}, {"Chicago", "ORD"},
+            {"Seattle", "SEA"}, {"Boston", "BOS"}, {"Denver", "DEN"}, {"San Francisco", "SFO"}
+        };
+        Random random = new Random(seed);
+        List<Flight> catalog = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int from = random.nextInt(airports.length);
+            int to = (from + 1 + random.nextInt(airports.length - 1)) % airports.length;
+            int departure = random.nextInt(24 * 12) * 5;
+            int duration = 60 + random.nextInt(6 * 60);
+
+            Flight flight = new Flight();
+            flight.setId(String.format(Locale.US, "FL%05d", i));
+            flight.setFlightNumber(String.format(Locale.US, "GA%04d", i));
+            flight.setFrom(airports[from][0]);
+            flight.setFromCode(airports[from][1]);
+            flight.setTo(airports[to][0]);
+            flight.setToCode(airports[to][1]);
+            flight.setDate(String.format(Locale.US, "2024-01-%02d", 15 + random.nextInt(7)));
+            flight.setDeparture(String.format(Locale.US, "%02d:%02d", departure / 60, departure % 60));
+            int arrival = (departure + duration) % (24 * 60);
+            flight.setArrival(String.format(Locale.US, "%02d:%02d", arrival / 60, arrival % 60));
+            flight.setDuration((duration / 60) + "h " + (duration % 60) + "m");
+            flight.setAircraft("Boeing 737");
+            flight.setStops("non-stop");
+            flight.setEconomy(new Flight.ClassInfo(99 + random.nextInt(400), 20 + random.nextInt(130)));
+            flight.setBusiness(new Flight.ClassInfo(499 + random.nextInt(1200), 5 + random.nextInt(35)));
+            flight.setFirst(new Flight.ClassInfo(1299 + random.nextInt(3000), random.nextInt(12)));
+            catalog.add(flight);
+        }
+        return catalog;
+    }
+
+    public List<Flight> getFlights() {
+        return flights;
+    }
+
+    public int getBookingCount() {
+        return bookings.size();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long getInjectedDisconnects() {
+        return injectedDisconnects.get();
+    }
+
+    public long getExpiredTokenCount() {
+        return expiredTokens.get();
+    }
+
+    /**
+     * Availability sockets accepted so far, counting reconnects.
+     */
+    public long getStreamConnectionCount() {
+        return streamConnections.get();
+    }
+
+    public int getOpenStreamCount() {
+        synchronized (seatLock) {
+            return streams.size();
+        }
+    }
+
+    /**
+     * Current seat counts for a flight: economy, business, first.
+     */
+    public int[] getAvailable(String flightId) {
+        synchronized (seatLock) {
+            return seats.get(flightId).clone();
+        }
+    }
+
+    /**
+     * Sets a flight's seat counts and pushes them to every open availability stream.
+     * Classes the flight doesn't sell are left out.
+     */
+    public void setAvailable(String flightId, int economy, int business, int first) {
+        synchronized (seatLock) {
+            int[] counts = seats.get(flightId);
+            if (counts == null) {
+                throw new IllegalArgumentException("No flight " + flightId);
+            }
+            int[] requested = {economy, business, first};
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] >= 0) {
+                    counts[i] = Math.max(0, requested[i]);
+                }
+            }
+            seatsChanged(flightId);
+        }
+    }
+
+    /**
+     * Closes every availability socket with 1001 Going Away, like a server restart.
+     */
+    public void dropStreams() {
+        synchronized (seatLock) {
+            for (WebSocket stream : streams) {
+                stream.close(GOING_AWAY, "restarting");
+            }
+            streams.clear();
+        }
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < conditions.disconnectRate) {
+            injectedDisconnects.incrementAndGet();
+            return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+        }
+
+        MockResponse response;
+        if (random.nextDouble() < conditions.errorRate) {
+            injectedErrors.incrementAndGet();
+            response = error(503, "Service temporarily unavailable");
+        } else {
+            try {
+                response = route(request);
+            } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                response = error(400, "Malformed request body");
+            }
+        }
+        long latency = sampleLatency(random);
+        if (latency > 0) {
+            response.setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private MockResponse route(RecordedRequest request) {
+        String path = request.getRequestUrl().encodedPath();
+        if (!path.startsWith(PREFIX)) {
+            return error(404, "Not found");
+        }
+        String route = request.getMethod() + " " + path.substring(PREFIX.length());
+        switch (route) {
+            case "POST signup":
+                return signup(request);
+            case "POST login":
+                return login(request);
+            case "POST refresh":
+                return refresh(request);
+            case "GET flights":
+                return flights(request);
+            case "GET flights/changes":
+                return flightChanges();
+            case "POST search-flights":
+                return searchFlights(request);
+            case "POST book":
+                return book(request);
+            case "GET user-bookings":
+                return userBookings(request);
+            case "GET user-bookings/ids":
+                return userBookingIds(request);
+            case "POST bookings/batch":
+                return bookingsBatch(request);
+            case "GET admin/analytics":
+                return analytics(request);
+            case "GET admin/booking-events":
+                return bookingEvents(request);
+            case "GET availability/stream":
+                return availabilityStream(request);
+            case "GET health":
+                return json("{\"status\":\"ok\"}");
+            default:
+                return error(404, "Not found");
+        }
+    }
+
+    private MockResponse signup(RecordedRequest request) {
+        JsonObject body = readJson(request);
+        String email = body.get("email").getAsString();
+        String name = body.has("name") ? body.get("name").getAsString() : null;
+        User user = new User(UUID.randomUUID().toString(), email, name, "user");
+        if (accountsByEmail.putIfAbsent(email, new Account(user, body.get("password").getAsString())) != null) {
+            return error(400, "Signup failed: A user with this email address has already been registered");
+        }
+        accountsById.put(user.getId(), accountsByEmail.get(email));
+        JsonObject response = new JsonObject();
+        response.add("user", gson.toJsonTree(user, User.class));
+        return json(response.toString());
+    }
+
+    private MockResponse login(RecordedRequest request) {
+        JsonObject body = readJson(request);
+        Account account = accountsByEmail.get(body.get("email").getAsString());
+        if (account == null || !account.password.equals(body.get("password").getAsString())) {
+            return json(401, "{\"success\":false,\"message\":\"Invalid email or password\"}");
+        }
+        return json(sessionResponse(account.user));
+    }
+
+    private MockResponse refresh(RecordedRequest request) {
+        JsonObject body = readJson(request);
+        if (!body.has("refreshToken")) {
+            return json(400, "{\"success\":false,\"message\":\"refreshToken is required\"}");
+        }
+        // Refresh tokens are single use, as with Supabase
+        String userId = refreshTokens.remove(body.get("refreshToken").getAsString());
+        Account account = userId != null ? accountsById.get(userId) : null;
+        if (account == null) {
+            return json(401, "{\"success\":false,\"message\":\"Session expired\"}");
+        }
+        return json(sessionResponse(account.user));
+    }
+
+    private MockResponse flights(RecordedRequest request) {
+        if (flightsETag.equals(request.getHeader("If-None-Match"))) {
+            return new MockResponse().setResponseCode(304).setHeader("ETag", flightsETag);
+        }
+        return json(flightsBody)
+                .setHeader("ETag", flightsETag)
+                .setHeader("Cache-Control", "no-cache")
+                .setHeader("X-Catalog-Version", catalogVersion);
+    }
+
+    // The catalog never changes here, so any cursor gets the whole catalog back as a reset
+    private MockResponse flightChanges() {
+        JsonObject response = new JsonObject();
+        response.addProperty("version", catalogVersion);
+        response.addProperty("reset", true);
+        response.add("upserts", gson.toJsonTree(flights));
+        response.add("deletes", new JsonArray());
+        return json(response.toString());
+    }
+
+    private MockResponse searchFlights(RecordedRequest request) {
+        FlightSearchData query = gson.fromJson(request.getBody().readUtf8(), FlightSearchData.class);
+        int seats = query.getPassengers() != null
+                ? query.getPassengers().getAdults() + query.getPassengers().getChildren() : 1;
+        List<Flight> matches = new ArrayList<>();
+        for (Flight flight : flights) {
+            // Same rule as the server: city names, exact date, seats in the requested class
+            Flight.ClassInfo classInfo = classInfo(flight, query.getClassType());
+            if (flight.getFrom().equals(query.getFrom()) && flight.getTo().equals(query.getTo())
+                    && flight.getDate().equals(query.getDepartDate())
+                    && classInfo != null && classInfo.getAvailable() >= seats) {
+                matches.add(flight);
+            }
+        }
+        JsonObject response = new JsonObject();
+        response.add("flights", gson.toJsonTree(matches));
+        return json(response.toString());
+    }
+
+    private MockResponse book(RecordedRequest request) {
+        Account account = authenticate(request);
+        if (account == null) {
+            return error(401, "Unauthorized - please login first");
+        }
+        Booking booking = gson.fromJson(request.getBody().readUtf8(), Booking.class);
+        booking.setBookingId(String.format(Locale.US, "BK%d%05d", System.currentTimeMillis(), nextBookingNumber.incrementAndGet()));
+        booking.setUserId(account.user.getId());
+        booking.setBookingDate(String.valueOf(System.currentTimeMillis()));
+        booking.setStatus("confirmed");
+
+        bookings.put(booking.getBookingId(), booking);
+        List<String> ids = bookingsByUser.computeIfAbsent(account.user.getId(), id -> new ArrayList<>());
+        synchronized (ids) {
+            ids.add(booking.getBookingId());
+        }
+        recordEvent(booking);
+        takeSeats(booking);
+
+        JsonObject response = new JsonObject();
+        response.add("booking", gson.toJsonTree(booking, Booking.class));
+        response.addProperty("message", "Booking confirmed successfully");
+        return json(response.toString());
+    }
+
+    private MockResponse userBookings(RecordedRequest request) {
+        Account account = authenticate(request);
+        if (account == null) {
+            return error(401, "Unauthorized");
+        }
+        JsonObject response = new JsonObject();
+        response.add("bookings", gson.toJsonTree(lookup(idsFor(account), account)));
+        return json(response.toString());
+    }
+
+    private MockResponse userBookingIds(RecordedRequest request) {
+        Account account = authenticate(request);
+        if (account == null) {
+            return error(401, "Unauthorized");
+        }
+        List<String> ids = idsFor(account);
+        JsonObject versions = new JsonObject();
+        for (String id : ids) {
+            // Bookings never change here after they're made, so all stay at their first version
+            versions.addProperty(id, 1);
+        }
+        JsonObject response = new JsonObject();
+        response.add("ids", gson.toJsonTree(ids));
+        response.add("versions", versions);
+        return json(response.toString());
+    }
+
+    private MockResponse bookingsBatch(RecordedRequest request) {
+        Account account = authenticate(request);
+        if (account == null) {
+            return error(401, "Unauthorized");
+        }
+        JsonObject body = readJson(request);
+        if (!body.has("ids") || !body.get("ids").isJsonArray() || body.getAsJsonArray("ids").size() > BOOKING_BATCH_LIMIT) {
+            return error(400, "ids must be an array of at most " + BOOKING_BATCH_LIMIT + " booking ids");
+        }
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < body.getAsJsonArray("ids").size(); i++) {
+            ids.add(body.getAsJsonArray("ids").get(i).getAsString());
+        }
+        JsonObject response = new JsonObject();
+        response.add("bookings", gson.toJsonTree(lookup(ids, account)));
+        return json(response.toString());
+    }
+
+    private MockResponse analytics(RecordedRequest request) {
+        MockResponse denied = requireAdmin(request);
+        if (denied != null) {
+            return denied;
+        }
+        double totalRevenue = 0;
+        Map<String, Double> classRevenue = new HashMap<>();
+        classRevenue.put("economy", 0.0);
+        classRevenue.put("business", 0.0);
+        classRevenue.put("first", 0.0);
+        Map<String, Double> revenueByFlight = new HashMap<>();
+        int totalBookings = 0;
+        for (Booking booking : bookings.values()) {
+            totalBookings++;
+            totalRevenue += booking.getTotalPrice();
+            String classType = booking.getSearchData() != null ? booking.getSearchData().getClassType() : "economy";
+            classRevenue.merge(classType != null ? classType : "economy", booking.getTotalPrice(), Double::sum);
+            if (booking.getSelectedFlight() != null) {
+                revenueByFlight.merge(booking.getSelectedFlight().getFlightNumber(), booking.getTotalPrice(), Double::sum);
+            }
+        }
+
+        JsonObject response = new JsonObject();
+        response.addProperty("totalRevenue", totalRevenue);
+        response.addProperty("totalBookings", totalBookings);
+        response.add("classRevenue", gson.toJsonTree(classRevenue));
+        JsonArray flightStats = new JsonArray();
+        for (Map.Entry<String, Double> entry : revenueByFlight.entrySet()) {
+            JsonObject stats = new JsonObject();
+            stats.addProperty("flightNumber", entry.getKey());
+            stats.addProperty("revenue", entry.getValue());
+            stats.addProperty("occupancyRate", "0.0");
+            flightStats.add(stats);
+        }
+        response.add("flightStats", flightStats);
+        response.addProperty("averageBookingValue", totalBookings > 0
+                ? String.format(Locale.US, "%.2f", totalRevenue / totalBookings) : "0");
+        return json(response.toString());
+    }
+
+    private MockResponse bookingEvents(RecordedRequest request) {
+        MockResponse denied = requireAdmin(request);
+        if (denied != null) {
+            return denied;
+        }
+        String sinceParameter = request.getRequestUrl().queryParameter("since");
+        long since = sinceParameter != null ? Long.parseLong(sinceParameter) : 0;
+        JsonObject response = new JsonObject();
+        synchronized (bookingEvents) {
+            List<BookingEvent> events = new ArrayList<>();
+            for (BookingEvent event : bookingEvents) {
+                if (event.getSeq() > since) {
+                    events.add(event);
+                }
+            }
+            response.addProperty("seq", bookingEvents.size());
+            response.addProperty("reset", false);
+            response.add("events", gson.toJsonTree(events));
+        }
+        return json(response.toString());
+    }
+
+    private MockResponse availabilityStream(RecordedRequest request) {
+        String sinceParameter = request.getRequestUrl().queryParameter("since");
+        long since = sinceParameter != null ? Long.parseLong(sinceParameter) : 0;
+        return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                streamConnections.incrementAndGet();
+                // Catch up and register under one lock so no change falls between the two
+                synchronized (seatLock) {
+                    String catchUp = changesSince(since);
+                    if (catchUp != null) {
+                        webSocket.send(catchUp);
+                    }
+                    streams.add(webSocket);
+                }
+            }
+
+            @Override
+            public void onClosing(WebSocket webSocket, int code, String reason) {
+                webSocket.close(1000, null);
+            }
+
+            @Override
+            public void onClosed(WebSocket webSocket, int code, String reason) {
+                synchronized (seatLock) {
+                    streams.remove(webSocket);
+                }
+            }
+
+            @Override
+            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+                synchronized (seatLock) {
+                    streams.remove(webSocket);
+                }
+            }
+        });
+    }
+
+    // Same rule as the server: every flight, with reset, once the cursor is outside the log
+    private String changesSince(long since) {
+        long version = catalogVersion + seatChanges.size();
+        if (since == version) {
+            return null;
+        }
+        boolean reset = since < catalogVersion || since > version;
+        Set<String> ids = reset ? seats.keySet()
+                : new LinkedHashSet<>(seatChanges.subList((int) (since - catalogVersion), seatChanges.size()));
+        return availabilityMessage(version, reset, ids);
+    }
+
+    private void takeSeats(Booking booking) {
+        if (booking.getSelectedFlight() == null) {
+            return;
+        }
+        String classType = booking.getSearchData() != null ? booking.getSearchData().getClassType() : null;
+        int classIndex = FlightTable.classIndex(classType);
+        int taken = booking.getPassengers() != null && !booking.getPassengers().isEmpty() ? booking.getPassengers().size() : 1;
+        synchronized (seatLock) {
+            int[] counts = seats.get(booking.getSelectedFlight().getId());
+            if (counts == null || counts[classIndex] < 0) {
+                return;
+            }
+            counts[classIndex] = Math.max(0, counts[classIndex] - taken);
+            seatsChanged(booking.getSelectedFlight().getId());
+        }
+    }
+
+    // Caller holds seatLock
+    private void seatsChanged(String flightId) {
+        seatChanges.add(flightId);
+        String message = availabilityMessage(catalogVersion + seatChanges.size(), false, Collections.singleton(flightId));
+        for (WebSocket stream : streams) {
+            stream.send(message);
+        }
+    }
+
+    private String availabilityMessage(long version, boolean reset, Set<String> ids) {
+        JsonArray flights = new JsonArray();
+        for (String id : ids) {
+            int[] counts = seats.get(id);
+            flights.add(gson.toJsonTree(new SeatAvailability(id, countOrNull(counts[0]),
+                    countOrNull(counts[1]), countOrNull(counts[2]))));
+        }
+        JsonObject message = new JsonObject();
+        message.addProperty("type", AvailabilityStream.TYPE_AVAILABILITY);
+        message.addProperty("version", version);
+        message.addProperty("reset", reset);
+        message.add("flights", flights);
+        return message.toString();
+    }
+
+    private static int seatsOf(Flight.ClassInfo info) {
+        return info != null ? info.getAvailable() : -1;
+    }
+
+    private static Integer countOrNull(int count) {
+        return count >= 0 ? count : null;
+    }
+
+    private void addAccount(User user, String password) {
+        Account account = new Account(user, password);
+        accountsByEmail.put(user.getEmail(), account);
+        accountsById.put(user.getId(), account);
+    }
+
+    private String sessionResponse(User user) {
+        String accessToken = "at-" + UUID.randomUUID();
+        String refreshToken = "rt-" + UUID.randomUUID();
+        accessTokens.put(accessToken, new Session(user.getId()));
+        refreshTokens.put(refreshToken, user.getId());
+
+        JsonObject response = new JsonObject();
+        response.addProperty("success", true);
+        response.add("user", gson.toJsonTree(user, User.class));
+        response.addProperty("accessToken", accessToken);
+        response.addProperty("refreshToken", refreshToken);
+        return response.toString();
+    }
+
+    // Null for a missing, unknown or used-up access token
+    private Account authenticate(RecordedRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        String token = header.substring("Bearer ".length());
+        Session session = accessTokens.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (conditions.accessTokenUses > 0 && session.uses.incrementAndGet() > conditions.accessTokenUses) {
+            accessTokens.remove(token);
+            expiredTokens.incrementAndGet();
+            return null;
+        }
+        return accountsById.get(session.userId);
+    }
+
+    private MockResponse requireAdmin(RecordedRequest request) {
+        Account account = authenticate(request);
+        if (account == null) {
+            return error(401, "Unauthorized");
+        }
+        if (!ADMIN_EMAIL.equals(account.user.getEmail())) {
+            return error(403, "Admin access required");
+        }
+        return null;
+    }
+
+    private List<String> idsFor(Account account) {
+        List<String> ids = bookingsByUser.get(account.user.getId());
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        synchronized (ids) {
+            return new ArrayList<>(ids);
+        }
+    }
+
+    private List<Booking> lookup(List<String> ids, Account account) {
+        List<Booking> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking != null && account.user.getId().equals(booking.getUserId())) {
+                found.add(booking);
+            }
+        }
+        return found;
+    }
+
+    private void recordEvent(Booking booking) {
+        synchronized (bookingEvents) {
+            String classType = booking.getSearchData() != null ? booking.getSearchData().getClassType() : "economy";
+            int seats = booking.getPassengers() != null && !booking.getPassengers().isEmpty() ? booking.getPassengers().size() : 1;
+            bookingEvents.add(new BookingEvent(bookingEvents.size() + 1, BookingEvent.CREATED, booking.getBookingId(),
+                    booking.getSelectedFlight() != null ? booking.getSelectedFlight().getId() : null,
+                    booking.getSelectedFlight() != null ? booking.getSelectedFlight().getFlightNumber() : null,
+                    classType, seats, booking.getTotalPrice()));
+        }
+    }
+
+    private long sampleLatency(ThreadLocalRandom random) {
+        if (conditions.medianLatencyMs <= 0) {
+            return 0;
+        }
+        // ln(p99 / median) spans 2.326 standard deviations of the underlying normal
+        double sigma = Math.log((double) conditions.p99LatencyMs / conditions.medianLatencyMs) / 2.326;
+        return Math.round(conditions.medianLatencyMs * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    private JsonObject readJson(RecordedRequest request) {
+        return gson.fromJson(request.getBody().readUtf8(), JsonObject.class);
+    }
+
+    private static Flight.ClassInfo classInfo(Flight flight, String classType) {
+        if ("business".equals(classType)) {
+            return flight.getBusiness();
+        } else if ("first".equals(classType)) {
+            return flight.getFirst();
+        }
+        return flight.getEconomy();
+    }
+
+    private static MockResponse json(String body) {
+        return json(200, body);
+    }
+
+    private static MockResponse json(int code, String body) {
+        return new MockResponse().setResponseCode(code).setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static MockResponse error(int code, String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("error", message);
+        return json(code, body.toString());
+    }
+}
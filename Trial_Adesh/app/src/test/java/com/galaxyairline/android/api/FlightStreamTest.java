@@ -0,0 +1,123 @@
+package com.galaxyairline.android.api;
+
+import com.galaxyairline.android.model.Flight;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class FlightStreamTest {
+    private MockWebServer server;
+    private GalaxyAirlineAPI api;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        api = ApiClient.createRetrofit(server.url("/").toString(),
+                ApiClient.newHttpClientBuilder(null).build()).create(GalaxyAirlineAPI.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void unknownFieldsAreSkipped() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"version\":7,\"meta\":{\"pages\":[1,2],\"flights\":3},"
+                + "\"flights\":[{\"id\":\"GA1\",\"flightNumber\":\"GA1\",\"gate\":\"B4\",\"crew\":{\"size\":[6]}},"
+                + "{\"id\":\"GA2\",\"flightNumber\":\"GA2\"}],\"success\":true}"));
+
+        List<String> ids = new ArrayList<>();
+        try (FlightStream stream = streamFlights()) {
+            assertEquals(2, stream.forEach(flight -> ids.add(flight.getId())));
+        }
+
+        assertEquals(2, ids.size());
+        assertEquals("GA1", ids.get(0));
+        assertEquals("GA2", ids.get(1));
+    }
+
+    @Test
+    public void truncatedJsonFailsInsteadOfEndingEarly() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"flights\":[{\"id\":\"GA1\",\"flightNumber\":\"GA1\"},"
+                + "{\"id\":\"GA2\",\"fli"));
+
+        List<List<Flight>> pages = new ArrayList<>();
+        try (FlightStream stream = streamFlights()) {
+            stream.forEachPage(1, page -> pages.add(page));
+            fail("a cut-off catalog was read as complete");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(1, pages.size());
+        assertEquals("GA1", pages.get(0).get(0).getId());
+    }
+
+    @Test
+    public void droppedConnectionFailsTheStream() throws Exception {
+        server.enqueue(new MockResponse().setBody(flightsBody(2000))
+                .setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY));
+
+        int[] read = new int[1];
+        try (FlightStream stream = streamFlights()) {
+            stream.forEach(flight -> read[0]++);
+            fail("a dropped connection was read as the end of the catalog");
+        } catch (IOException expected) {
+        }
+
+        assertTrue(read[0] < 2000);
+    }
+
+    @Test
+    public void failedPageWriteStopsTheStream() throws Exception {
+        server.enqueue(new MockResponse().setBody(flightsBody(10)));
+
+        List<List<Flight>> pages = new ArrayList<>();
+        try (FlightStream stream = streamFlights()) {
+            stream.forEachPage(4, page -> {
+                if (!pages.isEmpty()) {
+                    throw new IOException("disk full");
+                }
+                pages.add(page);
+            });
+            fail("the failed write was swallowed");
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+
+        // Nothing after the failed page was decoded or handed on
+        assertEquals(1, pages.size());
+        assertEquals(4, pages.get(0).size());
+    }
+
+    private FlightStream streamFlights() throws IOException {
+        Response<FlightStream> response = api.streamFlights().execute();
+        assertTrue(response.isSuccessful());
+        return response.body();
+    }
+
+    private static String flightsBody(int count) {
+        StringBuilder body = new StringBuilder("{\"success\":true,\"flights\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":\"GA").append(i).append("\",\"flightNumber\":\"GA").append(i)
+                    .append("\",\"from\":\"New York\",\"fromCode\":\"JFK\",\"to\":\"Los Angeles\",\"toCode\":\"LAX\"}");
+        }
+        return body.append("]}").toString();
+    }
+}
@@ -0,0 +1,429 @@
+package com.galaxyairline.android.api;
+
+import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.Booking;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Drives many simulated app sessions against a server through the real client stack:
+ * {@link ApiClient}'s interceptors, {@link AuthInterceptor} and {@link TokenAuthenticator}.
+ *
+ * Each virtual user has its own token store and authenticator, as separate devices would,
+ * but all of them share one OkHttp dispatcher and connection pool so a few threads can
+ * keep thousands of sessions in flight. Calls are enqueued, never executed, and each step
+ * schedules the next one after the user's think time.
+ */
+public class LoadGenerator {
+    static final String REFRESH = "refresh";
+
+    /**
+     * What the simulated users do. Every {@code adminEvery}-th user signs in as the admin
+     * and polls analytics instead of searching and booking.
+     */
+    public static class Profile {
+        int users = 10;
+        int iterations = 1;
+        long rampUpMs;
+        long thinkTimeMs;
+        int adminEvery;
+        int maxConcurrentRequests = 512;
+
+        public Profile users(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Profile iterations(int iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * Spread user start times evenly over this window rather than starting them all at once.
+         */
+        public Profile rampUp(long millis) {
+            this.rampUpMs = millis;
+            return this;
+        }
+
+        /**
+         * Mean pause between a user's steps; each pause is drawn uniformly from 0 to twice this.
+         */
+        public Profile thinkTime(long millis) {
+            this.thinkTimeMs = millis;
+            return this;
+        }
+
+        public Profile adminEvery(int adminEvery) {
+            this.adminEvery = adminEvery;
+            return this;
+        }
+
+        public Profile maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+    }
+
+    /**
+     * Client-side latency and outcome of every call, by endpoint. Latency runs from enqueue
+     * to response, so it includes time spent queued in the dispatcher and any token refresh.
+     */
+    public static class Report {
+        private final Map<String, EndpointStats> endpoints = new TreeMap<>();
+        private long elapsedMs;
+        private int completedUsers;
+        private int expiredSessions;
+
+        synchronized void record(String endpoint, long latencyMs, boolean success) {
+            EndpointStats stats = endpoints.get(endpoint);
+            if (stats == null) {
+                stats = new EndpointStats();
+                endpoints.put(endpoint, stats);
+            }
+            synchronized (stats) {
+                stats.latencies.add(latencyMs);
+                if (!success) {
+                    stats.errors++;
+                }
+            }
+        }
+
+        public synchronized EndpointStats get(String endpoint) {
+            EndpointStats stats = endpoints.get(endpoint);
+            return stats != null ? stats : new EndpointStats();
+        }
+
+        public synchronized int getRequestCount() {
+            int count = 0;
+            for (EndpointStats stats : endpoints.values()) {
+                count += stats.getCount();
+            }
+            return count;
+        }
+
+        public synchronized int getErrorCount() {
+            int errors = 0;
+            for (EndpointStats stats : endpoints.values()) {
+                errors += stats.getErrors();
+            }
+            return errors;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public int getCompletedUsers() {
+            return completedUsers;
+        }
+
+        /**
+         * Users whose refresh token was rejected mid-run and who had to stop.
+         */
+        public int getExpiredSessions() {
+            return expiredSessions;
+        }
+
+        public double getThroughput() {
+            return elapsedMs > 0 ? getRequestCount() * 1000.0 / elapsedMs : 0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder builder = new StringBuilder(String.format(Locale.US,
+                    "%d users done, %d requests in %d ms (%.1f req/s), %d errors%n",
+                    completedUsers, getRequestCount(), elapsedMs, getThroughput(), getErrorCount()));
+            builder.append(String.format(Locale.US, "%-18s %8s %7s %8s %8s %8s%n",
+                    "endpoint", "count", "errors", "p50 ms", "p99 ms", "max ms"));
+            for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+                EndpointStats stats = entry.getValue();
+                builder.append(String.format(Locale.US, "%-18s %8d %7d %8d %8d %8d%n", entry.getKey(),
+                        stats.getCount(), stats.getErrors(), stats.percentile(50), stats.percentile(99), stats.percentile(100)));
+            }
+            return builder.toString();
+        }
+    }
+
+    public static class EndpointStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private int errors;
+
+        public synchronized int getCount() {
+            return latencies.size();
+        }
+
+        public synchronized int getErrors() {
+            return errors;
+        }
+
+        public synchronized int getSuccesses() {
+            return latencies.size() - errors;
+        }
+
+        /**
+         * Nearest-rank percentile of the recorded latencies, in milliseconds; 0 if none.
+         */
+        public synchronized long percentile(double percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+            return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+        }
+    }
+
+    private final String baseUrl;
+    private final List<Flight> catalog;
+    private final Profile profile;
+    private final Report report = new Report();
+    private final AtomicInteger expiredSessions = new AtomicInteger();
+    private final Dispatcher dispatcher;
+    private final ConnectionPool connectionPool;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-generator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CountDownLatch finished;
+
+    /**
+     * @param catalog flights the server is known to have, used to pick realistic searches
+     */
+    public LoadGenerator(String baseUrl, List<Flight> catalog, Profile profile) {
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.profile = profile;
+
+        dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(profile.maxConcurrentRequests);
+        dispatcher.setMaxRequestsPerHost(profile.maxConcurrentRequests);
+        connectionPool = new ConnectionPool(profile.maxConcurrentRequests, 5, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Starts every user and waits for all of them to finish or for the timeout.
+     *
+     * @return the report, with {@link Report#getCompletedUsers()} short of the user count on timeout
+     */
+    public Report run(long timeout, TimeUnit unit) throws InterruptedException {
+        finished = new CountDownLatch(profile.users);
+        long start = System.nanoTime();
+        for (int i = 0; i < profile.users; i++) {
+            VirtualUser user = new VirtualUser(i, profile.adminEvery > 0 && i % profile.adminEvery == profile.adminEvery - 1);
+            long delay = profile.users > 1 ? profile.rampUpMs * i / (profile.users - 1) : 0;
+            scheduler.schedule(user::start, delay, TimeUnit.MILLISECONDS);
+        }
+        finished.await(timeout, unit);
+
+        synchronized (report) {
+            report.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            report.completedUsers = profile.users - (int) finished.getCount();
+            report.expiredSessions = expiredSessions.get();
+        }
+        scheduler.shutdownNow();
+        dispatcher.cancelAll();
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+        return report;
+    }
+
+    private class VirtualUser implements AuthTokenStore {
+        private final int index;
+        private final boolean admin;
+        private final GalaxyAirlineAPI api;
+        private volatile String accessToken;
+        private volatile String refreshToken;
+        private volatile boolean expired;
+        private int iteration;
+
+        VirtualUser(int index, boolean admin) {
+            this.index = index;
+            this.admin = admin;
+            TokenAuthenticator authenticator = new TokenAuthenticator(this, this::refresh);
+            OkHttpClient client = ApiClient.newHttpClientBuilder(null, authenticator)
+                    .dispatcher(dispatcher)
+                    .connectionPool(connectionPool)
+                    .build();
+            api = ApiClient.createRetrofit(baseUrl, client).create(GalaxyAirlineAPI.class);
+        }
+
+        void start() {
+            if (admin) {
+                call("login", api.login(new GalaxyAirlineAPI.LoginRequest(FakeGalaxyServer.ADMIN_EMAIL, "admin123")),
+                        this::signedIn, this::finish);
+                return;
+            }
+            String email = String.format(Locale.US, "load-%d-%d@example.com", index, System.nanoTime());
+            call("signup", api.signup(new GalaxyAirlineAPI.SignupRequest(email, "password", "Load User " + index)),
+                    signup -> call("login", api.login(new GalaxyAirlineAPI.LoginRequest(email, "password")),
+                            this::signedIn, this::finish),
+                    this::finish);
+        }
+
+        private void signedIn(GalaxyAirlineAPI.AuthResponse response) {
+            updateTokens(response.getAccessToken(), response.getRefreshToken());
+            later(this::iterate);
+        }
+
+        private void iterate() {
+            if (iteration++ >= profile.iterations || expired) {
+                finish();
+                return;
+            }
+            if (admin) {
+                call("getAnalytics", api.getAnalytics(), (Analytics analytics) -> later(() ->
+                        call("getBookingEvents", api.getBookingEvents(0), events -> later(this::iterate), this::nextIteration)),
+                        this::nextIteration);
+                return;
+            }
+            call("getFlights", api.getFlights(), flights -> later(this::search), this::nextIteration);
+        }
+
+        private void search() {
+            Flight target = catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()));
+            FlightSearchData query = new FlightSearchData();
+            query.setFrom(target.getFrom());
+            query.setTo(target.getTo());
+            query.setDepartDate(target.getDate());
+            query.setTripType("one-way");
+            query.setPassengers(new FlightSearchData.Passengers(1, 0));
+            query.setClassType("economy");
+            call("searchFlights", api.searchFlights(query), results -> {
+                List<Flight> flights = results.getFlights();
+                Flight selected = flights != null && !flights.isEmpty()
+                        ? flights.get(ThreadLocalRandom.current().nextInt(flights.size())) : target;
+                later(() -> book(query, selected));
+            }, this::nextIteration);
+        }
+
+        private void book(FlightSearchData query, Flight flight) {
+            Booking booking = new Booking();
+            booking.setSelectedFlight(flight);
+            booking.setSearchData(query);
+            booking.setPassengers(Collections.singletonList(
+                    new Booking.Passenger("Load User " + index, "load-" + index + "@example.com", "555-0100")));
+            booking.setTotalPrice(flight.getEconomy().getPrice());
+            booking.setPaymentMethod("card");
+            booking.setPaymentStatus("paid");
+            call("book", api.book(booking), confirmed -> later(this::loadBookings), this::nextIteration);
+        }
+
+        private void loadBookings() {
+            call("getBookingIds", api.getBookingIds(), ids -> {
+                List<String> page = ids.getIds().subList(0, Math.min(ids.getIds().size(), 50));
+                call("getBookings", api.getBookings(new GalaxyAirlineAPI.BookingIdsRequest(page)),
+                        bookings -> nextIteration(), this::nextIteration);
+            }, this::nextIteration);
+        }
+
+        private void nextIteration() {
+            later(this::iterate);
+        }
+
+        private void later(Runnable step) {
+            long think = profile.thinkTimeMs > 0 ? ThreadLocalRandom.current().nextLong(profile.thinkTimeMs * 2) : 0;
+            scheduler.schedule(step, think, TimeUnit.MILLISECONDS);
+        }
+
+        private void finish() {
+            finished.countDown();
+        }
+
+        // Success only on a 2xx with a body; anything else goes to onFailure
+        private <T> void call(String endpoint, Call<T> call, Consumer<T> onSuccess, Runnable onFailure) {
+            long start = System.nanoTime();
+            call.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    boolean success = response.isSuccessful() && response.body() != null;
+                    report.record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), success);
+                    if (success) {
+                        onSuccess.accept(response.body());
+                    } else {
+                        onFailure.run();
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    report.record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), false);
+                    onFailure.run();
+                }
+            });
+        }
+
+        // Same contract as ApiClient's refresher, timed as its own endpoint
+        private TokenAuthenticator.Tokens refresh(String token) throws IOException {
+            long start = System.nanoTime();
+            Response<GalaxyAirlineAPI.AuthResponse> response;
+            try {
+                response = api.refreshToken(new GalaxyAirlineAPI.RefreshRequest(token)).execute();
+            } catch (IOException e) {
+                report.record(REFRESH, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), false);
+                throw e;
+            }
+            GalaxyAirlineAPI.AuthResponse body = response.body();
+            boolean success = response.isSuccessful() && body != null && body.isSuccess();
+            report.record(REFRESH, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), success);
+            if (success) {
+                return new TokenAuthenticator.Tokens(body.getAccessToken(), body.getRefreshToken());
+            }
+            if (response.code() == 400 || response.code() == 401) {
+                return null;
+            }
+            throw new IOException("Token refresh failed: HTTP " + response.code());
+        }
+
+        @Override
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        @Override
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        @Override
+        public void updateTokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        @Override
+        public void onSessionExpired() {
+            if (!expired) {
+                expired = true;
+                expiredSessions.incrementAndGet();
+            }
+            accessToken = null;
+            refreshToken = null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.galaxyairline.android.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * End-to-end run of the client against {@link FakeGalaxyServer} with injected latency and
+ * faults. Defaults stay small enough for every build; scale up locally with, for example,
+ * {@code ./gradlew :app:testDebugUnitTest --tests '*LoadTest' -Dloadtest.users=2000}.
+ */
+public class LoadTest {
+    private static final int USERS = Integer.getInteger("loadtest.users", 40);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 2);
+    private static final long THINK_TIME_MS = Long.getLong("loadtest.thinkMs", 5);
+    private static final long MEDIAN_LATENCY_MS = Long.getLong("loadtest.latencyMs", 20);
+    private static final double ERROR_RATE = 0.01;
+    private static final double DISCONNECT_RATE = 0.005;
+
+    private MockWebServer server;
+    private FakeGalaxyServer galaxy;
+
+    @Before
+    public void setUp() throws Exception {
+        galaxy = new FakeGalaxyServer(FakeGalaxyServer.sampleCatalog(300, 42), new FakeGalaxyServer.Conditions()
+                .latency(MEDIAN_LATENCY_MS, MEDIAN_LATENCY_MS * 6)
+                .errorRate(ERROR_RATE)
+                .disconnectRate(DISCONNECT_RATE)
+                .accessTokenUses(2));
+        server = new MockWebServer();
+        server.setDispatcher(galaxy);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void usersCompleteTheirSessionsUnderInjectedFaults() throws Exception {
+        LoadGenerator generator = new LoadGenerator(server.url("/").toString(), galaxy.getFlights(),
+                new LoadGenerator.Profile()
+                        .users(USERS)
+                        .iterations(ITERATIONS)
+                        .rampUp(Math.min(USERS * 5L, 5000))
+                        .thinkTime(THINK_TIME_MS)
+                        .adminEvery(10));
+
+        LoadGenerator.Report report = generator.run(5, TimeUnit.MINUTES);
+        System.out.println(report);
+        System.out.println(galaxy.getRequestCount() + " server requests, " + galaxy.getInjectedErrors() + " injected 503s, "
+                + galaxy.getInjectedDisconnects() + " dropped connections, " + galaxy.getExpiredTokenCount() + " expired tokens");
+
+        assertEquals("users still running at timeout", USERS, report.getCompletedUsers());
+        // Every confirmed booking was stored exactly once, and nothing else was
+        assertEquals(report.get("book").getSuccesses(), galaxy.getBookingCount());
+        assertTrue(report.get("book").getSuccesses() > 0);
+
+        // Client errors come only from the injected faults; OkHttp silently retries some dropped connections
+        double errorRate = (double) report.getErrorCount() / report.getRequestCount();
+        assertTrue("error rate " + errorRate, errorRate <= 3 * (ERROR_RATE + DISCONNECT_RATE) + 0.02);
+
+        // Access tokens expire every few calls, so refreshes must have happened without logging anyone out
+        assertTrue(galaxy.getExpiredTokenCount() > 0);
+        assertTrue(report.get(LoadGenerator.REFRESH).getSuccesses() > 0);
+        assertEquals(0, report.getExpiredSessions());
+
+        // Injected latency shows up client-side; half the median leaves room for sampling noise
+        assertTrue(report.get("getFlights").percentile(50) >= MEDIAN_LATENCY_MS / 2);
+    }
+}
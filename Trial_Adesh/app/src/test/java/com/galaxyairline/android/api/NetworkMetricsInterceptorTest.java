@@ -0,0 +1,151 @@
+package com.galaxyairline.android.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.*;
+
+public class NetworkMetricsInterceptorTest {
+    private MockWebServer server;
+    private NetworkStats stats;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        stats = new NetworkStats();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new NetworkMetricsInterceptor(stats))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void countsBytesBothWays() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true}"));
+
+        RequestBody body = RequestBody.create("{\"email\":\"a@b.c\"}", MediaType.get("application/json"));
+        try (Response response = client.newCall(request("/login").post(body).build()).execute()) {
+            response.body().string();
+        }
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("POST /login");
+        assertEquals(1, snapshot.getRequestCount());
+        assertEquals(0, snapshot.getErrorCount());
+        assertEquals(17, snapshot.getBytesSent());
+        assertEquals(16, snapshot.getBytesReceived());
+    }
+
+    @Test
+    public void unreadBodyCountsNoBytesUntilRead() throws Exception {
+        server.enqueue(new MockResponse().setBody("0123456789"));
+
+        try (Response response = client.newCall(request("/flights").build()).execute()) {
+            assertEquals(0, stats.snapshot("GET /flights").getBytesReceived());
+            response.body().source().skip(4);
+            assertTrue(stats.snapshot("GET /flights").getBytesReceived() >= 4);
+        }
+    }
+
+    @Test
+    public void latencyIncludesReadingTheBody() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"flights\":[]}")
+                .setBodyDelay(300, TimeUnit.MILLISECONDS));
+
+        try (Response response = client.newCall(request("/flights").build()).execute()) {
+            response.body().string();
+        }
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("GET /flights");
+        assertTrue("latency " + snapshot.getLatencyP50Ms() + "ms", snapshot.getLatencyP50Ms() >= 250);
+        assertTrue(snapshot.getTtfbP50Ms() <= snapshot.getLatencyP50Ms());
+    }
+
+    @Test
+    public void serverErrorsCountButNotModifiedDoesNot() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        for (int i = 0; i < 3; i++) {
+            client.newCall(request("/bookings").build()).execute().close();
+        }
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("GET /bookings");
+        assertEquals(3, snapshot.getRequestCount());
+        assertEquals(2, snapshot.getErrorCount());
+    }
+
+    @Test
+    public void failedConnectionCountsAsAnError() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        try {
+            client.newCall(request("/flights").build()).execute();
+            fail("expected the dropped connection to fail the call");
+        } catch (IOException expected) {
+        }
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("GET /flights");
+        assertEquals(1, snapshot.getRequestCount());
+        assertEquals(1, snapshot.getErrorCount());
+    }
+
+    @Test
+    public void connectionDroppedMidBodyCountsAsAnError() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            body.append("0123456789");
+        }
+        server.enqueue(new MockResponse().setBody(body.toString())
+                .setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY));
+
+        try (Response response = client.newCall(request("/flights").build()).execute()) {
+            response.body().string();
+            fail("expected the truncated body to fail");
+        } catch (IOException expected) {
+        }
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("GET /flights");
+        assertEquals(1, snapshot.getErrorCount());
+        assertTrue(snapshot.getBytesReceived() < body.length());
+    }
+
+    @Test
+    public void retrofitCallsAreGroupedByMethodName() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"flights\":[]}"));
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"flights\":[]}"));
+        GalaxyAirlineAPI api = ApiClient.createRetrofit(server.url("/").toString(), client)
+                .create(GalaxyAirlineAPI.class);
+
+        api.getFlights().execute();
+        api.getFlights().execute();
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("getFlights");
+        assertNotNull(snapshot);
+        assertEquals(2, snapshot.getRequestCount());
+        assertEquals(1, stats.snapshot().size());
+    }
+
+    private Request.Builder request(String path) {
+        return new Request.Builder().url(server.url(path));
+    }
+}
@@ -0,0 +1,102 @@
+package com.galaxyairline.android.api;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NetworkStatsTest {
+
+    @Test
+    public void emptyStatsReportNothing() {
+        NetworkStats stats = new NetworkStats();
+
+        assertTrue(stats.snapshot().isEmpty());
+        assertNull(stats.snapshot("getFlights"));
+        assertEquals("", stats.toString());
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        NetworkStats.Histogram histogram = new NetworkStats.Histogram();
+
+        assertEquals(0, histogram.percentile(0.50));
+        assertEquals(0, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void endpointWithNoTimingsReportsZeroLatency() {
+        NetworkStats stats = new NetworkStats();
+        stats.forEndpoint("getFlights").requests.incrementAndGet();
+
+        NetworkStats.EndpointSnapshot snapshot = stats.snapshot("getFlights");
+        assertEquals(1, snapshot.getRequestCount());
+        assertEquals(0, snapshot.getLatencyP50Ms());
+        assertEquals(0, snapshot.getLatencyP99Ms());
+        assertEquals(0, snapshot.getTtfbP95Ms());
+    }
+
+    @Test
+    public void bucketBoundsAreInclusive() {
+        NetworkStats.Histogram histogram = new NetworkStats.Histogram();
+        histogram.record(10);
+        histogram.record(25);
+        histogram.record(26);
+        histogram.record(40);
+
+        // 10 and 25 sit at the top of their buckets; 26 and 40 fall into the 50ms one
+        assertEquals(10, histogram.percentile(0.25));
+        assertEquals(25, histogram.percentile(0.50));
+        assertEquals(40, histogram.percentile(0.75));
+        assertEquals(40, histogram.percentile(1.00));
+    }
+
+    @Test
+    public void percentileNeverExceedsTheSlowestRequest() {
+        NetworkStats.Histogram histogram = new NetworkStats.Histogram();
+        histogram.record(0);
+        histogram.record(3);
+
+        assertEquals(3, histogram.percentile(0.50));
+        assertEquals(3, histogram.percentile(1.00));
+    }
+
+    @Test
+    public void openEndedBucketReportsTheLargestValue() {
+        NetworkStats.Histogram histogram = new NetworkStats.Histogram();
+        histogram.record(10000);
+        histogram.record(10001);
+        histogram.record(42000);
+
+        assertEquals(10000, histogram.percentile(0.33));
+        assertEquals(42000, histogram.percentile(0.50));
+        assertEquals(42000, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void snapshotListsSlowestEndpointFirst() {
+        NetworkStats stats = new NetworkStats();
+        stats.forEndpoint("login").latency.record(80);
+        stats.forEndpoint("getFlights").latency.record(900);
+        stats.forEndpoint("getBookings").latency.record(5);
+
+        List<NetworkStats.EndpointSnapshot> snapshots = stats.snapshot();
+
+        assertEquals(3, snapshots.size());
+        assertEquals("getFlights", snapshots.get(0).getEndpoint());
+        assertEquals("login", snapshots.get(1).getEndpoint());
+        assertEquals("getBookings", snapshots.get(2).getEndpoint());
+    }
+
+    @Test
+    public void resetForgetsEveryEndpoint() {
+        NetworkStats stats = new NetworkStats();
+        stats.forEndpoint("getFlights").requests.incrementAndGet();
+
+        stats.reset();
+
+        assertTrue(stats.snapshot().isEmpty());
+        assertNull(stats.snapshot("getFlights"));
+    }
+}
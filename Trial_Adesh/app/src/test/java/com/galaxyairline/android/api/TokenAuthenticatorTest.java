@@ -0,0 +1,204 @@
+package com.galaxyairline.android.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class TokenAuthenticatorTest {
+    private static final String ANALYTICS = "{\"totalBookings\":3}";
+
+    private MockWebServer server;
+    private AuthServer auth;
+    private FakeTokenStore store;
+    private TokenAuthenticator authenticator;
+    private GalaxyAirlineAPI api;
+
+    @Before
+    public void setUp() throws Exception {
+        auth = new AuthServer();
+        server = new MockWebServer();
+        server.setDispatcher(auth);
+        server.start();
+
+        store = new FakeTokenStore("expired", "refresh-1");
+        authenticator = new TokenAuthenticator(store, refreshToken -> {
+            Response<GalaxyAirlineAPI.AuthResponse> response = api
+                    .refreshToken(new GalaxyAirlineAPI.RefreshRequest(refreshToken)).execute();
+            return response.isSuccessful()
+                    ? new TokenAuthenticator.Tokens(response.body().getAccessToken(), response.body().getRefreshToken())
+                    : null;
+        });
+        api = ApiClient.createRetrofit(server.url("/").toString(),
+                ApiClient.newHttpClientBuilder(null, authenticator).build()).create(GalaxyAirlineAPI.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void injectsTheSessionToken() throws Exception {
+        store.accessToken = auth.validToken;
+
+        Response<com.galaxyairline.android.model.Analytics> response = api.getAnalytics().execute();
+
+        assertEquals(3, response.body().getTotalBookings());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("Bearer " + auth.validToken, request.getHeader("Authorization"));
+        assertNull(request.getHeader(AuthInterceptor.HEADER));
+        assertEquals(0, authenticator.getRefreshCount());
+    }
+
+    @Test
+    public void expiredTokenIsRefreshedOnceAndTheRequestRetried() throws Exception {
+        Response<com.galaxyairline.android.model.Analytics> response = api.getAnalytics().execute();
+
+        assertTrue(response.isSuccessful());
+        assertEquals(1, authenticator.getRefreshCount());
+        assertEquals(auth.validToken, store.accessToken);
+        assertEquals("refresh-2", store.refreshToken);
+    }
+
+    @Test
+    public void concurrentExpiredRequestsShareOneRefresh() throws Exception {
+        int requests = 16;
+        // Hold every request at the server until all have arrived with the expired token
+        auth.gate = new CountDownLatch(requests);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Response<com.galaxyairline.android.model.Analytics>>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(pool.submit(() -> api.getAnalytics().execute()));
+            }
+            for (Future<Response<com.galaxyairline.android.model.Analytics>> future : futures) {
+                assertTrue(future.get(10, TimeUnit.SECONDS).isSuccessful());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, authenticator.getRefreshCount());
+        assertEquals(1, auth.refreshCalls.get());
+    }
+
+    @Test
+    public void rejectedRefreshEndsTheSession() throws Exception {
+        auth.acceptRefresh = false;
+
+        Response<com.galaxyairline.android.model.Analytics> response = api.getAnalytics().execute();
+
+        assertEquals(401, response.code());
+        assertTrue(store.expired.get());
+        assertEquals(1, auth.refreshCalls.get());
+    }
+
+    @Test
+    public void stillUnauthorizedAfterRefreshIsNotRetriedAgain() throws Exception {
+        auth.validToken = "never-valid";
+        auth.issuedToken = "also-rejected";
+
+        Response<com.galaxyairline.android.model.Analytics> response = api.getAnalytics().execute();
+
+        assertEquals(401, response.code());
+        assertEquals(1, auth.refreshCalls.get());
+        // The original request, then its single retry
+        assertEquals(2, auth.analyticsCalls.get());
+    }
+
+    @Test
+    public void signedOutRequestsAreSentWithoutAToken() throws Exception {
+        store.accessToken = null;
+
+        Response<com.galaxyairline.android.model.Analytics> response = api.getAnalytics().execute();
+
+        assertEquals(401, response.code());
+        assertNull(server.takeRequest().getHeader("Authorization"));
+        assertEquals(0, auth.refreshCalls.get());
+    }
+
+    private static class AuthServer extends Dispatcher {
+        volatile String validToken = "fresh";
+        volatile String issuedToken = "fresh";
+        volatile boolean acceptRefresh = true;
+        volatile CountDownLatch gate;
+        final AtomicInteger refreshCalls = new AtomicInteger();
+        final AtomicInteger analyticsCalls = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (request.getPath().endsWith("/refresh")) {
+                refreshCalls.incrementAndGet();
+                if (!acceptRefresh) {
+                    return new MockResponse().setResponseCode(401).setBody("{\"success\":false}");
+                }
+                return new MockResponse().setBody("{\"success\":true,\"accessToken\":\"" + issuedToken
+                        + "\",\"refreshToken\":\"refresh-2\"}");
+            }
+
+            analyticsCalls.incrementAndGet();
+            String authorization = request.getHeader("Authorization");
+            boolean valid = ("Bearer " + validToken).equals(authorization);
+            CountDownLatch latch = gate;
+            if (!valid && latch != null) {
+                latch.countDown();
+                latch.await(5, TimeUnit.SECONDS);
+            }
+            return valid
+                    ? new MockResponse().setBody(ANALYTICS)
+                    : new MockResponse().setResponseCode(401).setBody("{\"error\":\"Unauthorized\"}");
+        }
+    }
+
+    private static class FakeTokenStore implements AuthTokenStore {
+        volatile String accessToken;
+        volatile String refreshToken;
+        final AtomicBoolean expired = new AtomicBoolean();
+
+        FakeTokenStore(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        @Override
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        @Override
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        @Override
+        public void updateTokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        @Override
+        public void onSessionExpired() {
+            expired.set(true);
+            accessToken = null;
+            refreshToken = null;
+        }
+    }
+}
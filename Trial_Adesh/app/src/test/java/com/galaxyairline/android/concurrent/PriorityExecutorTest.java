@@ -0,0 +1,274 @@
+package com.galaxyairline.android.concurrent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PriorityExecutorTest {
+    private PriorityExecutor executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        executor = new PriorityExecutor("test", 1, 8);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Occupies the single worker so everything after it queues up
+    private void blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(Priority.NORMAL, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void queuedTasksRunByPriorityThenFifo() throws Exception {
+        blockWorker();
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch done = new CountDownLatch(5);
+        submitRecording(Priority.LOW, "low", order, done);
+        submitRecording(Priority.NORMAL, "normal-1", order, done);
+        submitRecording(Priority.IMMEDIATE, "immediate", order, done);
+        submitRecording(Priority.NORMAL, "normal-2", order, done);
+        submitRecording(Priority.HIGH, "high", order, done);
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("immediate", "high", "normal-1", "normal-2", "low"), order);
+    }
+
+    @Test
+    public void neverRunsMoreThanItsThreadCount() throws Exception {
+        PriorityExecutor pool = new PriorityExecutor("bounded", 3, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            pool.submit(Priority.NORMAL, () -> {
+                int now = running.incrementAndGet();
+                peak.accumulateAndGet(now, Math::max);
+                sleepQuietly(2);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 3);
+        assertEquals(50, pool.getStats().getCompleted());
+    }
+
+    @Test
+    public void rejectsBeyondQueueCapacity() throws Exception {
+        blockWorker();
+        for (int i = 0; i < 8; i++) {
+            executor.submit(Priority.LOW, () -> { });
+        }
+        try {
+            executor.submit(Priority.LOW, () -> { });
+            fail("Expected the full queue to reject");
+        } catch (RejectedExecutionException expected) {
+        }
+        ExecutorStats stats = executor.getStats();
+        assertEquals(8, stats.getQueueDepth());
+        assertEquals(8, stats.getPeakQueueDepth());
+        assertEquals(1, stats.getRejected());
+    }
+
+    @Test
+    public void cancellingFreesTheQueueSlotAndSkipsTheTask() throws Exception {
+        blockWorker();
+        AtomicInteger ran = new AtomicInteger();
+        Future<?> future = executor.submit(Priority.NORMAL, ran::incrementAndGet);
+        assertEquals(1, executor.getStats().getQueueDepth());
+
+        assertTrue(future.cancel(false));
+        assertEquals(0, executor.getStats().getQueueDepth());
+        assertEquals(1, executor.getStats().getCancelled());
+
+        release.countDown();
+        executor.submit(Priority.NORMAL, () -> { }).get(5, TimeUnit.SECONDS);
+        assertEquals(0, ran.get());
+    }
+
+    @Test
+    public void recordsQueueWaitTime() throws Exception {
+        blockWorker();
+        Future<?> queued = executor.submit(Priority.NORMAL, () -> { });
+        Thread.sleep(50);
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+
+        ExecutorStats stats = executor.getStats();
+        assertTrue(stats.getMaxWaitMillis() >= 40);
+        assertTrue(stats.getAverageWaitMillis() > 0);
+    }
+
+    @Test
+    public void serialExecutorRunsOneAtATimeInOrder() throws Exception {
+        PriorityExecutor pool = new PriorityExecutor("serial", 4, 100);
+        SerialExecutor serial = new SerialExecutor(pool);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            serial.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                sleepQuietly(1);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertEquals(1, peak.get());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    @Test
+    public void taskGroupCancelsPendingAndLaterWork() throws Exception {
+        blockWorker();
+        TaskGroup group = new TaskGroup();
+        AtomicInteger ran = new AtomicInteger();
+        Future<?> pending = group.submit(executor, Priority.NORMAL, ran::incrementAndGet);
+
+        group.cancelAll();
+        assertTrue(pending.isCancelled());
+        Future<?> late = group.submit(executor, Priority.NORMAL, ran::incrementAndGet);
+        assertTrue(late.isCancelled());
+        assertEquals(0, group.size());
+
+        release.countDown();
+        executor.submit(Priority.LOW, () -> { }).get(5, TimeUnit.SECONDS);
+        assertEquals(0, ran.get());
+    }
+
+    @Test
+    public void taskGroupTurnsRejectionIntoACancelledFuture() throws Exception {
+        blockWorker();
+        CountDownLatch drained = fillQueue();
+        TaskGroup group = new TaskGroup();
+        AtomicInteger ran = new AtomicInteger();
+
+        Future<?> overflow = group.submit(executor, Priority.LOW, ran::incrementAndGet);
+
+        assertTrue(overflow.isCancelled());
+        release.countDown();
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        executor.submit(Priority.LOW, () -> { }).get(5, TimeUnit.SECONDS);
+        assertEquals(0, ran.get());
+    }
+
+    @Test
+    public void serialExecutorRecoversFromARejectedTask() throws Exception {
+        SerialExecutor serial = new SerialExecutor(executor);
+        blockWorker();
+        CountDownLatch drained = fillQueue();
+        try {
+            serial.execute(() -> fail("rejected task ran"));
+            fail("expected the saturated pool to reject the task");
+        } catch (RejectedExecutionException expected) {
+            // Reported to the caller, and the task is dropped
+        }
+
+        release.countDown();
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        CountDownLatch ran = new CountDownLatch(1);
+        serial.execute(ran::countDown);
+        assertTrue("serial executor stalled after a rejection", ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void serialExecutorKeepsGoingWhenThePoolIsFull() throws Exception {
+        SerialExecutor serial = new SerialExecutor(executor);
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch done = new CountDownLatch(2);
+        serial.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        serial.execute(() -> {
+            order.add("second");
+            done.countDown();
+        });
+        serial.execute(() -> {
+            order.add("third");
+            done.countDown();
+        });
+        // The pool can't take the second task when the first finishes
+        CountDownLatch holdFillers = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(Priority.LOW, () -> awaitQuietly(holdFillers));
+        }
+
+        release.countDown();
+        try {
+            assertTrue("queued serial tasks were stranded", done.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("second", "third"), order);
+        } finally {
+            holdFillers.countDown();
+        }
+    }
+
+    // Fills the 8-task queue behind a blocked worker; the latch opens once they have all run
+    private CountDownLatch fillQueue() {
+        CountDownLatch drained = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(Priority.LOW, drained::countDown);
+        }
+        return drained;
+    }
+
+    private void submitRecording(Priority priority, String name, List<String> order, CountDownLatch done) {
+        executor.submit(priority, () -> {
+            order.add(name);
+            done.countDown();
+        });
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.galaxyairline.android.data;
+
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Booking;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class BookingSyncerTest {
+    private MockWebServer server;
+    private BookingServer bookings;
+    private MemoryBookingStore store;
+    private BookingSyncer syncer;
+
+    @Before
+    public void setUp() throws Exception {
+        bookings = new BookingServer();
+        for (int i = 0; i < 450; i++) {
+            bookings.put(id(i), "confirmed");
+        }
+
+        server = new MockWebServer();
+        server.setDispatcher(bookings);
+        server.start();
+
+        GalaxyAirlineAPI api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(GalaxyAirlineAPI.class);
+        store = new MemoryBookingStore();
+        syncer = new BookingSyncer(api, store);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void firstSyncFetchesEveryBookingInBatches() throws Exception {
+        BookingSyncer.Result result = syncer.sync();
+
+        assertEquals(450, result.getFetched());
+        assertEquals(0, result.getRemoved());
+        assertEquals(450, store.bookings.size());
+        assertEquals(Arrays.asList(200, 200, 50), bookings.batchSizes);
+        assertEquals(Long.valueOf(1), store.versions.get(id(0)));
+    }
+
+    @Test
+    public void onlyUnknownIdsAreFetched() throws Exception {
+        syncer.sync();
+        bookings.batchSizes.clear();
+        bookings.put("BK-new-1", "confirmed");
+        bookings.put("BK-new-2", "confirmed");
+
+        BookingSyncer.Result result = syncer.sync();
+
+        assertEquals(2, result.getFetched());
+        assertEquals(Collections.singletonList(2), bookings.batchSizes);
+        assertEquals(Arrays.asList("BK-new-1", "BK-new-2"), bookings.lastBatch);
+        assertEquals(452, store.bookings.size());
+    }
+
+    @Test
+    public void changedBookingsAreFetchedAgain() throws Exception {
+        syncer.sync();
+        bookings.batchSizes.clear();
+        bookings.put(id(7), "cancelled");
+
+        BookingSyncer.Result result = syncer.sync();
+
+        assertEquals(1, result.getFetched());
+        assertEquals(Collections.singletonList(id(7)), bookings.lastBatch);
+        assertEquals("cancelled", store.bookings.get(id(7)).getStatus());
+        assertEquals(Long.valueOf(2), store.versions.get(id(7)));
+    }
+
+    @Test
+    public void idsGoneFromTheServerAreDropped() throws Exception {
+        syncer.sync();
+        bookings.batchSizes.clear();
+        bookings.remove(id(3));
+        bookings.remove(id(4));
+
+        BookingSyncer.Result result = syncer.sync();
+
+        assertEquals(0, result.getFetched());
+        assertEquals(2, result.getRemoved());
+        assertFalse(store.bookings.containsKey(id(3)));
+        assertEquals(448, store.bookings.size());
+        assertTrue(bookings.batchSizes.isEmpty());
+    }
+
+    @Test
+    public void unchangedListFetchesNothing() throws Exception {
+        syncer.sync();
+        bookings.batchSizes.clear();
+        int applied = store.applyCount;
+
+        BookingSyncer.Result result = syncer.sync();
+
+        assertFalse(result.hasChanges());
+        assertTrue(bookings.batchSizes.isEmpty());
+        assertEquals(applied, store.applyCount);
+    }
+
+    @Test
+    public void listingsWithoutVersionsOnlyFetchNewIds() throws Exception {
+        bookings.sendVersions = false;
+        syncer.sync();
+        bookings.batchSizes.clear();
+        bookings.put(id(7), "cancelled");
+
+        assertFalse(syncer.sync().hasChanges());
+    }
+
+    @Test
+    public void failedBatchLeavesTheStoreUntouched() throws Exception {
+        bookings.failBatches = true;
+        try {
+            syncer.sync();
+            fail("expected the batch failure to surface");
+        } catch (IOException expected) {
+            // Nothing half-applied
+        }
+        assertTrue(store.bookings.isEmpty());
+        assertEquals(0, store.applyCount);
+    }
+
+    private static String id(int i) {
+        return String.format(Locale.US, "BK%05d", i);
+    }
+
+    private static class MemoryBookingStore implements BookingSyncer.BookingStore {
+        final Map<String, Booking> bookings = new HashMap<>();
+        final Map<String, Long> versions = new HashMap<>();
+        int applyCount;
+
+        @Override
+        public Map<String, Long> getVersions() {
+            return new HashMap<>(versions);
+        }
+
+        @Override
+        public void apply(List<Booking> fetched, Map<String, Long> fetchedVersions, List<String> removed) {
+            applyCount++;
+            for (Booking booking : fetched) {
+                bookings.put(booking.getBookingId(), booking);
+                versions.put(booking.getBookingId(), fetchedVersions.get(booking.getBookingId()));
+            }
+            for (String id : removed) {
+                bookings.remove(id);
+                versions.remove(id);
+            }
+        }
+    }
+
+    // Serves /user-bookings/ids and /bookings/batch like the edge function does
+    private static class BookingServer extends Dispatcher {
+        final Map<String, Booking> bookings = new LinkedHashMap<>();
+        final Map<String, Long> versions = new HashMap<>();
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        volatile List<String> lastBatch;
+        volatile boolean sendVersions = true;
+        volatile boolean failBatches;
+
+        synchronized void put(String id, String status) {
+            Booking booking = new Booking();
+            booking.setBookingId(id);
+            booking.setUserId("user-1");
+            booking.setStatus(status);
+            bookings.put(id, booking);
+            versions.merge(id, 1L, Long::sum);
+        }
+
+        synchronized void remove(String id) {
+            bookings.remove(id);
+            versions.remove(id);
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            if (path.endsWith("/user-bookings/ids")) {
+                JsonObject body = new JsonObject();
+                body.add("ids", GsonProvider.get().toJsonTree(new ArrayList<>(bookings.keySet())));
+                if (sendVersions) {
+                    body.add("versions", GsonProvider.get().toJsonTree(versions));
+                }
+                return new MockResponse().setBody(body.toString());
+            }
+            if (path.endsWith("/bookings/batch")) {
+                if (failBatches) {
+                    return new MockResponse().setResponseCode(500).setBody("{\"error\":\"Failed to fetch bookings\"}");
+                }
+                JsonArray ids = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject().getAsJsonArray("ids");
+                List<String> batch = new ArrayList<>();
+                JsonArray found = new JsonArray();
+                for (JsonElement id : ids) {
+                    batch.add(id.getAsString());
+                    Booking booking = bookings.get(id.getAsString());
+                    if (booking != null) {
+                        found.add(GsonProvider.get().toJsonTree(booking, Booking.class));
+                    }
+                }
+                batchSizes.add(batch.size());
+                lastBatch = batch;
+                JsonObject body = new JsonObject();
+                body.add("bookings", found);
+                return new MockResponse().setBody(body.toString());
+            }
+            return new MockResponse().setResponseCode(404);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.galaxyairline.android.data;
+
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Flight;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class DeltaSyncerTest {
+    private static final int CATALOG_SIZE = 500;
+
+    private MockWebServer server;
+    private CatalogServer catalog;
+    private InMemoryFlightStore store;
+    private DeltaSyncer syncer;
+
+    @Before
+    public void setUp() throws Exception {
+        catalog = new CatalogServer();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog.put(flight(String.format("GA%04d", i), 199 + i));
+        }
+
+        server = new MockWebServer();
+        server.setDispatcher(catalog);
+        server.start();
+
+        GalaxyAirlineAPI api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(GalaxyAirlineAPI.class);
+        store = new InMemoryFlightStore();
+        syncer = new DeltaSyncer(api, store);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void firstSyncDownloadsWholeCatalog() throws Exception {
+        DeltaSyncer.Result result = syncer.sync();
+
+        assertTrue(result.isReset());
+        assertEquals(CATALOG_SIZE, store.getFlights().size());
+        assertEquals(catalog.version, store.getVersion());
+        assertEquals("/make-server-59e5bae9/flights/changes?since=0", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void smallEditMovesOnlyChangedFlights() throws Exception {
+        syncer.sync();
+        int fullBytes = catalog.lastResponseBytes;
+
+        catalog.put(flight("GA0007", 99));
+        catalog.put(flight("GA9000", 450));
+        catalog.delete("GA0042");
+        DeltaSyncer.Result result = syncer.sync();
+
+        assertFalse(result.isReset());
+        assertEquals(2, result.getUpserts());
+        assertEquals(1, result.getDeletes());
+        assertEquals(CATALOG_SIZE, store.getFlights().size());
+        assertEquals(99, find(store.getFlights(), "GA0007").getEconomy().getPrice(), 0.001);
+        assertNull(find(store.getFlights(), "GA0042"));
+        assertNotNull(find(store.getFlights(), "GA9000"));
+        assertEquals(catalog.version, store.getVersion());
+        assertTrue("delta was " + catalog.lastResponseBytes + " bytes, full " + fullBytes,
+                catalog.lastResponseBytes * 50 < fullBytes);
+    }
+
+    @Test
+    public void noChangesLeavesStoreAsIs() throws Exception {
+        syncer.sync();
+        long version = store.getVersion();
+
+        DeltaSyncer.Result result = syncer.sync();
+
+        assertFalse(result.hasChanges());
+        assertEquals(version, store.getVersion());
+        assertEquals(CATALOG_SIZE, store.getFlights().size());
+    }
+
+    @Test
+    public void cursorOlderThanChangeLogResetsStore() throws Exception {
+        syncer.sync();
+        catalog.delete("GA0001");
+        catalog.forgetHistory();
+
+        store.apply(false, new ArrayList<Flight>(), new ArrayList<String>(), 1);
+        DeltaSyncer.Result result = syncer.sync();
+
+        assertTrue(result.isReset());
+        assertEquals(CATALOG_SIZE - 1, store.getFlights().size());
+        assertNull(find(store.getFlights(), "GA0001"));
+    }
+
+    @Test
+    public void serverErrorLeavesStoreUntouched() throws Exception {
+        syncer.sync();
+        long version = store.getVersion();
+        catalog.put(flight("GA0003", 10));
+        catalog.failNext = true;
+
+        try {
+            syncer.sync();
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+        assertEquals(version, store.getVersion());
+        assertEquals(202, find(store.getFlights(), "GA0003").getEconomy().getPrice(), 0.001);
+    }
+
+    private static Flight flight(String id, double price) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(id);
+        flight.setFromCode("JFK");
+        flight.setToCode("LAX");
+        flight.setDate("2024-01-15");
+        flight.setEconomy(new Flight.ClassInfo(price, 100));
+        return flight;
+    }
+
+    private static Flight find(List<Flight> flights, String id) {
+        for (Flight flight : flights) {
+            if (id.equals(flight.getId())) {
+                return flight;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stand-in for the server's /flights/changes endpoint: keeps a versioned
+     * change log and answers with the latest state of every flight touched after
+     * the cursor, or the whole catalog once the cursor predates the log.
+     */
+    private static class CatalogServer extends Dispatcher {
+        final Map<String, Flight> flights = new LinkedHashMap<>();
+        final Map<Long, String> changelog = new LinkedHashMap<>();
+        long version = 1;
+        long oldestRetained = 1;
+        volatile boolean failNext;
+        volatile int lastResponseBytes;
+
+        synchronized void put(Flight flight) {
+            flights.put(flight.getId(), flight);
+            changelog.put(++version, flight.getId());
+        }
+
+        synchronized void delete(String id) {
+            flights.remove(id);
+            changelog.put(++version, id);
+        }
+
+        synchronized void forgetHistory() {
+            changelog.clear();
+            oldestRetained = version;
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) {
+            if (failNext) {
+                failNext = false;
+                return new MockResponse().setResponseCode(500).setBody("{\"error\":\"Failed to fetch flight changes\"}");
+            }
+            long since = Long.parseLong(request.getRequestUrl().queryParameter("since"));
+
+            JsonObject body = new JsonObject();
+            body.addProperty("version", version);
+            JsonArray upserts = new JsonArray();
+            JsonArray deletes = new JsonArray();
+            if (since <= 0 || since < oldestRetained) {
+                body.addProperty("reset", true);
+                for (Flight flight : flights.values()) {
+                    upserts.add(GsonProvider.get().toJsonTree(flight, Flight.class));
+                }
+            } else {
+                body.addProperty("reset", false);
+                Set<String> changed = new LinkedHashSet<>();
+                for (Map.Entry<Long, String> entry : changelog.entrySet()) {
+                    if (entry.getKey() > since) {
+                        changed.add(entry.getValue());
+                    }
+                }
+                for (String id : changed) {
+                    Flight flight = flights.get(id);
+                    if (flight != null) {
+                        upserts.add(GsonProvider.get().toJsonTree(flight, Flight.class));
+                    } else {
+                        deletes.add(id);
+                    }
+                }
+            }
+            body.add("upserts", upserts);
+            body.add("deletes", deletes);
+
+            String json = body.toString();
+            lastResponseBytes = json.length();
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(json);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.galaxyairline.android.data;
+
+import com.galaxyairline.android.model.Flight;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DeltaSyncer.FlightStore} kept on the heap, keyed by Flight.id in arrival order.
+ */
+public class InMemoryFlightStore implements DeltaSyncer.FlightStore {
+    private final Map<String, Flight> flights = new LinkedHashMap<>();
+    private long version;
+
+    @Override
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    @Override
+    public synchronized void apply(boolean reset, List<Flight> upserts, List<String> deletes, long version) {
+        if (reset) {
+            flights.clear();
+        }
+        for (Flight flight : upserts) {
+            if (flight.getId() != null) {
+                flights.put(flight.getId(), flight);
+            }
+        }
+        for (String id : deletes) {
+            flights.remove(id);
+        }
+        this.version = version;
+    }
+
+    public synchronized List<Flight> getFlights() {
+        return new ArrayList<>(flights.values());
+    }
+}
@@ -0,0 +1,108 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.api.GalaxyAirlineAPI;
+import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.Booking;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.model.User;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class ModelTypeAdaptersTest {
+    private final Gson reflective = new Gson();
+    private final Gson generated = GsonProvider.get();
+
+    @Test
+    public void flightsMatchReflectiveMapping() {
+        String json = flightsPayload(3);
+        GalaxyAirlineAPI.FlightsResponse expected = reflective.fromJson(json, GalaxyAirlineAPI.FlightsResponse.class);
+        GalaxyAirlineAPI.FlightsResponse actual = generated.fromJson(json, GalaxyAirlineAPI.FlightsResponse.class);
+
+        assertEquals(reflective.toJson(expected), reflective.toJson(actual));
+        assertEquals(reflective.toJson(expected.getFlights().get(1)), generated.toJson(actual.getFlights().get(1)));
+    }
+
+    @Test
+    public void analyticsMatchReflectiveMapping() {
+        String json = "{\"totalRevenue\":1520.5,\"totalBookings\":4,"
+                + "\"classRevenue\":{\"economy\":520.5,\"business\":1000,\"first\":0},"
+                + "\"flightStats\":[{\"flightNumber\":\"GA001\",\"occupancyRate\":\"24.3\",\"revenue\":30455}],"
+                + "\"averageBookingValue\":\"380.13\",\"unknown\":[1,{\"a\":null}]}";
+        Analytics expected = reflective.fromJson(json, Analytics.class);
+        Analytics actual = generated.fromJson(json, Analytics.class);
+
+        assertEquals(reflective.toJson(expected), generated.toJson(actual));
+
+        // No bookings yet: the server sends a bare 0 for the average
+        assertEquals("0", generated.fromJson("{\"averageBookingValue\":0}", Analytics.class).getAverageBookingValue());
+    }
+
+    @Test
+    public void userAndSearchDataRoundTrip() {
+        User user = new User("u1", "demo@galaxy.com", "Demo User", "user");
+        assertEquals(reflective.toJson(user), generated.toJson(user));
+        assertEquals("Demo User", generated.fromJson(generated.toJson(user), User.class).getName());
+        assertNull(generated.fromJson("{\"id\":\"u2\",\"name\":null}", User.class).getName());
+
+        FlightSearchData search = new FlightSearchData();
+        search.setFrom("New York");
+        search.setTo("Miami");
+        search.setDepartDate("2024-01-15");
+        search.setPassengers(new FlightSearchData.Passengers(2, 1));
+        assertEquals(reflective.toJson(search), generated.toJson(search));
+
+        FlightSearchData decoded = generated.fromJson("{\"from\":\"A\"}", FlightSearchData.class);
+        assertEquals("economy", decoded.getClassType());
+        assertEquals(1, decoded.getPassengers().getTotal());
+    }
+
+    @Test
+    public void bookingsMatchReflectiveMapping() {
+        String json = "{\"bookings\":[{\"bookingId\":\"BK1\",\"userId\":\"u1\","
+                + "\"selectedFlight\":{\"id\":\"GA001\",\"fromCode\":\"JFK\",\"toCode\":\"LAX\"},"
+                + "\"searchData\":{\"from\":\"New York\",\"passengers\":{\"adults\":2,\"children\":0},\"classType\":\"business\"},"
+                + "\"passengers\":[{\"name\":\"Ada\",\"email\":\"ada@galaxy.com\",\"address\":\"ignored\"}],"
+                + "\"totalPrice\":1798,\"paymentMethod\":\"card\",\"paymentStatus\":\"completed\","
+                + "\"bookingDate\":\"2024-01-10T12:00:00.000Z\",\"status\":\"confirmed\"}]}";
+        GalaxyAirlineAPI.BookingsResponse expected = reflective.fromJson(json, GalaxyAirlineAPI.BookingsResponse.class);
+        GalaxyAirlineAPI.BookingsResponse actual = generated.fromJson(json, GalaxyAirlineAPI.BookingsResponse.class);
+
+        assertEquals(reflective.toJson(expected), reflective.toJson(actual));
+        Booking booking = actual.getBookings().get(0);
+        assertEquals(reflective.toJson(booking), generated.toJson(booking));
+        assertEquals("LAX", generated.fromJson(generated.toJson(booking), Booking.class).getSelectedFlight().getToCode());
+    }
+
+    static String flightsPayload(int count) {
+        String[][] airports = {
+            {"New York", "JFK"}, {"Los Angeles", "LAX"}, {"Miami", "MIA"},
+            {"Chicago", "ORD"}, {"Seattle", "SEA"}, {"Boston", "BOS"}
+        };
+        StringBuilder json = new StringBuilder("{\"success\":true,\"flights\":[");
+        for (int i = 0; i < count; i++) {
+            String[] from = airports[i % airports.length];
+            String[] to = airports[(i + 1 + i / airports.length) % airports.length];
+            if (to == from) {
+                to = airports[(i + 2) % airports.length];
+            }
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.US,
+                    "{\"id\":\"GA%05d\",\"flightNumber\":\"GA%05d\",\"from\":\"%s\",\"to\":\"%s\","
+                            + "\"fromCode\":\"%s\",\"toCode\":\"%s\",\"departure\":\"%02d:%02d\",\"arrival\":\"%02d:%02d\","
+                            + "\"duration\":\"3h 30m\",\"aircraft\":\"Boeing 737\",\"date\":\"2024-01-%02d\",\"stops\":\"non-stop\","
+                            + "\"economy\":{\"price\":%d,\"available\":%d},\"business\":{\"price\":%d,\"available\":%d},"
+                            + "\"first\":{\"price\":%d,\"available\":%d}}",
+                    i, i, from[0], to[0], from[1], to[1], i % 24, i % 60, (i + 3) % 24, (i + 30) % 60,
+                    1 + i % 28, 150 + i % 300, i % 180, 600 + i % 500, i % 30, 1000 + i % 900, i % 10));
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.galaxyairline.android.startup;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class StartupGraphTest {
+    private final ExecutorService executor = StartupGraph.newExecutor(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void runsTasksAfterTheirDependencies() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        StartupGraph graph = new StartupGraph.Builder()
+                .add("database", false, () -> order.add("database"), "config")
+                .add("config", true, () -> order.add("config"))
+                .add("catalog", false, () -> order.add("catalog"), "database", "http")
+                .add("http", true, () -> order.add("http"), "config")
+                .build();
+
+        StartupReport report = await(graph);
+
+        assertEquals(4, report.getTasks().size());
+        assertEquals("config", order.get(0));
+        assertTrue(order.indexOf("catalog") > order.indexOf("database"));
+        assertTrue(order.indexOf("catalog") > order.indexOf("http"));
+        assertTrue(report.getFailures().isEmpty());
+    }
+
+    @Test
+    public void independentTasksRunInParallel() throws Exception {
+        StartupGraph.Builder builder = new StartupGraph.Builder();
+        for (int i = 0; i < 4; i++) {
+            builder.add("task" + i, true, () -> Thread.sleep(200));
+        }
+
+        StartupReport report = await(builder.build());
+
+        // Four 200 ms tasks on four threads should take about 200 ms, not 800
+        assertTrue(report.toString(), report.getCriticalPathMillis() < 600);
+    }
+
+    @Test
+    public void criticalPathCompletesBeforeBackgroundWork() throws Exception {
+        CountDownLatch releaseBackground = new CountDownLatch(1);
+        StartupGraph graph = new StartupGraph.Builder()
+                .add("session", true, () -> {})
+                .add("prefetch", false, releaseBackground::await)
+                .budgetMillis(1000)
+                .build();
+
+        Results results = start(graph);
+        assertTrue(results.critical.await(5, TimeUnit.SECONDS));
+        assertEquals(1, results.criticalReport.get().getTasks().size());
+        assertFalse(results.criticalReport.get().isOverBudget());
+        assertEquals(1, results.done.getCount());
+
+        releaseBackground.countDown();
+        assertTrue(results.done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failureSkipsDependentsButNotSiblings() throws Exception {
+        List<String> ran = new CopyOnWriteArrayList<>();
+        StartupGraph graph = new StartupGraph.Builder()
+                .add("broken", false, () -> {
+                    throw new IllegalStateException("boom");
+                })
+                .add("needsBroken", false, () -> ran.add("needsBroken"), "broken")
+                .add("sibling", false, () -> ran.add("sibling"))
+                .build();
+
+        StartupReport report = await(graph);
+
+        assertEquals(1, ran.size());
+        assertEquals("sibling", ran.get(0));
+        assertEquals(2, report.getFailures().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsCycles() {
+        new StartupGraph.Builder()
+                .add("a", false, () -> {}, "b")
+                .add("b", false, () -> {}, "a")
+                .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsUnknownDependencies() {
+        new StartupGraph.Builder().add("a", false, () -> {}, "missing").build();
+    }
+
+    private StartupReport await(StartupGraph graph) throws InterruptedException {
+        Results results = start(graph);
+        assertTrue(results.done.await(5, TimeUnit.SECONDS));
+        return results.completeReport.get();
+    }
+
+    private Results start(StartupGraph graph) {
+        Results results = new Results();
+        graph.start(executor, new StartupGraph.Listener() {
+            @Override
+            public void onCriticalPathComplete(StartupReport report) {
+                results.criticalReport.set(report);
+                results.critical.countDown();
+            }
+
+            @Override
+            public void onComplete(StartupReport report) {
+                results.completeReport.set(report);
+                results.done.countDown();
+            }
+        });
+        return results;
+    }
+
+    private static class Results {
+        final CountDownLatch critical = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<StartupReport> criticalReport = new AtomicReference<>();
+        final AtomicReference<StartupReport> completeReport = new AtomicReference<>();
+    }
+}
@@ -0,0 +1,289 @@
+package com.galaxyairline.android.utils;
+
+import android.content.SharedPreferences;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.User;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SessionManagerTest {
+    private MemoryPreferences preferences;
+    private TestStore store;
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+    @Before
+    public void setUp() {
+        preferences = new MemoryPreferences();
+        store = new TestStore(preferences);
+    }
+
+    @Test
+    public void listenerWaitingOnAnotherThreadsUpdateDoesNotDeadlock() throws Exception {
+        Thread[] other = new Thread[1];
+        store.listeners.add((user, loggedIn) -> {
+            events.add(describe(user, loggedIn));
+            if (loggedIn) {
+                other[0] = new Thread(() -> store.update(SessionManager.Snapshot.LOGGED_OUT));
+                other[0].start();
+                try {
+                    other[0].join(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        store.update(login("u1"));
+
+        assertFalse("logout blocked behind the login listener", other[0].isAlive());
+        assertEquals(Arrays.asList("u1", "logged out"), events);
+        assertFalse(store.current.loggedIn);
+        assertFalse(preferences.values.containsKey("user"));
+    }
+
+    @Test
+    public void listenerCallingBackIntoTheSessionSeesChangesInOrder() {
+        AtomicInteger depth = new AtomicInteger();
+        AtomicInteger maxDepth = new AtomicInteger();
+        store.listeners.add((user, loggedIn) -> {
+            maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max);
+            events.add(describe(user, loggedIn));
+            if (loggedIn && user.getId().equals("u1")) {
+                // e.g. a listener that rejects this account and signs straight out
+                store.update(SessionManager.Snapshot.LOGGED_OUT);
+                events.add("after logout call");
+            }
+            depth.decrementAndGet();
+        });
+
+        store.update(login("u1"));
+
+        assertEquals(Arrays.asList("u1", "after logout call", "logged out"), events);
+        assertEquals(1, maxDepth.get());
+        assertEquals(Arrays.asList("u1", null), store.published);
+    }
+
+    @Test
+    public void racingUpdatesAreDeliveredOnceEachInOrder() throws Exception {
+        int threads = 8;
+        int perThread = 250;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        store.listeners.add((user, loggedIn) -> {
+            if (active.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            events.add(user.getId());
+            active.decrementAndGet();
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    store.update(login(thread + ":" + i));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(10000);
+            assertFalse(worker.isAlive());
+        }
+
+        assertEquals(threads * perThread, events.size());
+        assertEquals(0, overlaps.get());
+        // Each thread's own changes arrive in the order it made them
+        Map<String, Integer> lastSeen = new HashMap<>();
+        for (String id : events) {
+            String[] parts = id.split(":");
+            int i = Integer.parseInt(parts[1]);
+            Integer previous = lastSeen.put(parts[0], i);
+            assertTrue(id + " delivered out of order", previous == null || previous < i);
+        }
+        // Observers end on the same state as memory and disk
+        String last = events.get(events.size() - 1);
+        assertEquals(last, store.current.user.getId());
+        assertEquals(last, store.published.get(store.published.size() - 1));
+        assertTrue(preferences.values.get("user").toString().contains("\"" + last + "\""));
+    }
+
+    private static SessionManager.Snapshot login(String userId) {
+        return new SessionManager.Snapshot(new User(userId, userId + "@example.com", userId, "user"),
+                "access-" + userId, "refresh-" + userId, true);
+    }
+
+    private static String describe(User user, boolean loggedIn) {
+        return loggedIn ? user.getId() : "logged out";
+    }
+
+    // Records LiveData updates instead of posting them, since there is no main looper here
+    private static class TestStore extends SessionManager.Store {
+        final List<String> published = Collections.synchronizedList(new ArrayList<String>());
+
+        TestStore(SharedPreferences preferences) {
+            super(preferences, GsonProvider.get());
+        }
+
+        @Override
+        void publishUser(User next) {
+            published.add(next != null ? next.getId() : null);
+        }
+    }
+
+    private static class MemoryPreferences implements SharedPreferences {
+        final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public synchronized Map<String, ?> getAll() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public synchronized String getString(String key, String defValue) {
+            return values.containsKey(key) ? (String) values.get(key) : defValue;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized Set<String> getStringSet(String key, Set<String> defValues) {
+            return values.containsKey(key) ? (Set<String>) values.get(key) : defValues;
+        }
+
+        @Override
+        public synchronized int getInt(String key, int defValue) {
+            return values.containsKey(key) ? (Integer) values.get(key) : defValue;
+        }
+
+        @Override
+        public synchronized long getLong(String key, long defValue) {
+            return values.containsKey(key) ? (Long) values.get(key) : defValue;
+        }
+
+        @Override
+        public synchronized float getFloat(String key, float defValue) {
+            return values.containsKey(key) ? (Float) values.get(key) : defValue;
+        }
+
+        @Override
+        public synchronized boolean getBoolean(String key, boolean defValue) {
+            return values.containsKey(key) ? (Boolean) values.get(key) : defValue;
+        }
+
+        @Override
+        public synchronized boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public Editor edit() {
+            return new MemoryEditor();
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        private class MemoryEditor implements Editor {
+            private final Map<String, Object> changes = new HashMap<>();
+            private boolean clear;
+
+            @Override
+            public Editor putString(String key, String value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putStringSet(String key, Set<String> values) {
+                changes.put(key, values);
+                return this;
+            }
+
+            @Override
+            public Editor putInt(String key, int value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putLong(String key, long value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putFloat(String key, float value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putBoolean(String key, boolean value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor remove(String key) {
+                changes.put(key, null);
+                return this;
+            }
+
+            @Override
+            public Editor clear() {
+                clear = true;
+                return this;
+            }
+
+            @Override
+            public boolean commit() {
+                synchronized (MemoryPreferences.this) {
+                    if (clear) {
+                        values.clear();
+                    }
+                    for (Map.Entry<String, Object> change : changes.entrySet()) {
+                        if (change.getValue() == null) {
+                            values.remove(change.getKey());
+                        } else {
+                            values.put(change.getKey(), change.getValue());
+                        }
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void apply() {
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.galaxyairline.android.web;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class WebAssetCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private File directory;
+    private WebAssetCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        directory = folder.newFolder("web_assets");
+        cache = newCache(1024 * 1024);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private WebAssetCache newCache(long maxBytes) {
+        // Revalidation runs inline so the tests can see its effect straight away
+        return new WebAssetCache(directory, maxBytes, new OkHttpClient(), Runnable::run, server.getHostName());
+    }
+
+    @Test
+    public void handlesOnlyStaticAssetsAndTheShellOnCachedHosts() {
+        assertTrue(cache.handles("GET", url("/assets/index-3f9a1c2b.js"), false));
+        assertTrue(cache.handles("GET", url("/"), true));
+        assertFalse(cache.handles("GET", url("/api/flights"), false));
+        assertFalse(cache.handles("POST", url("/assets/app.css"), false));
+        assertFalse(cache.handles("GET", "https://example.com/app.css", false));
+    }
+
+    @Test
+    public void fingerprintedAssetIsServedFromDiskWithoutRevalidation() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/javascript; charset=utf-8")
+                .setBody("console.log(1)"));
+        String url = url("/assets/index-3f9a1c2b.js");
+
+        WebAssetCache.Asset first = cache.load(url, null);
+        assertFalse(first.isFromCache());
+        assertEquals("console.log(1)", read(first.getBody()));
+
+        // A fresh instance stands in for the next launch
+        WebAssetCache.Asset second = newCache(1024 * 1024).load(url, null);
+        assertTrue(second.isFromCache());
+        assertEquals("application/javascript", second.getMimeType());
+        assertEquals("utf-8", second.getEncoding());
+        assertEquals("console.log(1)", read(second.getBody()));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void shellIsServedStaleAndRevalidatedWithItsEtag() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "text/html").setHeader("ETag", "\"v1\"")
+                .setBody("<html>v1</html>"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "text/html").setHeader("ETag", "\"v2\"")
+                .setBody("<html>v2</html>"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        String url = url("/");
+
+        cache.load(url, null);
+        server.takeRequest();
+
+        WebAssetCache.Asset cached = cache.load(url, null);
+        assertTrue(cached.isFromCache());
+        assertEquals("<html>v1</html>", read(cached.getBody()));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+
+        // The first revalidation was a 304, the next one picks up the new deploy
+        assertEquals("<html>v1</html>", read(cache.load(url, null).getBody()));
+        server.takeRequest();
+        assertEquals("<html>v2</html>", read(cache.load(url, null).getBody()));
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v2\"", revalidation.getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void corruptEntryIsDroppedAndRefetched() throws Exception {
+        server.enqueue(new MockResponse().setBody("body { color: red }"));
+        server.enqueue(new MockResponse().setBody("body { color: red }"));
+        String url = url("/assets/app-9c8b7a6d.css");
+        cache.load(url, null);
+
+        for (File file : directory.listFiles()) {
+            if (file.getName().endsWith(".body")) {
+                try (OutputStream out = new FileOutputStream(file)) {
+                    out.write("body { color: blu }".getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        WebAssetCache.Asset asset = newCache(1024 * 1024).load(url, null);
+        assertFalse(asset.isFromCache());
+        assertEquals("body { color: red }", read(asset.getBody()));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void offlineMissReturnsNull() throws Exception {
+        String url = url("/assets/logo-1a2b3c4d.png");
+        server.shutdown();
+
+        assertNull(cache.load(url, null));
+    }
+
+    @Test
+    public void noStoreResponsesAreServedButNotCached() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("{}"));
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("{}"));
+        String url = url("/config-12345678.json");
+
+        assertFalse(cache.load(url, null).isFromCache());
+        assertFalse(cache.load(url, null).isFromCache());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyServedEntriesOverTheLimit() throws Exception {
+        WebAssetCache small = newCache(25);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("0123456789"));
+        }
+        small.load(url("/a-00000001.js"), null);
+        File first = bodyFiles()[0];
+        first.setLastModified(System.currentTimeMillis() - 60_000);
+        small.load(url("/b-00000002.js"), null);
+        small.load(url("/c-00000003.js"), null);
+
+        File[] bodies = bodyFiles();
+        assertEquals(2, bodies.length);
+        assertFalse(first.exists());
+    }
+
+    private File[] bodyFiles() {
+        return directory.listFiles((dir, name) -> name.endsWith(".body"));
+    }
+
+    private String url(String path) {
+        return server.url(path).toString();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+// Android-free models, JSON adapters and search. Runs on a plain JVM, so it can be
+// unit-tested and benchmarked without an emulator.
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    api(libs.gson)
+
+    testImplementation(libs.junit)
+}
+
+jmh {
+    // The plugin adds jmh-core and the annotation processor at this version
+    jmhVersion.set(libs.versions.jmh.get())
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Adds gc.alloc.rate.norm (bytes per op), which is steadier across machines than time
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+}
+
+// Checked-in scores from a reference Linux run; refresh with ./gradlew :core:jmhUpdateBaseline
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline.json")
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val allocNormMetric = "gc.alloc.rate.norm"
+
+fun readScores(file: File): Map<String, Map<String, Any>> {
+    @Suppress("UNCHECKED_CAST")
+    val runs = JsonSlurper().parse(file) as List<Map<String, Any>>
+    return runs.associate { run ->
+        @Suppress("UNCHECKED_CAST")
+        val params = (run["params"] as Map<String, Any>?).orEmpty()
+        val key = run["benchmark"].toString() + params.entries.sortedBy { it.key }
+            .joinToString("") { ":${it.key}=${it.value}" }
+        @Suppress("UNCHECKED_CAST")
+        val metric = run["primaryMetric"] as Map<String, Any>
+        @Suppress("UNCHECKED_CAST")
+        val allocated = (run["secondaryMetrics"] as Map<String, Map<String, Any>>?)?.get(allocNormMetric)
+        val scores = mutableMapOf("mode" to run["mode"]!!, "score" to metric["score"]!!, "unit" to metric["scoreUnit"]!!)
+        if (allocated != null) {
+            scores[allocNormMetric] = allocated["score"]!!
+        }
+        key to scores
+    }
+}
+
+tasks.register("jmhUpdateBaseline") {
+    description = "Replaces the checked-in JMH baseline with the scores from the last jmh run."
+    group = "benchmark"
+    doLast {
+        val results = jmhResults.get().asFile
+        check(results.exists()) { "No JMH results at $results - run ./gradlew :core:jmh first" }
+        jmhBaseline.asFile.writeText(JsonOutput.prettyPrint(JsonOutput.toJson(readScores(results).toSortedMap())) + "\n")
+    }
+}
+
+tasks.register("jmhCheckBaseline") {
+    description = "Fails if any benchmark in the last jmh run is slower, or allocates more per op, than the baseline by more than -PjmhTolerance (default 0.25)."
+    group = "verification"
+    doLast {
+        val results = jmhResults.get().asFile
+        check(results.exists()) { "No JMH results at $results - run ./gradlew :core:jmh first" }
+        val tolerance = (findProperty("jmhTolerance") as String?)?.toDouble() ?: 0.25
+
+        @Suppress("UNCHECKED_CAST")
+        val baseline = JsonSlurper().parse(jmhBaseline.asFile) as Map<String, Map<String, Any>>
+        val regressions = mutableListOf<String>()
+        for ((key, current) in readScores(results)) {
+            val expected = baseline[key]
+            if (expected == null) {
+                logger.lifecycle("No baseline for $key")
+                continue
+            }
+            // Every benchmark here runs in AverageTime mode, so a higher score is slower
+            val before = (expected["score"] as Number).toDouble()
+            val after = (current["score"] as Number).toDouble()
+            val change = (after - before) / before
+            logger.lifecycle(String.format("%-90s %12.3f -> %12.3f %s (%+.1f%%)", key, before, after, current["unit"], change * 100))
+            if (change > tolerance) {
+                regressions.add(key)
+            }
+
+            val bytesBefore = (expected[allocNormMetric] as Number?)?.toDouble()
+            val bytesAfter = (current[allocNormMetric] as Number?)?.toDouble()
+            if (bytesBefore != null && bytesAfter != null && bytesBefore > 0) {
+                val growth = (bytesAfter - bytesBefore) / bytesBefore
+                logger.lifecycle(String.format("%-90s %12.0f -> %12.0f B/op (%+.1f%%)", "$key:$allocNormMetric", bytesBefore, bytesAfter, growth * 100))
+                if (growth > tolerance) {
+                    regressions.add("$key:$allocNormMetric")
+                }
+            }
+        }
+        check(regressions.isEmpty()) { "Worse than baseline by more than ${(tolerance * 100).toInt()}%: $regressions" }
+    }
+}
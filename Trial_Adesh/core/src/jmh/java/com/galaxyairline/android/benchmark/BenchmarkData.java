@@ -0,0 +1,58 @@
+package com.galaxyairline.android.benchmark;
+
+import com.galaxyairline.android.catalog.FlightTimes;
+import com.galaxyairline.android.model.Flight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic catalogs shaped like the server's: a handful of hubs, a week
+ * of dates, and prices and seat counts spread like the seed data.
+ */
+final class BenchmarkData {
+    static final String[][] AIRPORTS = {
+        {"New York", "JFK"}, {"Los Angeles", "LAX"}, {"Miami", "MIA"}, {"Chicago", "ORD"},
+        {"Seattle", "SEA"}, {"Boston", "BOS"}, {"Denver", "DEN"}, {"San Francisco", "SFO"},
+        {"Atlanta", "ATL"}, {"Dallas", "DFW"}, {"Houston", "IAH"}, {"Phoenix", "PHX"}
+    };
+    static final String FIRST_DATE = "2024-01-15";
+    static final int DAYS = 7;
+
+    private static final String[] AIRCRAFT = {"Boeing 737", "Boeing 777", "Airbus A320", "Airbus A321"};
+
+    private BenchmarkData() {}
+
+    static List<Flight> flights(int count, long seed) {
+        Random random = new Random(seed);
+        int firstDay = FlightTimes.parseEpochDay(FIRST_DATE);
+        List<Flight> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int from = random.nextInt(AIRPORTS.length);
+            int to = (from + 1 + random.nextInt(AIRPORTS.length - 1)) % AIRPORTS.length;
+            int departure = random.nextInt(24 * 12) * 5;
+            int duration = 60 + random.nextInt(60 * 6);
+
+            Flight flight = new Flight();
+            flight.setId(String.format(Locale.US, "FL%06d", i));
+            flight.setFlightNumber(String.format(Locale.US, "GA%04d", i % 10000));
+            flight.setFrom(AIRPORTS[from][0]);
+            flight.setFromCode(AIRPORTS[from][1]);
+            flight.setTo(AIRPORTS[to][0]);
+            flight.setToCode(AIRPORTS[to][1]);
+            flight.setDate(FlightTimes.formatEpochDay(firstDay + random.nextInt(DAYS)));
+            flight.setDeparture(FlightTimes.formatClock(departure));
+            flight.setArrival(FlightTimes.formatClock((departure + duration) % FlightTimes.MINUTES_PER_DAY));
+            flight.setDuration(FlightTimes.formatDuration(duration));
+            flight.setAircraft(AIRCRAFT[random.nextInt(AIRCRAFT.length)]);
+            flight.setStops(random.nextInt(4) == 0 ? "1 stop" : "non-stop");
+            flight.setEconomy(new Flight.ClassInfo(99 + random.nextInt(400), random.nextInt(150)));
+            flight.setBusiness(new Flight.ClassInfo(499 + random.nextInt(1200), random.nextInt(40)));
+            flight.setFirst(new Flight.ClassInfo(1299 + random.nextInt(3000), random.nextInt(12)));
+            flights.add(flight);
+        }
+        return flights;
+    }
+}
@@ -0,0 +1,65 @@
+package com.galaxyairline.android.benchmark;
+
+import com.galaxyairline.android.catalog.CatalogSnapshot;
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.model.Flight;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start path from a catalog snapshot: map the file and read the first page or
+ * the whole catalog, against FlightsDecodeBenchmark's full JSON decode of the same
+ * catalog size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogSnapshotBenchmark {
+    private static final int PAGE_SIZE = 200;
+
+    @Param({"100", "5000"})
+    public int flights;
+
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("catalog", ".snapshot");
+        CatalogSnapshot.write(BenchmarkData.flights(flights, 42), 1, file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public List<Flight> openAndReadFirstPage() throws IOException {
+        return CatalogSnapshot.open(file).getFlights(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Flight> openAndReadAll() throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        return snapshot.getFlights(0, snapshot.size());
+    }
+
+    // What a cold start does after the first page: the whole catalog into compact columns
+    @Benchmark
+    public FlightTable openIntoTable() throws IOException {
+        return FlightTable.fromSnapshot(CatalogSnapshot.open(file));
+    }
+}
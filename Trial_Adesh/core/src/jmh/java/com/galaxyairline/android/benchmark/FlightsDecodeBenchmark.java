@@ -0,0 +1,67 @@
+package com.galaxyairline.android.benchmark;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Flight;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a /flights body, with the registered model adapters and with plain
+ * reflective Gson for comparison. The gc profiler records bytes allocated per
+ * decode next to the time, up to a 10k-flight catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlightsDecodeBenchmark {
+
+    /**
+     * Same shape as GalaxyAirlineAPI.FlightsResponse, which lives with the Retrofit
+     * interface in :app.
+     */
+    static class FlightsResponse {
+        List<Flight> flights;
+        boolean success;
+    }
+
+    @Param({"100", "5000", "10000"})
+    public int flights;
+
+    private final Gson reflective = new Gson();
+    private String body;
+
+    @Setup
+    public void setUp() {
+        JsonArray array = new JsonArray();
+        for (Flight flight : BenchmarkData.flights(flights, 42)) {
+            array.add(GsonProvider.get().toJsonTree(flight, Flight.class));
+        }
+        JsonObject response = new JsonObject();
+        response.add("flights", array);
+        response.addProperty("success", true);
+        body = response.toString();
+    }
+
+    @Benchmark
+    public FlightsResponse decodeWithAdapters() {
+        return GsonProvider.get().fromJson(body, FlightsResponse.class);
+    }
+
+    @Benchmark
+    public FlightsResponse decodeReflective() {
+        return reflective.fromJson(body, FlightsResponse.class);
+    }
+}
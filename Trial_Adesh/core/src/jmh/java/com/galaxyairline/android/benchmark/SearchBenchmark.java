@@ -0,0 +1,85 @@
+package com.galaxyairline.android.benchmark;
+
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.search.ConnectionPlanner;
+import com.galaxyairline.android.search.FlightSearchIndex;
+import com.galaxyairline.android.search.Itinerary;
+import com.galaxyairline.android.search.ResultOrdering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the search index, looking routes up in it, planning connections and
+ * re-sorting a results list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private List<Flight> catalog;
+    private FlightSearchIndex index;
+    private ConnectionPlanner planner;
+    private FlightSearchData[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkData.flights(catalogSize, 7);
+        index = FlightSearchIndex.build(catalog);
+        planner = new ConnectionPlanner(FlightTable.fromFlights(catalog));
+
+        // Cycle through a fixed set of queries so lookups don't all hit one warm bucket
+        queries = new FlightSearchData[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            Flight flight = catalog.get((i * 7919) % catalog.size());
+            FlightSearchData query = new FlightSearchData();
+            query.setFrom(flight.getFromCode());
+            query.setTo(flight.getToCode());
+            query.setDepartDate(flight.getDate());
+            queries[i] = query;
+        }
+    }
+
+    @Benchmark
+    public FlightSearchIndex buildIndex() {
+        return FlightSearchIndex.build(catalog);
+    }
+
+    @Benchmark
+    public List<Flight> searchRoute() {
+        return index.search(nextQuery());
+    }
+
+    @Benchmark
+    public List<Itinerary> planConnections() {
+        FlightSearchData query = nextQuery();
+        return planner.plan(new ConnectionPlanner.Query(query.getFrom(), query.getTo(), query.getDepartDate()));
+    }
+
+    @Benchmark
+    public List<Flight> sortCatalogByPrice() {
+        return ResultOrdering.apply(catalog, ResultOrdering.Sort.PRICE, "economy", false);
+    }
+
+    private FlightSearchData nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return queries[next];
+    }
+}
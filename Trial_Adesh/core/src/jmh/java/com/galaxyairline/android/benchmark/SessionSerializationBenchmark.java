@@ -0,0 +1,41 @@
+package com.galaxyairline.android.benchmark;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The user record SessionManager writes to and reads back from SharedPreferences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionSerializationBenchmark {
+    private User user;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        user = new User("3f6c2a1e-9b4d-4e8a-a1c2-7d5e9f0b1c3d", "traveller@galaxyairline.com", "Ada Traveller", "user");
+        json = GsonProvider.get().toJson(user);
+    }
+
+    @Benchmark
+    public String encodeUser() {
+        return GsonProvider.get().toJson(user);
+    }
+
+    @Benchmark
+    public User decodeUser() {
+        return GsonProvider.get().fromJson(json, User.class);
+    }
+}
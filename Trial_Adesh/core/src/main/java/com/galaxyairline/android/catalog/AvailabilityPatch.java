@@ -0,0 +1,125 @@
+package com.galaxyairline.android.catalog;
+
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.SeatAvailability;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies pushed seat counts to the catalog. Only classes a flight already sells are
+ * updated; anything else (new classes, prices, schedule changes) comes through delta sync.
+ */
+public final class AvailabilityPatch {
+    private AvailabilityPatch() {}
+
+    /**
+     * The catalog with every changed flight replaced by an updated copy. Flights are
+     * copied rather than changed in place because published lists are shared with search
+     * threads and with the result adapters, which diff the old list against the new one.
+     *
+     * @return {@code catalog} itself if no seat count changed
+     */
+    public static List<Flight> apply(List<Flight> catalog, List<SeatAvailability> updates) {
+        Map<String, SeatAvailability> byId = new HashMap<>(updates.size() * 4 / 3 + 1);
+        for (SeatAvailability update : updates) {
+            if (update.getId() != null) {
+                byId.put(update.getId(), update);
+            }
+        }
+
+        List<Flight> patched = null;
+        for (int i = 0; i < catalog.size(); i++) {
+            Flight flight = catalog.get(i);
+            SeatAvailability update = byId.get(flight.getId());
+            if (update == null || !changes(flight, update)) {
+                continue;
+            }
+            if (patched == null) {
+                patched = new ArrayList<>(catalog);
+            }
+            patched.set(i, copy(flight, update));
+        }
+        return patched != null ? patched : catalog;
+    }
+
+    /**
+     * The table with the updated seat counts, written into a copy of its seat column.
+     * The table passed in is never changed: it backs the published list and the planner,
+     * which other threads may be reading. Unknown flight ids are skipped.
+     *
+     * @return {@code table} itself if no seat count changed
+     */
+    public static FlightTable apply(FlightTable table, List<SeatAvailability> updates) {
+        FlightTable patched = null;
+        for (SeatAvailability update : updates) {
+            int row = table.findRow(update.getId());
+            if (row < 0 || !changes(table, row, update)) {
+                continue;
+            }
+            if (patched == null) {
+                patched = table.withSeatCounts();
+            }
+            setAvailable(patched, row, FlightTable.ECONOMY, update.getEconomy());
+            setAvailable(patched, row, FlightTable.BUSINESS, update.getBusiness());
+            setAvailable(patched, row, FlightTable.FIRST, update.getFirst());
+        }
+        return patched != null ? patched : table;
+    }
+
+    private static void setAvailable(FlightTable table, int row, int classIndex, Integer seats) {
+        if (seats != null && table.hasClass(row, classIndex)) {
+            table.setAvailable(row, classIndex, seats);
+        }
+    }
+
+    private static boolean changes(FlightTable table, int row, SeatAvailability update) {
+        return changes(table, row, FlightTable.ECONOMY, update.getEconomy())
+                || changes(table, row, FlightTable.BUSINESS, update.getBusiness())
+                || changes(table, row, FlightTable.FIRST, update.getFirst());
+    }
+
+    private static boolean changes(FlightTable table, int row, int classIndex, Integer seats) {
+        return seats != null && table.hasClass(row, classIndex)
+                && table.getAvailable(row, classIndex) != Math.min(Short.MAX_VALUE, Math.max(0, seats));
+    }
+
+    private static boolean changes(Flight flight, SeatAvailability update) {
+        return changes(flight.getEconomy(), update.getEconomy())
+                || changes(flight.getBusiness(), update.getBusiness())
+                || changes(flight.getFirst(), update.getFirst());
+    }
+
+    private static boolean changes(Flight.ClassInfo info, Integer seats) {
+        return info != null && seats != null && info.getAvailable() != seats;
+    }
+
+    private static Flight copy(Flight flight, SeatAvailability update) {
+        Flight copy = new Flight();
+        copy.setId(flight.getId());
+        copy.setFlightNumber(flight.getFlightNumber());
+        copy.setFrom(flight.getFrom());
+        copy.setTo(flight.getTo());
+        copy.setFromCode(flight.getFromCode());
+        copy.setToCode(flight.getToCode());
+        copy.setDeparture(flight.getDeparture());
+        copy.setArrival(flight.getArrival());
+        copy.setDuration(flight.getDuration());
+        copy.setAircraft(flight.getAircraft());
+        copy.setDate(flight.getDate());
+        copy.setStops(flight.getStops());
+        copy.setEconomy(copy(flight.getEconomy(), update.getEconomy()));
+        copy.setBusiness(copy(flight.getBusiness(), update.getBusiness()));
+        copy.setFirst(copy(flight.getFirst(), update.getFirst()));
+        return copy;
+    }
+
+    private static Flight.ClassInfo copy(Flight.ClassInfo info, Integer seats) {
+        if (info == null) {
+            return null;
+        }
+        return new Flight.ClassInfo(info.getPrice(), seats != null ? Math.max(0, seats) : info.getAvailable());
+    }
+}
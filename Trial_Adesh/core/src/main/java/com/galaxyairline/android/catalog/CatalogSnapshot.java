@@ -0,0 +1,438 @@
+package com.galaxyairline.android.catalog;
+
+import com.galaxyairline.android.model.Flight;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flight catalog in a binary file that is read in place through a memory map, so a
+ * cold start can show flights without decoding JSON or querying SQLite. Opening only
+ * checks the header and footer; a record is read when its row is asked for, and each
+ * dictionary string is decoded at most once.
+ *
+ * Layout, little-endian:
+ * <pre>
+ * header   magic, format version, catalog version (long), record count, record size
+ * records  one fixed-width record per flight (the R_ offsets below)
+ * strings  entry count, end offset of each entry, then the UTF-8 bytes; entry 0 is null
+ * index    open-addressing slots holding row + 1, keyed by flight id hash
+ * footer   strings offset, index offset, index slot count, magic
+ * </pre>
+ * Times are kept twice: as the original text in the dictionary, so flights read back
+ * exactly without formatting, and as epoch minutes encoded as in {@link FlightTable} for
+ * comparisons. Prices are cents, as in FlightTable.
+ */
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x53435847; // "GXCS" read as little-endian
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int FOOTER_SIZE = 16;
+    private static final int CLASS_COUNT = 3;
+
+    // String fields are dictionary indexes, which FlightTable.fromSnapshot reads directly
+    static final int R_ID = 0;
+    static final int R_FLIGHT_NUMBER = 4;
+    static final int R_FROM_CODE = 8;
+    static final int R_TO_CODE = 12;
+    static final int R_FROM = 16;
+    static final int R_TO = 20;
+    static final int R_DATE = 24;
+    static final int R_DEPARTURE = 28;
+    static final int R_ARRIVAL = 32;
+    static final int R_DURATION_TEXT = 36;
+    static final int R_AIRCRAFT = 40;
+    static final int R_STOPS = 44;
+    private static final int R_DEPARTURE_MINUTE = 48;
+    private static final int R_ARRIVAL_MINUTE = 52;
+    private static final int R_PRICE_CENTS = 56;
+    private static final int R_DURATION = R_PRICE_CENTS + 4 * CLASS_COUNT;
+    private static final int R_AVAILABLE = R_DURATION + 2;
+    private static final int RECORD_SIZE = R_AVAILABLE + 2 * CLASS_COUNT;
+
+    private final ByteBuffer buffer;
+    private final long catalogVersion;
+    private final int size;
+    private final int stringCount;
+    private final int stringEnds;
+    private final int stringData;
+    private final int indexOffset;
+    private final int slotCount;
+    private final String[] strings;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int length = buffer.capacity();
+        if (length < HEADER_SIZE + FOOTER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(length - 4) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(20) != RECORD_SIZE) {
+            throw new IOException("Unsupported catalog snapshot format " + buffer.getInt(4));
+        }
+        catalogVersion = buffer.getLong(8);
+        size = buffer.getInt(16);
+
+        int stringsOffset = buffer.getInt(length - FOOTER_SIZE);
+        indexOffset = buffer.getInt(length - FOOTER_SIZE + 4);
+        slotCount = buffer.getInt(length - FOOTER_SIZE + 8);
+        // Sections must tile the file exactly; anything else is a truncated or torn write
+        if (size < 0 || stringsOffset != HEADER_SIZE + (long) size * RECORD_SIZE
+                || slotCount <= 0 || Integer.bitCount(slotCount) != 1
+                || indexOffset + (long) slotCount * 4 + FOOTER_SIZE != length) {
+            throw new IOException("Corrupt catalog snapshot");
+        }
+        stringCount = buffer.getInt(stringsOffset);
+        stringEnds = stringsOffset + 4;
+        stringData = stringEnds + 4 * stringCount;
+        if (stringCount <= 0 || stringData > indexOffset
+                || stringData + buffer.getInt(stringEnds + 4 * (stringCount - 1)) != indexOffset) {
+            throw new IOException("Corrupt catalog snapshot");
+        }
+        strings = new String[stringCount];
+    }
+
+    /**
+     * Maps a snapshot read-only. The mapping outlives the file: a snapshot written over
+     * this one later replaces the directory entry, not the pages mapped here.
+     *
+     * @throws IOException if the file is missing, truncated or not a snapshot
+     */
+    public static CatalogSnapshot open(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot too large: " + channel.size() + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Writes the flights to a temporary file next to {@code file} and renames it into
+     * place, so readers see either the old snapshot or the complete new one.
+     */
+    public static void write(List<Flight> flights, long catalogVersion, File file) throws IOException {
+        ByteBuffer encoded = encode(flights, catalogVersion);
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp); FileChannel channel = out.getChannel()) {
+            while (encoded.hasRemaining()) {
+                channel.write(encoded);
+            }
+            channel.force(true);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    static ByteBuffer encode(List<Flight> flights, long catalogVersion) {
+        int count = flights.size();
+        StringDictionary dictionary = new StringDictionary();
+        ByteBuffer records = ByteBuffer.allocate(count * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        String[] ids = new String[count];
+        for (int row = 0; row < count; row++) {
+            Flight flight = flights.get(row);
+            ids[row] = flight.getId();
+            writeRecord(records, row * RECORD_SIZE, flight, dictionary);
+        }
+
+        byte[][] utf8 = new byte[dictionary.size()][];
+        int stringBytes = 0;
+        for (int i = 1; i < utf8.length; i++) {
+            utf8[i] = dictionary.decode(i).getBytes(StandardCharsets.UTF_8);
+            stringBytes += utf8[i].length;
+        }
+        int[] slots = indexIds(ids);
+
+        int stringsOffset = HEADER_SIZE + records.capacity();
+        int indexOffset = stringsOffset + 4 + 4 * utf8.length + stringBytes;
+        ByteBuffer out = ByteBuffer.allocate(indexOffset + 4 * slots.length + FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(catalogVersion).putInt(count).putInt(RECORD_SIZE);
+        out.put(records.array());
+
+        out.putInt(utf8.length);
+        int end = 0;
+        out.putInt(end);
+        for (int i = 1; i < utf8.length; i++) {
+            end += utf8[i].length;
+            out.putInt(end);
+        }
+        for (int i = 1; i < utf8.length; i++) {
+            out.put(utf8[i]);
+        }
+        for (int slot : slots) {
+            out.putInt(slot);
+        }
+        out.putInt(stringsOffset).putInt(indexOffset).putInt(slots.length).putInt(MAGIC);
+        out.flip();
+        return out;
+    }
+
+    private static void writeRecord(ByteBuffer records, int offset, Flight flight, StringDictionary dictionary) {
+        records.putInt(offset + R_ID, dictionary.encode(flight.getId()));
+        records.putInt(offset + R_FLIGHT_NUMBER, dictionary.encode(flight.getFlightNumber()));
+        records.putInt(offset + R_FROM_CODE, dictionary.encode(flight.getFromCode()));
+        records.putInt(offset + R_TO_CODE, dictionary.encode(flight.getToCode()));
+        records.putInt(offset + R_FROM, dictionary.encode(flight.getFrom()));
+        records.putInt(offset + R_TO, dictionary.encode(flight.getTo()));
+        records.putInt(offset + R_DATE, dictionary.encode(flight.getDate()));
+        records.putInt(offset + R_DEPARTURE, dictionary.encode(flight.getDeparture()));
+        records.putInt(offset + R_ARRIVAL, dictionary.encode(flight.getArrival()));
+        records.putInt(offset + R_DURATION_TEXT, dictionary.encode(flight.getDuration()));
+        records.putInt(offset + R_AIRCRAFT, dictionary.encode(flight.getAircraft()));
+        records.putInt(offset + R_STOPS, dictionary.encode(flight.getStops()));
+
+        int departure = FlightTimes.parseEpochMinute(flight.getDate(), flight.getDeparture());
+        int arrivalClock = FlightTimes.parseClock(flight.getArrival());
+        int arrival = FlightTimes.INVALID;
+        if (departure != FlightTimes.INVALID && arrivalClock != FlightTimes.INVALID) {
+            // Same next-day rule as FlightTable
+            arrival = Math.floorDiv(departure, FlightTimes.MINUTES_PER_DAY) * FlightTimes.MINUTES_PER_DAY + arrivalClock;
+            if (arrival < departure) {
+                arrival += FlightTimes.MINUTES_PER_DAY;
+            }
+        }
+        records.putInt(offset + R_DEPARTURE_MINUTE, departure);
+        records.putInt(offset + R_ARRIVAL_MINUTE, arrival);
+        int duration = FlightTimes.parseDuration(flight.getDuration());
+        records.putShort(offset + R_DURATION,
+                duration == FlightTimes.INVALID || duration > Short.MAX_VALUE ? -1 : (short) duration);
+
+        Flight.ClassInfo[] classes = {flight.getEconomy(), flight.getBusiness(), flight.getFirst()};
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            Flight.ClassInfo info = classes[i];
+            records.putInt(offset + R_PRICE_CENTS + 4 * i, info == null ? -1 : (int) Math.round(info.getPrice() * 100));
+            records.putShort(offset + R_AVAILABLE + 2 * i,
+                    info == null ? 0 : (short) Math.min(Short.MAX_VALUE, Math.max(0, info.getAvailable())));
+        }
+    }
+
+    // Open addressing over row + 1 so zero means "empty", as in FlightTable
+    private static int[] indexIds(String[] ids) {
+        int slotCount = 2;
+        while (slotCount < ids.length * 2) {
+            slotCount <<= 1;
+        }
+        int[] slots = new int[slotCount];
+        int mask = slotCount - 1;
+        for (int row = 0; row < ids.length; row++) {
+            if (ids[row] == null) {
+                continue;
+            }
+            int slot = mix(ids[row].hashCode()) & mask;
+            boolean duplicate = false;
+            while (slots[slot] != 0 && !(duplicate = ids[row].equals(ids[slots[slot] - 1]))) {
+                slot = (slot + 1) & mask;
+            }
+            if (!duplicate) {
+                slots[slot] = row + 1;
+            }
+        }
+        return slots;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Catalog version the snapshot was written at, for checking it against the live store.
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public String getId(int row) {
+        return string(row, R_ID);
+    }
+
+    public String getFlightNumber(int row) {
+        return string(row, R_FLIGHT_NUMBER);
+    }
+
+    public String getFromCode(int row) {
+        return string(row, R_FROM_CODE);
+    }
+
+    public String getToCode(int row) {
+        return string(row, R_TO_CODE);
+    }
+
+    public String getFrom(int row) {
+        return string(row, R_FROM);
+    }
+
+    public String getTo(int row) {
+        return string(row, R_TO);
+    }
+
+    public String getDate(int row) {
+        return string(row, R_DATE);
+    }
+
+    public String getDeparture(int row) {
+        return string(row, R_DEPARTURE);
+    }
+
+    public String getArrival(int row) {
+        return string(row, R_ARRIVAL);
+    }
+
+    public String getDuration(int row) {
+        return string(row, R_DURATION_TEXT);
+    }
+
+    public String getAircraft(int row) {
+        return string(row, R_AIRCRAFT);
+    }
+
+    public String getStops(int row) {
+        return string(row, R_STOPS);
+    }
+
+    /**
+     * Epoch minute of departure, or {@link FlightTimes#INVALID} if the date or time didn't parse.
+     */
+    public int getDepartureMinute(int row) {
+        return buffer.getInt(record(row) + R_DEPARTURE_MINUTE);
+    }
+
+    public int getArrivalMinute(int row) {
+        return buffer.getInt(record(row) + R_ARRIVAL_MINUTE);
+    }
+
+    public int getDurationMinutes(int row) {
+        return buffer.getShort(record(row) + R_DURATION);
+    }
+
+    public boolean hasClass(int row, int classIndex) {
+        return getPriceCents(row, classIndex) >= 0;
+    }
+
+    /**
+     * Class indexes are {@link FlightTable#ECONOMY}, {@link FlightTable#BUSINESS} and {@link FlightTable#FIRST}.
+     */
+    public int getPriceCents(int row, int classIndex) {
+        return buffer.getInt(record(row) + R_PRICE_CENTS + 4 * classIndex);
+    }
+
+    public int getAvailable(int row, int classIndex) {
+        return buffer.getShort(record(row) + R_AVAILABLE + 2 * classIndex);
+    }
+
+    /**
+     * Row holding the given flight id, or -1.
+     */
+    public int findRow(String id) {
+        if (id == null) {
+            return -1;
+        }
+        int mask = slotCount - 1;
+        for (int slot = mix(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = buffer.getInt(indexOffset + 4 * slot);
+            if (entry == 0) {
+                return -1;
+            }
+            if (id.equals(getId(entry - 1))) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * A new, mutable Flight with the row's values.
+     */
+    public Flight getFlight(int row) {
+        Flight flight = new Flight();
+        flight.setId(getId(row));
+        flight.setFlightNumber(getFlightNumber(row));
+        flight.setFrom(getFrom(row));
+        flight.setTo(getTo(row));
+        flight.setFromCode(getFromCode(row));
+        flight.setToCode(getToCode(row));
+        flight.setDate(getDate(row));
+        flight.setDeparture(getDeparture(row));
+        flight.setArrival(getArrival(row));
+        flight.setDuration(getDuration(row));
+        flight.setAircraft(getAircraft(row));
+        flight.setStops(getStops(row));
+        flight.setEconomy(classInfo(row, FlightTable.ECONOMY));
+        flight.setBusiness(classInfo(row, FlightTable.BUSINESS));
+        flight.setFirst(classInfo(row, FlightTable.FIRST));
+        return flight;
+    }
+
+    /**
+     * Flights for rows [start, start + count), clamped to the snapshot; only those records are read.
+     */
+    public List<Flight> getFlights(int start, int count) {
+        int end = Math.min(size, start + count);
+        List<Flight> page = new ArrayList<>(Math.max(0, end - start));
+        for (int row = Math.max(0, start); row < end; row++) {
+            page.add(getFlight(row));
+        }
+        return page;
+    }
+
+    private Flight.ClassInfo classInfo(int row, int classIndex) {
+        int cents = getPriceCents(row, classIndex);
+        return cents < 0 ? null : new Flight.ClassInfo(cents / 100.0, getAvailable(row, classIndex));
+    }
+
+    private int record(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return HEADER_SIZE + row * RECORD_SIZE;
+    }
+
+    private String string(int row, int field) {
+        return stringAt(stringRef(row, field));
+    }
+
+    /**
+     * Dictionary index of a row's string field (one of the R_ offsets); 0 means null.
+     */
+    int stringRef(int row, int field) {
+        int index = buffer.getInt(record(row) + field);
+        return index > 0 && index < stringCount ? index : 0;
+    }
+
+    int stringCount() {
+        return stringCount;
+    }
+
+    // Strings are immutable, so racing decodes of the same entry are harmless
+    String stringAt(int index) {
+        if (index <= 0 || index >= stringCount) {
+            return null;
+        }
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(stringEnds + 4 * (index - 1));
+            int end = buffer.getInt(stringEnds + 4 * index);
+            byte[] bytes = new byte[end - start];
+            // Absolute bulk get is Java 13+, so read through a duplicate to keep the shared position untouched
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringData + start);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+}
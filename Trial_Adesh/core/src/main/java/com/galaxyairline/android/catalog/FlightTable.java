@@ -0,0 +1,678 @@
+package com.galaxyairline.android.catalog;
+
+import com.galaxyairline.android.model.Flight;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Struct-of-arrays flight catalog. Each column is a primitive array indexed by
+ * row: airports, cities, aircraft and stop labels are dictionary-encoded ints,
+ * departure/arrival are epoch minutes, prices are packed cents and seat counts
+ * are shorts. Compared with a List&lt;Flight&gt; this drops the per-flight object
+ * headers and the duplicated strings, which dominate the heap at catalog scale.
+ *
+ * Existing code that expects {@link Flight} can use {@link #view(int)} or
+ * {@link #asList()}, which return read-only flyweights backed by the table.
+ * A {@link Builder} fills the columns a page at a time, so a catalog can be
+ * loaded without first materialising it as a List&lt;Flight&gt;.
+ * Times that don't parse as "yyyy-MM-dd" / "HH:mm" / "5h 30m" read back as null.
+ * The date has its own column, so a departure time that isn't "HH:mm" loses only
+ * the time and the flight still turns up in searches by date.
+ */
+public class FlightTable {
+    public static final int ECONOMY = 0;
+    public static final int BUSINESS = 1;
+    public static final int FIRST = 2;
+    private static final int CLASS_COUNT = 3;
+
+    private final int size;
+    private final String[] ids;
+    private final String[] flightNumbers;
+    private final int[] fromCodes;
+    private final int[] toCodes;
+    private final int[] fromCities;
+    private final int[] toCities;
+    private final int[] departureDays;
+    private final int[] departureMinutes;
+    private final int[] arrivalMinutes;
+    private final short[] durationMinutes;
+    private final int[] aircraft;
+    private final int[] stops;
+    private final int[] priceCents;
+    private final short[] available;
+    private int[] idSlots;
+
+    private final StringDictionary airportCodes;
+    private final StringDictionary cities;
+    private final StringDictionary labels;
+
+    private FlightTable(int size, StringDictionary airportCodes, StringDictionary cities, StringDictionary labels) {
+        this.size = size;
+        this.airportCodes = airportCodes;
+        this.cities = cities;
+        this.labels = labels;
+        ids = new String[size];
+        flightNumbers = new String[size];
+        fromCodes = new int[size];
+        toCodes = new int[size];
+        fromCities = new int[size];
+        toCities = new int[size];
+        departureDays = new int[size];
+        departureMinutes = new int[size];
+        arrivalMinutes = new int[size];
+        durationMinutes = new short[size];
+        aircraft = new int[size];
+        stops = new int[size];
+        priceCents = new int[size * CLASS_COUNT];
+        available = new short[size * CLASS_COUNT];
+    }
+
+    // Shares every column with source except the seat counts, which start as a copy
+    private FlightTable(FlightTable source) {
+        size = source.size;
+        airportCodes = source.airportCodes;
+        cities = source.cities;
+        labels = source.labels;
+        ids = source.ids;
+        flightNumbers = source.flightNumbers;
+        fromCodes = source.fromCodes;
+        toCodes = source.toCodes;
+        fromCities = source.fromCities;
+        toCities = source.toCities;
+        departureDays = source.departureDays;
+        departureMinutes = source.departureMinutes;
+        arrivalMinutes = source.arrivalMinutes;
+        durationMinutes = source.durationMinutes;
+        aircraft = source.aircraft;
+        stops = source.stops;
+        priceCents = source.priceCents;
+        available = source.available.clone();
+        idSlots = source.idSlots;
+    }
+
+    public static FlightTable fromFlights(List<Flight> flights) {
+        FlightTable table = new FlightTable(flights.size(),
+                new StringDictionary(), new StringDictionary(), new StringDictionary());
+        for (int row = 0; row < flights.size(); row++) {
+            table.setRow(row, flights.get(row));
+        }
+        table.indexIds();
+        return table;
+    }
+
+    /**
+     * Copies a snapshot's columns straight into a table. Times, prices and seat counts
+     * are already encoded the same way, and each distinct snapshot string is decoded
+     * and dictionary-encoded once, so no Flight objects are created and nothing is parsed.
+     */
+    public static FlightTable fromSnapshot(CatalogSnapshot snapshot) {
+        int size = snapshot.size();
+        FlightTable table = new FlightTable(size, new StringDictionary(), new StringDictionary(), new StringDictionary());
+        // Snapshot dictionary index to this table's, per dictionary; 0 until first seen
+        int[] codeRefs = new int[snapshot.stringCount()];
+        int[] cityRefs = new int[snapshot.stringCount()];
+        int[] labelRefs = new int[snapshot.stringCount()];
+        for (int row = 0; row < size; row++) {
+            String id = snapshot.getId(row);
+            String flightNumber = snapshot.getFlightNumber(row);
+            table.ids[row] = id;
+            table.flightNumbers[row] = flightNumber != null && flightNumber.equals(id) ? id : flightNumber;
+
+            table.fromCodes[row] = encode(snapshot, row, CatalogSnapshot.R_FROM_CODE, table.airportCodes, codeRefs);
+            table.toCodes[row] = encode(snapshot, row, CatalogSnapshot.R_TO_CODE, table.airportCodes, codeRefs);
+            table.fromCities[row] = encode(snapshot, row, CatalogSnapshot.R_FROM, table.cities, cityRefs);
+            table.toCities[row] = encode(snapshot, row, CatalogSnapshot.R_TO, table.cities, cityRefs);
+            table.aircraft[row] = encode(snapshot, row, CatalogSnapshot.R_AIRCRAFT, table.labels, labelRefs);
+            table.stops[row] = encode(snapshot, row, CatalogSnapshot.R_STOPS, table.labels, labelRefs);
+
+            int departure = snapshot.getDepartureMinute(row);
+            table.departureMinutes[row] = departure;
+            // Only a flight whose departure time didn't parse needs its date string read
+            table.departureDays[row] = departure != FlightTimes.INVALID
+                    ? Math.floorDiv(departure, FlightTimes.MINUTES_PER_DAY)
+                    : FlightTimes.parseEpochDay(snapshot.getDate(row));
+            table.arrivalMinutes[row] = snapshot.getArrivalMinute(row);
+            table.durationMinutes[row] = (short) snapshot.getDurationMinutes(row);
+            for (int classIndex = 0; classIndex < CLASS_COUNT; classIndex++) {
+                int slot = row * CLASS_COUNT + classIndex;
+                table.priceCents[slot] = snapshot.getPriceCents(row, classIndex);
+                table.available[slot] = (short) snapshot.getAvailable(row, classIndex);
+            }
+        }
+        table.indexIds();
+        return table;
+    }
+
+    private static int encode(CatalogSnapshot snapshot, int row, int field, StringDictionary dictionary, int[] refs) {
+        int ref = snapshot.stringRef(row, field);
+        if (ref == 0) {
+            return 0;
+        }
+        if (refs[ref] == 0) {
+            refs[ref] = dictionary.encode(snapshot.stringAt(ref));
+        }
+        return refs[ref];
+    }
+
+    /**
+     * Appends flights row by row. Columns grow by doubling and are trimmed to size in
+     * {@link #build()}, so the builder never holds more than the compact columns.
+     */
+    public static class Builder {
+        private FlightTable table;
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            table = new FlightTable(Math.max(1, expectedSize),
+                    new StringDictionary(), new StringDictionary(), new StringDictionary());
+        }
+
+        public Builder add(Flight flight) {
+            if (size == table.size) {
+                table = table.resized(size * 2);
+            }
+            table.setRow(size++, flight);
+            return this;
+        }
+
+        public Builder addAll(List<Flight> flights) {
+            for (int i = 0; i < flights.size(); i++) {
+                add(flights.get(i));
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * The finished table. The builder must not be used afterwards.
+         */
+        public FlightTable build() {
+            FlightTable built = size == table.size ? table : table.resized(size);
+            table = null;
+            built.indexIds();
+            return built;
+        }
+    }
+
+    // Same dictionaries, columns copied into arrays of the new length
+    private FlightTable resized(int newSize) {
+        FlightTable copy = new FlightTable(newSize, airportCodes, cities, labels);
+        int rows = Math.min(size, newSize);
+        System.arraycopy(ids, 0, copy.ids, 0, rows);
+        System.arraycopy(flightNumbers, 0, copy.flightNumbers, 0, rows);
+        System.arraycopy(fromCodes, 0, copy.fromCodes, 0, rows);
+        System.arraycopy(toCodes, 0, copy.toCodes, 0, rows);
+        System.arraycopy(fromCities, 0, copy.fromCities, 0, rows);
+        System.arraycopy(toCities, 0, copy.toCities, 0, rows);
+        System.arraycopy(departureDays, 0, copy.departureDays, 0, rows);
+        System.arraycopy(departureMinutes, 0, copy.departureMinutes, 0, rows);
+        System.arraycopy(arrivalMinutes, 0, copy.arrivalMinutes, 0, rows);
+        System.arraycopy(durationMinutes, 0, copy.durationMinutes, 0, rows);
+        System.arraycopy(aircraft, 0, copy.aircraft, 0, rows);
+        System.arraycopy(stops, 0, copy.stops, 0, rows);
+        System.arraycopy(priceCents, 0, copy.priceCents, 0, rows * CLASS_COUNT);
+        System.arraycopy(available, 0, copy.available, 0, rows * CLASS_COUNT);
+        return copy;
+    }
+
+    private void setRow(int row, Flight flight) {
+        ids[row] = flight.getId();
+        // Flight numbers usually equal the id; share the reference instead of keeping a copy
+        String flightNumber = flight.getFlightNumber();
+        flightNumbers[row] = flightNumber != null && flightNumber.equals(flight.getId()) ? ids[row] : flightNumber;
+
+        fromCodes[row] = airportCodes.encode(flight.getFromCode());
+        toCodes[row] = airportCodes.encode(flight.getToCode());
+        fromCities[row] = cities.encode(flight.getFrom());
+        toCities[row] = cities.encode(flight.getTo());
+        aircraft[row] = labels.encode(flight.getAircraft());
+        stops[row] = labels.encode(flight.getStops());
+
+        departureDays[row] = FlightTimes.parseEpochDay(flight.getDate());
+        int departure = FlightTimes.parseEpochMinute(flight.getDate(), flight.getDeparture());
+        departureMinutes[row] = departure;
+        int arrivalClock = FlightTimes.parseClock(flight.getArrival());
+        if (departure == FlightTimes.INVALID || arrivalClock == FlightTimes.INVALID) {
+            arrivalMinutes[row] = FlightTimes.INVALID;
+        } else {
+            // Arrival times are local clock times; an earlier clock than departure means the next day
+            int departureDay = Math.floorDiv(departure, FlightTimes.MINUTES_PER_DAY);
+            int arrival = departureDay * FlightTimes.MINUTES_PER_DAY + arrivalClock;
+            arrivalMinutes[row] = arrival < departure ? arrival + FlightTimes.MINUTES_PER_DAY : arrival;
+        }
+        int duration = FlightTimes.parseDuration(flight.getDuration());
+        durationMinutes[row] = duration == FlightTimes.INVALID || duration > Short.MAX_VALUE ? -1 : (short) duration;
+
+        setClassInfo(row, ECONOMY, flight.getEconomy());
+        setClassInfo(row, BUSINESS, flight.getBusiness());
+        setClassInfo(row, FIRST, flight.getFirst());
+    }
+
+    private void setClassInfo(int row, int classIndex, Flight.ClassInfo info) {
+        int slot = row * CLASS_COUNT + classIndex;
+        if (info == null) {
+            priceCents[slot] = -1;
+            available[slot] = 0;
+            return;
+        }
+        priceCents[slot] = (int) Math.round(info.getPrice() * 100);
+        available[slot] = (short) Math.min(Short.MAX_VALUE, Math.max(0, info.getAvailable()));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getId(int row) {
+        return ids[row];
+    }
+
+    public String getFlightNumber(int row) {
+        return flightNumbers[row];
+    }
+
+    public String getFromCode(int row) {
+        return airportCodes.decode(fromCodes[row]);
+    }
+
+    public String getToCode(int row) {
+        return airportCodes.decode(toCodes[row]);
+    }
+
+    /**
+     * Dictionary id of the origin airport; equal ids mean equal codes.
+     */
+    public int getFromAirport(int row) {
+        return fromCodes[row];
+    }
+
+    public int getToAirport(int row) {
+        return toCodes[row];
+    }
+
+    /**
+     * Dictionary id for an airport code, or -1 if no flight in the table uses it.
+     */
+    public int findAirport(String code) {
+        if (code == null) {
+            return -1;
+        }
+        for (int i = 1; i < airportCodes.size(); i++) {
+            if (code.equals(airportCodes.decode(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int airportCount() {
+        return airportCodes.size();
+    }
+
+    public String airportCode(int airport) {
+        return airportCodes.decode(airport);
+    }
+
+    public String getFrom(int row) {
+        return cities.decode(fromCities[row]);
+    }
+
+    public String getTo(int row) {
+        return cities.decode(toCities[row]);
+    }
+
+    /**
+     * Epoch day of departure, or {@link FlightTimes#INVALID} if the date didn't parse.
+     */
+    public int getDepartureDay(int row) {
+        return departureDays[row];
+    }
+
+    public int getDepartureMinute(int row) {
+        return departureMinutes[row];
+    }
+
+    public int getArrivalMinute(int row) {
+        return arrivalMinutes[row];
+    }
+
+    public int getDurationMinutes(int row) {
+        return durationMinutes[row];
+    }
+
+    public String getAircraft(int row) {
+        return labels.decode(aircraft[row]);
+    }
+
+    public String getStops(int row) {
+        return labels.decode(stops[row]);
+    }
+
+    public boolean hasClass(int row, int classIndex) {
+        return priceCents[row * CLASS_COUNT + classIndex] >= 0;
+    }
+
+    public int getPriceCents(int row, int classIndex) {
+        return priceCents[row * CLASS_COUNT + classIndex];
+    }
+
+    public int getAvailable(int row, int classIndex) {
+        return available[row * CLASS_COUNT + classIndex];
+    }
+
+    /**
+     * Seat counts are the one column that changes between catalog refreshes. Only call
+     * this on a table nothing else reads yet; published tables are patched through
+     * {@link #withSeatCounts()}.
+     */
+    public void setAvailable(int row, int classIndex, int seats) {
+        available[row * CLASS_COUNT + classIndex] = (short) Math.min(Short.MAX_VALUE, Math.max(0, seats));
+    }
+
+    /**
+     * A table with the same rows and its own copy of the seat column, so seat counts can
+     * change without touching this table or the views already handed out over it. Every
+     * other column, the dictionaries and the id index are shared, which keeps the copy
+     * to one array of shorts.
+     */
+    public FlightTable withSeatCounts() {
+        return new FlightTable(this);
+    }
+
+    public static int classIndex(String classType) {
+        if ("business".equals(classType)) {
+            return BUSINESS;
+        } else if ("first".equals(classType)) {
+            return FIRST;
+        }
+        return ECONOMY;
+    }
+
+    /**
+     * Row holding the given flight id, or -1.
+     */
+    public int findRow(String id) {
+        if (id == null) {
+            return -1;
+        }
+        int mask = idSlots.length - 1;
+        for (int slot = mix(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = idSlots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (id.equals(ids[entry - 1])) {
+                return entry - 1;
+            }
+        }
+    }
+
+    public Flight view(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return new FlightView(row);
+    }
+
+    /**
+     * Read-only List view; each get() returns a fresh flyweight.
+     */
+    public List<Flight> asList() {
+        return new FlightList();
+    }
+
+    // Open addressing over row + 1 so the zero-filled array means "empty"
+    private void indexIds() {
+        idSlots = new int[slotCount(size)];
+        int mask = idSlots.length - 1;
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == null || findRow(ids[row]) >= 0) {
+                continue;
+            }
+            int slot = mix(ids[row].hashCode()) & mask;
+            while (idSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            idSlots[slot] = row + 1;
+        }
+    }
+
+    private static int slotCount(int size) {
+        int slots = 2;
+        while (slots < size * 2) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private class FlightList extends AbstractList<Flight> implements RandomAccess {
+        @Override
+        public Flight get(int index) {
+            return view(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class FlightView extends Flight {
+        private final int row;
+        private ClassInfo economy;
+        private ClassInfo business;
+        private ClassInfo first;
+
+        FlightView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String getId() {
+            return ids[row];
+        }
+
+        @Override
+        public String getFlightNumber() {
+            return flightNumbers[row];
+        }
+
+        @Override
+        public String getFrom() {
+            return FlightTable.this.getFrom(row);
+        }
+
+        @Override
+        public String getTo() {
+            return FlightTable.this.getTo(row);
+        }
+
+        @Override
+        public String getFromCode() {
+            return FlightTable.this.getFromCode(row);
+        }
+
+        @Override
+        public String getToCode() {
+            return FlightTable.this.getToCode(row);
+        }
+
+        @Override
+        public String getDeparture() {
+            int minute = departureMinutes[row];
+            return minute == FlightTimes.INVALID ? null : FlightTimes.formatClock(minute);
+        }
+
+        @Override
+        public String getArrival() {
+            int minute = arrivalMinutes[row];
+            return minute == FlightTimes.INVALID ? null : FlightTimes.formatClock(minute);
+        }
+
+        @Override
+        public String getDuration() {
+            int minutes = durationMinutes[row];
+            return minutes < 0 ? null : FlightTimes.formatDuration(minutes);
+        }
+
+        @Override
+        public String getAircraft() {
+            return FlightTable.this.getAircraft(row);
+        }
+
+        @Override
+        public String getDate() {
+            int day = departureDays[row];
+            return day == FlightTimes.INVALID ? null : FlightTimes.formatEpochDay(day);
+        }
+
+        @Override
+        public ClassInfo getEconomy() {
+            if (economy == null && hasClass(row, ECONOMY)) {
+                economy = new ClassInfoView(row, ECONOMY);
+            }
+            return economy;
+        }
+
+        @Override
+        public ClassInfo getBusiness() {
+            if (business == null && hasClass(row, BUSINESS)) {
+                business = new ClassInfoView(row, BUSINESS);
+            }
+            return business;
+        }
+
+        @Override
+        public ClassInfo getFirst() {
+            if (first == null && hasClass(row, FIRST)) {
+                first = new ClassInfoView(row, FIRST);
+            }
+            return first;
+        }
+
+        @Override
+        public String getStops() {
+            return FlightTable.this.getStops(row);
+        }
+
+        @Override
+        public void setId(String id) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setFlightNumber(String flightNumber) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setFrom(String from) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTo(String to) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setFromCode(String fromCode) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setToCode(String toCode) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDeparture(String departure) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setArrival(String arrival) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDuration(String duration) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setAircraft(String aircraft) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDate(String date) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setEconomy(ClassInfo economy) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setBusiness(ClassInfo business) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setFirst(ClassInfo first) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setStops(String stops) {
+            throw readOnly();
+        }
+    }
+
+    private class ClassInfoView extends Flight.ClassInfo {
+        private final int slot;
+
+        ClassInfoView(int row, int classIndex) {
+            this.slot = row * CLASS_COUNT + classIndex;
+        }
+
+        @Override
+        public double getPrice() {
+            return priceCents[slot] / 100.0;
+        }
+
+        @Override
+        public int getAvailable() {
+            return available[slot];
+        }
+
+        @Override
+        public void setPrice(double price) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setAvailable(int seats) {
+            throw readOnly();
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("FlightTable views are read-only");
+    }
+}
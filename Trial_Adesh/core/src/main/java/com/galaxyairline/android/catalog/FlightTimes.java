@@ -0,0 +1,137 @@
+package com.galaxyairline.android.catalog;
+
+import java.util.Locale;
+
+/**
+ * Parsing and formatting for the catalog's string time fields: dates are
+ * "yyyy-MM-dd", clock times "HH:mm" and durations "5h 30m". Works on plain
+ * integer minutes (java.time needs API 26, we support 24).
+ */
+public final class FlightTimes {
+    public static final int INVALID = Integer.MIN_VALUE;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private FlightTimes() {}
+
+    /**
+     * Days since 1970-01-01 for a "yyyy-MM-dd" date, or INVALID.
+     */
+    public static int parseEpochDay(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 5, 7);
+        int day = parseDigits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        return daysFromCivil(year, month, day);
+    }
+
+    public static String formatEpochDay(int epochDay) {
+        // Inverse of daysFromCivil (Howard Hinnant's civil_from_days)
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return String.format(Locale.US, "%04d-%02d-%02d", year, month, day);
+    }
+
+    /**
+     * Minutes after midnight for "HH:mm", or INVALID.
+     */
+    public static int parseClock(String clock) {
+        if (clock == null || clock.length() != 5 || clock.charAt(2) != ':') {
+            return INVALID;
+        }
+        int hours = parseDigits(clock, 0, 2);
+        int minutes = parseDigits(clock, 3, 5);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            return INVALID;
+        }
+        return hours * 60 + minutes;
+    }
+
+    public static String formatClock(int minuteOfDay) {
+        int minutes = ((minuteOfDay % MINUTES_PER_DAY) + MINUTES_PER_DAY) % MINUTES_PER_DAY;
+        return String.format(Locale.US, "%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    /**
+     * Minutes since the epoch for a date plus "HH:mm" departure, or INVALID.
+     */
+    public static int parseEpochMinute(String date, String clock) {
+        int epochDay = parseEpochDay(date);
+        int minuteOfDay = parseClock(clock);
+        if (epochDay == INVALID || minuteOfDay == INVALID) {
+            return INVALID;
+        }
+        return epochDay * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    /**
+     * Total minutes for durations like "5h 30m", "5h" or "45m", or INVALID.
+     */
+    public static int parseDuration(String duration) {
+        if (duration == null) {
+            return INVALID;
+        }
+        int total = 0;
+        int current = -1;
+        boolean matched = false;
+        for (int i = 0; i < duration.length(); i++) {
+            char c = duration.charAt(i);
+            if (c >= '0' && c <= '9') {
+                current = (current < 0 ? 0 : current * 10) + (c - '0');
+            } else if ((c == 'h' || c == 'H') && current >= 0) {
+                total += current * 60;
+                current = -1;
+                matched = true;
+            } else if ((c == 'm' || c == 'M') && current >= 0) {
+                total += current;
+                current = -1;
+                matched = true;
+            } else if (c != ' ') {
+                return INVALID;
+            }
+        }
+        return matched && current < 0 ? total : INVALID;
+    }
+
+    public static String formatDuration(int minutes) {
+        if (minutes % 60 == 0) {
+            return (minutes / 60) + "h";
+        }
+        if (minutes < 60) {
+            return minutes + "m";
+        }
+        return (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+
+    private static int daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        int era = (year >= 0 ? year : year - 399) / 400;
+        int yoe = year - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static int parseDigits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.galaxyairline.android.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns each distinct string a small int so repeated values (cities, aircraft,
+ * stop labels) are stored once. Index 0 is reserved for null.
+ */
+public class StringDictionary {
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    public StringDictionary() {
+        values.add(null);
+    }
+
+    public int encode(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = values.size();
+            values.add(value);
+            indexes.put(value, index);
+        }
+        return index;
+    }
+
+    public String decode(int index) {
+        return values.get(index);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,185 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.model.Analytics;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written adapter for {@link Analytics} and its nested types.
+ */
+public class AnalyticsTypeAdapter extends TypeAdapter<Analytics> {
+    private final ClassRevenueTypeAdapter classRevenueAdapter = new ClassRevenueTypeAdapter();
+    private final FlightStatsTypeAdapter flightStatsAdapter = new FlightStatsTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Analytics analytics) throws IOException {
+        if (analytics == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("totalRevenue").value(analytics.getTotalRevenue());
+        out.name("totalBookings").value(analytics.getTotalBookings());
+        if (analytics.getClassRevenue() != null) {
+            out.name("classRevenue");
+            classRevenueAdapter.write(out, analytics.getClassRevenue());
+        }
+        if (analytics.getFlightStats() != null) {
+            out.name("flightStats").beginArray();
+            for (Analytics.FlightStats stats : analytics.getFlightStats()) {
+                flightStatsAdapter.write(out, stats);
+            }
+            out.endArray();
+        }
+        JsonFields.write(out, "averageBookingValue", analytics.getAverageBookingValue());
+        out.endObject();
+    }
+
+    @Override
+    public Analytics read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Analytics analytics = new Analytics();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "totalRevenue":
+                    analytics.setTotalRevenue(in.nextDouble());
+                    break;
+                case "totalBookings":
+                    analytics.setTotalBookings(in.nextInt());
+                    break;
+                case "classRevenue":
+                    analytics.setClassRevenue(classRevenueAdapter.read(in));
+                    break;
+                case "flightStats":
+                    List<Analytics.FlightStats> flightStats = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        flightStats.add(flightStatsAdapter.read(in));
+                    }
+                    in.endArray();
+                    analytics.setFlightStats(flightStats);
+                    break;
+                case "averageBookingValue":
+                    // The server sends a formatted string, or 0 when there are no bookings
+                    analytics.setAverageBookingValue(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return analytics;
+    }
+
+    public static class ClassRevenueTypeAdapter extends TypeAdapter<Analytics.ClassRevenue> {
+        @Override
+        public void write(JsonWriter out, Analytics.ClassRevenue revenue) throws IOException {
+            if (revenue == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("economy").value(revenue.getEconomy());
+            out.name("business").value(revenue.getBusiness());
+            out.name("first").value(revenue.getFirst());
+            out.endObject();
+        }
+
+        @Override
+        public Analytics.ClassRevenue read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Analytics.ClassRevenue revenue = new Analytics.ClassRevenue();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "economy":
+                        revenue.setEconomy(in.nextDouble());
+                        break;
+                    case "business":
+                        revenue.setBusiness(in.nextDouble());
+                        break;
+                    case "first":
+                        revenue.setFirst(in.nextDouble());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return revenue;
+        }
+    }
+
+    public static class FlightStatsTypeAdapter extends TypeAdapter<Analytics.FlightStats> {
+        @Override
+        public void write(JsonWriter out, Analytics.FlightStats stats) throws IOException {
+            if (stats == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            JsonFields.write(out, "flightNumber", stats.getFlightNumber());
+            JsonFields.write(out, "occupancyRate", stats.getOccupancyRate());
+            out.name("revenue").value(stats.getRevenue());
+            out.endObject();
+        }
+
+        @Override
+        public Analytics.FlightStats read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Analytics.FlightStats stats = new Analytics.FlightStats();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "flightNumber":
+                        stats.setFlightNumber(in.nextString());
+                        break;
+                    case "occupancyRate":
+                        stats.setOccupancyRate(in.nextString());
+                        break;
+                    case "revenue":
+                        stats.setRevenue(in.nextDouble());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.model.Booking;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written adapter for {@link Booking}; nested flights and search data reuse
+ * their own adapters.
+ */
+public class BookingTypeAdapter extends TypeAdapter<Booking> {
+    private final FlightTypeAdapter flightAdapter = new FlightTypeAdapter();
+    private final FlightSearchDataTypeAdapter searchDataAdapter = new FlightSearchDataTypeAdapter();
+    private final PassengerTypeAdapter passengerAdapter = new PassengerTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Booking booking) throws IOException {
+        if (booking == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        JsonFields.write(out, "bookingId", booking.getBookingId());
+        JsonFields.write(out, "userId", booking.getUserId());
+        if (booking.getSelectedFlight() != null) {
+            out.name("selectedFlight");
+            flightAdapter.write(out, booking.getSelectedFlight());
+        }
+        if (booking.getReturnFlight() != null) {
+            out.name("returnFlight");
+            flightAdapter.write(out, booking.getReturnFlight());
+        }
+        if (booking.getSearchData() != null) {
+            out.name("searchData");
+            searchDataAdapter.write(out, booking.getSearchData());
+        }
+        if (booking.getPassengers() != null) {
+            out.name("passengers").beginArray();
+            for (Booking.Passenger passenger : booking.getPassengers()) {
+                passengerAdapter.write(out, passenger);
+            }
+            out.endArray();
+        }
+        out.name("totalPrice").value(booking.getTotalPrice());
+        JsonFields.write(out, "paymentMethod", booking.getPaymentMethod());
+        JsonFields.write(out, "paymentStatus", booking.getPaymentStatus());
+        JsonFields.write(out, "bookingDate", booking.getBookingDate());
+        JsonFields.write(out, "status", booking.getStatus());
+        out.endObject();
+    }
+
+    @Override
+    public Booking read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Booking booking = new Booking();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "bookingId":
+                    booking.setBookingId(in.nextString());
+                    break;
+                case "userId":
+                    booking.setUserId(in.nextString());
+                    break;
+                case "selectedFlight":
+                    booking.setSelectedFlight(flightAdapter.read(in));
+                    break;
+                case "returnFlight":
+                    booking.setReturnFlight(flightAdapter.read(in));
+                    break;
+                case "searchData":
+                    booking.setSearchData(searchDataAdapter.read(in));
+                    break;
+                case "passengers":
+                    booking.setPassengers(readPassengers(in));
+                    break;
+                case "totalPrice":
+                    booking.setTotalPrice(in.nextDouble());
+                    break;
+                case "paymentMethod":
+                    booking.setPaymentMethod(in.nextString());
+                    break;
+                case "paymentStatus":
+                    booking.setPaymentStatus(in.nextString());
+                    break;
+                case "bookingDate":
+                    booking.setBookingDate(in.nextString());
+                    break;
+                case "status":
+                    booking.setStatus(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return booking;
+    }
+
+    private List<Booking.Passenger> readPassengers(JsonReader in) throws IOException {
+        List<Booking.Passenger> passengers = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            passengers.add(passengerAdapter.read(in));
+        }
+        in.endArray();
+        return passengers;
+    }
+
+    public static class PassengerTypeAdapter extends TypeAdapter<Booking.Passenger> {
+        @Override
+        public void write(JsonWriter out, Booking.Passenger passenger) throws IOException {
+            if (passenger == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            JsonFields.write(out, "name", passenger.getName());
+            JsonFields.write(out, "email", passenger.getEmail());
+            JsonFields.write(out, "phone", passenger.getPhone());
+            out.endObject();
+        }
+
+        @Override
+        public Booking.Passenger read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Booking.Passenger passenger = new Booking.Passenger();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "name":
+                        passenger.setName(in.nextString());
+                        break;
+                    case "email":
+                        passenger.setEmail(in.nextString());
+                        break;
+                    case "phone":
+                        passenger.setPhone(in.nextString());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return passenger;
+        }
+    }
+}
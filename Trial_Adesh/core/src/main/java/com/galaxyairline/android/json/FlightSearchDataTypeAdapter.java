@@ -0,0 +1,127 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.model.FlightSearchData;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written adapter for {@link FlightSearchData}. Reading starts from the
+ * constructor defaults, so absent fields keep the same values the reflective
+ * adapter would have left.
+ */
+public class FlightSearchDataTypeAdapter extends TypeAdapter<FlightSearchData> {
+    private final PassengersTypeAdapter passengersAdapter = new PassengersTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, FlightSearchData data) throws IOException {
+        if (data == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        JsonFields.write(out, "from", data.getFrom());
+        JsonFields.write(out, "to", data.getTo());
+        JsonFields.write(out, "departDate", data.getDepartDate());
+        JsonFields.write(out, "returnDate", data.getReturnDate());
+        JsonFields.write(out, "tripType", data.getTripType());
+        if (data.getPassengers() != null) {
+            out.name("passengers");
+            passengersAdapter.write(out, data.getPassengers());
+        }
+        JsonFields.write(out, "classType", data.getClassType());
+        out.endObject();
+    }
+
+    @Override
+    public FlightSearchData read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        FlightSearchData data = new FlightSearchData();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "from":
+                    data.setFrom(in.nextString());
+                    break;
+                case "to":
+                    data.setTo(in.nextString());
+                    break;
+                case "departDate":
+                    data.setDepartDate(in.nextString());
+                    break;
+                case "returnDate":
+                    data.setReturnDate(in.nextString());
+                    break;
+                case "tripType":
+                    data.setTripType(in.nextString());
+                    break;
+                case "passengers":
+                    data.setPassengers(passengersAdapter.read(in));
+                    break;
+                case "classType":
+                    data.setClassType(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return data;
+    }
+
+    public static class PassengersTypeAdapter extends TypeAdapter<FlightSearchData.Passengers> {
+        @Override
+        public void write(JsonWriter out, FlightSearchData.Passengers passengers) throws IOException {
+            if (passengers == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("adults").value(passengers.getAdults());
+            out.name("children").value(passengers.getChildren());
+            out.endObject();
+        }
+
+        @Override
+        public FlightSearchData.Passengers read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            FlightSearchData.Passengers passengers = new FlightSearchData.Passengers();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "adults":
+                        passengers.setAdults(in.nextInt());
+                        break;
+                    case "children":
+                        passengers.setChildren(in.nextInt());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return passengers;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.model.Flight;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written adapter for {@link Flight}; field names match the reflective mapping.
+ */
+public class FlightTypeAdapter extends TypeAdapter<Flight> {
+    private final ClassInfoTypeAdapter classInfoAdapter = new ClassInfoTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Flight flight) throws IOException {
+        if (flight == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        JsonFields.write(out, "id", flight.getId());
+        JsonFields.write(out, "flightNumber", flight.getFlightNumber());
+        JsonFields.write(out, "from", flight.getFrom());
+        JsonFields.write(out, "to", flight.getTo());
+        JsonFields.write(out, "fromCode", flight.getFromCode());
+        JsonFields.write(out, "toCode", flight.getToCode());
+        JsonFields.write(out, "departure", flight.getDeparture());
+        JsonFields.write(out, "arrival", flight.getArrival());
+        JsonFields.write(out, "duration", flight.getDuration());
+        JsonFields.write(out, "aircraft", flight.getAircraft());
+        JsonFields.write(out, "date", flight.getDate());
+        writeClassInfo(out, "economy", flight.getEconomy());
+        writeClassInfo(out, "business", flight.getBusiness());
+        writeClassInfo(out, "first", flight.getFirst());
+        JsonFields.write(out, "stops", flight.getStops());
+        out.endObject();
+    }
+
+    @Override
+    public Flight read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Flight flight = new Flight();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    flight.setId(in.nextString());
+                    break;
+                case "flightNumber":
+                    flight.setFlightNumber(in.nextString());
+                    break;
+                case "from":
+                    flight.setFrom(in.nextString());
+                    break;
+                case "to":
+                    flight.setTo(in.nextString());
+                    break;
+                case "fromCode":
+                    flight.setFromCode(in.nextString());
+                    break;
+                case "toCode":
+                    flight.setToCode(in.nextString());
+                    break;
+                case "departure":
+                    flight.setDeparture(in.nextString());
+                    break;
+                case "arrival":
+                    flight.setArrival(in.nextString());
+                    break;
+                case "duration":
+                    flight.setDuration(in.nextString());
+                    break;
+                case "aircraft":
+                    flight.setAircraft(in.nextString());
+                    break;
+                case "date":
+                    flight.setDate(in.nextString());
+                    break;
+                case "economy":
+                    flight.setEconomy(classInfoAdapter.read(in));
+                    break;
+                case "business":
+                    flight.setBusiness(classInfoAdapter.read(in));
+                    break;
+                case "first":
+                    flight.setFirst(classInfoAdapter.read(in));
+                    break;
+                case "stops":
+                    flight.setStops(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return flight;
+    }
+
+    private void writeClassInfo(JsonWriter out, String name, Flight.ClassInfo info) throws IOException {
+        if (info != null) {
+            out.name(name);
+            classInfoAdapter.write(out, info);
+        }
+    }
+
+    public static class ClassInfoTypeAdapter extends TypeAdapter<Flight.ClassInfo> {
+        @Override
+        public void write(JsonWriter out, Flight.ClassInfo info) throws IOException {
+            if (info == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("price").value(info.getPrice());
+            out.name("available").value(info.getAvailable());
+            out.endObject();
+        }
+
+        @Override
+        public Flight.ClassInfo read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Flight.ClassInfo info = new Flight.ClassInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "price":
+                        info.setPrice(in.nextDouble());
+                        break;
+                    case "available":
+                        info.setAvailable(in.nextInt());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return info;
+        }
+    }
+}
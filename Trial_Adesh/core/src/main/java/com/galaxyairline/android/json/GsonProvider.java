@@ -0,0 +1,35 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.model.Analytics;
+import com.galaxyairline.android.model.Booking;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.model.User;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Single app-wide Gson with the hand-written model adapters registered, so the
+ * network layer and the session store never fall back to reflection for models.
+ * Flight adapters cover subclasses too, so table-backed flyweights serialize correctly.
+ */
+public final class GsonProvider {
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeHierarchyAdapter(Flight.class, new FlightTypeAdapter())
+            .registerTypeHierarchyAdapter(Flight.ClassInfo.class, new FlightTypeAdapter.ClassInfoTypeAdapter())
+            .registerTypeAdapter(Analytics.class, new AnalyticsTypeAdapter())
+            .registerTypeAdapter(Analytics.ClassRevenue.class, new AnalyticsTypeAdapter.ClassRevenueTypeAdapter())
+            .registerTypeAdapter(Analytics.FlightStats.class, new AnalyticsTypeAdapter.FlightStatsTypeAdapter())
+            .registerTypeAdapter(User.class, new UserTypeAdapter())
+            .registerTypeAdapter(FlightSearchData.class, new FlightSearchDataTypeAdapter())
+            .registerTypeAdapter(FlightSearchData.Passengers.class, new FlightSearchDataTypeAdapter.PassengersTypeAdapter())
+            .registerTypeAdapter(Booking.class, new BookingTypeAdapter())
+            .registerTypeAdapter(Booking.Passenger.class, new BookingTypeAdapter.PassengerTypeAdapter())
+            .create();
+
+    private GsonProvider() {}
+
+    public static Gson get() {
+        return GSON;
+    }
+}
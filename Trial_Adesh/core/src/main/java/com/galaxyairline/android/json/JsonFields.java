@@ -0,0 +1,17 @@
+package com.galaxyairline.android.json;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+// Mirrors Gson's default of leaving null fields out of the output
+final class JsonFields {
+
+    private JsonFields() {}
+
+    static void write(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
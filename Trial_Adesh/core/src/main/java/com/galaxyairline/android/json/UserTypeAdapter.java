@@ -0,0 +1,65 @@
+package com.galaxyairline.android.json;
+
+import com.galaxyairline.android.model.User;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written adapter for {@link User}, used for API responses and the persisted session.
+ */
+public class UserTypeAdapter extends TypeAdapter<User> {
+
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        JsonFields.write(out, "id", user.getId());
+        JsonFields.write(out, "email", user.getEmail());
+        JsonFields.write(out, "name", user.getName());
+        JsonFields.write(out, "role", user.getRole());
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    user.setId(in.nextString());
+                    break;
+                case "email":
+                    user.setEmail(in.nextString());
+                    break;
+                case "name":
+                    user.setName(in.nextString());
+                    break;
+                case "role":
+                    user.setRole(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
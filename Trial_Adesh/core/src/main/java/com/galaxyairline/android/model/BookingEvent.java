@@ -0,0 +1,103 @@
+package com.galaxyairline.android.model;
+
+public class BookingEvent {
+    public static final String CREATED = "created";
+    public static final String CANCELLED = "cancelled";
+
+    private long seq;
+    private String type;
+    private String bookingId;
+    private String flightId;
+    private String flightNumber;
+    private String classType;
+    private int seats;
+    private double totalPrice;
+
+    // Constructors
+    public BookingEvent() {}
+
+    public BookingEvent(long seq, String type, String bookingId, String flightNumber, String classType,
+                        int seats, double totalPrice) {
+        this(seq, type, bookingId, null, flightNumber, classType, seats, totalPrice);
+    }
+
+    public BookingEvent(long seq, String type, String bookingId, String flightId, String flightNumber,
+                        String classType, int seats, double totalPrice) {
+        this.seq = seq;
+        this.type = type;
+        this.bookingId = bookingId;
+        this.flightId = flightId;
+        this.flightNumber = flightNumber;
+        this.classType = classType;
+        this.seats = seats;
+        this.totalPrice = totalPrice;
+    }
+
+    // Getters and setters
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    /**
+     * Catalog id of the booked flight; null in events logged before ids were recorded.
+     */
+    public String getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(String flightId) {
+        this.flightId = flightId;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public String getClassType() {
+        return classType;
+    }
+
+    public void setClassType(String classType) {
+        this.classType = classType;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public void setSeats(int seats) {
+        this.seats = seats;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+}
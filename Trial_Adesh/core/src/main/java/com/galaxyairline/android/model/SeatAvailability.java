@@ -0,0 +1,55 @@
+package com.galaxyairline.android.model;
+
+/**
+ * Current seat counts for one flight, as pushed by the availability stream. A null
+ * count means the flight doesn't sell that class.
+ */
+public class SeatAvailability {
+    private String id;
+    private Integer economy;
+    private Integer business;
+    private Integer first;
+
+    // Constructors
+    public SeatAvailability() {}
+
+    public SeatAvailability(String id, Integer economy, Integer business, Integer first) {
+        this.id = id;
+        this.economy = economy;
+        this.business = business;
+        this.first = first;
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Integer getEconomy() {
+        return economy;
+    }
+
+    public void setEconomy(Integer economy) {
+        this.economy = economy;
+    }
+
+    public Integer getBusiness() {
+        return business;
+    }
+
+    public void setBusiness(Integer business) {
+        this.business = business;
+    }
+
+    public Integer getFirst() {
+        return first;
+    }
+
+    public void setFirst(Integer first) {
+        this.first = first;
+    }
+}
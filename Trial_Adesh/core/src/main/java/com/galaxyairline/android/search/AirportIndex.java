@@ -0,0 +1,293 @@
+package com.galaxyairline.android.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prefix index over airport codes, city names, airport names and aliases, used for
+ * autocomplete. All keys live in one sorted array, so a keystroke is a binary
+ * search plus a scan over the matching range. {@link #suggest} writes into a
+ * caller-owned buffer and doesn't allocate for plain ASCII input.
+ */
+public class AirportIndex {
+    public static final AirportIndex EMPTY = new AirportIndex(new ArrayList<String[]>());
+
+    // Match kinds, best first; a suggestion's score is kind * airportCount + airport rank
+    private static final int EXACT_CODE = 0;
+    private static final int PRIMARY = 1;
+    private static final int SECONDARY = 2;
+
+    private final String[] codes;
+    private final String[] cities;
+    private final String[] names;
+    private final String[] labels;
+    private final Map<String, Integer> airportsByCode = new HashMap<>();
+
+    private final String[] keys;
+    private final int[] keyAirports;
+    private final boolean[] keyIsCode;
+    private final boolean[] keyIsPrimary;
+
+    private AirportIndex(List<String[]> rows) {
+        int count = rows.size();
+        codes = new String[count];
+        cities = new String[count];
+        names = new String[count];
+        labels = new String[count];
+
+        List<Key> keyList = new ArrayList<>();
+        for (int airport = 0; airport < count; airport++) {
+            String[] row = rows.get(airport);
+            codes[airport] = row[0];
+            cities[airport] = row[1];
+            names[airport] = row[2];
+            // Same "City (CODE)" form the search screen and FlightSearchIndex understand
+            labels[airport] = row[1] + " (" + row[0] + ")";
+            if (!airportsByCode.containsKey(row[0])) {
+                airportsByCode.put(row[0], airport);
+            }
+
+            keyList.add(new Key(normalize(row[0]), airport, true, true));
+            addPhrase(keyList, row[1], airport, true);
+            addPhrase(keyList, row[2], airport, false);
+            if (!row[3].isEmpty()) {
+                for (String alias : row[3].split("\\|")) {
+                    addPhrase(keyList, alias, airport, false);
+                }
+            }
+        }
+
+        Key[] sorted = keyList.toArray(new Key[0]);
+        Arrays.sort(sorted, (a, b) -> a.text.compareTo(b.text));
+        keys = new String[sorted.length];
+        keyAirports = new int[sorted.length];
+        keyIsCode = new boolean[sorted.length];
+        keyIsPrimary = new boolean[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].text;
+            keyAirports[i] = sorted[i].airport;
+            keyIsCode[i] = sorted[i].code;
+            keyIsPrimary[i] = sorted[i].primary;
+        }
+    }
+
+    /**
+     * Reads {@code code,city,airport name,aliases} rows, busiest airport first.
+     * Aliases are separated by '|'; blank lines and lines starting with '#' are skipped.
+     */
+    public static AirportIndex read(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        List<String[]> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", 4);
+            if (fields.length < 3 || fields[0].trim().length() != 3) {
+                continue;
+            }
+            rows.add(new String[] {
+                    fields[0].trim().toUpperCase(Locale.US),
+                    fields[1].trim(),
+                    fields[2].trim(),
+                    fields.length > 3 ? fields[3].trim() : ""
+            });
+        }
+        return new AirportIndex(rows);
+    }
+
+    /**
+     * Fills {@code out} with up to {@code out.length} airports whose code, city,
+     * name or alias starts with {@code query}, best match first, and returns how
+     * many were written. An exact code match ranks first, then code and city
+     * prefixes, then everything else; ties go to the busier airport. The query
+     * is matched without case or accents, the same way the keys were stored.
+     */
+    public int suggest(CharSequence query, int[] out) {
+        if (query == null || out.length == 0) {
+            return 0;
+        }
+        int start = 0;
+        int end = query.length();
+        while (start < end && Character.isWhitespace(query.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(query.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+        if (!isAscii(query, start, end)) {
+            // Keys are stored without accents, so fold an accented query the same way first
+            query = normalize(query.subSequence(start, end).toString());
+            start = 0;
+            end = query.length();
+            if (end == 0) {
+                return 0;
+            }
+        }
+
+        // Scores are kept in out while collecting, then converted to airport ranks in place
+        int found = 0;
+        int airportCount = codes.length;
+        for (int i = lowerBound(query, start, end); i < keys.length && comparePrefix(keys[i], query, start, end) == 0; i++) {
+            int kind;
+            if (keyIsCode[i] && keys[i].length() == end - start) {
+                kind = EXACT_CODE;
+            } else {
+                kind = keyIsPrimary[i] ? PRIMARY : SECONDARY;
+            }
+            found = offer(out, found, kind * airportCount + keyAirports[i], airportCount);
+        }
+        for (int i = 0; i < found; i++) {
+            out[i] %= airportCount;
+        }
+        return found;
+    }
+
+    // Keeps out[0..found) sorted ascending by score with at most one entry per airport
+    private static int offer(int[] out, int found, int score, int airportCount) {
+        int airport = score % airportCount;
+        for (int i = 0; i < found; i++) {
+            if (out[i] % airportCount == airport) {
+                if (out[i] <= score) {
+                    return found;
+                }
+                // Better match for an airport already listed - drop the old entry
+                System.arraycopy(out, i + 1, out, i, found - i - 1);
+                found--;
+                break;
+            }
+        }
+        if (found == out.length && score >= out[found - 1]) {
+            return found;
+        }
+        int position = found < out.length ? found : out.length - 1;
+        while (position > 0 && out[position - 1] > score) {
+            out[position] = out[position - 1];
+            position--;
+        }
+        out[position] = score;
+        return found < out.length ? found + 1 : found;
+    }
+
+    private int lowerBound(CharSequence query, int start, int end) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparePrefix(keys[mid], query, start, end) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isAscii(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Orders key against query[start, end); 0 means the key starts with the query
+    private static int comparePrefix(String key, CharSequence query, int start, int end) {
+        int length = end - start;
+        int shared = Math.min(key.length(), length);
+        for (int i = 0; i < shared; i++) {
+            int diff = key.charAt(i) - Character.toLowerCase(query.charAt(start + i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return key.length() < length ? -1 : 0;
+    }
+
+    /**
+     * Airport rank for an IATA code, or -1.
+     */
+    public int findCode(String code) {
+        Integer airport = code != null ? airportsByCode.get(code.trim().toUpperCase(Locale.US)) : null;
+        return airport != null ? airport : -1;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String getCode(int airport) {
+        return codes[airport];
+    }
+
+    public String getCity(int airport) {
+        return cities[airport];
+    }
+
+    public String getName(int airport) {
+        return names[airport];
+    }
+
+    /**
+     * "Miami (MIA)".
+     */
+    public String getLabel(int airport) {
+        return labels[airport];
+    }
+
+    // Indexes the whole phrase plus each later word, so "york" finds New York
+    private static void addPhrase(List<Key> keys, String phrase, int airport, boolean primary) {
+        String normalized = normalize(phrase);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        keys.add(new Key(normalized, airport, false, primary));
+        for (int i = 1; i < normalized.length(); i++) {
+            char previous = normalized.charAt(i - 1);
+            if ((previous == ' ' || previous == '-' || previous == '/') && normalized.charAt(i) != ' ') {
+                keys.add(new Key(normalized.substring(i), airport, false, false));
+            }
+        }
+    }
+
+    // Lower case with accents stripped, so "cancun" matches the accented city name
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class Key {
+        final String text;
+        final int airport;
+        final boolean code;
+        final boolean primary;
+
+        Key(String text, int airport, boolean code, boolean primary) {
+            this.text = text;
+            this.airport = airport;
+            this.code = code;
+            this.primary = primary;
+        }
+    }
+}
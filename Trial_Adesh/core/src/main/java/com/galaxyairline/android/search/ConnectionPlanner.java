@@ -0,0 +1,297 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.catalog.FlightTimes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Finds direct, 1- and 2-connection itineraries over a {@link FlightTable}.
+ *
+ * The schedule is laid out as a time-expanded graph: every airport owns its
+ * departures sorted by time, and a connection edge exists from an arrival to any
+ * departure at that airport between the minimum and maximum connection time.
+ * Those edges are never materialised - each is a binary search into the
+ * airport's departure list. A bounded heap keeps the best {@code limit} results,
+ * and any partial itinerary already costing more than the worst of them is
+ * dropped, which keeps large schedules interactive.
+ */
+public class ConnectionPlanner {
+
+    public enum SortOrder {
+        DURATION,
+        PRICE
+    }
+
+    public static class Query {
+        String fromCode;
+        String toCode;
+        String date;
+        int classIndex = FlightTable.ECONOMY;
+        int seats = 1;
+        int maxConnections = 2;
+        int minConnectionMinutes = 45;
+        int maxConnectionMinutes = 12 * 60;
+        SortOrder sortOrder = SortOrder.DURATION;
+        int limit = 20;
+
+        public Query(String fromCode, String toCode, String date) {
+            this.fromCode = fromCode;
+            this.toCode = toCode;
+            this.date = date;
+        }
+
+        public Query classType(String classType) {
+            this.classIndex = FlightTable.classIndex(classType);
+            return this;
+        }
+
+        public Query seats(int seats) {
+            this.seats = seats;
+            return this;
+        }
+
+        public Query maxConnections(int maxConnections) {
+            this.maxConnections = Math.max(0, Math.min(2, maxConnections));
+            return this;
+        }
+
+        public Query connectionWindow(int minMinutes, int maxMinutes) {
+            this.minConnectionMinutes = minMinutes;
+            this.maxConnectionMinutes = maxMinutes;
+            return this;
+        }
+
+        public Query sortBy(SortOrder sortOrder) {
+            this.sortOrder = sortOrder;
+            return this;
+        }
+
+        public Query limit(int limit) {
+            this.limit = Math.max(1, limit);
+            return this;
+        }
+    }
+
+    private final FlightTable table;
+    // Departures grouped by origin airport (CSR layout), each group sorted by departure minute
+    private final int[] airportStart;
+    private final int[] departuresByAirport;
+    private final int[] departureMinutes;
+
+    public ConnectionPlanner(FlightTable table) {
+        this.table = table;
+
+        int airports = table.airportCount();
+        int[] counts = new int[airports + 1];
+        int usable = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if (isSchedulable(row)) {
+                counts[table.getFromAirport(row) + 1]++;
+                usable++;
+            }
+        }
+        airportStart = new int[airports + 1];
+        for (int airport = 0; airport < airports; airport++) {
+            airportStart[airport + 1] = airportStart[airport] + counts[airport + 1];
+        }
+
+        // Packed as (departure minute << 32 | row) so each group sorts as primitives
+        long[] order = new long[usable];
+        int[] fill = new int[airports];
+        for (int row = 0; row < table.size(); row++) {
+            if (isSchedulable(row)) {
+                int airport = table.getFromAirport(row);
+                order[airportStart[airport] + fill[airport]++] = ((long) table.getDepartureMinute(row) << 32) | row;
+            }
+        }
+        for (int airport = 0; airport < airports; airport++) {
+            Arrays.sort(order, airportStart[airport], airportStart[airport + 1]);
+        }
+        departuresByAirport = new int[usable];
+        departureMinutes = new int[usable];
+        for (int i = 0; i < usable; i++) {
+            departuresByAirport[i] = (int) order[i];
+            departureMinutes[i] = (int) (order[i] >>> 32);
+        }
+    }
+
+    private ConnectionPlanner(FlightTable table, int[] airportStart, int[] departuresByAirport, int[] departureMinutes) {
+        this.table = table;
+        this.airportStart = airportStart;
+        this.departuresByAirport = departuresByAirport;
+        this.departureMinutes = departureMinutes;
+    }
+
+    /**
+     * The same planner over {@code table}, which must have this planner's rows, airports
+     * and times with only seat counts changed, as from {@link FlightTable#withSeatCounts()}.
+     * The departure graph is shared rather than rebuilt.
+     */
+    public ConnectionPlanner withTable(FlightTable table) {
+        if (table.size() != this.table.size()) {
+            throw new IllegalArgumentException("Planned over " + this.table.size() + " rows, got " + table.size());
+        }
+        return new ConnectionPlanner(table, airportStart, departuresByAirport, departureMinutes);
+    }
+
+    /**
+     * Itineraries departing on the query date, best first by the requested order.
+     */
+    public List<Itinerary> plan(Query query) {
+        int origin = table.findAirport(query.fromCode);
+        int destination = table.findAirport(query.toCode);
+        int day = FlightTimes.parseEpochDay(query.date);
+        if (origin < 0 || destination < 0 || origin == destination || day == FlightTimes.INVALID) {
+            return Collections.emptyList();
+        }
+
+        Search search = new Search(query, origin, destination);
+        int dayStart = day * FlightTimes.MINUTES_PER_DAY;
+        int end = airportStart[origin + 1];
+        for (int i = firstDepartureAtOrAfter(origin, dayStart); i < end; i++) {
+            if (departureMinutes[i] >= dayStart + FlightTimes.MINUTES_PER_DAY) {
+                break;
+            }
+            int row = departuresByAirport[i];
+            if (hasSeats(row, query)) {
+                search.extend(row, 0, 0, 0L);
+            }
+        }
+        return search.results();
+    }
+
+    private boolean isSchedulable(int row) {
+        return table.getFromAirport(row) > 0 && table.getToAirport(row) > 0
+                && table.getDepartureMinute(row) != FlightTimes.INVALID
+                && table.getDurationMinutes(row) >= 0;
+    }
+
+    private boolean hasSeats(int row, Query query) {
+        return table.hasClass(row, query.classIndex) && table.getAvailable(row, query.classIndex) >= query.seats;
+    }
+
+    // Local arrival time at the destination airport, comparable with departures from there
+    private int arrivalMinute(int row) {
+        int arrival = table.getArrivalMinute(row);
+        return arrival != FlightTimes.INVALID ? arrival : table.getDepartureMinute(row) + table.getDurationMinutes(row);
+    }
+
+    private int firstDepartureAtOrAfter(int airport, int minute) {
+        int low = airportStart[airport];
+        int high = airportStart[airport + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departureMinutes[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private class Search {
+        final Query query;
+        final int origin;
+        final int destination;
+        final int[] path = new int[3];
+        final PriorityQueue<Itinerary> best;
+        final Comparator<Itinerary> order;
+
+        Search(Query query, int origin, int destination) {
+            this.query = query;
+            this.origin = origin;
+            this.destination = destination;
+            Comparator<Itinerary> byDuration = (a, b) -> Integer.compare(a.getTotalMinutes(), b.getTotalMinutes());
+            Comparator<Itinerary> byPrice = (a, b) -> Long.compare(a.getTotalPriceCents(), b.getTotalPriceCents());
+            order = query.sortOrder == SortOrder.PRICE
+                    ? chain(byPrice, byDuration)
+                    : chain(byDuration, byPrice);
+            // Worst result on top so it can be evicted
+            best = new PriorityQueue<>(query.limit + 1, Collections.reverseOrder(order));
+        }
+
+        /**
+         * Adds {@code row} as leg number {@code depth}; elapsed covers all earlier
+         * legs and layovers, and grows with every leg so it is a valid lower bound.
+         */
+        void extend(int row, int depth, int elapsedBeforeLeg, long priceBeforeLeg) {
+            path[depth] = row;
+            int elapsed = elapsedBeforeLeg + table.getDurationMinutes(row);
+            long price = priceBeforeLeg + table.getPriceCents(row, query.classIndex);
+            if (isPruned(elapsed, price)) {
+                return;
+            }
+
+            int at = table.getToAirport(row);
+            if (at == destination) {
+                int[] rows = new int[depth + 1];
+                System.arraycopy(path, 0, rows, 0, depth + 1);
+                offer(new Itinerary(table, rows, elapsed, price));
+                return;
+            }
+            if (depth >= query.maxConnections || at == origin || visited(at, depth)) {
+                return;
+            }
+
+            int arrival = arrivalMinute(row);
+            int earliest = arrival + query.minConnectionMinutes;
+            int latest = arrival + query.maxConnectionMinutes;
+            int end = airportStart[at + 1];
+            for (int i = firstDepartureAtOrAfter(at, earliest); i < end && departureMinutes[i] <= latest; i++) {
+                int next = departuresByAirport[i];
+                if (hasSeats(next, query)) {
+                    int layover = departureMinutes[i] - arrival;
+                    extend(next, depth + 1, elapsed + layover, price);
+                }
+            }
+        }
+
+        // Airports already passed through on this path, to avoid A-B-A-C loops
+        boolean visited(int airport, int depth) {
+            for (int i = 0; i < depth; i++) {
+                if (table.getToAirport(path[i]) == airport) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isPruned(int elapsed, long price) {
+            if (best.size() < query.limit) {
+                return false;
+            }
+            Itinerary worst = best.peek();
+            if (query.sortOrder == SortOrder.PRICE) {
+                return price > worst.getTotalPriceCents();
+            }
+            return elapsed > worst.getTotalMinutes();
+        }
+
+        void offer(Itinerary itinerary) {
+            best.offer(itinerary);
+            if (best.size() > query.limit) {
+                best.poll();
+            }
+        }
+
+        List<Itinerary> results() {
+            List<Itinerary> results = new ArrayList<>(best);
+            Collections.sort(results, order);
+            return results;
+        }
+    }
+
+    private static Comparator<Itinerary> chain(Comparator<Itinerary> first, Comparator<Itinerary> second) {
+        return (a, b) -> {
+            int result = first.compare(a, b);
+            return result != 0 ? result : second.compare(a, b);
+        };
+    }
+}
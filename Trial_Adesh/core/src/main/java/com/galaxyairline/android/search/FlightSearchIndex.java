@@ -0,0 +1,188 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable client-side index over the cached catalog, keyed by
+ * (fromCode, toCode, date). A lookup is one hash probe plus a scan of that
+ * route-day's flights, so its cost doesn't grow with the size of the catalog.
+ * Airport codes and city names match case-insensitively; dates match exactly.
+ * A flight id listed twice is indexed once, with its first entry, as in
+ * FlightTable. Buckets hold positions in the indexed list rather than the
+ * flights themselves, so a catalog whose seat counts changed but whose rows
+ * didn't can reuse them through {@link #withFlights(List)}; any other change
+ * needs a rebuild.
+ */
+public class FlightSearchIndex {
+    public static final FlightSearchIndex EMPTY = new FlightSearchIndex(Collections.<Flight>emptyList(),
+            Collections.<String, int[]>emptyMap(), Collections.<String, String>emptyMap(), 0);
+
+    private final List<Flight> flights;
+    private final Map<String, int[]> byRouteAndDate;
+    private final Map<String, String> codesByCity;
+    private final int size;
+
+    private FlightSearchIndex(List<Flight> flights, Map<String, int[]> byRouteAndDate,
+                              Map<String, String> codesByCity, int size) {
+        this.flights = flights;
+        this.byRouteAndDate = byRouteAndDate;
+        this.codesByCity = codesByCity;
+        this.size = size;
+    }
+
+    public static FlightSearchIndex build(List<Flight> flights) {
+        if (flights == null || flights.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, List<Integer>> buckets = new HashMap<>();
+        Map<String, String> codesByCity = new HashMap<>();
+        Set<String> seenIds = new HashSet<>(flights.size() * 4 / 3 + 1);
+        int indexed = 0;
+        for (int position = 0; position < flights.size(); position++) {
+            Flight flight = flights.get(position);
+            if (flight.getFromCode() == null || flight.getToCode() == null || flight.getDate() == null) {
+                continue;
+            }
+            if (flight.getId() != null && !seenIds.add(flight.getId())) {
+                continue;
+            }
+            String key = key(flight.getFromCode(), flight.getToCode(), flight.getDate());
+            List<Integer> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new ArrayList<>(4);
+                buckets.put(key, bucket);
+            }
+            bucket.add(position);
+            indexed++;
+
+            rememberCity(codesByCity, flight.getFrom(), flight.getFromCode());
+            rememberCity(codesByCity, flight.getTo(), flight.getToCode());
+        }
+
+        Comparator<Integer> byDeparture = (a, b) ->
+                compareNullable(flights.get(a).getDeparture(), flights.get(b).getDeparture());
+        Map<String, int[]> byRouteAndDate = new HashMap<>(buckets.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<Integer>> entry : buckets.entrySet()) {
+            List<Integer> bucket = entry.getValue();
+            Collections.sort(bucket, byDeparture);
+            int[] positions = new int[bucket.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = bucket.get(i);
+            }
+            byRouteAndDate.put(entry.getKey(), positions);
+        }
+        return new FlightSearchIndex(flights, byRouteAndDate, codesByCity, indexed);
+    }
+
+    /**
+     * The same index over {@code flights}, which must hold the indexed flights at the
+     * same positions with the same routes, dates and departure times; only seat counts
+     * may differ, as after {@link com.galaxyairline.android.catalog.AvailabilityPatch}.
+     * Costs nothing per flight: the buckets and city lookup are shared.
+     */
+    public FlightSearchIndex withFlights(List<Flight> flights) {
+        if (flights.size() != this.flights.size()) {
+            throw new IllegalArgumentException("Indexed " + this.flights.size() + " flights, got " + flights.size());
+        }
+        return new FlightSearchIndex(flights, byRouteAndDate, codesByCity, size);
+    }
+
+    /**
+     * Flights on the requested route and departure date with enough seats in the
+     * requested class for every passenger, ordered by departure time.
+     */
+    public List<Flight> search(FlightSearchData query) {
+        String fromCode = resolveAirportCode(query.getFrom());
+        String toCode = resolveAirportCode(query.getTo());
+        if (fromCode == null || toCode == null || query.getDepartDate() == null) {
+            return Collections.emptyList();
+        }
+
+        int[] bucket = byRouteAndDate.get(key(fromCode, toCode, query.getDepartDate().trim()));
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+
+        int seatsNeeded = query.getPassengers() != null ? query.getPassengers().getTotal() : 1;
+        List<Flight> results = new ArrayList<>(bucket.length);
+        for (int position : bucket) {
+            Flight flight = flights.get(position);
+            Flight.ClassInfo classInfo = classInfo(flight, query.getClassType());
+            if (classInfo != null && classInfo.getAvailable() >= seatsNeeded) {
+                results.add(flight);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Accepts an IATA code ("MIA"), a city name ("Miami") or the "Miami (MIA)"
+     * form the search screen pre-fills. Returns null when nothing matches.
+     */
+    public String resolveAirportCode(String input) {
+        if (input == null) {
+            return null;
+        }
+        String trimmed = input.trim();
+        int open = trimmed.lastIndexOf('(');
+        int close = trimmed.lastIndexOf(')');
+        if (open >= 0 && close > open + 1) {
+            return trimmed.substring(open + 1, close).trim().toUpperCase(Locale.US);
+        }
+
+        String code = codesByCity.get(trimmed.toLowerCase(Locale.US));
+        if (code != null) {
+            return code;
+        }
+        if (trimmed.length() == 3) {
+            return trimmed.toUpperCase(Locale.US);
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    static Flight.ClassInfo classInfo(Flight flight, String classType) {
+        if ("business".equals(classType)) {
+            return flight.getBusiness();
+        } else if ("first".equals(classType)) {
+            return flight.getFirst();
+        }
+        return flight.getEconomy();
+    }
+
+    private static String key(String fromCode, String toCode, String date) {
+        return fromCode.toUpperCase(Locale.US) + '|' + toCode.toUpperCase(Locale.US) + '|' + date;
+    }
+
+    private static void rememberCity(Map<String, String> codesByCity, String city, String code) {
+        if (city != null && !codesByCity.containsKey(city.toLowerCase(Locale.US))) {
+            codesByCity.put(city.toLowerCase(Locale.US), code.toUpperCase(Locale.US));
+        }
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (a == null) {
+            return b == null ? 0 : 1;
+        }
+        return b == null ? -1 : a.compareTo(b);
+    }
+}
@@ -0,0 +1,73 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.model.Flight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One to three legs from {@link ConnectionPlanner}, referencing rows of the
+ * FlightTable it was planned against.
+ */
+public class Itinerary {
+    private final FlightTable table;
+    private final int[] rows;
+    private final int totalMinutes;
+    private final long totalPriceCents;
+
+    Itinerary(FlightTable table, int[] rows, int totalMinutes, long totalPriceCents) {
+        this.table = table;
+        this.rows = rows;
+        this.totalMinutes = totalMinutes;
+        this.totalPriceCents = totalPriceCents;
+    }
+
+    public List<Flight> getFlights() {
+        List<Flight> flights = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            flights.add(table.view(row));
+        }
+        return flights;
+    }
+
+    public int getLegCount() {
+        return rows.length;
+    }
+
+    public int getConnections() {
+        return rows.length - 1;
+    }
+
+    /**
+     * Door-to-door minutes: flight durations plus time spent waiting between legs.
+     */
+    public int getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    /**
+     * Fare per passenger across every leg.
+     */
+    public double getTotalPrice() {
+        return totalPriceCents / 100.0;
+    }
+
+    long getTotalPriceCents() {
+        return totalPriceCents;
+    }
+
+    /**
+     * Same labels the catalog uses for Flight.stops.
+     */
+    public String getStopsLabel() {
+        switch (getConnections()) {
+            case 0:
+                return "non-stop";
+            case 1:
+                return "1-stop";
+            default:
+                return getConnections() + "-stops";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.catalog.FlightTimes;
+import com.galaxyairline.android.model.Flight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sorts and filters a result list for the results screen.
+ *
+ * Each flight's sort key is parsed once up front rather than inside the
+ * comparator, so re-sorting a few thousand results is a primitive sort over
+ * packed keys instead of O(n log n) string parses. Runs off the UI thread.
+ */
+public final class ResultOrdering {
+    public enum Sort {
+        PRICE, DEPARTURE, DURATION
+    }
+
+    private ResultOrdering() {}
+
+    /**
+     * Returns a new list; {@code flights} is left untouched. Flights with no usable
+     * key (missing price or unparseable times) go last; ties keep their input order.
+     */
+    public static List<Flight> apply(List<Flight> flights, Sort sort, String classType, boolean nonstopOnly) {
+        int size = flights.size();
+        long[] keyed = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Flight flight = flights.get(i);
+            if (nonstopOnly && !isNonstop(flight)) {
+                continue;
+            }
+            // High 32 bits hold the key, low 32 the input position, so one sort orders by both
+            keyed[count++] = ((long) key(flight, sort, classType) << 32) | i;
+        }
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+
+        Arrays.sort(keyed, 0, count);
+        List<Flight> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(flights.get((int) keyed[i]));
+        }
+        return result;
+    }
+
+    static boolean isNonstop(Flight flight) {
+        String stops = flight.getStops();
+        if (stops == null || stops.trim().isEmpty()) {
+            return true;
+        }
+        String normalized = stops.trim().toLowerCase(Locale.US);
+        return normalized.startsWith("non") || normalized.equals("0") || normalized.startsWith("direct");
+    }
+
+    // Non-negative keys only, so the packed value sorts the same as the key
+    private static int key(Flight flight, Sort sort, String classType) {
+        switch (sort) {
+            case PRICE:
+                Flight.ClassInfo classInfo = FlightSearchIndex.classInfo(flight, classType);
+                if (classInfo == null) {
+                    return Integer.MAX_VALUE;
+                }
+                return (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(classInfo.getPrice() * 100)));
+            case DEPARTURE:
+                return orLast(FlightTimes.parseClock(flight.getDeparture()));
+            case DURATION:
+                return orLast(FlightTimes.parseDuration(flight.getDuration()));
+            default:
+                return 0;
+        }
+    }
+
+    private static int orLast(int value) {
+        return value == FlightTimes.INVALID || value < 0 ? Integer.MAX_VALUE : value;
+    }
+}
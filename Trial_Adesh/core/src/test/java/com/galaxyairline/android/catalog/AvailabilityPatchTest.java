@@ -0,0 +1,110 @@
+package com.galaxyairline.android.catalog;
+
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.SeatAvailability;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AvailabilityPatchTest {
+
+    @Test
+    public void changedFlightsAreReplacedByCopies() {
+        List<Flight> catalog = Arrays.asList(flight("GA001"), flight("GA002"), flight("GA003"));
+        Flight original = catalog.get(1);
+
+        List<Flight> patched = AvailabilityPatch.apply(catalog, Arrays.asList(
+                new SeatAvailability("GA002", 7, 3, null),
+                new SeatAvailability("missing", 1, 1, 1)));
+
+        assertNotSame(catalog, patched);
+        assertSame(catalog.get(0), patched.get(0));
+        assertSame(catalog.get(2), patched.get(2));
+        assertNotSame(original, patched.get(1));
+        assertEquals(7, patched.get(1).getEconomy().getAvailable());
+        assertEquals(3, patched.get(1).getBusiness().getAvailable());
+        assertEquals(8, patched.get(1).getFirst().getAvailable());
+        assertEquals(1599, patched.get(1).getFirst().getPrice(), 0);
+        assertEquals("GA002", patched.get(1).getFlightNumber());
+        // The published list and its flights are never touched
+        assertEquals(120, original.getEconomy().getAvailable());
+    }
+
+    @Test
+    public void unchangedCountsKeepTheSameList() {
+        List<Flight> catalog = Collections.singletonList(flight("GA001"));
+
+        assertSame(catalog, AvailabilityPatch.apply(catalog, Collections.singletonList(
+                new SeatAvailability("GA001", 120, 24, 8))));
+        assertSame(catalog, AvailabilityPatch.apply(catalog, Collections.<SeatAvailability>emptyList()));
+    }
+
+    @Test
+    public void classesTheFlightDoesNotSellStayAbsent() {
+        Flight flight = flight("GA001");
+        flight.setFirst(null);
+
+        List<Flight> patched = AvailabilityPatch.apply(Collections.singletonList(flight),
+                Collections.singletonList(new SeatAvailability("GA001", 100, null, 4)));
+
+        assertEquals(100, patched.get(0).getEconomy().getAvailable());
+        assertNull(patched.get(0).getFirst());
+    }
+
+    @Test
+    public void tableSeatsArePatchedIntoACopy() {
+        List<Flight> catalog = new ArrayList<>(Arrays.asList(flight("GA001"), flight("GA002")));
+        FlightTable table = FlightTable.fromFlights(catalog);
+        Flight before = table.asList().get(1);
+
+        FlightTable patched = AvailabilityPatch.apply(table, Arrays.asList(
+                new SeatAvailability("GA002", 0, null, 2),
+                new SeatAvailability(null, 5, 5, 5)));
+
+        assertNotSame(table, patched);
+        int row = patched.findRow("GA002");
+        assertEquals(0, patched.getAvailable(row, FlightTable.ECONOMY));
+        assertEquals(24, patched.getAvailable(row, FlightTable.BUSINESS));
+        assertEquals(2, patched.getAvailable(row, FlightTable.FIRST));
+        assertEquals(120, patched.getAvailable(patched.findRow("GA001"), FlightTable.ECONOMY));
+        // Views already handed out over the old table keep their seat counts
+        assertEquals(120, table.getAvailable(row, FlightTable.ECONOMY));
+        assertEquals(120, before.getEconomy().getAvailable());
+        assertEquals("GA002", patched.getId(row));
+    }
+
+    @Test
+    public void unchangedTableSeatsReturnTheSameTable() {
+        FlightTable table = FlightTable.fromFlights(Arrays.asList(flight("GA001")));
+
+        assertSame(table, AvailabilityPatch.apply(table, Arrays.asList(
+                new SeatAvailability("GA001", 120, 24, 8),
+                new SeatAvailability("GA404", 1, 1, 1))));
+    }
+
+    private static Flight flight(String id) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(id);
+        flight.setFrom("New York");
+        flight.setTo("Los Angeles");
+        flight.setFromCode("JFK");
+        flight.setToCode("LAX");
+        flight.setDate("2024-01-15");
+        flight.setDeparture("08:00");
+        flight.setArrival("11:30");
+        flight.setDuration("5h 30m");
+        flight.setAircraft("Boeing 737");
+        flight.setStops("non-stop");
+        flight.setEconomy(new Flight.ClassInfo(299, 120));
+        flight.setBusiness(new Flight.ClassInfo(899, 24));
+        flight.setFirst(new Flight.ClassInfo(1599, 8));
+        return flight;
+    }
+}
@@ -0,0 +1,182 @@
+package com.galaxyairline.android.catalog;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Flight;
+import com.google.gson.Gson;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class CatalogSnapshotTest {
+    private static final String[][] AIRPORTS = {
+        {"New York", "JFK"}, {"Los Angeles", "LAX"}, {"Miami", "MIA"}, {"Chicago", "ORD"},
+        {"S\u00e3o Paulo", "GRU"}, {"Z\u00fcrich", "ZRH"}
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsBackTheWrittenFlights() throws Exception {
+        List<Flight> flights = sampleFlights(1000);
+        File file = folder.newFile("catalog.snapshot");
+        CatalogSnapshot.write(flights, 42, file);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        FlightTable table = FlightTable.fromFlights(flights);
+        Gson gson = GsonProvider.get();
+
+        assertEquals(42, snapshot.getCatalogVersion());
+        assertEquals(flights.size(), snapshot.size());
+        for (int row = 0; row < flights.size(); row++) {
+            assertEquals(gson.toJson(table.view(row), Flight.class), gson.toJson(snapshot.getFlight(row), Flight.class));
+            assertEquals(table.getDepartureMinute(row), snapshot.getDepartureMinute(row));
+            assertEquals(table.getPriceCents(row, FlightTable.BUSINESS), snapshot.getPriceCents(row, FlightTable.BUSINESS));
+        }
+    }
+
+    @Test
+    public void lookupsPagesAndMissingValues() throws Exception {
+        List<Flight> flights = sampleFlights(300);
+        flights.get(7).setFirst(null);
+        flights.get(8).setAircraft(null);
+        flights.get(9).setDeparture("soon");
+        flights.add(sampleFlights(1).get(0)); // duplicate id: the first row wins, as in FlightTable
+        File file = folder.newFile("catalog.snapshot");
+        CatalogSnapshot.write(flights, 1, file);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(123, snapshot.findRow("GA00123"));
+        assertEquals(0, snapshot.findRow("GA00000"));
+        assertEquals(-1, snapshot.findRow("missing"));
+        assertFalse(snapshot.hasClass(7, FlightTable.FIRST));
+        assertNull(snapshot.getFlight(7).getFirst());
+        assertNull(snapshot.getAircraft(8));
+        assertEquals("soon", snapshot.getFlight(9).getDeparture());
+        assertEquals(FlightTimes.INVALID, snapshot.getDepartureMinute(9));
+        assertEquals("S\u00e3o Paulo", snapshot.getFrom(4));
+
+        List<Flight> page = snapshot.getFlights(290, 50);
+        assertEquals(11, page.size());
+        assertEquals("GA00290", page.get(0).getId());
+    }
+
+    @Test
+    public void tableBuiltFromSnapshotMatchesTableBuiltFromFlights() throws Exception {
+        List<Flight> flights = sampleFlights(500);
+        flights.get(3).setFirst(null);
+        flights.get(4).setAircraft(null);
+        flights.get(5).setDeparture("soon");
+        flights.get(6).setFlightNumber("GA-SPECIAL");
+        flights.add(sampleFlights(1).get(0)); // duplicate id
+        File file = folder.newFile("catalog.snapshot");
+        CatalogSnapshot.write(flights, 3, file);
+
+        FlightTable expected = FlightTable.fromFlights(flights);
+        FlightTable table = FlightTable.fromSnapshot(CatalogSnapshot.open(file));
+        Gson gson = GsonProvider.get();
+
+        assertEquals(expected.size(), table.size());
+        for (int row = 0; row < table.size(); row++) {
+            assertEquals(gson.toJson(expected.view(row), Flight.class), gson.toJson(table.view(row), Flight.class));
+            assertEquals(expected.getArrivalMinute(row), table.getArrivalMinute(row));
+            assertEquals(expected.getDurationMinutes(row), table.getDurationMinutes(row));
+            assertEquals(expected.findRow(table.getId(row)), table.findRow(table.getId(row)));
+        }
+        assertEquals(expected.airportCount(), table.airportCount());
+        assertEquals(expected.getFromAirport(1) == expected.getToAirport(0), table.getFromAirport(1) == table.getToAirport(0));
+        assertSame(table.getId(0), table.getFlightNumber(0));
+        assertEquals(0, table.findRow("GA00000"));
+        // An unparseable departure time loses the time, not the date
+        assertEquals(flights.get(5).getDate(), table.view(5).getDate());
+        assertNull(table.view(5).getDeparture());
+    }
+
+    @Test
+    public void emptyCatalog() throws Exception {
+        File file = folder.newFile("catalog.snapshot");
+        CatalogSnapshot.write(Collections.<Flight>emptyList(), 0, file);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(0, snapshot.size());
+        assertEquals(-1, snapshot.findRow("GA00000"));
+        assertTrue(snapshot.getFlights(0, 20).isEmpty());
+    }
+
+    @Test
+    public void mappedSnapshotSurvivesReplacement() throws Exception {
+        File file = folder.newFile("catalog.snapshot");
+        CatalogSnapshot.write(sampleFlights(50), 1, file);
+        CatalogSnapshot old = CatalogSnapshot.open(file);
+
+        CatalogSnapshot.write(sampleFlights(10), 2, file);
+
+        assertEquals(50, old.size());
+        assertEquals("GA00049", old.getId(49));
+        assertEquals(10, CatalogSnapshot.open(file).size());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void truncatedFileIsRejected() throws Exception {
+        File file = folder.newFile("catalog.snapshot");
+        CatalogSnapshot.write(sampleFlights(100), 1, file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 100);
+        }
+
+        try {
+            CatalogSnapshot.open(file);
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFilesAreRejected() throws Exception {
+        File file = folder.newFile("catalog.snapshot");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write("{\"flights\":[]}                                      ".getBytes("UTF-8"));
+        }
+        CatalogSnapshot.open(file);
+    }
+
+    private static List<Flight> sampleFlights(int count) {
+        List<Flight> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] from = AIRPORTS[i % AIRPORTS.length];
+            String[] to = AIRPORTS[(i + 1) % AIRPORTS.length];
+            Flight flight = new Flight();
+            flight.setId(String.format(Locale.US, "GA%05d", i));
+            flight.setFlightNumber(flight.getId());
+            flight.setFrom(from[0]);
+            flight.setTo(to[0]);
+            flight.setFromCode(from[1]);
+            flight.setToCode(to[1]);
+            flight.setDeparture(String.format(Locale.US, "%02d:%02d", i % 24, (i * 5) % 60));
+            flight.setArrival(String.format(Locale.US, "%02d:%02d", (i + 4) % 24, (i * 5 + 30) % 60));
+            flight.setDuration((2 + i % 5) + "h " + (i % 2 == 0 ? "30m" : "15m"));
+            flight.setAircraft(i % 2 == 0 ? "Boeing 737" : "Airbus A320");
+            flight.setDate(String.format(Locale.US, "2024-%02d-%02d", 1 + i % 12, 1 + i % 28));
+            flight.setStops("non-stop");
+            flight.setEconomy(new Flight.ClassInfo(99 + i % 400, 150 - i % 150));
+            flight.setBusiness(new Flight.ClassInfo(599.5 + i % 700, i % 30));
+            flight.setFirst(new Flight.ClassInfo(1099 + i % 900, i % 12));
+            flights.add(flight);
+        }
+        return flights;
+    }
+}
@@ -0,0 +1,144 @@
+package com.galaxyairline.android.catalog;
+
+import com.galaxyairline.android.json.GsonProvider;
+import com.galaxyairline.android.model.Flight;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class FlightTableTest {
+    private static final String[][] AIRPORTS = {
+        {"New York", "JFK"}, {"Los Angeles", "LAX"}, {"Miami", "MIA"}, {"Chicago", "ORD"},
+        {"Seattle", "SEA"}, {"Boston", "BOS"}, {"Denver", "DEN"}, {"San Francisco", "SFO"}
+    };
+    private static final String[] AIRCRAFT = {"Boeing 737", "Boeing 777", "Airbus A320", "Airbus A321"};
+
+    @Test
+    public void viewsMatchSourceFlights() {
+        List<Flight> flights = sampleFlights(500);
+        FlightTable table = FlightTable.fromFlights(flights);
+        Gson gson = GsonProvider.get();
+
+        assertEquals(flights.size(), table.size());
+        for (int row = 0; row < flights.size(); row++) {
+            assertEquals(gson.toJson(flights.get(row), Flight.class), gson.toJson(table.view(row), Flight.class));
+        }
+        assertEquals(gson.toJson(flights), gson.toJson(table.asList()));
+    }
+
+    @Test
+    public void overnightArrivalAndLookups() {
+        Flight redEye = flight(0);
+        redEye.setDeparture("23:15");
+        redEye.setArrival("06:40");
+        FlightTable table = FlightTable.fromFlights(java.util.Collections.singletonList(redEye));
+
+        assertEquals(table.getDepartureMinute(0) + 7 * 60 + 25, table.getArrivalMinute(0));
+        assertEquals("06:40", table.view(0).getArrival());
+        assertEquals(0, table.findRow("GA00000"));
+        assertEquals(-1, table.findRow("missing"));
+
+        table.setAvailable(0, FlightTable.classIndex("business"), 3);
+        assertEquals(3, table.view(0).getBusiness().getAvailable());
+    }
+
+    @Test
+    public void freeTextDepartureKeepsTheDate() {
+        Flight flight = flight(0);
+        flight.setDeparture("morning");
+        FlightTable table = FlightTable.fromFlights(java.util.Collections.singletonList(flight));
+
+        assertEquals(FlightTimes.INVALID, table.getDepartureMinute(0));
+        assertEquals(FlightTimes.parseEpochDay(flight.getDate()), table.getDepartureDay(0));
+        assertEquals(flight.getDate(), table.view(0).getDate());
+        assertNull(table.view(0).getDeparture());
+        assertNull(table.view(0).getArrival());
+    }
+
+    @Test
+    public void builderMatchesFromFlightsAcrossGrowth() {
+        List<Flight> flights = sampleFlights(1000);
+        FlightTable.Builder builder = new FlightTable.Builder(3);
+        for (int start = 0; start < flights.size(); start += 200) {
+            builder.addAll(flights.subList(start, start + 200));
+        }
+        FlightTable built = builder.build();
+        Gson gson = GsonProvider.get();
+
+        assertEquals(flights.size(), built.size());
+        assertEquals(gson.toJson(FlightTable.fromFlights(flights).asList()), gson.toJson(built.asList()));
+        assertEquals(999, built.findRow("GA00999"));
+        assertEquals(0, new FlightTable.Builder().build().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void viewsAreReadOnly() {
+        FlightTable.fromFlights(sampleFlights(1)).view(0).setAircraft("Concorde");
+    }
+
+    @Test
+    public void tableUsesFractionOfObjectHeap() {
+        int count = 50_000;
+        long baseline = usedHeap();
+        List<Flight> flights = sampleFlights(count);
+        long objectBytes = usedHeap() - baseline;
+
+        FlightTable table = FlightTable.fromFlights(flights);
+        flights = null;
+        long tableBytes = usedHeap() - baseline;
+
+        assertEquals(count, table.size());
+        assertTrue(String.format(Locale.US, "table %d B/flight should be well under half of %d B/flight",
+                tableBytes / count, objectBytes / count), tableBytes * 2 < objectBytes);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Flight> sampleFlights(int count) {
+        List<Flight> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            flights.add(flight(i));
+        }
+        return flights;
+    }
+
+    // new String(...) so repeated values are distinct objects, as they are after JSON decoding
+    private static Flight flight(int i) {
+        String[] from = AIRPORTS[i % AIRPORTS.length];
+        String[] to = AIRPORTS[(i + 1 + (i / AIRPORTS.length) % (AIRPORTS.length - 1)) % AIRPORTS.length];
+        Flight flight = new Flight();
+        flight.setId(String.format(Locale.US, "GA%05d", i));
+        flight.setFlightNumber(new String(flight.getId()));
+        flight.setFrom(new String(from[0]));
+        flight.setTo(new String(to[0]));
+        flight.setFromCode(new String(from[1]));
+        flight.setToCode(new String(to[1]));
+        flight.setDeparture(String.format(Locale.US, "%02d:%02d", i % 24, (i * 5) % 60));
+        flight.setArrival(String.format(Locale.US, "%02d:%02d", (i + 4) % 24, (i * 5 + 30) % 60));
+        flight.setDuration((2 + i % 5) + "h " + (i % 2 == 0 ? "30m" : "15m"));
+        flight.setAircraft(new String(AIRCRAFT[i % AIRCRAFT.length]));
+        flight.setDate(String.format(Locale.US, "2024-%02d-%02d", 1 + i % 12, 1 + i % 28));
+        flight.setStops(new String("non-stop"));
+        flight.setEconomy(new Flight.ClassInfo(99 + i % 400, 150 - i % 150));
+        flight.setBusiness(new Flight.ClassInfo(599.5 + i % 700, i % 30));
+        flight.setFirst(new Flight.ClassInfo(1099 + i % 900, i % 12));
+        return flight;
+    }
+}
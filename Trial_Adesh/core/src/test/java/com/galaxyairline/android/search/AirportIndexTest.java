@@ -0,0 +1,101 @@
+package com.galaxyairline.android.search;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AirportIndexTest {
+    private static final String DIRECTORY = "# code,city,airport name,aliases\n"
+            + "JFK,New York,John F. Kennedy International,NYC|Manhattan\n"
+            + "EWR,Newark,Newark Liberty International,New York|NYC\n"
+            + "MIA,Miami,Miami International,\n"
+            + "LGA,New York,LaGuardia,\n"
+            + "FLL,Fort Lauderdale,Fort Lauderdale-Hollywood International,Miami\n"
+            + "GRU,S\u00e3o Paulo,S\u00e3o Paulo-Guarulhos International,Guarulhos\n"
+            + "CUN,Canc\u00fan,Canc\u00fan International,\n";
+
+    private final AirportIndex index = read(DIRECTORY);
+
+    @Test
+    public void codePrefixesMatchInAnyCase() {
+        assertEquals(Collections.singletonList("JFK"), suggest("jf"));
+        assertEquals(Collections.singletonList("JFK"), suggest("JFK"));
+        assertEquals(Collections.singletonList("GRU"), suggest("  gr  "));
+    }
+
+    @Test
+    public void cityAndNamePrefixesMatchAnyWord() {
+        assertEquals(Collections.singletonList("FLL"), suggest("lauderdale"));
+        assertEquals(Collections.singletonList("JFK"), suggest("kennedy"));
+        assertEquals(Collections.singletonList("LGA"), suggest("laguardia"));
+        assertEquals(Arrays.asList("JFK", "EWR"), suggest("nyc"));
+    }
+
+    @Test
+    public void exactCodeBeatsCityAndTiesGoToTheBusierAirport() {
+        // MIA's code matches exactly; FLL only has Miami as an alias
+        assertEquals(Arrays.asList("MIA", "FLL"), suggest("mia"));
+        // Three city-name matches, listed in traffic order
+        assertEquals(Arrays.asList("JFK", "EWR", "LGA"), suggest("new"));
+        // The city beats EWR's "New York" alias even though EWR is busier than LGA
+        assertEquals(Arrays.asList("JFK", "LGA", "EWR"), suggest("new york"));
+    }
+
+    @Test
+    public void accentsAreIgnoredOnBothSides() {
+        assertEquals(Collections.singletonList("GRU"), suggest("sao"));
+        assertEquals(Collections.singletonList("GRU"), suggest("S\u00e3o"));
+        assertEquals(Collections.singletonList("GRU"), suggest("S\u00c3O PAU"));
+        assertEquals(Collections.singletonList("CUN"), suggest("Canc\u00fan"));
+        assertEquals(Collections.singletonList("CUN"), suggest("cancun"));
+        // Input methods may send the accent as a separate combining mark
+        assertEquals(Collections.singletonList("GRU"), suggest("Sa\u0303o"));
+    }
+
+    @Test
+    public void resultsFitTheCallersBuffer() {
+        int[] one = new int[1];
+        assertEquals(1, index.suggest("new", one));
+        assertEquals("JFK", index.getCode(one[0]));
+
+        assertEquals(0, index.suggest("", new int[8]));
+        assertEquals(0, index.suggest("   ", new int[8]));
+        assertEquals(0, index.suggest("\u0303", new int[8]));
+        assertEquals(0, index.suggest("zzz", new int[8]));
+        assertEquals(0, index.suggest(null, new int[8]));
+    }
+
+    @Test
+    public void labelsAndCodeLookups() {
+        int miami = index.findCode(" mia ");
+        assertEquals("Miami (MIA)", index.getLabel(miami));
+        assertEquals("Miami International", index.getName(miami));
+        assertEquals(-1, index.findCode("XXX"));
+        assertEquals(7, index.size());
+    }
+
+    private List<String> suggest(String query) {
+        int[] out = new int[8];
+        int found = index.suggest(query, out);
+        List<String> codes = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            codes.add(index.getCode(out[i]));
+        }
+        return codes;
+    }
+
+    private static AirportIndex read(String csv) {
+        try {
+            return AirportIndex.read(new StringReader(csv));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
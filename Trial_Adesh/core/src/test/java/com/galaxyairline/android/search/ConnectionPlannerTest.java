@@ -0,0 +1,164 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.catalog.AvailabilityPatch;
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.SeatAvailability;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPlannerTest {
+    private static final String DAY = "2024-01-15";
+
+    @Test
+    public void connectionsRespectTheMinimumAndMaximumWindow() {
+        ConnectionPlanner planner = planner(
+                flight("GA100", "JFK", "ORD", DAY, "08:00", 120, 100, 9),
+                flight("GA101", "ORD", "LAX", DAY, "10:44", 240, 100, 9),
+                flight("GA102", "ORD", "LAX", DAY, "10:45", 240, 100, 9),
+                flight("GA103", "ORD", "LAX", DAY, "12:00", 240, 100, 9),
+                flight("GA104", "ORD", "LAX", DAY, "12:01", 240, 100, 9));
+
+        List<Itinerary> itineraries = planner.plan(query().connectionWindow(45, 120));
+
+        assertEquals(Arrays.asList("GA100+GA102", "GA100+GA103"), legs(itineraries));
+        assertEquals(120 + 45 + 240, itineraries.get(0).getTotalMinutes());
+        assertEquals("1-stop", itineraries.get(0).getStopsLabel());
+    }
+
+    @Test
+    public void itinerariesNeverRevisitAnAirport() {
+        ConnectionPlanner planner = planner(
+                flight("GA200", "JFK", "ORD", DAY, "06:00", 60, 50, 9),
+                flight("GA201", "ORD", "JFK", DAY, "08:00", 60, 50, 9),
+                flight("GA202", "JFK", "LAX", DAY, "10:00", 300, 400, 9),
+                flight("GA203", "ORD", "ORD", DAY, "08:00", 30, 10, 9),
+                flight("GA204", "ORD", "LAX", DAY, "09:30", 240, 200, 9));
+
+        List<Itinerary> itineraries = planner.plan(query());
+
+        assertEquals(Arrays.asList("GA202", "GA200+GA204"), legs(itineraries));
+        for (Itinerary itinerary : itineraries) {
+            Set<String> airports = new HashSet<>();
+            airports.add(itinerary.getFlights().get(0).getFromCode());
+            for (Flight leg : itinerary.getFlights()) {
+                assertTrue(leg.getToCode() + " visited twice", airports.add(leg.getToCode()));
+            }
+        }
+    }
+
+    @Test
+    public void atMostTwoConnections() {
+        ConnectionPlanner planner = planner(
+                flight("GA300", "JFK", "ORD", DAY, "06:00", 60, 50, 9),
+                flight("GA301", "ORD", "DEN", DAY, "08:00", 60, 50, 9),
+                flight("GA302", "DEN", "SEA", DAY, "10:00", 60, 50, 9),
+                flight("GA303", "SEA", "LAX", DAY, "12:00", 60, 50, 9),
+                flight("GA304", "DEN", "LAX", DAY, "10:00", 60, 50, 9));
+
+        List<Itinerary> itineraries = planner.plan(query());
+        assertEquals(Arrays.asList("GA300+GA301+GA304"), legs(itineraries));
+        assertEquals("2-stops", itineraries.get(0).getStopsLabel());
+
+        assertTrue(planner.plan(query().maxConnections(1)).isEmpty());
+        // Requests beyond two connections are clamped, so the 3-connection route stays out of reach
+        assertEquals(1, planner.plan(query().maxConnections(5)).size());
+    }
+
+    @Test
+    public void keepsOnlyTheBestResultsInOrder() {
+        ConnectionPlanner planner = planner(
+                flight("GA400", "JFK", "LAX", DAY, "07:00", 360, 500, 9),
+                flight("GA401", "JFK", "LAX", DAY, "09:00", 330, 450, 9),
+                flight("GA402", "JFK", "ORD", DAY, "06:00", 120, 80, 9),
+                flight("GA403", "ORD", "LAX", DAY, "09:00", 240, 90, 9),
+                flight("GA404", "JFK", "LAX", DAY, "12:00", 300, 700, 9));
+
+        assertEquals(Arrays.asList("GA404", "GA401", "GA400", "GA402+GA403"), legs(planner.plan(query())));
+        assertEquals(Arrays.asList("GA404", "GA401"), legs(planner.plan(query().limit(2))));
+
+        List<Itinerary> cheapest = planner.plan(query().sortBy(ConnectionPlanner.SortOrder.PRICE).limit(2));
+        assertEquals(Arrays.asList("GA402+GA403", "GA401"), legs(cheapest));
+        assertEquals(170.0, cheapest.get(0).getTotalPrice(), 0.001);
+    }
+
+    @Test
+    public void nothingToPlan() {
+        ConnectionPlanner planner = planner(
+                flight("GA500", "JFK", "ORD", DAY, "08:00", 120, 100, 9),
+                flight("GA501", "ORD", "LAX", DAY, "11:00", 240, 100, 1));
+
+        assertTrue(planner.plan(query().seats(2)).isEmpty());
+        assertTrue(planner.plan(new ConnectionPlanner.Query("JFK", "LAX", "2024-01-16")).isEmpty());
+        assertTrue(planner.plan(new ConnectionPlanner.Query("JFK", "XXX", DAY)).isEmpty());
+        assertTrue(planner.plan(new ConnectionPlanner.Query("JFK", "JFK", DAY)).isEmpty());
+        assertTrue(planner.plan(new ConnectionPlanner.Query("JFK", "LAX", "not a date")).isEmpty());
+        assertTrue(planner(new Flight[0]).plan(query()).isEmpty());
+        assertEquals(1, planner.plan(query()).size());
+    }
+
+    @Test
+    public void patchedTableSharesTheDepartureGraph() {
+        FlightTable table = FlightTable.fromFlights(Arrays.asList(
+                flight("GA700", "JFK", "LAX", DAY, "08:00", 300, 400, 9),
+                flight("GA701", "JFK", "ORD", DAY, "06:00", 60, 50, 9),
+                flight("GA702", "ORD", "LAX", DAY, "09:00", 240, 200, 0)));
+        ConnectionPlanner planner = new ConnectionPlanner(table);
+
+        ConnectionPlanner patched = planner.withTable(AvailabilityPatch.apply(table, Arrays.asList(
+                new SeatAvailability("GA700", 0, null, null),
+                new SeatAvailability("GA702", 5, null, null))));
+
+        assertEquals(Arrays.asList("GA700"), legs(planner.plan(query())));
+        assertEquals(Arrays.asList("GA701+GA702"), legs(patched.plan(query())));
+    }
+
+    private static ConnectionPlanner.Query query() {
+        return new ConnectionPlanner.Query("JFK", "LAX", DAY);
+    }
+
+    private static ConnectionPlanner planner(Flight... flights) {
+        return new ConnectionPlanner(FlightTable.fromFlights(Arrays.asList(flights)));
+    }
+
+    private static List<String> legs(List<Itinerary> itineraries) {
+        List<String> legs = new ArrayList<>(itineraries.size());
+        for (Itinerary itinerary : itineraries) {
+            StringBuilder ids = new StringBuilder();
+            for (Flight leg : itinerary.getFlights()) {
+                ids.append(ids.length() > 0 ? "+" : "").append(leg.getId());
+            }
+            legs.add(ids.toString());
+        }
+        return legs;
+    }
+
+    private static Flight flight(String id, String fromCode, String toCode, String date, String departure,
+                                 int durationMinutes, double price, int seats) {
+        int arrival = (Integer.parseInt(departure.substring(0, 2)) * 60 + Integer.parseInt(departure.substring(3))
+                + durationMinutes) % (24 * 60);
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(id);
+        flight.setFromCode(fromCode);
+        flight.setToCode(toCode);
+        flight.setFrom(fromCode);
+        flight.setTo(toCode);
+        flight.setDate(date);
+        flight.setDeparture(departure);
+        flight.setArrival(String.format(Locale.US, "%02d:%02d", arrival / 60, arrival % 60));
+        flight.setDuration(durationMinutes / 60 + "h " + durationMinutes % 60 + "m");
+        flight.setStops("non-stop");
+        flight.setEconomy(new Flight.ClassInfo(price, seats));
+        return flight;
+    }
+}
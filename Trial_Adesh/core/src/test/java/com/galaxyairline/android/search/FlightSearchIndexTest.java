@@ -0,0 +1,137 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.catalog.AvailabilityPatch;
+import com.galaxyairline.android.catalog.FlightTable;
+import com.galaxyairline.android.model.Flight;
+import com.galaxyairline.android.model.FlightSearchData;
+import com.galaxyairline.android.model.SeatAvailability;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FlightSearchIndexTest {
+    private final FlightSearchIndex index = FlightSearchIndex.build(Arrays.asList(
+            flight("GA003", "JFK", "LAX", "2024-01-15", "14:00", 120),
+            flight("GA001", "JFK", "LAX", "2024-01-15", "08:00", 120),
+            flight("GA002", "JFK", "LAX", "2024-01-16", "08:00", 120),
+            flight("GA004", "LAX", "JFK", "2024-01-15", "09:00", 120),
+            flight("GA005", "JFK", "MIA", "2024-01-15", "10:00", 1)));
+
+    @Test
+    public void routeMatchesCodesAndCitiesInAnyCase() {
+        List<String> expected = Arrays.asList("GA001", "GA003");
+
+        assertEquals(expected, ids(index.search(query("JFK", "LAX", "2024-01-15"))));
+        assertEquals(expected, ids(index.search(query("jfk", "lax", "2024-01-15"))));
+        assertEquals(expected, ids(index.search(query("new york", "LOS ANGELES", "2024-01-15"))));
+        assertEquals(expected, ids(index.search(query("New York (jfk)", "Los Angeles (LAX)", "2024-01-15"))));
+    }
+
+    @Test
+    public void dateSelectsOnlyThatDay() {
+        assertEquals(Collections.singletonList("GA002"), ids(index.search(query("JFK", "LAX", "2024-01-16"))));
+        assertEquals(Collections.singletonList("GA002"), ids(index.search(query("JFK", "LAX", " 2024-01-16 "))));
+        assertTrue(index.search(query("JFK", "LAX", "2024-01-17")).isEmpty());
+    }
+
+    @Test
+    public void missingRoutesAndCitiesFindNothing() {
+        assertTrue(index.search(query("MIA", "JFK", "2024-01-15")).isEmpty());
+        assertTrue(index.search(query("Atlantis", "LAX", "2024-01-15")).isEmpty());
+        assertTrue(index.search(query(null, "LAX", "2024-01-15")).isEmpty());
+        assertNull(index.resolveAirportCode("Atlantis"));
+        assertTrue(FlightSearchIndex.EMPTY.search(query("JFK", "LAX", "2024-01-15")).isEmpty());
+    }
+
+    @Test
+    public void seatsMustCoverEveryPassenger() {
+        FlightSearchData twoTravellers = query("JFK", "MIA", "2024-01-15");
+        twoTravellers.setPassengers(new FlightSearchData.Passengers(1, 1));
+
+        assertEquals(Collections.singletonList("GA005"), ids(index.search(query("JFK", "MIA", "2024-01-15"))));
+        assertTrue(index.search(twoTravellers).isEmpty());
+    }
+
+    @Test
+    public void duplicateIdsAreIndexedOnce() {
+        Flight first = flight("GA001", "JFK", "LAX", "2024-01-15", "08:00", 120);
+        Flight again = flight("GA001", "JFK", "LAX", "2024-01-15", "08:00", 5);
+        FlightSearchIndex withDuplicates = FlightSearchIndex.build(Arrays.asList(first, again));
+
+        List<Flight> results = withDuplicates.search(query("JFK", "LAX", "2024-01-15"));
+        assertEquals(1, results.size());
+        assertSame(first, results.get(0));
+        assertEquals(1, withDuplicates.size());
+    }
+
+    @Test
+    public void patchedSeatCountsReuseTheBuckets() {
+        List<Flight> catalog = Arrays.asList(
+                flight("GA005", "JFK", "MIA", "2024-01-15", "10:00", 1),
+                flight("GA006", "JFK", "MIA", "2024-01-15", "07:00", 4));
+        FlightTable table = FlightTable.fromFlights(catalog);
+        FlightSearchIndex before = FlightSearchIndex.build(table.asList());
+        FlightSearchData twoTravellers = query("JFK", "MIA", "2024-01-15");
+        twoTravellers.setPassengers(new FlightSearchData.Passengers(2, 0));
+
+        FlightTable patched = AvailabilityPatch.apply(table, Arrays.asList(
+                new SeatAvailability("GA005", 9, null, null),
+                new SeatAvailability("GA006", 0, null, null)));
+        FlightSearchIndex after = before.withFlights(patched.asList());
+
+        assertEquals(Collections.singletonList("GA006"), ids(before.search(twoTravellers)));
+        assertEquals(Collections.singletonList("GA005"), ids(after.search(twoTravellers)));
+        assertEquals(ids(FlightSearchIndex.build(patched.asList()).search(query("JFK", "MIA", "2024-01-15"))),
+                ids(after.search(query("JFK", "MIA", "2024-01-15"))));
+        assertEquals(before.size(), after.size());
+    }
+
+    private static FlightSearchData query(String from, String to, String date) {
+        FlightSearchData query = new FlightSearchData();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setDepartDate(date);
+        return query;
+    }
+
+    private static List<String> ids(List<Flight> flights) {
+        List<String> ids = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            ids.add(flight.getId());
+        }
+        return ids;
+    }
+
+    private static Flight flight(String id, String fromCode, String toCode, String date, String departure, int seats) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(id);
+        flight.setFromCode(fromCode);
+        flight.setToCode(toCode);
+        flight.setFrom(city(fromCode));
+        flight.setTo(city(toCode));
+        flight.setDate(date);
+        flight.setDeparture(departure);
+        flight.setArrival("23:00");
+        flight.setDuration("5h");
+        flight.setEconomy(new Flight.ClassInfo(199, seats));
+        return flight;
+    }
+
+    private static String city(String code) {
+        switch (code) {
+            case "JFK":
+                return "New York";
+            case "LAX":
+                return "Los Angeles";
+            default:
+                return "Miami";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.galaxyairline.android.search;
+
+import com.galaxyairline.android.model.Flight;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ResultOrderingTest {
+
+    @Test
+    public void sortsByPriceInTheRequestedClass() {
+        List<Flight> flights = Arrays.asList(
+                flight("A", "09:00", "3h", 300, 900, "non-stop"),
+                flight("B", "07:00", "4h", 200, 1200, "non-stop"),
+                flight("C", "11:00", "2h 30m", 250, 700, "1 stop"));
+
+        assertEquals(Arrays.asList("B", "C", "A"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.PRICE, "economy", false)));
+        assertEquals(Arrays.asList("C", "A", "B"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.PRICE, "business", false)));
+    }
+
+    @Test
+    public void sortsByDepartureAndDuration() {
+        List<Flight> flights = Arrays.asList(
+                flight("A", "09:00", "3h", 300, 900, "non-stop"),
+                flight("B", "07:00", "4h", 200, 1200, "non-stop"),
+                flight("C", "11:00", "2h 30m", 250, 700, "1 stop"));
+
+        assertEquals(Arrays.asList("B", "A", "C"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.DEPARTURE, "economy", false)));
+        assertEquals(Arrays.asList("C", "A", "B"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.DURATION, "economy", false)));
+    }
+
+    @Test
+    public void nonstopFilterDropsConnections() {
+        List<Flight> flights = Arrays.asList(
+                flight("A", "09:00", "3h", 300, 900, "non-stop"),
+                flight("B", "07:00", "4h", 200, 1200, null),
+                flight("C", "11:00", "2h 30m", 250, 700, "1 stop"));
+
+        assertEquals(Arrays.asList("B", "A"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.PRICE, "economy", true)));
+    }
+
+    @Test
+    public void unparseableKeysGoLastAndTiesKeepInputOrder() {
+        List<Flight> flights = Arrays.asList(
+                flight("A", "late", "3h", 100, 0, null),
+                flight("B", "08:00", "3h", 100, 0, null),
+                flight("C", "08:00", "3h", 100, 0, null));
+
+        assertEquals(Arrays.asList("B", "C", "A"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.DEPARTURE, "economy", false)));
+        assertEquals(Arrays.asList("A", "B", "C"), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.PRICE, "economy", false)));
+    }
+
+    @Test
+    public void matchesComparatorSortOnLargeLists() {
+        Random random = new Random(7);
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            flights.add(flight("F" + i, String.format(Locale.US, "%02d:%02d", random.nextInt(24), random.nextInt(60)),
+                    (1 + random.nextInt(12)) + "h " + random.nextInt(60) + "m", random.nextInt(2000) / 4.0, 0, null));
+        }
+
+        List<Flight> expected = new ArrayList<>(flights);
+        // Stable sort, so equal prices stay in input order as ResultOrdering promises
+        expected.sort((a, b) -> Double.compare(a.getEconomy().getPrice(), b.getEconomy().getPrice()));
+
+        assertEquals(ids(expected), ids(ResultOrdering.apply(flights, ResultOrdering.Sort.PRICE, "economy", false)));
+        assertEquals(5000, flights.size());
+    }
+
+    private static Flight flight(String id, String departure, String duration, double economy, double business, String stops) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(id);
+        flight.setDeparture(departure);
+        flight.setDuration(duration);
+        flight.setStops(stops);
+        flight.setEconomy(new Flight.ClassInfo(economy, 10));
+        flight.setBusiness(new Flight.ClassInfo(business, 10));
+        return flight;
+    }
+
+    private static List<String> ids(List<Flight> flights) {
+        List<String> ids = new ArrayList<>();
+        for (Flight flight : flights) {
+            ids.add(flight.getId());
+        }
+        return ids;
+    }
+}
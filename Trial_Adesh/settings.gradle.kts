@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Trial_Adesh"
 include(":app")
+include(":core")
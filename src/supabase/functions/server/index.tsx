@@ -22,7 +22,7 @@ app.use(
     origin: "*",
     allowHeaders: ["Content-Type", "Authorization"],
     allowMethods: ["GET", "POST", "PUT", "DELETE", "OPTIONS"],
-    exposeHeaders: ["Content-Length"],
+    exposeHeaders: ["Content-Length", "ETag", "X-Catalog-Version"],
     maxAge: 600,
   }),
 );
@@ -164,7 +164,7 @@ async function initializeData() {
       }
     ];
 
-    await kv.set('flights_data', sampleFlights);
+    await kv.set(CATALOG_KEY, { version: 1, flights: sampleFlights, changelog: [] });
     await kv.set('flights_initialized', true);
     console.log('Sample flights and users initialized');
   } catch (error) {
@@ -172,9 +172,141 @@ async function initializeData() {
   }
 }
 
+// The kv helpers only offer blind get/set. Writes that must not lose a concurrent
+// update use compareAndSet instead: it replaces the value only while its `version`
+// field is still the one the writer read (or, for null, only if the key is new).
+// Expecting version 0 matches a value stored before it had a version field.
+const KV_TABLE = 'kv_store_59e5bae9';
+const CAS_ATTEMPTS = 8;
+
+async function compareAndSet(key: string, expectedVersion: number | null, value: any) {
+  if (expectedVersion === null) {
+    const { error } = await supabase.from(KV_TABLE).insert({ key, value });
+    if (error?.code === '23505') {
+      return false; // another writer created the key first
+    }
+    if (error) {
+      throw new Error(error.message);
+    }
+    return true;
+  }
+  const query = supabase.from(KV_TABLE).update({ value }).eq('key', key);
+  const { data, error } = await (expectedVersion === 0
+    ? query.is('value->version', null)
+    : query.eq('value->>version', String(expectedVersion))).select('key');
+  if (error) {
+    throw new Error(error.message);
+  }
+  return (data || []).length === 1;
+}
+
+// The catalog is one kv value holding the flights, their version and the change log
+// for delta sync. A reader therefore always sees a version together with exactly the
+// flights it describes, and a write lands completely or not at all. Writes go through
+// updateFlights, so each one bumps the version by exactly one and none is lost.
+const CATALOG_KEY = 'flights_catalog';
+const CHANGELOG_LIMIT = 500;
+
+async function readCatalog() {
+  const stored = await kv.get(CATALOG_KEY);
+  if (stored) {
+    return {
+      stored: true, version: stored.version || 0, flights: stored.flights || [], changelog: stored.changelog || [],
+      flightSeq: stored.flightSeq || 0,
+    };
+  }
+  // Deployments from before the single key still have the three separate ones;
+  // the first write moves them into CATALOG_KEY
+  const [flights, version, changelog] = await Promise.all([
+    kv.get('flights_data'), kv.get('flights_version'), kv.get('flights_changelog'),
+  ]);
+  return { stored: false, version: version || 0, flights: flights || [], changelog: changelog || [], flightSeq: 0 };
+}
+
+// Applies `change` to the current flights and logs the ids it reports as changed.
+// `change` may run more than once if another write lands first, so it must only
+// touch the array and catalog it is given; returning null leaves the catalog untouched.
+async function updateFlights(change: (flights: any[], catalog: any) => { ids: string[], result?: any } | null) {
+  for (let attempt = 0; attempt < CAS_ATTEMPTS; attempt++) {
+    const catalog = await readCatalog();
+    const outcome = change(catalog.flights, catalog);
+    if (!outcome) {
+      return null;
+    }
+    const version = catalog.version + 1;
+    const changelog = catalog.changelog.concat(outcome.ids.map((id) => ({ version, id })));
+    const next = {
+      version, flights: catalog.flights, changelog: changelog.slice(-CHANGELOG_LIMIT), flightSeq: catalog.flightSeq,
+    };
+    if (await compareAndSet(CATALOG_KEY, catalog.stored ? catalog.version : null, next)) {
+      // Not awaited: the write has landed, sockets don't need to hold up the caller
+      broadcastAvailability();
+      return { version, result: outcome.result };
+    }
+  }
+  throw new Error('Flight catalog is changing too quickly to update');
+}
+
 // Initialize data on server start
 initializeData();
 
+// Booking event log for incremental analytics: every booking create or cancel gets
+// the next sequence number, keeping only the most recent entries. The sequence and
+// the entries share one kv value (its version is the sequence), so concurrent
+// bookings and cancels each get their own number and none is dropped.
+const BOOKING_EVENT_LIMIT = 1000;
+const BOOKING_EVENTS_KEY = 'booking_event_log';
+
+async function readBookingEvents() {
+  const stored = await kv.get(BOOKING_EVENTS_KEY);
+  if (stored) {
+    return { stored: true, seq: stored.version || 0, events: stored.events || [] };
+  }
+  // Deployments from before the single key; the first event moves them over
+  const [seq, events] = await Promise.all([kv.get('booking_events_seq'), kv.get('booking_events')]);
+  return { stored: false, seq: seq || 0, events: events || [] };
+}
+
+function toBookingEvent(booking: any, type: string, seq: number) {
+  return {
+    seq,
+    type,
+    bookingId: booking.bookingId,
+    flightId: booking.selectedFlight?.id ?? null,
+    flightNumber: booking.selectedFlight?.flightNumber ?? null,
+    classType: booking.classType ?? booking.searchData?.classType ?? 'economy',
+    seats: Array.isArray(booking.passengers) && booking.passengers.length > 0 ? booking.passengers.length : 1,
+    totalPrice: booking.totalPrice || 0,
+  };
+}
+
+async function recordBookingEvent(booking: any, type: string) {
+  for (let attempt = 0; attempt < CAS_ATTEMPTS; attempt++) {
+    const log = await readBookingEvents();
+    const seq = log.seq + 1;
+    const events = log.events.concat([toBookingEvent(booking, type, seq)]).slice(-BOOKING_EVENT_LIMIT);
+    if (await compareAndSet(BOOKING_EVENTS_KEY, log.stored ? log.seq : null, { version: seq, events })) {
+      return seq;
+    }
+  }
+  throw new Error('Booking event log is changing too quickly to append to');
+}
+
+// JSON response with a strong ETag so clients can revalidate with If-None-Match
+async function jsonWithETag(c: any, payload: any) {
+  const body = JSON.stringify(payload);
+  const digest = await crypto.subtle.digest('SHA-1', new TextEncoder().encode(body));
+  const hash = Array.from(new Uint8Array(digest)).map((b) => b.toString(16).padStart(2, '0')).join('');
+  const etag = `"${hash}"`;
+
+  c.header('ETag', etag);
+  c.header('Cache-Control', 'no-cache');
+  if (c.req.header('If-None-Match') === etag) {
+    return c.body(null, 304);
+  }
+  return c.body(body, 200, { 'Content-Type': 'application/json' });
+}
+
 // Auth routes
 app.post("/make-server-59e5bae9/signup", async (c) => {
   try {
@@ -200,21 +332,230 @@ app.post("/make-server-59e5bae9/signup", async (c) => {
   }
 });
 
+function sessionResponse(user: any, session: any) {
+  return {
+    success: true,
+    user: { id: user.id, email: user.email, name: user.user_metadata?.name, role: user.user_metadata?.role ?? (user.email === 'admin@galaxy.com' ? 'admin' : 'user') },
+    accessToken: session.access_token,
+    refreshToken: session.refresh_token,
+  };
+}
+
+app.post("/make-server-59e5bae9/login", async (c) => {
+  try {
+    const { email, password } = await c.req.json();
+    const { data, error } = await supabase.auth.signInWithPassword({ email, password });
+    if (error || !data.session) {
+      return c.json({ success: false, message: 'Invalid email or password' }, 401);
+    }
+    return c.json(sessionResponse(data.user, data.session));
+  } catch (error) {
+    console.error('Login request error:', error);
+    return c.json({ success: false, message: 'Internal server error during login' }, 500);
+  }
+});
+
+// Exchanges a refresh token for a new access token; 401 means the client must sign in again
+app.post("/make-server-59e5bae9/refresh", async (c) => {
+  try {
+    const { refreshToken } = await c.req.json();
+    if (!refreshToken) {
+      return c.json({ success: false, message: 'refreshToken is required' }, 400);
+    }
+    const { data, error } = await supabase.auth.refreshSession({ refresh_token: refreshToken });
+    if (error || !data.session || !data.user) {
+      return c.json({ success: false, message: 'Session expired' }, 401);
+    }
+    return c.json(sessionResponse(data.user, data.session));
+  } catch (error) {
+    console.error('Token refresh error:', error);
+    return c.json({ success: false, message: 'Internal server error during refresh' }, 500);
+  }
+});
+
 // Flight routes
 app.get("/make-server-59e5bae9/flights", async (c) => {
   try {
-    const flights = await kv.get('flights_data') || [];
-    return c.json({ flights });
+    // One read, so the version header always describes exactly these flights
+    const { flights, version } = await readCatalog();
+    c.header('X-Catalog-Version', String(version));
+    return jsonWithETag(c, { flights });
   } catch (error) {
     console.error('Error fetching flights:', error);
     return c.json({ error: 'Failed to fetch flights' }, 500);
   }
 });
 
+// Changes since a catalog version: latest state of every flight touched after
+// `since`, plus ids that no longer exist. Falls back to the full catalog with
+// reset=true when the cursor is older than the retained change log.
+async function changesSince(since: number) {
+  return diffCatalog(await readCatalog(), since);
+}
+
+function diffCatalog(catalog: { version: number, flights: any[], changelog: any[] }, since: number) {
+  const { flights, version, changelog } = catalog;
+
+  // Once the log has been trimmed, only cursors at or after its oldest entry are complete
+  const trimmed = changelog.length >= CHANGELOG_LIMIT;
+  const canDiff = Number.isInteger(since) && since > 0 && since <= version &&
+    (!trimmed || since >= changelog[0].version);
+  if (!canDiff) {
+    return { version, reset: true, upserts: flights, deletes: [] as string[] };
+  }
+
+  const changedIds = new Set(
+    changelog.filter((entry: any) => entry.version > since).map((entry: any) => entry.id),
+  );
+  const byId = new Map(flights.map((flight: any) => [flight.id, flight]));
+  const upserts: any[] = [];
+  const deletes: string[] = [];
+  changedIds.forEach((id) => {
+    const flight = byId.get(id);
+    if (flight) {
+      upserts.push(flight);
+    } else {
+      deletes.push(id as string);
+    }
+  });
+
+  return { version, reset: false, upserts, deletes };
+}
+
+app.get("/make-server-59e5bae9/flights/changes", async (c) => {
+  try {
+    return c.json(await changesSince(Number(c.req.query('since') || 0)));
+  } catch (error) {
+    console.error('Error fetching flight changes:', error);
+    return c.json({ error: 'Failed to fetch flight changes' }, 500);
+  }
+});
+
+// Live seat counts over a WebSocket, pushed rather than polled per socket. Each isolate
+// keeps its open sockets with their cursors and, whenever the catalog changes, reads it
+// once and sends every socket the seat counts of flights changed since its cursor.
+// Writes made in this isolate broadcast straight from updateFlights; writes from other
+// isolates arrive as a Realtime change on the catalog row. One slow poll per isolate,
+// running only while it has sockets, covers a missed notification. Clients reconnect
+// with ?since= when the platform recycles the connection.
+const AVAILABILITY_FALLBACK_POLL_MS = 30000;
+
+const availabilitySockets = new Map<WebSocket, number>();
+let availabilityChannel: any = null;
+let availabilityTimer: number | undefined;
+let broadcasting = false;
+let broadcastPending = false;
+
+function toSeatAvailability(flight: any) {
+  return {
+    id: flight.id,
+    economy: flight.economy ? flight.economy.available : null,
+    business: flight.business ? flight.business.available : null,
+    first: flight.first ? flight.first.available : null,
+  };
+}
+
+// Sockets usually share a cursor, so each distinct cursor is diffed once per catalog read
+function sendAvailability(catalog: any, diffs: Map<number, any>, socket: WebSocket, cursor: number) {
+  if (socket.readyState !== WebSocket.OPEN || cursor === catalog.version) {
+    return;
+  }
+  let message = diffs.get(cursor);
+  if (message === undefined) {
+    const changes = diffCatalog(catalog, cursor);
+    message = changes.reset || changes.upserts.length > 0
+      ? JSON.stringify({
+        type: 'availability',
+        version: changes.version,
+        reset: changes.reset,
+        flights: changes.upserts.map(toSeatAvailability),
+      })
+      : null;
+    diffs.set(cursor, message);
+  }
+  if (message) {
+    socket.send(message);
+  }
+  availabilitySockets.set(socket, catalog.version);
+}
+
+// A change that lands while a broadcast is reading the catalog gets one more round
+// afterwards rather than a second concurrent read, so catalog reads are applied in order
+// and no socket is sent the same changes twice
+async function broadcastAvailability() {
+  if (availabilitySockets.size === 0) {
+    return;
+  }
+  if (broadcasting) {
+    broadcastPending = true;
+    return;
+  }
+  broadcasting = true;
+  try {
+    do {
+      broadcastPending = false;
+      const catalog = await readCatalog();
+      const diffs = new Map<number, any>();
+      availabilitySockets.forEach((cursor, socket) => sendAvailability(catalog, diffs, socket, cursor));
+    } while (broadcastPending);
+  } catch (error) {
+    console.error('Error pushing seat availability:', error);
+  } finally {
+    broadcasting = false;
+  }
+}
+
+function watchCatalog() {
+  if (availabilityChannel) {
+    return;
+  }
+  availabilityChannel = supabase
+    .channel('availability-catalog')
+    .on('postgres_changes',
+      { event: '*', schema: 'public', table: KV_TABLE, filter: `key=eq.${CATALOG_KEY}` },
+      () => broadcastAvailability())
+    .subscribe();
+  availabilityTimer = setInterval(broadcastAvailability, AVAILABILITY_FALLBACK_POLL_MS);
+}
+
+function unwatchCatalog() {
+  if (!availabilityChannel) {
+    return;
+  }
+  supabase.removeChannel(availabilityChannel);
+  availabilityChannel = null;
+  clearInterval(availabilityTimer);
+}
+
+app.get("/make-server-59e5bae9/availability/stream", (c) => {
+  if (c.req.header('Upgrade')?.toLowerCase() !== 'websocket') {
+    return c.json({ error: 'Expected a WebSocket upgrade' }, 426);
+  }
+  const { socket, response } = Deno.upgradeWebSocket(c.req.raw);
+  const since = Number(c.req.query('since') || 0);
+
+  const remove = () => {
+    availabilitySockets.delete(socket);
+    if (availabilitySockets.size === 0) {
+      unwatchCatalog();
+    }
+  };
+  // Through the shared broadcast, so a new socket's catch-up is serialised with pushes
+  // to it; sockets already at the latest version are skipped without a diff
+  socket.onopen = () => {
+    availabilitySockets.set(socket, since);
+    watchCatalog();
+    broadcastAvailability();
+  };
+  socket.onclose = remove;
+  socket.onerror = remove;
+  return response;
+});
+
 // Get available routes (origins and destinations)
 app.get("/make-server-59e5bae9/flights/routes", async (c) => {
   try {
-    const flights = await kv.get('flights_data') || [];
+    const { flights } = await readCatalog();
     const routes: {[key: string]: string[]} = {};
     
     // Build routes map from available flights
@@ -237,7 +578,7 @@ app.get("/make-server-59e5bae9/flights/routes", async (c) => {
 app.get("/make-server-59e5bae9/flights/:id", async (c) => {
   try {
     const flightId = c.req.param('id');
-    const flights = await kv.get('flights_data') || [];
+    const { flights } = await readCatalog();
     const flight = flights.find((f: any) => f.id === flightId);
     
     if (!flight) {
@@ -251,6 +592,23 @@ app.get("/make-server-59e5bae9/flights/:id", async (c) => {
   }
 });
 
+// Moves the booking's seats out of (direction -1) or back into (+1) the flight's
+// class and logs the change, so delta sync and the availability stream pick up the
+// new count
+async function adjustSeats(booking: any, direction: number) {
+  const flightId = booking.selectedFlight?.id;
+  const classType = booking.classType ?? booking.searchData?.classType ?? 'economy';
+  const seats = Array.isArray(booking.passengers) && booking.passengers.length > 0 ? booking.passengers.length : 1;
+  await updateFlights((flights) => {
+    const flight = flights.find((f: any) => f.id === flightId);
+    if (!flight || !flight[classType]) {
+      return null;
+    }
+    flight[classType].available = Math.max(0, (flight[classType].available || 0) + direction * seats);
+    return { ids: [flightId] };
+  });
+}
+
 // Booking route (requires authentication)
 app.post("/make-server-59e5bae9/book", async (c) => {
   try {
@@ -269,7 +627,9 @@ app.post("/make-server-59e5bae9/book", async (c) => {
       bookingId,
       userId: user.id,
       bookingDate: new Date().toISOString(),
-      status: 'confirmed'
+      status: 'confirmed',
+      // Bumped on every later change, so clients know to re-fetch their cached copy
+      version: 1,
     };
 
     // Store booking
@@ -279,6 +639,8 @@ app.post("/make-server-59e5bae9/book", async (c) => {
     const userBookings = await kv.get(`user_bookings_${user.id}`) || [];
     userBookings.push(bookingId);
     await kv.set(`user_bookings_${user.id}`, userBookings);
+    await recordBookingEvent(booking, 'created');
+    await adjustSeats(booking, -1);
 
     return c.json({ booking, message: 'Booking confirmed successfully' });
   } catch (error) {
@@ -304,11 +666,67 @@ app.get("/make-server-59e5bae9/booking/:id", async (c) => {
   }
 });
 
+// Records a booking's new version in its owner's version map, which is what
+// /user-bookings/ids reports, so clients re-fetch their cached copy
+async function bumpBookingVersion(userId: string, bookingId: string, version: number) {
+  const key = `booking_versions_${userId}`;
+  for (let attempt = 0; attempt < CAS_ATTEMPTS; attempt++) {
+    const stored = await kv.get(key);
+    const next = { version: (stored?.version || 0) + 1, bookings: { ...(stored?.bookings || {}), [bookingId]: version } };
+    if (await compareAndSet(key, stored ? stored.version || 0 : null, next)) {
+      return;
+    }
+  }
+  throw new Error('Booking versions are changing too quickly to update');
+}
+
+// Cancel one of the signed-in user's bookings. The status change is a
+// compare-and-set on the booking, so of two concurrent cancels only one logs the
+// 'cancelled' event and hands the seats back; the other just gets the result.
+app.post("/make-server-59e5bae9/bookings/:id/cancel", async (c) => {
+  try {
+    const user = await getAuthenticatedUser(c);
+    if (!user) {
+      return c.json({ error: 'Unauthorized' }, 401);
+    }
+
+    const bookingId = c.req.param('id');
+    const key = `booking_${bookingId}`;
+    for (let attempt = 0; attempt < CAS_ATTEMPTS; attempt++) {
+      const booking = await kv.get(key);
+      if (!booking || booking.userId !== user.id) {
+        return c.json({ error: 'Booking not found' }, 404);
+      }
+      if (booking.status === 'cancelled') {
+        return c.json({ booking, message: 'Booking already cancelled' });
+      }
+
+      // Bookings from before versioning are reported as version 1
+      const cancelled = {
+        ...booking,
+        status: 'cancelled',
+        cancelledAt: new Date().toISOString(),
+        version: (booking.version || 1) + 1,
+      };
+      if (await compareAndSet(key, booking.version || 0, cancelled)) {
+        await bumpBookingVersion(user.id, bookingId, cancelled.version);
+        await recordBookingEvent(cancelled, 'cancelled');
+        await adjustSeats(cancelled, 1);
+        return c.json({ booking: cancelled, message: 'Booking cancelled' });
+      }
+    }
+    return c.json({ error: 'Booking is changing too quickly to cancel' }, 409);
+  } catch (error) {
+    console.error('Error cancelling booking:', error);
+    return c.json({ error: 'Failed to cancel booking' }, 500);
+  }
+});
+
 // Search flights with filters
 app.post("/make-server-59e5bae9/search-flights", async (c) => {
   try {
     const { from, to, departDate, returnDate, passengers, classType } = await c.req.json();
-    const flights = await kv.get('flights_data') || [];
+    const { flights } = await readCatalog();
     
     // Filter flights based on search criteria
     let filteredFlights = flights.filter((flight: any) => {
@@ -332,24 +750,34 @@ app.post("/make-server-59e5bae9/search-flights", async (c) => {
 });
 
 // Get user bookings
+// Bookings by id in one kv round trip. kv.mget returns values in no particular
+// order and skips missing keys, so results are matched back up by bookingId.
+async function getBookings(bookingIds: string[]) {
+  if (bookingIds.length === 0) {
+    return [];
+  }
+  const found = await kv.mget(bookingIds.map((id) => `booking_${id}`));
+  const byId = new Map(found.filter(Boolean).map((booking: any) => [booking.bookingId, booking]));
+  return bookingIds.map((id) => byId.get(id)).filter(Boolean);
+}
+
+async function getAuthenticatedUser(c: any) {
+  const accessToken = c.req.header('Authorization')?.split(' ')[1];
+  const { data: { user }, error: authError } = await supabase.auth.getUser(accessToken);
+  return authError ? null : user;
+}
+
+const BOOKING_BATCH_LIMIT = 200;
+
 app.get("/make-server-59e5bae9/user-bookings", async (c) => {
   try {
-    const accessToken = c.req.header('Authorization')?.split(' ')[1];
-    const { data: { user }, error: authError } = await supabase.auth.getUser(accessToken);
-    
-    if (authError || !user) {
+    const user = await getAuthenticatedUser(c);
+    if (!user) {
       return c.json({ error: 'Unauthorized' }, 401);
     }
 
     const userBookings = await kv.get(`user_bookings_${user.id}`) || [];
-    const bookings = [];
-    
-    for (const bookingId of userBookings) {
-      const booking = await kv.get(`booking_${bookingId}`);
-      if (booking) {
-        bookings.push(booking);
-      }
-    }
+    const bookings = await getBookings(userBookings);
     
     return c.json({ bookings });
   } catch (error) {
@@ -358,33 +786,121 @@ app.get("/make-server-59e5bae9/user-bookings", async (c) => {
   }
 });
 
+// The user's booking ids with each booking's version, so clients fetch only bookings
+// they haven't cached or whose cached copy is older. Versions live in one small
+// per-user map (booking_versions_<user>), so this never reads the bookings themselves;
+// bookings that have never changed aren't in it and are at version 1.
+app.get("/make-server-59e5bae9/user-bookings/ids", async (c) => {
+  try {
+    const user = await getAuthenticatedUser(c);
+    if (!user) {
+      return c.json({ error: 'Unauthorized' }, 401);
+    }
+
+    const [storedIds, storedVersions] = await Promise.all([
+      kv.get(`user_bookings_${user.id}`), kv.get(`booking_versions_${user.id}`),
+    ]);
+    const ids: string[] = storedIds || [];
+    const changed = storedVersions?.bookings || {};
+    const versions = Object.fromEntries(ids.map((id) => [id, changed[id] || 1]));
+    return c.json({ ids, versions });
+  } catch (error) {
+    console.error('Error fetching user booking ids:', error);
+    return c.json({ error: 'Failed to fetch booking ids' }, 500);
+  }
+});
+
+// Batched lookup of the caller's own bookings: { ids: [...] } -> { bookings: [...] }
+app.post("/make-server-59e5bae9/bookings/batch", async (c) => {
+  try {
+    const user = await getAuthenticatedUser(c);
+    if (!user) {
+      return c.json({ error: 'Unauthorized' }, 401);
+    }
+
+    const { ids } = await c.req.json();
+    if (!Array.isArray(ids) || ids.length > BOOKING_BATCH_LIMIT) {
+      return c.json({ error: `ids must be an array of at most ${BOOKING_BATCH_LIMIT} booking ids` }, 400);
+    }
+
+    const bookings = (await getBookings(ids)).filter((booking: any) => booking.userId === user.id);
+    return c.json({ bookings });
+  } catch (error) {
+    console.error('Error fetching booking batch:', error);
+    return c.json({ error: 'Failed to fetch bookings' }, 500);
+  }
+});
+
 // Admin routes (require admin access)
 const requireAdmin = async (c: any, next: any) => {
   const accessToken = c.req.header('Authorization')?.split(' ')[1];
   const { data: { user }, error } = await supabase.auth.getUser(accessToken);
   
-  if (error || !user || user.email !== 'admin@galaxy.com') {
+  // 401 for a missing or expired token so clients know to refresh it; 403 for a valid non-admin
+  if (error || !user) {
+    return c.json({ error: 'Unauthorized' }, 401);
+  }
+  if (user.email !== 'admin@galaxy.com') {
     return c.json({ error: 'Admin access required' }, 403);
   }
   
   await next();
 };
 
-// Add new flight (admin only)
+// Booking events after sequence `since`. A cursor the log can no longer serve gets
+// reset: true and a 'created' event for every live booking instead.
+app.get("/make-server-59e5bae9/admin/booking-events", requireAdmin, async (c) => {
+  try {
+    const since = Number(c.req.query('since') || 0);
+    const { seq, events: log } = await readBookingEvents();
+
+    const trimmed = log.length >= BOOKING_EVENT_LIMIT;
+    const canDiff = Number.isInteger(since) && since > 0 && since <= seq &&
+      (!trimmed || since >= log[0].seq);
+    if (!canDiff) {
+      const bookings = await kv.getByPrefix('booking_');
+      const events = bookings
+        .filter((booking: any) => booking && booking.bookingId && booking.status !== 'cancelled')
+        .map((booking: any) => toBookingEvent(booking, 'created', seq));
+      return c.json({ seq, reset: true, events });
+    }
+
+    return c.json({ seq, reset: false, events: log.filter((event: any) => event.seq > since) });
+  } catch (error) {
+    console.error('Error fetching booking events:', error);
+    return c.json({ error: 'Failed to fetch booking events' }, 500);
+  }
+});
+
+// Highest number among "GA<n>" ids, for catalogs written before flightSeq was kept
+function highestFlightSeq(flights: any[]) {
+  let highest = 0;
+  for (const flight of flights) {
+    const match = /^GA(\d+)$/.exec(flight.id || '');
+    if (match) {
+      highest = Math.max(highest, Number(match[1]));
+    }
+  }
+  return highest;
+}
+
+// Add new flight (admin only). Ids come from a counter kept in the catalog value, so
+// it moves under the same compare-and-set as the flights and never hands out the id
+// of a deleted flight, which bookings and the change log may still refer to.
 app.post("/make-server-59e5bae9/admin/flights", requireAdmin, async (c) => {
   try {
     const flightData = await c.req.json();
-    const flights = await kv.get('flights_data') || [];
-    
-    const newFlight = {
-      ...flightData,
-      id: `GA${String(flights.length + 1).padStart(3, '0')}`,
-    };
-    
-    flights.push(newFlight);
-    await kv.set('flights_data', flights);
+    const added = await updateFlights((flights, catalog) => {
+      catalog.flightSeq = Math.max(catalog.flightSeq, highestFlightSeq(flights)) + 1;
+      const flight = {
+        ...flightData,
+        id: `GA${String(catalog.flightSeq).padStart(3, '0')}`,
+      };
+      flights.push(flight);
+      return { ids: [flight.id], result: flight };
+    });
     
-    return c.json({ flight: newFlight, message: 'Flight added successfully' });
+    return c.json({ flight: added?.result, message: 'Flight added successfully' });
   } catch (error) {
     console.error('Error adding flight:', error);
     return c.json({ error: 'Failed to add flight' }, 500);
@@ -396,27 +912,52 @@ app.put("/make-server-59e5bae9/admin/flights/:id", requireAdmin, async (c) => {
   try {
     const flightId = c.req.param('id');
     const updateData = await c.req.json();
-    const flights = await kv.get('flights_data') || [];
-    
-    const flightIndex = flights.findIndex((f: any) => f.id === flightId);
-    if (flightIndex === -1) {
+    const updated = await updateFlights((flights) => {
+      const flightIndex = flights.findIndex((f: any) => f.id === flightId);
+      if (flightIndex === -1) {
+        return null;
+      }
+      flights[flightIndex] = { ...flights[flightIndex], ...updateData, id: flightId };
+      return { ids: [flightId], result: flights[flightIndex] };
+    });
+    if (!updated) {
       return c.json({ error: 'Flight not found' }, 404);
     }
     
-    flights[flightIndex] = { ...flights[flightIndex], ...updateData };
-    await kv.set('flights_data', flights);
-    
-    return c.json({ flight: flights[flightIndex], message: 'Flight updated successfully' });
+    return c.json({ flight: updated.result, message: 'Flight updated successfully' });
   } catch (error) {
     console.error('Error updating flight:', error);
     return c.json({ error: 'Failed to update flight' }, 500);
   }
 });
 
+// Delete flight (admin only)
+app.delete("/make-server-59e5bae9/admin/flights/:id", requireAdmin, async (c) => {
+  try {
+    const flightId = c.req.param('id');
+    const deleted = await updateFlights((flights) => {
+      const flightIndex = flights.findIndex((f: any) => f.id === flightId);
+      if (flightIndex === -1) {
+        return null;
+      }
+      flights.splice(flightIndex, 1);
+      return { ids: [flightId] };
+    });
+    if (!deleted) {
+      return c.json({ error: 'Flight not found' }, 404);
+    }
+    
+    return c.json({ message: 'Flight deleted successfully' });
+  } catch (error) {
+    console.error('Error deleting flight:', error);
+    return c.json({ error: 'Failed to delete flight' }, 500);
+  }
+});
+
 // Get admin analytics
 app.get("/make-server-59e5bae9/admin/analytics", requireAdmin, async (c) => {
   try {
-    const flights = await kv.get('flights_data') || [];
+    const { flights } = await readCatalog();
     const allBookingKeys = await kv.getByPrefix('booking_');
     
     let totalRevenue = 0;
@@ -442,7 +983,7 @@ app.get("/make-server-59e5bae9/admin/analytics", requireAdmin, async (c) => {
       };
     });
     
-    return c.json({
+    return jsonWithETag(c, {
       totalRevenue,
       totalBookings,
       classRevenue,